@@ -0,0 +1,163 @@
+package org.smauel.benchmarks.baseline;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a JMH report against a stored baseline report, flagging benchmarks whose score or allocation per operation
+ * got worse by more than a relative threshold.
+ *
+ * <p>A score only counts as changed if it also moved by more than the combined confidence intervals of both runs, so
+ * noisy benchmarks do not fail the comparison. Allocation is deterministic enough to compare without an interval, but
+ * changes of less than {@value #ALLOCATION_TOLERANCE_BYTES} bytes per operation are ignored as padding and alignment
+ * noise.
+ */
+public final class BaselineComparison {
+    static final double ALLOCATION_TOLERANCE_BYTES = 16;
+
+    private BaselineComparison() {}
+
+    /**
+     * How a benchmark compares to its baseline
+     */
+    public enum Verdict {
+        REGRESSED,
+        IMPROVED,
+        UNCHANGED,
+        NEW,
+        REMOVED
+    }
+
+    /**
+     * @param key The benchmark's short name and parameters
+     * @param baseline The baseline result, null for a new benchmark
+     * @param current The current result, null for a removed benchmark
+     * @param verdict How the current result compares to the baseline
+     */
+    public record Difference(String key, BenchmarkScore baseline, BenchmarkScore current, Verdict verdict) {}
+
+    /**
+     * Compare every benchmark in the current report to the same benchmark, with the same parameters, in the baseline
+     *
+     * @param baseline The baseline results
+     * @param current The current results
+     * @param threshold The relative change, e.g. 0.1 for 10%, beyond which a score or allocation counts as changed
+     * @return The comparison of every benchmark in either report, current benchmarks first
+     */
+    public static List<Difference> compare(
+            List<BenchmarkScore> baseline, List<BenchmarkScore> current, double threshold) {
+        Map<String, BenchmarkScore> baselineByKey = baseline.stream()
+                .collect(Collectors.toMap(BenchmarkScore::key, Function.identity(), (a, b) -> b, LinkedHashMap::new));
+        List<Difference> differences = new ArrayList<>();
+        for (BenchmarkScore score : current) {
+            BenchmarkScore before = baselineByKey.remove(score.key());
+            differences.add(new Difference(
+                    score.key(), before, score, before == null ? Verdict.NEW : verdict(before, score, threshold)));
+        }
+        baselineByKey
+                .values()
+                .forEach(before -> differences.add(new Difference(before.key(), before, null, Verdict.REMOVED)));
+        return differences;
+    }
+
+    /**
+     * Compare a JMH report to a baseline and print the comparison, exiting with status 1 if any benchmark regressed.
+     * Does nothing if there is no baseline yet.
+     *
+     * @param args The baseline report, the current report and optionally the threshold, 0.1 by default
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [threshold]");
+            System.exit(2);
+        }
+        Path baseline = Path.of(args[0]);
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline + ", copy " + args[1] + " there to record one");
+            return;
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        List<Difference> differences =
+                compare(BenchmarkScore.read(baseline), BenchmarkScore.read(Path.of(args[1])), threshold);
+        differences.forEach(difference -> System.out.println(format(difference)));
+        long regressed = differences.stream()
+                .filter(difference -> difference.verdict() == Verdict.REGRESSED)
+                .count();
+        if (regressed > 0) {
+            System.out.printf(
+                    Locale.ROOT,
+                    "%d of %d benchmarks regressed by more than %.0f%%%n",
+                    regressed,
+                    differences.size(),
+                    threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Verdict verdict(BenchmarkScore before, BenchmarkScore after, double threshold) {
+        int score = scoreChange(before, after, threshold);
+        int allocation = allocationChange(before, after, threshold);
+        if (score < 0 || allocation < 0) {
+            return Verdict.REGRESSED;
+        }
+        if (score > 0 || allocation > 0) {
+            return Verdict.IMPROVED;
+        }
+        return Verdict.UNCHANGED;
+    }
+
+    /**
+     * @return 1 if the score got better, -1 if it got worse, 0 if it changed by no more than the threshold or the
+     *     confidence intervals
+     */
+    private static int scoreChange(BenchmarkScore before, BenchmarkScore after, double threshold) {
+        double delta = after.score() - before.score();
+        if (Math.abs(delta) <= before.error() + after.error() || Math.abs(delta) <= threshold * before.score()) {
+            return 0;
+        }
+        return (delta > 0) == before.higherIsBetter() ? 1 : -1;
+    }
+
+    /**
+     * @return 1 if less is allocated per operation, -1 if more is, 0 if it changed by no more than the threshold or was
+     *     not measured in both runs
+     */
+    private static int allocationChange(BenchmarkScore before, BenchmarkScore after, double threshold) {
+        if (before.allocatedBytes() == null || after.allocatedBytes() == null) {
+            return 0;
+        }
+        double delta = after.allocatedBytes() - before.allocatedBytes();
+        if (Math.abs(delta) <= ALLOCATION_TOLERANCE_BYTES || Math.abs(delta) <= threshold * before.allocatedBytes()) {
+            return 0;
+        }
+        return delta < 0 ? 1 : -1;
+    }
+
+    private static String format(Difference difference) {
+        StringBuilder line =
+                new StringBuilder(String.format(Locale.ROOT, "%-10s %s", difference.verdict(), difference.key()));
+        if (difference.baseline() != null && difference.current() != null) {
+            BenchmarkScore before = difference.baseline();
+            BenchmarkScore after = difference.current();
+            line.append(String.format(
+                    Locale.ROOT,
+                    ": %.3f -> %.3f %s (%+.1f%%)",
+                    before.score(),
+                    after.score(),
+                    after.unit(),
+                    100 * (after.score() - before.score()) / before.score()));
+            if (before.allocatedBytes() != null && after.allocatedBytes() != null) {
+                line.append(String.format(
+                        Locale.ROOT, ", %.0f -> %.0f B/op", before.allocatedBytes(), after.allocatedBytes()));
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package org.smauel.benchmarks.baseline;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The result of one benchmark with one set of parameters, read from a JMH JSON report
+ *
+ * @param key The benchmark's short name and parameters, identifying it across reports
+ * @param mode The JMH mode, {@code thrpt} scores are better when higher, every other mode when lower
+ * @param score The primary score
+ * @param error The half width of the primary score's confidence interval, 0 when there were too few samples
+ * @param unit The unit of the primary score
+ * @param allocatedBytes The bytes allocated per operation, or null if the report was run without the gc profiler
+ */
+public record BenchmarkScore(String key, String mode, double score, double error, String unit, Double allocatedBytes) {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    /**
+     * @return Whether a higher score is better
+     */
+    public boolean higherIsBetter() {
+        return "thrpt".equals(mode);
+    }
+
+    /**
+     * Read every result from a JMH report written with {@code -rf json}
+     *
+     * @param report The report
+     * @return The results, in report order
+     */
+    public static List<BenchmarkScore> read(Path report) {
+        List<BenchmarkScore> scores = new ArrayList<>();
+        for (JsonNode result : JSON.readTree(report)) {
+            JsonNode primary = result.path("primaryMetric");
+            scores.add(new BenchmarkScore(
+                    key(result),
+                    result.path("mode").asString(),
+                    primary.path("score").asDouble(),
+                    errorOf(primary),
+                    primary.path("scoreUnit").asString(),
+                    allocatedBytes(result.path("secondaryMetrics"))));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        String benchmark = result.path("benchmark").asString();
+        // Drop the package so reports stay comparable if benchmarks move between packages
+        int method = benchmark.lastIndexOf('.');
+        String name = benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        result.path("params")
+                .properties()
+                .forEach(param -> params.put(param.getKey(), param.getValue().asString()));
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static Double allocatedBytes(JsonNode secondaryMetrics) {
+        for (Map.Entry<String, JsonNode> metric : secondaryMetrics.properties()) {
+            // Older JMH versions prefix profiler metrics with a middle dot
+            if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package org.smauel.benchmarks.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Inserts rows through a single prepared statement, executing and committing a JDBC batch every {@code batchSize}
+ * rows. The connection must not be in auto-commit mode.
+ */
+final class BatchInserter implements AutoCloseable {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long inserted;
+
+    BatchInserter(Connection connection, String sql, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.statement = connection.prepareStatement(sql);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return The largest id in the table, or 0 if it is empty
+     */
+    static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    void add(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * @return The number of rows added, all of which are inserted once the inserter is closed
+     */
+    long added() {
+        return inserted + pending;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        statement.executeBatch();
+        connection.commit();
+        inserted += pending;
+        pending = 0;
+    }
+}
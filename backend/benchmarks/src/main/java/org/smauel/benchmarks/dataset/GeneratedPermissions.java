@@ -0,0 +1,29 @@
+package org.smauel.benchmarks.dataset;
+
+import java.util.List;
+
+/**
+ * What a {@link PermissionsDataGenerator} wrote, for picking the arguments of queries against it
+ *
+ * @param users The number of users, whose ids run from 1
+ * @param powerUserIds The ids of the power users
+ * @param permissionIds The ids of the generated permissions
+ * @param permissionNames The names of the generated permissions, in the same order as their ids
+ * @param roleIds The ids of the generated roles
+ * @param roleNames The names of the generated roles, in the same order as their ids
+ * @param deepRoleIds The ids of the roles with a deep fan-out
+ * @param resources The resources permissions are spread over
+ * @param rolePermissions The number of role permissions written
+ * @param assignments The number of role assignments written
+ */
+public record GeneratedPermissions(
+        int users,
+        List<Long> powerUserIds,
+        List<Long> permissionIds,
+        List<String> permissionNames,
+        List<Long> roleIds,
+        List<String> roleNames,
+        List<Long> deepRoleIds,
+        List<String> resources,
+        long rolePermissions,
+        long assignments) {}
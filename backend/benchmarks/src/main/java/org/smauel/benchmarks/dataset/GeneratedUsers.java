@@ -0,0 +1,12 @@
+package org.smauel.benchmarks.dataset;
+
+import java.util.List;
+
+/**
+ * What a {@link UsersDataGenerator} wrote, for picking the arguments of queries against it
+ *
+ * @param firstId The id of the first generated user, the ids of the rest follow without gaps
+ * @param users The number of users
+ * @param usernames The usernames of a sample of the generated users, spread evenly over their ids
+ */
+public record GeneratedUsers(long firstId, int users, List<String> usernames) {}
@@ -0,0 +1,248 @@
+package org.smauel.benchmarks.dataset;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.permissions.engine.AuthorizationEngine;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.readmodel.EffectivePermissionMaintenance;
+import org.smauel.persistence.id.SequenceAligner;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Generates a large, skewed permissions-api dataset with batched JDBC inserts, bypassing JPA.
+ *
+ * <p>Regular users pick a few roles with a Zipf skew, so a handful of roles are granted to most users, while power
+ * users hold hundreds of roles each. Most roles hold a few permissions and a small fraction a deep fan-out of hundreds.
+ * Some assignments expire, about half of them in the past. Ids continue after the largest id already in each table, so
+ * the generator can run against a db seeded by {@code DataInitializer}, and every random choice is drawn from a single
+ * seeded generator, so the same spec always writes the same rows, with timestamps relative to when it runs.
+ *
+ * <p>Only the source tables are written. {@link #load} also brings the id sequences, the effective permissions read
+ * model and the authorization engine of a running permissions-api up to date.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PermissionsDataGenerator {
+    private static final String INSERT_PERMISSION = "INSERT INTO permissions "
+            + "(id, name, description, type, resource, action, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ROLE =
+            "INSERT INTO roles (id, name, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ROLE_PERMISSION =
+            "INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)";
+    private static final String INSERT_ASSIGNMENT = "INSERT INTO user_role_assignments "
+            + "(id, user_id, role_id, assigned_at, assigned_by, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+
+    private final DataSource dataSource;
+
+    /**
+     * Generate a dataset into a running permissions-api, then align its id sequences, rebuild its effective
+     * permissions read model and reload its authorization engine
+     *
+     * @param context The permissions-api context
+     * @param spec The shape of the dataset
+     * @return What was generated
+     * @throws SQLException if an insert fails
+     */
+    public static GeneratedPermissions load(ApplicationContext context, PermissionsDatasetSpec spec)
+            throws SQLException {
+        GeneratedPermissions generated = new PermissionsDataGenerator(context.getBean(DataSource.class)).generate(spec);
+        context.getBean(SequenceAligner.class).realign();
+        context.getBean(EffectivePermissionMaintenance.class).rebuild();
+        context.getBean(AuthorizationEngine.class).refresh();
+        return generated;
+    }
+
+    /**
+     * Write a dataset to the source tables
+     *
+     * @param spec The shape of the dataset
+     * @return What was generated
+     * @throws SQLException if an insert fails
+     */
+    public GeneratedPermissions generate(PermissionsDatasetSpec spec) throws SQLException {
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long permissionBase = BatchInserter.maxId(connection, "permissions");
+                long roleBase = BatchInserter.maxId(connection, "roles");
+                long assignmentBase = BatchInserter.maxId(connection, "user_role_assignments");
+
+                List<Long> permissionIds = new ArrayList<>(spec.getPermissions());
+                List<String> permissionNames = new ArrayList<>(spec.getPermissions());
+                List<String> resources = IntStream.range(0, spec.getResources())
+                        .mapToObj(i -> "resource-" + i)
+                        .toList();
+                PermissionType[] types = PermissionType.values();
+                Action[] actions = Action.values();
+                try (BatchInserter permissions =
+                        new BatchInserter(connection, INSERT_PERMISSION, spec.getBatchSize())) {
+                    for (int i = 0; i < spec.getPermissions(); i++) {
+                        long id = permissionBase + 1 + i;
+                        String name = "generated-permission-" + id;
+                        permissions.add(
+                                id,
+                                name,
+                                "Generated permission " + id,
+                                types[i % types.length].name(),
+                                resources.get(i % resources.size()),
+                                actions[random.nextInt(actions.length)].name(),
+                                now,
+                                now);
+                        permissionIds.add(id);
+                        permissionNames.add(name);
+                    }
+                }
+
+                List<Long> roleIds = new ArrayList<>(spec.getRoles());
+                List<String> roleNames = new ArrayList<>(spec.getRoles());
+                List<Long> deepRoleIds = new ArrayList<>();
+                try (BatchInserter roles = new BatchInserter(connection, INSERT_ROLE, spec.getBatchSize())) {
+                    for (int i = 0; i < spec.getRoles(); i++) {
+                        long id = roleBase + 1 + i;
+                        String name = "generated-role-" + id;
+                        roles.add(id, name, "Generated role " + id, now, now);
+                        roleIds.add(id);
+                        roleNames.add(name);
+                        if (random.nextDouble() < spec.getDeepRoleRatio()) {
+                            deepRoleIds.add(id);
+                        }
+                    }
+                }
+
+                long rolePermissionCount;
+                try (BatchInserter rolePermissions =
+                        new BatchInserter(connection, INSERT_ROLE_PERMISSION, spec.getBatchSize())) {
+                    int[] permissionIndexes =
+                            IntStream.range(0, spec.getPermissions()).toArray();
+                    for (long roleId : roleIds) {
+                        int count = deepRoleIds.contains(roleId)
+                                ? spec.getDeepRolePermissions()
+                                : 1 + random.nextInt(2 * spec.getPermissionsPerRole() - 1);
+                        int picked = shuffleFirst(random, permissionIndexes, count);
+                        for (int p = 0; p < picked; p++) {
+                            rolePermissions.add(roleId, permissionIds.get(permissionIndexes[p]));
+                        }
+                    }
+                    rolePermissionCount = rolePermissions.added();
+                }
+
+                List<Long> powerUserIds = new ArrayList<>();
+                long assignmentCount;
+                try (BatchInserter assignments =
+                        new BatchInserter(connection, INSERT_ASSIGNMENT, spec.getBatchSize())) {
+                    int[] roleIndexes = IntStream.range(0, spec.getRoles()).toArray();
+                    int[] picked = new int[spec.getRoles()];
+                    ZipfSampler popularity = new ZipfSampler(spec.getRoles(), spec.getRoleSkew());
+                    long assignmentId = assignmentBase;
+                    for (long userId = 1; userId <= spec.getUsers(); userId++) {
+                        boolean power = random.nextDouble() < spec.getPowerUserRatio();
+                        if (power) {
+                            powerUserIds.add(userId);
+                        }
+                        int count =
+                                power ? spec.getPowerUserRoles() : 1 + random.nextInt(2 * spec.getRolesPerUser() - 1);
+                        int roleCount = pickRoles(random, popularity, roleIndexes, picked, count);
+                        for (int r = 0; r < roleCount; r++) {
+                            assignments.add(
+                                    ++assignmentId,
+                                    userId,
+                                    roleIds.get(picked[r]),
+                                    now.minusMinutes(random.nextInt(3 * MINUTES_PER_YEAR)),
+                                    1L,
+                                    expiry(random, spec, now));
+                        }
+                    }
+                    assignmentCount = assignments.added();
+                }
+
+                log.info(
+                        "Generated {} permissions, {} roles, {} role permissions and {} assignments for {} users in {} ms",
+                        permissionIds.size(),
+                        roleIds.size(),
+                        rolePermissionCount,
+                        assignmentCount,
+                        spec.getUsers(),
+                        (System.nanoTime() - started) / 1_000_000);
+                return new GeneratedPermissions(
+                        spec.getUsers(),
+                        powerUserIds,
+                        permissionIds,
+                        permissionNames,
+                        roleIds,
+                        roleNames,
+                        deepRoleIds,
+                        resources,
+                        rolePermissionCount,
+                        assignmentCount);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Pick distinct roles for one user, by popularity for a few roles and uniformly for many
+     *
+     * @return The number of roles picked, their indexes are the first entries of {@code picked}
+     */
+    private static int pickRoles(
+            SplittableRandom random, ZipfSampler popularity, int[] roleIndexes, int[] picked, int count) {
+        int wanted = Math.min(count, roleIndexes.length);
+        if (wanted > roleIndexes.length / 4) {
+            shuffleFirst(random, roleIndexes, wanted);
+            System.arraycopy(roleIndexes, 0, picked, 0, wanted);
+            return wanted;
+        }
+        int found = 0;
+        while (found < wanted) {
+            int candidate = popularity.next(random);
+            boolean duplicate = false;
+            for (int i = 0; i < found && !duplicate; i++) {
+                duplicate = picked[i] == candidate;
+            }
+            if (!duplicate) {
+                picked[found++] = candidate;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Move a uniformly random selection of distinct entries to the front of the array, a partial Fisher-Yates shuffle
+     *
+     * @return The number of entries selected
+     */
+    private static int shuffleFirst(SplittableRandom random, int[] values, int count) {
+        int selected = Math.min(count, values.length);
+        for (int i = 0; i < selected; i++) {
+            int j = i + random.nextInt(values.length - i);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return selected;
+    }
+
+    private static LocalDateTime expiry(SplittableRandom random, PermissionsDatasetSpec spec, LocalDateTime now) {
+        if (random.nextDouble() >= spec.getExpiringRatio()) {
+            return null;
+        }
+        int minutes = 1 + random.nextInt(MINUTES_PER_YEAR);
+        return random.nextDouble() < spec.getExpiredRatio() ? now.minusMinutes(minutes) : now.plusMinutes(minutes);
+    }
+}
@@ -0,0 +1,67 @@
+package org.smauel.benchmarks.dataset;
+
+import lombok.Data;
+
+/**
+ * The shape of a generated permissions-api dataset. Bound from {@code dataset.permissions.*} by the query suite.
+ */
+@Data
+public class PermissionsDatasetSpec {
+    /**
+     * Seed of every random choice, the same seed and spec always generate the same rows
+     */
+    private long seed = 42;
+
+    private int users = 100_000;
+    private int roles = 500;
+    private int permissions = 2_000;
+
+    /**
+     * Number of distinct resources permissions are spread over
+     */
+    private int resources = 50;
+
+    /**
+     * Average number of roles of a regular user, drawn uniformly from 1 to twice this less one
+     */
+    private int rolesPerUser = 3;
+
+    /**
+     * Zipf exponent of how regular users pick roles, 0 for uniform, higher for a few very common roles
+     */
+    private double roleSkew = 1.0;
+
+    /**
+     * Fraction of users that are power users, holding {@link #powerUserRoles} roles each
+     */
+    private double powerUserRatio = 0.001;
+
+    private int powerUserRoles = 200;
+
+    /**
+     * Average number of permissions of a regular role, drawn uniformly from 1 to twice this less one
+     */
+    private int permissionsPerRole = 10;
+
+    /**
+     * Fraction of roles with a deep fan-out of {@link #deepRolePermissions} permissions each
+     */
+    private double deepRoleRatio = 0.01;
+
+    private int deepRolePermissions = 500;
+
+    /**
+     * Fraction of assignments with an expiry
+     */
+    private double expiringRatio = 0.2;
+
+    /**
+     * Fraction of expiring assignments that have already expired
+     */
+    private double expiredRatio = 0.5;
+
+    /**
+     * Rows per JDBC batch and transaction
+     */
+    private int batchSize = 5_000;
+}
@@ -0,0 +1,134 @@
+package org.smauel.benchmarks.dataset;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.persistence.id.SequenceAligner;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Generates a large users-api dataset with batched JDBC inserts, bypassing JPA.
+ *
+ * <p>Names are drawn from small pools with a Zipf skew, so a few names are shared by many users the way common names
+ * are, and usernames are made unique by a numeric suffix. Ids continue after the largest id already in the table, and
+ * every random choice is drawn from a single seeded generator, so the same spec always writes the same rows.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UsersDataGenerator {
+    private static final String INSERT_USER = "INSERT INTO users (id, username, full_name, email) VALUES (?, ?, ?, ?)";
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth", "David",
+        "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen", "Daniel", "Nancy",
+        "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Margaret", "Donald", "Sandra", "Steven", "Ashley", "Paul",
+        "Kimberly", "Andrew", "Emily", "Joshua", "Donna", "Kenneth", "Michelle"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith",
+        "Johnson",
+        "Williams",
+        "Brown",
+        "Jones",
+        "Garcia",
+        "Miller",
+        "Davis",
+        "Rodriguez",
+        "Martinez",
+        "Hernandez",
+        "Lopez",
+        "Gonzalez",
+        "Wilson",
+        "Anderson",
+        "Thomas",
+        "Taylor",
+        "Moore",
+        "Jackson",
+        "Martin",
+        "Lee",
+        "Perez",
+        "Thompson",
+        "White",
+        "Harris",
+        "Sanchez",
+        "Clark",
+        "Ramirez",
+        "Lewis",
+        "Robinson",
+        "Walker",
+        "Young",
+        "Allen",
+        "King",
+        "Wright",
+        "Scott",
+        "Torres",
+        "Nguyen",
+        "Hill",
+        "Flores"
+    };
+    private static final String[] DOMAINS = {"example.com", "example.org", "example.net"};
+    private static final int SAMPLE_SIZE = 1_000;
+
+    private final DataSource dataSource;
+
+    /**
+     * Generate a dataset into a running users-api, then align its id sequence
+     *
+     * @param context The users-api context
+     * @param spec The shape of the dataset
+     * @return What was generated
+     * @throws SQLException if an insert fails
+     */
+    public static GeneratedUsers load(ApplicationContext context, UsersDatasetSpec spec) throws SQLException {
+        GeneratedUsers generated = new UsersDataGenerator(context.getBean(DataSource.class)).generate(spec);
+        context.getBean(SequenceAligner.class).realign();
+        return generated;
+    }
+
+    /**
+     * Write a dataset to the users table
+     *
+     * @param spec The shape of the dataset
+     * @return What was generated
+     * @throws SQLException if an insert fails
+     */
+    public GeneratedUsers generate(UsersDatasetSpec spec) throws SQLException {
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        ZipfSampler firstNames = new ZipfSampler(FIRST_NAMES.length, spec.getNameSkew());
+        ZipfSampler lastNames = new ZipfSampler(LAST_NAMES.length, spec.getNameSkew());
+        int sampleEvery = Math.max(1, spec.getUsers() / SAMPLE_SIZE);
+        List<String> sample = new ArrayList<>(Math.min(SAMPLE_SIZE + 1, spec.getUsers()));
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long firstId = BatchInserter.maxId(connection, "users") + 1;
+                try (BatchInserter users = new BatchInserter(connection, INSERT_USER, spec.getBatchSize())) {
+                    for (int i = 0; i < spec.getUsers(); i++) {
+                        long id = firstId + i;
+                        String first = FIRST_NAMES[firstNames.next(random)];
+                        String last = LAST_NAMES[lastNames.next(random)];
+                        String username = (first + "." + last).toLowerCase(Locale.ROOT) + "." + id;
+                        String email = random.nextDouble() < spec.getMissingEmailRatio()
+                                ? null
+                                : username + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+                        users.add(id, username, first + " " + last, email);
+                        if (i % sampleEvery == 0) {
+                            sample.add(username);
+                        }
+                    }
+                }
+                log.info("Generated {} users in {} ms", spec.getUsers(), (System.nanoTime() - started) / 1_000_000);
+                return new GeneratedUsers(firstId, spec.getUsers(), List.copyOf(sample));
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
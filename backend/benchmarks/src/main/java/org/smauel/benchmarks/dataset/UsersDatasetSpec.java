@@ -0,0 +1,31 @@
+package org.smauel.benchmarks.dataset;
+
+import lombok.Data;
+
+/**
+ * The shape of a generated users-api dataset. Bound from {@code dataset.users.*} by the query suite.
+ */
+@Data
+public class UsersDatasetSpec {
+    /**
+     * Seed of every random choice, the same seed and spec always generate the same rows
+     */
+    private long seed = 42;
+
+    private int users = 1_000_000;
+
+    /**
+     * Zipf exponent of how first and last names are picked, 0 for uniform, higher for a few very common names
+     */
+    private double nameSkew = 1.0;
+
+    /**
+     * Fraction of users without an email
+     */
+    private double missingEmailRatio = 0.1;
+
+    /**
+     * Rows per JDBC batch and transaction
+     */
+    private int batchSize = 5_000;
+}
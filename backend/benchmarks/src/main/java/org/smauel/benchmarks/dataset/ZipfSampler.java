@@ -0,0 +1,36 @@
+package org.smauel.benchmarks.dataset;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples indexes in {@code [0, size)} with a Zipf distribution, so that a few indexes are drawn far more often than
+ * the rest: index {@code k} is drawn with a probability proportional to {@code 1 / (k + 1)^exponent}.
+ */
+final class ZipfSampler {
+    private final double[] cumulative;
+
+    /**
+     * @param size The number of indexes to draw from
+     * @param exponent The skew, 0 for a uniform distribution, around 1 for a typical popularity distribution
+     */
+    ZipfSampler(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int k = 0; k < size; k++) {
+            total += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
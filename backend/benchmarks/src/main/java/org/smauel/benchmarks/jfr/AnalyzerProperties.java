@@ -0,0 +1,34 @@
+package org.smauel.benchmarks.jfr;
+
+import lombok.Data;
+
+/**
+ * Options of a recording analysis, bound from {@code jfr.*}
+ */
+@Data
+public class AnalyzerProperties {
+    /**
+     * The {@code .jfr} file to analyze, as downloaded from the {@code jfr} actuator endpoint of a service
+     */
+    private String recording;
+
+    /**
+     * Number of methods, paths and requests to report in each section
+     */
+    private int top = 20;
+
+    /**
+     * Package whose frames make up the code paths, so paths show the calls of the services rather than of libraries
+     */
+    private String focus = "org.smauel";
+
+    /**
+     * Number of frames of each code path, from the innermost frame of the focus package outwards
+     */
+    private int depth = 4;
+
+    /**
+     * Directory the JSON report is written to
+     */
+    private String output = "target/jfr";
+}
@@ -0,0 +1,53 @@
+package org.smauel.benchmarks.jfr;
+
+import java.time.Duration;
+import org.HdrHistogram.Histogram;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.CallStats;
+
+/**
+ * Times of the calls of one method, or of one kind of request, in a recording. Times are recorded in microseconds
+ * with three significant digits.
+ */
+final class CallTimes {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String name;
+    private final Histogram times = new Histogram(SIGNIFICANT_DIGITS);
+    private long totalMicros;
+    private long rows;
+
+    CallTimes(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param duration How long the call took
+     * @param rows The rows it returned, or a negative number when its result is not rows
+     */
+    void record(Duration duration, long rows) {
+        long micros = duration.toNanos() / 1000;
+        times.recordValue(micros);
+        totalMicros += micros;
+        if (rows > 0) {
+            this.rows += rows;
+        }
+    }
+
+    long totalMicros() {
+        return totalMicros;
+    }
+
+    CallStats stats() {
+        long count = times.getTotalCount();
+        return new CallStats(
+                name,
+                count,
+                totalMicros / MICROS_PER_MILLI,
+                count == 0 ? 0 : totalMicros / MICROS_PER_MILLI / count,
+                times.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                times.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                times.getMaxValue() / MICROS_PER_MILLI,
+                rows);
+    }
+}
@@ -0,0 +1,75 @@
+package org.smauel.benchmarks.jfr;
+
+import java.util.List;
+
+/**
+ * Summary of a flight recording of one of the services, by {@link RecordingAnalyzer}. Times are in milliseconds.
+ *
+ * @param samples The number of execution samples, of threads running Java code
+ * @param hottestMethods The methods most often on the stack of a sample, by samples spent in the method itself
+ * @param hottestPaths The code paths of the focus package most often on the stack of a sample
+ * @param slowestRequests The slowest requests, with the calls made while handling them
+ * @param requests Request times by method and path pattern, the most total time first
+ * @param serviceCalls Service call times by service method, the most total time first
+ * @param repositoryCalls Repository call times by repository method, the most total time first
+ * @param permissionChecks Permission check times by where the decision came from, the most total time first
+ */
+public record RecordingAnalysis(
+        long samples,
+        List<HotMethod> hottestMethods,
+        List<HotPath> hottestPaths,
+        List<SlowRequest> slowestRequests,
+        List<CallStats> requests,
+        List<CallStats> serviceCalls,
+        List<CallStats> repositoryCalls,
+        List<CallStats> permissionChecks) {
+
+    /**
+     * @param method The class and name of the method
+     * @param self The samples with the method as their innermost frame
+     * @param total The samples with the method anywhere on their stack
+     * @param selfPercent The share of all samples spent in the method itself
+     * @param totalPercent The share of all samples spent in the method or its callees
+     */
+    public record HotMethod(String method, long self, long total, double selfPercent, double totalPercent) {}
+
+    /**
+     * @param frames The methods of the path, innermost first
+     * @param samples The samples whose stack holds the path as its innermost frames of the focus package
+     * @param percent The share of all samples
+     */
+    public record HotPath(List<String> frames, long samples, double percent) {}
+
+    /**
+     * @param requestId The id of the request, as echoed in its {@code X-Request-Id} header
+     * @param method The HTTP method
+     * @param uri The path pattern of the handler
+     * @param status The status of the response
+     * @param duration How long the request took
+     * @param calls The service and repository calls and permission checks made while handling it, in order
+     */
+    public record SlowRequest(
+            String requestId, String method, String uri, int status, double duration, List<Call> calls) {}
+
+    /**
+     * @param type {@code service}, {@code repository} or {@code permission}
+     * @param name The method called, or the permission checked
+     * @param offset When the call started, from the start of the request
+     * @param duration How long the call took
+     * @param detail The rows returned, the source of a permission decision, or the exception thrown
+     */
+    public record Call(String type, String name, double offset, double duration, String detail) {}
+
+    /**
+     * @param name What was called
+     * @param count The number of calls
+     * @param total The time taken by all calls
+     * @param mean The mean time of a call
+     * @param p50 The median time of a call
+     * @param p99 The 99th percentile time of a call
+     * @param max The slowest call
+     * @param rows The rows returned by all calls, for repository calls whose results are rows
+     */
+    public record CallStats(
+            String name, long count, double total, double mean, double p50, double p99, double max, long rows) {}
+}
@@ -0,0 +1,371 @@
+package org.smauel.benchmarks.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.Call;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.CallStats;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.HotMethod;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.HotPath;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.SlowRequest;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Summarizes a flight recording taken through the {@code jfr} actuator endpoint of one of the services: the hottest
+ * methods and code paths, the slowest requests with the calls made while handling them, and the times of every kind of
+ * request, service call, repository call and permission check.
+ *
+ * <p>Hot methods and paths come from the {@code jdk.ExecutionSample} events of the recording, which only the
+ * {@code profile} settings sample often enough to be useful. A method counts towards its self samples when it is the
+ * innermost frame of a sample, and towards its total samples when it is anywhere on the stack. A code path is the
+ * innermost {@code depth} frames of the {@code focus} package, so samples taken deep in a library still count against
+ * the code of the service that called it.
+ *
+ * <p>Requests, calls and permission checks come from the events the services record, tied together by request id.
+ * Results are printed, and written as JSON to {@code <output>/<recording>.json}.
+ */
+public class RecordingAnalyzer {
+    static final String HTTP_REQUEST = "org.smauel.HttpRequest";
+    static final String SERVICE_CALL = "org.smauel.ServiceCall";
+    static final String REPOSITORY_CALL = "org.smauel.RepositoryCall";
+    static final String PERMISSION_CHECK = "org.smauel.PermissionCheck";
+    static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    private final AnalyzerProperties properties;
+
+    public RecordingAnalyzer(AnalyzerProperties properties) {
+        this.properties = properties;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        AnalyzerProperties properties =
+                Binder.get(environment).bind("jfr", AnalyzerProperties.class).orElseGet(AnalyzerProperties::new);
+        if (properties.getRecording() == null) {
+            throw new IllegalArgumentException("Set the recording to analyze with --jfr.recording=<file>");
+        }
+        new RecordingAnalyzer(properties).run();
+    }
+
+    /**
+     * Analyze the recording, then print the analysis and write it as JSON
+     *
+     * @return The analysis of the recording
+     * @throws IOException if the recording cannot be read or the report cannot be written
+     */
+    public RecordingAnalysis run() throws IOException {
+        Path recording = Path.of(properties.getRecording());
+        RecordingAnalysis analysis = analyze(recording);
+        Path output = Path.of(properties.getOutput());
+        Files.createDirectories(output);
+        Path report = output.resolve(recording.getFileName().toString().replaceFirst("\\.jfr$", "") + ".json");
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(report.toFile(), analysis);
+        System.out.print(format(analysis));
+        System.out.println("Wrote recording analysis to " + report.toAbsolutePath());
+        return analysis;
+    }
+
+    /**
+     * @param recording The {@code .jfr} file to analyze
+     * @return The analysis of the recording
+     * @throws IOException if the recording cannot be read
+     */
+    public RecordingAnalysis analyze(Path recording) throws IOException {
+        Samples samples = new Samples(properties.getFocus(), properties.getDepth());
+        List<RecordedEvent> requests = new ArrayList<>();
+        Map<String, List<RecordedEvent>> callsByRequest = new HashMap<>();
+        Map<String, CallTimes> requestTimes = new HashMap<>();
+        Map<String, CallTimes> serviceTimes = new HashMap<>();
+        Map<String, CallTimes> repositoryTimes = new HashMap<>();
+        Map<String, CallTimes> permissionTimes = new HashMap<>();
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case EXECUTION_SAMPLE -> samples.add(event.getStackTrace());
+                    case HTTP_REQUEST -> {
+                        requests.add(event);
+                        record(requestTimes, event.getString("method") + " " + event.getString("uri"), event, -1);
+                    }
+                    case SERVICE_CALL -> {
+                        addCall(callsByRequest, event);
+                        record(serviceTimes, callName(event, "service"), event, -1);
+                    }
+                    case REPOSITORY_CALL -> {
+                        addCall(callsByRequest, event);
+                        record(repositoryTimes, callName(event, "repository"), event, event.getInt("rows"));
+                    }
+                    case PERMISSION_CHECK -> {
+                        addCall(callsByRequest, event);
+                        record(permissionTimes, event.getString("source"), event, -1);
+                    }
+                    default -> {}
+                }
+            }
+        }
+
+        List<SlowRequest> slowest = requests.stream()
+                .sorted(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder()))
+                .limit(properties.getTop())
+                .map(request ->
+                        slowRequest(request, callsByRequest.getOrDefault(request.getString("requestId"), List.of())))
+                .toList();
+        return new RecordingAnalysis(
+                samples.count,
+                samples.hottestMethods(properties.getTop()),
+                samples.hottestPaths(properties.getTop()),
+                slowest,
+                stats(requestTimes),
+                stats(serviceTimes),
+                stats(repositoryTimes),
+                stats(permissionTimes));
+    }
+
+    private static void addCall(Map<String, List<RecordedEvent>> callsByRequest, RecordedEvent event) {
+        String requestId = event.getString("requestId");
+        if (requestId != null) {
+            callsByRequest.computeIfAbsent(requestId, id -> new ArrayList<>()).add(event);
+        }
+    }
+
+    private static void record(Map<String, CallTimes> times, String name, RecordedEvent event, long rows) {
+        times.computeIfAbsent(name, CallTimes::new).record(event.getDuration(), rows);
+    }
+
+    private static List<CallStats> stats(Map<String, CallTimes> times) {
+        return times.values().stream()
+                .sorted(Comparator.comparingLong(CallTimes::totalMicros).reversed())
+                .map(CallTimes::stats)
+                .toList();
+    }
+
+    private static SlowRequest slowRequest(RecordedEvent request, List<RecordedEvent> events) {
+        Instant start = request.getStartTime();
+        List<Call> calls = events.stream()
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .map(event -> call(event, start))
+                .toList();
+        return new SlowRequest(
+                request.getString("requestId"),
+                request.getString("method"),
+                request.getString("uri"),
+                request.getInt("status"),
+                millis(request.getDuration()),
+                calls);
+    }
+
+    private static Call call(RecordedEvent event, Instant requestStart) {
+        double offset = millis(Duration.between(requestStart, event.getStartTime()));
+        double duration = millis(event.getDuration());
+        return switch (event.getEventType().getName()) {
+            case SERVICE_CALL ->
+                new Call("service", callName(event, "service"), offset, duration, exception(event, ""));
+            case REPOSITORY_CALL ->
+                new Call(
+                        "repository",
+                        callName(event, "repository"),
+                        offset,
+                        duration,
+                        exception(event, rows(event.getInt("rows"))));
+            default ->
+                new Call(
+                        "permission",
+                        event.getString("permission"),
+                        offset,
+                        duration,
+                        (event.getBoolean("granted") ? "granted" : "denied") + " by " + event.getString("source"));
+        };
+    }
+
+    private static String callName(RecordedEvent event, String owner) {
+        return event.getString(owner) + "#" + event.getString("method");
+    }
+
+    private static String rows(int rows) {
+        return switch (rows) {
+            case -1 -> "";
+            case 1 -> "1 row";
+            default -> rows + " rows";
+        };
+    }
+
+    private static String exception(RecordedEvent event, String otherwise) {
+        String exception = event.getString("exception");
+        return exception == null ? otherwise : "threw " + exception;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : Math.round(count * 1000.0 / total) / 10.0;
+    }
+
+    private static String format(RecordingAnalysis analysis) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%nHottest methods, of %d samples%n", analysis.samples()));
+        report.append(String.format(Locale.ROOT, "%7s %7s  %s%n", "self %", "total %", "Method"));
+        for (HotMethod method : analysis.hottestMethods()) {
+            report.append(String.format(
+                    Locale.ROOT, "%7.1f %7.1f  %s%n", method.selfPercent(), method.totalPercent(), method.method()));
+        }
+        report.append(String.format(Locale.ROOT, "%nHottest code paths%n"));
+        for (HotPath path : analysis.hottestPaths()) {
+            report.append(
+                    String.format(Locale.ROOT, "%7.1f  %s%n", path.percent(), String.join(" <- ", path.frames())));
+        }
+        report.append(String.format(Locale.ROOT, "%nSlowest requests%n"));
+        for (SlowRequest request : analysis.slowestRequests()) {
+            report.append(String.format(
+                    Locale.ROOT,
+                    "%9.2f ms  %s %s %d  [%s]%n",
+                    request.duration(),
+                    request.method(),
+                    request.uri(),
+                    request.status(),
+                    request.requestId()));
+            for (Call call : request.calls()) {
+                report.append(String.format(
+                        Locale.ROOT,
+                        "%9.2f ms    +%.2f ms %s %s %s%n",
+                        call.duration(),
+                        call.offset(),
+                        call.type(),
+                        call.name(),
+                        call.detail()));
+            }
+        }
+        table(report, "Requests", analysis.requests());
+        table(report, "Service calls", analysis.serviceCalls());
+        table(report, "Repository calls", analysis.repositoryCalls());
+        table(report, "Permission checks", analysis.permissionChecks());
+        return report.toString();
+    }
+
+    private static void table(StringBuilder report, String title, List<CallStats> stats) {
+        if (stats.isEmpty()) {
+            return;
+        }
+        int width = Math.max(
+                title.length(),
+                stats.stream().mapToInt(call -> call.name().length()).max().orElse(0));
+        String format = "%-" + width + "s %8s %10s %9s %9s %9s %9s %9s%n";
+        report.append(System.lineSeparator())
+                .append(String.format(
+                        Locale.ROOT,
+                        format,
+                        title,
+                        "Count",
+                        "total ms",
+                        "mean ms",
+                        "p50 ms",
+                        "p99 ms",
+                        "max ms",
+                        "Rows"));
+        for (CallStats call : stats) {
+            report.append(String.format(
+                    Locale.ROOT,
+                    format,
+                    call.name(),
+                    call.count(),
+                    String.format(Locale.ROOT, "%.1f", call.total()),
+                    String.format(Locale.ROOT, "%.2f", call.mean()),
+                    String.format(Locale.ROOT, "%.2f", call.p50()),
+                    String.format(Locale.ROOT, "%.2f", call.p99()),
+                    String.format(Locale.ROOT, "%.2f", call.max()),
+                    call.rows()));
+        }
+    }
+
+    /**
+     * Execution samples counted by method and by code path
+     */
+    private static final class Samples {
+        private final String focus;
+        private final int depth;
+        private final Map<String, long[]> methods = new HashMap<>();
+        private final Map<List<String>, long[]> paths = new HashMap<>();
+        private long count;
+
+        Samples(String focus, int depth) {
+            this.focus = focus;
+            this.depth = depth;
+        }
+
+        void add(RecordedStackTrace stackTrace) {
+            if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+                return;
+            }
+            count++;
+            List<RecordedFrame> frames = stackTrace.getFrames();
+            Set<String> onStack = new LinkedHashSet<>();
+            List<String> path = new ArrayList<>(depth);
+            for (RecordedFrame frame : frames) {
+                String method = name(frame.getMethod());
+                onStack.add(method);
+                if (path.size() < depth
+                        && frame.getMethod().getType().getName().startsWith(focus)
+                        && (path.isEmpty() || !path.getLast().equals(method))) {
+                    path.add(method);
+                }
+            }
+            methods.computeIfAbsent(name(frames.getFirst().getMethod()), method -> new long[2])[0]++;
+            for (String method : onStack) {
+                methods.computeIfAbsent(method, key -> new long[2])[1]++;
+            }
+            if (!path.isEmpty()) {
+                paths.computeIfAbsent(List.copyOf(path), key -> new long[1])[0]++;
+            }
+        }
+
+        List<HotMethod> hottestMethods(int top) {
+            return methods.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<String, long[]>>comparingLong(entry -> entry.getValue()[0])
+                            .thenComparingLong(entry -> entry.getValue()[1])
+                            .reversed())
+                    .limit(top)
+                    .map(entry -> new HotMethod(
+                            entry.getKey(),
+                            entry.getValue()[0],
+                            entry.getValue()[1],
+                            percent(entry.getValue()[0], count),
+                            percent(entry.getValue()[1], count)))
+                    .toList();
+        }
+
+        List<HotPath> hottestPaths(int top) {
+            return paths.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<List<String>, long[]>>comparingLong(entry -> entry.getValue()[0])
+                            .reversed())
+                    .limit(top)
+                    .map(entry -> new HotPath(entry.getKey(), entry.getValue()[0], percent(entry.getValue()[0], count)))
+                    .toList();
+        }
+
+        private static String name(RecordedMethod method) {
+            return method.getType().getName() + "." + method.getName();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.smauel.benchmarks.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A Bruno collection on disk, read from the same {@code .bru} files the functional run of the collections module uses.
+ *
+ * <p>Only what a replay needs is read: the method, URL, path parameters, headers and body of each request, its
+ * {@code vars:post-response} captures and the status it asserts. Scripts, tests and other assertions are ignored, and
+ * so are disabled entries, those starting with {@code ~}. Requests run in the order the Bruno runner uses, by the
+ * {@code seq} of their folders and then their own.
+ */
+public final class BruCollection {
+    private static final Set<String> METHODS = Set.of("get", "post", "put", "patch", "delete", "head", "options");
+    private static final Pattern BLOCK = Pattern.compile("^([\\w:-]+) \\{\\s*$");
+    private static final Pattern STATUS_ASSERTION = Pattern.compile("^eq\\s+(\\d{3})$");
+    private static final Map<String, String> CONTENT_TYPES =
+            Map.of("json", "application/json", "text", "text/plain", "xml", "application/xml");
+    private static final String FOLDER_FILE = "folder.bru";
+
+    private final Path root;
+
+    private BruCollection(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * @param root The directory of the collection, holding its {@code bruno.json}
+     * @return The collection
+     * @throws IllegalArgumentException if the directory is not a Bruno collection
+     */
+    public static BruCollection open(Path root) {
+        if (!Files.isRegularFile(root.resolve("bruno.json"))) {
+            throw new IllegalArgumentException("No Bruno collection at " + root.toAbsolutePath());
+        }
+        return new BruCollection(root);
+    }
+
+    /**
+     * @param name The name of an environment, e.g. {@code local} for {@code environments/local.bru}
+     * @return The variables of the environment
+     * @throws IllegalArgumentException if the collection has no such environment
+     */
+    public Map<String, String> environment(String name) {
+        Path file = root.resolve("environments").resolve(name + ".bru");
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No environment " + name + " in " + root.toAbsolutePath());
+        }
+        return dictionary(blocks(read(file)).getOrDefault("vars", ""));
+    }
+
+    /**
+     * @param folder The path of a folder relative to the collection, or empty for the whole collection
+     * @return Every request in the folder and its subfolders, in the order the Bruno runner sends them
+     * @throws IllegalArgumentException if the collection has no such folder
+     */
+    public List<BruRequest> requests(String folder) {
+        Path directory = root.resolve(folder);
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("No folder " + folder + " in " + root.toAbsolutePath());
+        }
+        List<BruRequest> requests = new ArrayList<>();
+        collect(directory, requests);
+        return requests;
+    }
+
+    /**
+     * @return The folders of the collection that directly hold requests, relative to the collection, in run order
+     */
+    public List<String> folders() {
+        List<String> folders = new ArrayList<>();
+        collectFolders(root, folders);
+        return folders;
+    }
+
+    /**
+     * @param file A request file
+     * @return The request the file describes
+     * @throws IllegalArgumentException if the file does not describe an HTTP request
+     */
+    static BruRequest parse(Path file) {
+        Map<String, String> blocks = blocks(read(file));
+        Map<String, String> meta = dictionary(blocks.getOrDefault("meta", ""));
+        String method = METHODS.stream()
+                .filter(blocks::containsKey)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No HTTP method in " + file));
+        Map<String, String> http = dictionary(blocks.get(method));
+        String bodyType = http.getOrDefault("body", "none");
+        Map<String, String> assertions = dictionary(blocks.getOrDefault("assert", ""));
+        Integer expectedStatus = null;
+        if (assertions.containsKey("res.status")) {
+            Matcher status = STATUS_ASSERTION.matcher(assertions.get("res.status"));
+            if (status.matches()) {
+                expectedStatus = Integer.valueOf(status.group(1));
+            }
+        }
+        return new BruRequest(
+                meta.getOrDefault("name", file.getFileName().toString()),
+                seq(meta),
+                method.toUpperCase(Locale.ROOT),
+                http.get("url"),
+                blocks.get("body:" + bodyType),
+                blocks.containsKey("body:" + bodyType) ? CONTENT_TYPES.get(bodyType) : null,
+                dictionary(blocks.getOrDefault("params:path", "")),
+                dictionary(blocks.getOrDefault("headers", "")),
+                dictionary(blocks.getOrDefault("vars:post-response", "")),
+                expectedStatus);
+    }
+
+    /**
+     * @return The contents of every top-level {@code name { ... }} block by name, unindented by one level
+     */
+    static Map<String, String> blocks(String text) {
+        Map<String, String> blocks = new LinkedHashMap<>();
+        String name = null;
+        StringBuilder content = new StringBuilder();
+        for (String line : text.split("\\R", -1)) {
+            if (name == null) {
+                Matcher block = BLOCK.matcher(line);
+                if (block.matches()) {
+                    name = block.group(1);
+                    content.setLength(0);
+                }
+            } else if (line.equals("}")) {
+                blocks.put(name, content.toString());
+                name = null;
+            } else {
+                content.append(line.startsWith("  ") ? line.substring(2) : line.strip())
+                        .append('\n');
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * @return The {@code key: value} entries of a block, without the disabled ones
+     */
+    static Map<String, String> dictionary(String block) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String line : block.split("\n")) {
+            String entry = line.strip();
+            int separator = entry.indexOf(':');
+            if (separator > 0 && !entry.startsWith("~")) {
+                entries.put(
+                        entry.substring(0, separator).strip(),
+                        entry.substring(separator + 1).strip());
+            }
+        }
+        return entries;
+    }
+
+    private void collect(Path directory, List<BruRequest> requests) {
+        for (Path child : children(directory)) {
+            if (Files.isDirectory(child)) {
+                collect(child, requests);
+            } else {
+                requests.add(parse(child));
+            }
+        }
+    }
+
+    private void collectFolders(Path directory, List<String> folders) {
+        List<Path> children = children(directory);
+        if (children.stream().anyMatch(Files::isRegularFile)) {
+            folders.add(root.relativize(directory).toString().replace('\\', '/'));
+        }
+        children.stream().filter(Files::isDirectory).forEach(child -> collectFolders(child, folders));
+    }
+
+    /**
+     * @return The request files and subfolders of a directory, by their {@code seq} and then by name
+     */
+    private List<Path> children(Path directory) {
+        try (Stream<Path> children = Files.list(directory)) {
+            return children.filter(child -> Files.isDirectory(child)
+                            ? !child.getFileName().toString().equals("environments")
+                                    && Files.isRegularFile(child.resolve(FOLDER_FILE))
+                            : child.getFileName().toString().endsWith(".bru")
+                                    && !child.getFileName().toString().equals(FOLDER_FILE))
+                    .sorted(Comparator.comparingInt((Path child) -> seq(child))
+                            .thenComparing(child -> child.getFileName().toString()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int seq(Path child) {
+        Path file = Files.isDirectory(child) ? child.resolve(FOLDER_FILE) : child;
+        return seq(dictionary(blocks(read(file)).getOrDefault("meta", "")));
+    }
+
+    private static int seq(Map<String, String> meta) {
+        String seq = meta.get("seq");
+        return seq == null ? Integer.MAX_VALUE : Integer.parseInt(seq);
+    }
+
+    private static String read(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
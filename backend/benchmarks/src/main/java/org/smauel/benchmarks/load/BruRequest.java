@@ -0,0 +1,39 @@
+package org.smauel.benchmarks.load;
+
+import java.util.Map;
+
+/**
+ * An HTTP request of a Bruno collection, as described by its {@code .bru} file. Values may still contain
+ * {@code {{variable}}} placeholders.
+ *
+ * @param name The name of the request
+ * @param seq The position of the request in its folder
+ * @param method The HTTP method, in upper case
+ * @param url The URL, with {@code :name} path parameters and its query string
+ * @param body The JSON or text body, or null if the request has none
+ * @param contentType The content type of the body, or null if the request has none
+ * @param pathParams The values of the path parameters by name
+ * @param headers The request headers
+ * @param captures The expressions of the {@code vars:post-response} block by variable name, e.g. {@code res.body.id}
+ * @param expectedStatus The status asserted by {@code res.status: eq}, or null if the request does not assert one
+ */
+public record BruRequest(
+        String name,
+        int seq,
+        String method,
+        String url,
+        String body,
+        String contentType,
+        Map<String, String> pathParams,
+        Map<String, String> headers,
+        Map<String, String> captures,
+        Integer expectedStatus) {
+
+    /**
+     * @param status The status of a response to this request
+     * @return Whether the response has the asserted status, or any status below 400 if none is asserted
+     */
+    public boolean succeeded(int status) {
+        return expectedStatus == null ? status < 400 : status == expectedStatus;
+    }
+}
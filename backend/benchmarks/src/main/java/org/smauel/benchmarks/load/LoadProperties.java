@@ -0,0 +1,120 @@
+package org.smauel.benchmarks.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Options of a load run, bound from {@code load.*}
+ */
+@Data
+public class LoadProperties {
+    /**
+     * Directory of the Bruno collection to replay
+     */
+    private String collection = "../../collections/src/main/resources/integration-tests";
+
+    /**
+     * Environment of the collection whose variables are used, from {@code environments/<environment>.bru}
+     */
+    private String environment = "local";
+
+    /**
+     * Variables that override those of the environment
+     */
+    private Map<String, String> vars = new LinkedHashMap<>();
+
+    /**
+     * Scenarios to run, or one scenario of weight 1 for every folder of the collection holding requests if empty
+     */
+    private List<ScenarioProperties> scenarios = new ArrayList<>();
+
+    /**
+     * Scenario iterations started per second, whether or not earlier ones have finished
+     */
+    private double rate = 50;
+
+    /**
+     * How iterations are spread within a second
+     */
+    private Arrivals arrivals = Arrivals.CONSTANT;
+
+    /**
+     * The maximum number of iterations running at once. Arrivals beyond it wait for a virtual user, and the wait counts
+     * towards their latency
+     */
+    private int users = 200;
+
+    /**
+     * How long to run before measuring
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * How long to measure for
+     */
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Timeout of a single request
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Interval of the progress lines printed while running, or zero for none
+     */
+    private Duration progress = Duration.ofSeconds(5);
+
+    /**
+     * Seed of the scenario mix and of Poisson arrivals
+     */
+    private long seed = 42;
+
+    /**
+     * Directory the JSON report and the latency histograms are written to
+     */
+    private String output = "target/load";
+
+    /**
+     * How arrivals are spread over time
+     */
+    public enum Arrivals {
+        /**
+         * Evenly spaced arrivals
+         */
+        CONSTANT,
+        /**
+         * Exponentially distributed gaps between arrivals, with the same mean rate
+         */
+        POISSON
+    }
+
+    /**
+     * A weighted scenario, bound from {@code load.scenarios[n].*}
+     */
+    @Data
+    public static class ScenarioProperties {
+        /**
+         * Name of the scenario in the report, the folder if empty
+         */
+        private String name = "";
+
+        /**
+         * Folder of the collection whose requests the scenario sends, in order
+         */
+        private String folder = "";
+
+        /**
+         * Names of the requests of the folder to send, or every request if empty
+         */
+        private List<String> requests = new ArrayList<>();
+
+        /**
+         * Share of the arrivals that run this scenario, relative to the weights of the other scenarios
+         */
+        private double weight = 1;
+    }
+}
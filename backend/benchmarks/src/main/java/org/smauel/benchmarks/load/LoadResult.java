@@ -0,0 +1,39 @@
+package org.smauel.benchmarks.load;
+
+import java.util.Map;
+
+/**
+ * Latencies of one request of a scenario over the measured part of a load run. Times are in milliseconds.
+ *
+ * <p>Response times are measured from when the request should have been sent had the iteration started on schedule,
+ * so they include the time the iteration waited for a virtual user. Service times are measured from when it was
+ * actually sent, and are what a closed-loop tool would report.
+ *
+ * @param scenario The name of the scenario
+ * @param request The name of the request
+ * @param count The number of responses, or failures to get one
+ * @param errors The number of responses without the expected status, and of requests that failed or timed out
+ * @param throughput The number of responses per second
+ * @param p50 The median response time
+ * @param p90 The 90th percentile response time
+ * @param p99 The 99th percentile response time
+ * @param p999 The 99.9th percentile response time
+ * @param max The slowest response time
+ * @param serviceP50 The median service time
+ * @param serviceP99 The 99th percentile service time
+ * @param outcomes The number of responses by status, and of failures by exception
+ */
+public record LoadResult(
+        String scenario,
+        String request,
+        long count,
+        long errors,
+        double throughput,
+        double p50,
+        double p90,
+        double p99,
+        double p999,
+        double max,
+        double serviceP50,
+        double serviceP99,
+        Map<String, Long> outcomes) {}
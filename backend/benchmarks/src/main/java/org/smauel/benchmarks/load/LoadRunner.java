@@ -0,0 +1,355 @@
+package org.smauel.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.smauel.benchmarks.load.LoadProperties.Arrivals;
+import org.smauel.benchmarks.load.LoadProperties.ScenarioProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Replays the scenarios of a Bruno collection against running services at a fixed arrival rate, and reports the
+ * latency percentiles of every request.
+ *
+ * <p>The load is open-loop: iterations of the weighted scenarios start on a schedule set by the arrival rate, whether
+ * or not earlier iterations have finished, and each runs its requests one after the other on a virtual thread, with
+ * at most {@code users} running at once. An iteration that has to wait for a virtual user, or whose arrival the
+ * scheduler sends late, has every one of its latencies measured from when it should have started, so a stalled
+ * service shows up in the percentiles instead of silently lowering the rate of requests sent to it. This is the
+ * coordinated omission correction; the uncorrected service times are reported next to it.
+ *
+ * <p>An iteration stops at its first failed request, since later requests depend on the variables it captures. Only
+ * iterations that arrive after the warmup are measured. Results are printed, and written as JSON to
+ * {@code <output>/load.json}, with the full response time distribution of every request in {@code .hgrm} files.
+ */
+public class LoadRunner {
+    private static final JsonMapper JSON = new JsonMapper();
+
+    private final LoadProperties properties;
+    private final Map<String, String> environment;
+    private final List<Scenario> scenarios;
+    private final List<List<RequestStats>> stats = new ArrayList<>();
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * @param properties The options of the run
+     * @throws IllegalArgumentException if the collection, its environment or a scenario folder does not exist
+     */
+    public LoadRunner(LoadProperties properties) {
+        this.properties = properties;
+        BruCollection collection = BruCollection.open(Path.of(properties.getCollection()));
+        this.environment = new LinkedHashMap<>(collection.environment(properties.getEnvironment()));
+        this.environment.putAll(properties.getVars());
+        this.scenarios = scenarios(collection, properties.getScenarios());
+        for (Scenario scenario : scenarios) {
+            stats.add(scenario.requests().stream()
+                    .map(request -> new RequestStats(scenario.name(), request.name()))
+                    .toList());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        LoadProperties properties =
+                Binder.get(environment).bind("load", LoadProperties.class).orElseGet(LoadProperties::new);
+        new LoadRunner(properties).run();
+    }
+
+    /**
+     * @return The scenarios of the run, in order
+     */
+    public List<Scenario> scenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Run the warmup and the measured load, wait for the iterations still running, and write the report
+     *
+     * @return The result of every request of every scenario
+     * @throws IOException if the report cannot be written
+     * @throws InterruptedException if interrupted while running
+     */
+    public List<LoadResult> run() throws IOException, InterruptedException {
+        double[] cumulativeWeights = cumulativeWeights();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        Semaphore users = new Semaphore(properties.getUsers());
+        double periodNanos = TimeUnit.SECONDS.toNanos(1) / properties.getRate();
+        long progressNanos = properties.getProgress().toNanos();
+
+        long start = System.nanoTime();
+        long measureFrom = start + properties.getWarmup().toNanos();
+        long end = measureFrom + properties.getDuration().toNanos();
+        System.out.printf(
+                Locale.ROOT,
+                "Starting %.1f iterations/s of %d scenarios with up to %d users, %ds warmup and %ds measured%n",
+                properties.getRate(),
+                scenarios.size(),
+                properties.getUsers(),
+                properties.getWarmup().toSeconds(),
+                properties.getDuration().toSeconds());
+        try (HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(properties.getTimeout())
+                        .build();
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long arrivals = 0;
+            double next = start;
+            long nextProgress = progressNanos > 0 ? start + progressNanos : Long.MAX_VALUE;
+            while (next < end) {
+                long arrival = (long) next;
+                for (long now = System.nanoTime(); now < arrival; now = System.nanoTime()) {
+                    if (now >= nextProgress) {
+                        progress(now - start, arrivals, users);
+                        nextProgress += progressNanos;
+                    }
+                    LockSupport.parkNanos(Math.min(arrival, nextProgress) - now);
+                }
+                int scenario = pick(cumulativeWeights, random.nextDouble());
+                boolean measured = arrival >= measureFrom;
+                executor.execute(() -> iterate(client, scenario, arrival, measured, users));
+                arrivals++;
+                next += properties.getArrivals() == Arrivals.POISSON
+                        ? -Math.log(1 - random.nextDouble()) * periodNanos
+                        : periodNanos;
+            }
+            System.out.printf(
+                    Locale.ROOT,
+                    "Sent %d arrivals, waiting for %d running and %d waiting iterations%n",
+                    arrivals,
+                    properties.getUsers() - users.availablePermits(),
+                    users.getQueueLength());
+        }
+        return report();
+    }
+
+    /**
+     * @param collection The collection to take the requests from
+     * @param configured The configured scenarios, or none for one scenario per folder of the collection
+     * @return The scenarios to run
+     * @throws IllegalArgumentException if a scenario has no requests
+     */
+    static List<Scenario> scenarios(BruCollection collection, List<ScenarioProperties> configured) {
+        if (configured.isEmpty()) {
+            return collection.folders().stream()
+                    .map(folder -> new Scenario(folder, 1, collection.requests(folder)))
+                    .toList();
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (ScenarioProperties scenario : configured) {
+            List<BruRequest> requests = collection.requests(scenario.getFolder()).stream()
+                    .filter(request -> scenario.getRequests().isEmpty()
+                            || scenario.getRequests().contains(request.name()))
+                    .toList();
+            String name = scenario.getName().isEmpty() ? scenario.getFolder() : scenario.getName();
+            if (requests.isEmpty()) {
+                throw new IllegalArgumentException("Scenario " + name + " has no requests");
+            }
+            scenarios.add(new Scenario(name, scenario.getWeight(), requests));
+        }
+        return scenarios;
+    }
+
+    private void iterate(HttpClient client, int scenario, long arrival, boolean measured, Semaphore users) {
+        users.acquireUninterruptibly();
+        try {
+            long delay = Math.max(0, System.nanoTime() - arrival);
+            Variables variables = new Variables(environment);
+            List<BruRequest> requests = scenarios.get(scenario).requests();
+            for (int i = 0; i < requests.size(); i++) {
+                BruRequest request = requests.get(i);
+                String outcome;
+                boolean succeeded;
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<byte[]> response =
+                            client.send(request(variables, request), HttpResponse.BodyHandlers.ofByteArray());
+                    outcome = Integer.toString(response.statusCode());
+                    succeeded = request.succeeded(response.statusCode());
+                    if (succeeded && !request.captures().isEmpty()) {
+                        variables.capture(request, response.statusCode(), response.headers(), json(response.body()));
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    outcome = e.getClass().getSimpleName();
+                    succeeded = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long service = System.nanoTime() - sent;
+                if (measured) {
+                    stats.get(scenario).get(i).record(service, delay, outcome, succeeded);
+                }
+                responses.increment();
+                if (!succeeded) {
+                    errors.increment();
+                    return;
+                }
+            }
+        } finally {
+            users.release();
+        }
+    }
+
+    private HttpRequest request(Variables variables, BruRequest request) {
+        HttpRequest.Builder builder =
+                HttpRequest.newBuilder(URI.create(variables.url(request))).timeout(properties.getTimeout());
+        request.headers().forEach((name, value) -> builder.header(name, variables.interpolate(value)));
+        if (request.body() == null) {
+            return builder.method(request.method(), HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+        if (request.contentType() != null && !request.headers().containsKey("Content-Type")) {
+            builder.header("Content-Type", request.contentType());
+        }
+        return builder.method(
+                        request.method(), HttpRequest.BodyPublishers.ofString(variables.interpolate(request.body())))
+                .build();
+    }
+
+    private double[] cumulativeWeights() {
+        double[] cumulative = new double[scenarios.size()];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += scenarios.get(i).weight();
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulativeWeights, double value) {
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private void progress(long elapsedNanos, long arrivals, Semaphore users) {
+        System.out.printf(
+                Locale.ROOT,
+                "%4ds: %d arrivals, %d running, %d waiting for a user, %d responses, %d errors%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos),
+                arrivals,
+                properties.getUsers() - users.availablePermits(),
+                users.getQueueLength(),
+                responses.sum(),
+                errors.sum());
+    }
+
+    private List<LoadResult> report() throws IOException {
+        double seconds = properties.getDuration().toMillis() / 1000.0;
+        Path output = Path.of(properties.getOutput());
+        Files.createDirectories(output);
+        List<LoadResult> results = new ArrayList<>();
+        for (List<RequestStats> scenario : stats) {
+            for (RequestStats request : scenario) {
+                results.add(request.result(seconds));
+                request.writeDistribution(output);
+            }
+        }
+        Path report = output.resolve("load.json");
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(
+                        report.toFile(),
+                        new Report(
+                                properties.getEnvironment(),
+                                properties.getRate(),
+                                properties.getArrivals(),
+                                properties.getUsers(),
+                                seconds,
+                                results));
+        System.out.print(table(results));
+        System.out.println("Wrote load report to " + report.toAbsolutePath());
+        return results;
+    }
+
+    /**
+     * @param environment The environment of the collection the run used
+     * @param rate The scenario iterations started per second
+     * @param arrivals How arrivals were spread over time
+     * @param users The maximum number of iterations running at once
+     * @param seconds The length of the measured part of the run
+     * @param results The result of every request of every scenario
+     */
+    public record Report(
+            String environment, double rate, Arrivals arrivals, int users, double seconds, List<LoadResult> results) {}
+
+    private static JsonNode json(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return JSON.readTree(body);
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    private static String table(List<LoadResult> results) {
+        int width = results.stream()
+                .mapToInt(
+                        result -> result.scenario().length() + result.request().length() + 3)
+                .max()
+                .orElse(7);
+        String format = "%-" + width + "s %8s %7s %8s %9s %9s %9s %9s %9s %9s%n";
+        StringBuilder table = new StringBuilder(String.format(
+                Locale.ROOT,
+                format,
+                "Request",
+                "Count",
+                "Errors",
+                "Req/s",
+                "p50 ms",
+                "p90 ms",
+                "p99 ms",
+                "p99.9 ms",
+                "max ms",
+                "svc p99"));
+        for (LoadResult result : results) {
+            table.append(String.format(
+                    Locale.ROOT,
+                    format,
+                    result.scenario() + " / " + result.request(),
+                    result.count(),
+                    result.errors(),
+                    result.throughput(),
+                    result.p50(),
+                    result.p90(),
+                    result.p99(),
+                    result.p999(),
+                    result.max(),
+                    result.serviceP99()));
+        }
+        return table.toString();
+    }
+}
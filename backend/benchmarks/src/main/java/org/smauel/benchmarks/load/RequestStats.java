@@ -0,0 +1,97 @@
+package org.smauel.benchmarks.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and outcomes of one request of a scenario, recorded concurrently by the virtual users. Latencies
+ * are recorded in microseconds with three significant digits.
+ */
+final class RequestStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String scenario;
+    private final String request;
+    private final Histogram responseTimes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTimes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    RequestStats(String scenario, String request) {
+        this.scenario = scenario;
+        this.request = request;
+    }
+
+    /**
+     * @param serviceNanos Time from sending the request to reading the whole response
+     * @param delayNanos Time the iteration of the request started behind its schedule
+     * @param outcome The status of the response, or the simple name of the exception it failed with
+     * @param succeeded Whether the response had the expected status
+     */
+    void record(long serviceNanos, long delayNanos, String outcome, boolean succeeded) {
+        serviceTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+        responseTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos + delayNanos));
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (!succeeded) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return responseTimes.getTotalCount();
+    }
+
+    /**
+     * @param seconds The length of the measured part of the run
+     * @return The result of the request over the run
+     */
+    LoadResult result(double seconds) {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return new LoadResult(
+                scenario,
+                request,
+                count(),
+                errors.sum(),
+                Math.round(count() / seconds * 10) / 10.0,
+                millis(responseTimes, 50),
+                millis(responseTimes, 90),
+                millis(responseTimes, 99),
+                millis(responseTimes, 99.9),
+                responseTimes.getMaxValue() / MICROS_PER_MILLI,
+                millis(serviceTimes, 50),
+                millis(serviceTimes, 99),
+                counts);
+    }
+
+    /**
+     * Write the percentile distribution of the response times in the HdrHistogram {@code .hgrm} format, in
+     * milliseconds, which the HdrHistogram plotter reads
+     *
+     * @param directory The directory to write the file to
+     * @return The written file
+     * @throws IOException if the file cannot be written
+     */
+    Path writeDistribution(Path directory) throws IOException {
+        Path file = directory.resolve((scenario + "-" + request).replaceAll("[^A-Za-z0-9.-]+", "_") + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            responseTimes.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+        return file;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
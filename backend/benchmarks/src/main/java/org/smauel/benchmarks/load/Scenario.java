@@ -0,0 +1,12 @@
+package org.smauel.benchmarks.load;
+
+import java.util.List;
+
+/**
+ * Requests of a collection sent one after the other by a virtual user, sharing the variables they capture
+ *
+ * @param name The name of the scenario
+ * @param weight The share of the arrivals that run this scenario, relative to the other scenarios
+ * @param requests The requests, in the order they are sent
+ */
+public record Scenario(String name, double weight, List<BruRequest> requests) {}
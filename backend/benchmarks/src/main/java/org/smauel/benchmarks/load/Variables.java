@@ -0,0 +1,158 @@
+package org.smauel.benchmarks.load;
+
+import java.net.http.HttpHeaders;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The variables of one scenario iteration: those of the environment, shared by every iteration, and those captured
+ * from the responses of earlier requests in the iteration, which take precedence.
+ *
+ * <p>Placeholders also resolve {@code {{process.env.NAME}}} from the process environment and the Bruno dynamic
+ * variables a collection uses, such as {@code {{$randomUserName}}}. Random user names and emails carry a random suffix
+ * so iterations running at the same time do not create conflicting users. Unknown placeholders are left as they are,
+ * as Bruno does.
+ */
+final class Variables {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([^{}]+?)\\s*}}");
+    private static final Pattern PATH_PARAM = Pattern.compile("(?<=/):([A-Za-z_]\\w*)");
+    private static final Pattern SEGMENT = Pattern.compile("([^.\\[\\]]+)|\\[(\\d+)]");
+    private static final String PROCESS_ENV = "process.env.";
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez"
+    };
+
+    private final Map<String, String> environment;
+    private final Map<String, String> captured = new HashMap<>();
+
+    /**
+     * @param environment The variables of the environment
+     */
+    Variables(Map<String, String> environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @param template Text with {@code {{variable}}} placeholders
+     * @return The text with every known placeholder replaced by its value
+     */
+    String interpolate(String template) {
+        if (template == null || template.indexOf('{') < 0) {
+            return template;
+        }
+        Matcher placeholder = PLACEHOLDER.matcher(template);
+        StringBuilder resolved = new StringBuilder(template.length());
+        while (placeholder.find()) {
+            String value = resolve(placeholder.group(1));
+            placeholder.appendReplacement(
+                    resolved, Matcher.quoteReplacement(value == null ? placeholder.group() : value));
+        }
+        return placeholder.appendTail(resolved).toString();
+    }
+
+    /**
+     * @param request A request of the collection
+     * @return The URL of the request with its placeholders and path parameters resolved
+     */
+    String url(BruRequest request) {
+        String url = interpolate(request.url());
+        if (request.pathParams().isEmpty()) {
+            return url;
+        }
+        Matcher param = PATH_PARAM.matcher(url);
+        StringBuilder resolved = new StringBuilder(url.length());
+        while (param.find()) {
+            String value = request.pathParams().get(param.group(1));
+            param.appendReplacement(
+                    resolved, Matcher.quoteReplacement(value == null ? param.group() : interpolate(value)));
+        }
+        return param.appendTail(resolved).toString();
+    }
+
+    /**
+     * Store the variables a request captures from its response
+     *
+     * @param request The request that was sent
+     * @param status The status of the response
+     * @param headers The headers of the response
+     * @param body The parsed response body, or null if it is empty or not JSON
+     */
+    void capture(BruRequest request, int status, HttpHeaders headers, JsonNode body) {
+        request.captures().forEach((name, expression) -> {
+            String value = evaluate(expression, status, headers, body);
+            if (value != null) {
+                captured.put(name, value);
+            }
+        });
+    }
+
+    private String resolve(String name) {
+        String value = captured.get(name);
+        if (value != null) {
+            return value;
+        }
+        value = environment.get(name);
+        if (value != null) {
+            return value;
+        }
+        if (name.startsWith(PROCESS_ENV)) {
+            return System.getenv(name.substring(PROCESS_ENV.length()));
+        }
+        return name.startsWith("$") ? dynamic(name.substring(1)) : null;
+    }
+
+    private static String dynamic(String name) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String suffix = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+        return switch (name) {
+            case "randomFirstName" -> first;
+            case "randomLastName" -> last;
+            case "randomFullName" -> first + " " + last;
+            case "randomUserName" -> (first + "." + last + "." + suffix).toLowerCase(Locale.ROOT);
+            case "randomEmail" -> (first + "." + last + "." + suffix + "@example.com").toLowerCase(Locale.ROOT);
+            case "randomInt" -> Integer.toString(random.nextInt(1000));
+            case "guid", "randomUUID" -> new UUID(random.nextLong(), random.nextLong()).toString();
+            case "timestamp" -> Long.toString(Instant.now().getEpochSecond());
+            case "isoTimestamp" -> Instant.now().toString();
+            default -> null;
+        };
+    }
+
+    /**
+     * @return The value of a {@code res.status}, {@code res.headers.name} or {@code res.body.path[0].to.value}
+     *     expression, or null if the response does not have it
+     */
+    private static String evaluate(String expression, int status, HttpHeaders headers, JsonNode body) {
+        if (expression.equals("res.status")) {
+            return Integer.toString(status);
+        }
+        if (expression.startsWith("res.headers.")) {
+            return headers.firstValue(expression.substring("res.headers.".length()))
+                    .orElse(null);
+        }
+        if (!expression.startsWith("res.body") || body == null) {
+            return null;
+        }
+        JsonNode node = body;
+        Matcher segment = SEGMENT.matcher(expression.substring("res.body".length()));
+        while (node != null && segment.find()) {
+            node = segment.group(1) != null ? node.get(segment.group(1)) : node.get(Integer.parseInt(segment.group(2)));
+        }
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asString() : node.toString();
+    }
+}
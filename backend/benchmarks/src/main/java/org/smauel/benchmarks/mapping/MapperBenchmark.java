@@ -0,0 +1,45 @@
+package org.smauel.benchmarks.mapping;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smauel.permissions.dto.PermissionDto;
+import org.smauel.permissions.dto.RoleDto;
+import org.smauel.permissions.model.Role;
+import org.smauel.users.dto.UserDto;
+
+/**
+ * Entity to DTO mapping, and back, with the generated MapStruct mappers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    @Benchmark
+    public RoleDto roleToDto(MappingState state) {
+        return state.roleMapper.toDto(state.role);
+    }
+
+    @Benchmark
+    public Role roleToEntity(MappingState state) {
+        return state.roleMapper.toEntity(state.roleDto);
+    }
+
+    @Benchmark
+    public PermissionDto permissionToDto(MappingState state) {
+        return state.permissionMapper.toDto(state.permission);
+    }
+
+    @Benchmark
+    public UserDto userToDto(MappingState state) {
+        return state.userMapper.toDto(state.user);
+    }
+}
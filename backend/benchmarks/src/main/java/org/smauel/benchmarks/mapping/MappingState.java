@@ -0,0 +1,93 @@
+package org.smauel.benchmarks.mapping;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.smauel.permissions.dto.RoleDto;
+import org.smauel.permissions.mapper.PermissionMapper;
+import org.smauel.permissions.mapper.PermissionMapperImpl;
+import org.smauel.permissions.mapper.RoleMapper;
+import org.smauel.permissions.mapper.RoleMapperImpl;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.mapper.UserMapperImpl;
+import org.smauel.users.model.User;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The generated mappers, wired together as they are in the services, and a role of configurable size to map and
+ * serialize
+ */
+@State(Scope.Benchmark)
+public class MappingState {
+    @Param({"1", "10", "100"})
+    public int permissionsPerRole;
+
+    private AnnotationConfigApplicationContext context;
+    RoleMapper roleMapper;
+    PermissionMapper permissionMapper;
+    UserMapper userMapper;
+    JsonMapper jsonMapper;
+    Role role;
+    Permission permission;
+    User user;
+    RoleDto roleDto;
+    byte[] roleJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                RoleMapperImpl.class, PermissionMapperImpl.class, UserMapperImpl.class);
+        roleMapper = context.getBean(RoleMapper.class);
+        permissionMapper = context.getBean(PermissionMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+        jsonMapper = JsonMapper.builder().build();
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Set<Permission> permissions = new HashSet<>();
+        for (long i = 1; i <= permissionsPerRole; i++) {
+            permissions.add(Permission.builder()
+                    .id(i)
+                    .name("BENCHMARK_PERMISSION_" + i)
+                    .description("Benchmark permission " + i)
+                    .type(PermissionType.RESOURCE)
+                    .resource("resource-" + i % 10)
+                    .action(Action.values()[(int) (i % Action.values().length)])
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        permission = permissions.iterator().next();
+        role = Role.builder()
+                .id(1L)
+                .name("BENCHMARK_ROLE")
+                .description("Benchmark role")
+                .permissions(permissions)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        user = User.builder()
+                .id(1L)
+                .username("benchmark")
+                .fullName("Benchmark User")
+                .email("benchmark@example.com")
+                .build();
+        roleDto = roleMapper.toDto(role);
+        roleJson = jsonMapper.writeValueAsBytes(roleDto);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
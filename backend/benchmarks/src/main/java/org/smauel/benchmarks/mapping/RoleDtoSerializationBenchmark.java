@@ -0,0 +1,32 @@
+package org.smauel.benchmarks.mapping;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smauel.permissions.dto.RoleDto;
+
+/**
+ * Jackson serialization of {@link RoleDto}, the largest response body of permissions-api
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RoleDtoSerializationBenchmark {
+
+    @Benchmark
+    public byte[] serialize(MappingState state) {
+        return state.jsonMapper.writeValueAsBytes(state.roleDto);
+    }
+
+    @Benchmark
+    public RoleDto deserialize(MappingState state) {
+        return state.jsonMapper.readValue(state.roleJson, RoleDto.class);
+    }
+}
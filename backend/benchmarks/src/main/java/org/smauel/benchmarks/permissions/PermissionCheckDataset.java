@@ -0,0 +1,47 @@
+package org.smauel.benchmarks.permissions;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A {@link PermissionsDataset} with permission checks answered by one of the paths {@code hasPermission} can take
+ */
+@State(Scope.Benchmark)
+public class PermissionCheckDataset extends PermissionsDataset {
+
+    /**
+     * How permission checks are answered
+     */
+    public enum CheckPath {
+        /**
+         * A query through the user's roles for every check
+         */
+        DATABASE("permissions.engine.enabled=false", "permissions.decision-cache.enabled=false"),
+        /**
+         * The decision cache, loading misses from the db
+         */
+        DECISION_CACHE("permissions.engine.enabled=false", "permissions.decision-cache.enabled=true"),
+        /**
+         * The in-memory authorization engine
+         */
+        ENGINE("permissions.engine.enabled=true", "permissions.decision-cache.enabled=false");
+
+        private final String[] properties;
+
+        CheckPath(String... properties) {
+            this.properties = properties;
+        }
+    }
+
+    @Param({"DATABASE", "DECISION_CACHE", "ENGINE"})
+    public CheckPath path;
+
+    @Override
+    protected String[] properties() {
+        return Stream.concat(Arrays.stream(super.properties()), Arrays.stream(path.properties))
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,174 @@
+package org.smauel.benchmarks.permissions;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.smauel.permissions.PermissionsApplication;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.CreatePermissionRequest;
+import org.smauel.permissions.dto.request.CreateRoleRequest;
+import org.smauel.permissions.engine.AuthorizationEngine;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.readmodel.EffectivePermissionMaintenance;
+import org.smauel.permissions.service.PermissionService;
+import org.smauel.permissions.service.RoleService;
+import org.smauel.permissions.service.UserRoleBulkService;
+import org.smauel.permissions.service.UserRoleService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * A permissions-api context, without its web server, over an in-memory H2 db seeded with a random but reproducible
+ * authorization model of configurable size.
+ *
+ * <p>Every user is granted {@link #rolesPerUser} of {@link #roles} roles, each of which holds {@link
+ * #permissionsPerRole} of {@link #permissions} permissions. The same {@link #seed} always produces the same model, so
+ * results are comparable between runs. Benchmarks read users and permission names from a fixed sequence of probes
+ * drawn from the model, so every run sees the same mix of granted and denied checks.
+ */
+@State(Scope.Benchmark)
+public class PermissionsDataset {
+    private static final int PROBES = 1 << 12;
+    private static final int ASSIGNMENT_CHUNK_SIZE = 10_000;
+
+    @Param({"1000", "10000"})
+    public int users;
+
+    @Param("20")
+    public int roles;
+
+    @Param("100")
+    public int permissions;
+
+    @Param("3")
+    public int rolesPerUser;
+
+    @Param("10")
+    public int permissionsPerRole;
+
+    @Param("42")
+    public long seed;
+
+    private ConfigurableApplicationContext context;
+    private UserRoleService userRoleService;
+    private final long[] probeUserIds = new long[PROBES];
+    private final String[] probePermissions = new String[PROBES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PermissionsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties())
+                .run();
+        userRoleService = context.getBean(UserRoleService.class);
+        seed(new Random(seed));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * @return The service under benchmark
+     */
+    public UserRoleService userRoleService() {
+        return userRoleService;
+    }
+
+    /**
+     * @param probe Any number, wrapped onto the probe sequence
+     * @return The id of the user to check for the probe
+     */
+    public long userId(int probe) {
+        return probeUserIds[probe & (PROBES - 1)];
+    }
+
+    /**
+     * @param probe Any number, wrapped onto the probe sequence
+     * @return The name of the permission to check for the probe
+     */
+    public String permissionName(int probe) {
+        return probePermissions[probe & (PROBES - 1)];
+    }
+
+    /**
+     * @return The properties the context is started with, each db is private to its trial
+     */
+    protected String[] properties() {
+        return new String[] {
+            "spring.main.banner-mode=off",
+            "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime(),
+            "logging.level.root=WARN"
+        };
+    }
+
+    private void seed(Random random) {
+        PermissionService permissionService = context.getBean(PermissionService.class);
+        List<Long> permissionIds = new ArrayList<>(permissions);
+        List<String> permissionNames = new ArrayList<>(permissions);
+        Action[] actions = Action.values();
+        for (int i = 0; i < permissions; i++) {
+            String name = "BENCHMARK_PERMISSION_" + i;
+            permissionIds.add(permissionService
+                    .createPermission(new CreatePermissionRequest(
+                            name, null, PermissionType.RESOURCE, "resource-" + i % 10, actions[i % actions.length]))
+                    .getId());
+            permissionNames.add(name);
+        }
+
+        RoleService roleService = context.getBean(RoleService.class);
+        List<String> roleNames = new ArrayList<>(roles);
+        for (int i = 0; i < roles; i++) {
+            String name = "BENCHMARK_ROLE_" + i;
+            roleService.createRole(new CreateRoleRequest(name, null, pick(random, permissionIds, permissionsPerRole)));
+            roleNames.add(name);
+        }
+
+        Map<String, List<Long>> usersByRole = new LinkedHashMap<>();
+        for (long userId = 1; userId <= users; userId++) {
+            for (String role : pick(random, roleNames, rolesPerUser)) {
+                usersByRole.computeIfAbsent(role, key -> new ArrayList<>()).add(userId);
+            }
+        }
+        UserRoleBulkService bulkService = context.getBean(UserRoleBulkService.class);
+        usersByRole.forEach((role, userIds) -> {
+            for (int from = 0; from < userIds.size(); from += ASSIGNMENT_CHUNK_SIZE) {
+                bulkService.assignRoles(BulkRoleAssignmentRequest.builder()
+                        .userIds(userIds.subList(from, Math.min(from + ASSIGNMENT_CHUNK_SIZE, userIds.size())))
+                        .roleNames(List.of(role))
+                        .grantedBy(0L)
+                        .build());
+            }
+        });
+
+        // Bring the read model and the engine up to date with the seeded model before measuring
+        context.getBean(EffectivePermissionMaintenance.class).verify();
+        context.getBean(AuthorizationEngine.class).refresh();
+
+        for (int i = 0; i < PROBES; i++) {
+            probeUserIds[i] = 1 + random.nextInt(users);
+            probePermissions[i] = permissionNames.get(random.nextInt(permissions));
+        }
+    }
+
+    private static <T> Set<T> pick(Random random, List<T> from, int count) {
+        Set<T> picked = new HashSet<>();
+        while (picked.size() < Math.min(count, from.size())) {
+            picked.add(from.get(random.nextInt(from.size())));
+        }
+        return picked;
+    }
+}
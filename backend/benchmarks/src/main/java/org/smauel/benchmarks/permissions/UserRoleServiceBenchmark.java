@@ -0,0 +1,38 @@
+package org.smauel.benchmarks.permissions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smauel.permissions.dto.PermissionDto;
+
+/**
+ * Permission checks and effective permission reads of {@code UserRoleService}, through its transactional proxy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserRoleServiceBenchmark {
+    private int probe;
+
+    @Benchmark
+    public boolean hasPermission(PermissionCheckDataset dataset) {
+        int next = probe++;
+        return dataset.userRoleService().hasPermission(dataset.userId(next), dataset.permissionName(next));
+    }
+
+    @Benchmark
+    public List<PermissionDto> getUserPermissions(PermissionsDataset dataset) {
+        return dataset.userRoleService().getUserPermissions(dataset.userId(probe++));
+    }
+}
@@ -0,0 +1,243 @@
+package org.smauel.benchmarks.queries;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.smauel.benchmarks.dataset.GeneratedPermissions;
+import org.smauel.benchmarks.dataset.PermissionsDataGenerator;
+import org.smauel.benchmarks.dataset.PermissionsDatasetSpec;
+import org.smauel.permissions.PermissionsApplication;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.ActiveRoleGrant;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Generates a permissions-api dataset and times every query method of its repositories against it.
+ *
+ * <p>Runs permissions-api without its web server against the db it is configured with, so arguments and properties
+ * are those of the application, plus {@code dataset.permissions.*} for the {@link PermissionsDatasetSpec} and {@code
+ * query-suite.*} for the {@link QuerySuiteProperties}. Methods keyed by user run for a regular and a power user, and
+ * methods keyed by role for a role with a deep fan-out.
+ */
+public final class PermissionsQuerySuite {
+    private static final int BATCH_USERS = 100;
+    private static final int BATCH_ROLES = 10;
+    private static final int BATCH_PERMISSIONS = 20;
+    private static final int PAGE_SIZE = 100;
+
+    private PermissionsQuerySuite() {}
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                        PermissionsApplication.class, QuerySuiteConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.org.smauel.benchmarks=INFO")
+                .run(args)) {
+            PermissionsDatasetSpec spec = Binder.get(context.getEnvironment())
+                    .bind("dataset.permissions", PermissionsDatasetSpec.class)
+                    .orElseGet(PermissionsDatasetSpec::new);
+            GeneratedPermissions dataset = PermissionsDataGenerator.load(context, spec);
+            new QuerySuite(context).run("permissions", cases(context, dataset, spec.getSeed()));
+        }
+    }
+
+    /**
+     * @param context The permissions-api context
+     * @param dataset The generated dataset, to pick arguments from
+     * @param seed Seed of the picked arguments
+     * @return A case for every query method of the permissions-api repositories
+     */
+    public static List<QueryCase> cases(ApplicationContext context, GeneratedPermissions dataset, long seed) {
+        PermissionRepository permissions = context.getBean(PermissionRepository.class);
+        RoleRepository roles = context.getBean(RoleRepository.class);
+        UserRoleAssignmentRepository assignments = context.getBean(UserRoleAssignmentRepository.class);
+        UserEffectivePermissionRepository effective = context.getBean(UserEffectivePermissionRepository.class);
+        TableStatisticsRepository statistics = context.getBean(TableStatisticsRepository.class);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long user = regularUser(dataset, random);
+        long powerUser =
+                dataset.powerUserIds().isEmpty() ? user : dataset.powerUserIds().getFirst();
+        int roleIndex = random.nextInt(dataset.roleIds().size());
+        long role = dataset.roleIds().get(roleIndex);
+        String roleName = dataset.roleNames().get(roleIndex);
+        long deepRole =
+                dataset.deepRoleIds().isEmpty() ? role : dataset.deepRoleIds().getFirst();
+        String deepRoleName = dataset.roleNames().get(dataset.roleIds().indexOf(deepRole));
+        int permissionIndex = random.nextInt(dataset.permissionIds().size());
+        long permission = dataset.permissionIds().get(permissionIndex);
+        String permissionName = dataset.permissionNames().get(permissionIndex);
+        String resource =
+                dataset.resources().get(random.nextInt(dataset.resources().size()));
+        List<Long> userBatch = LongStream.generate(() -> 1L + random.nextInt(dataset.users()))
+                .distinct()
+                .limit(Math.min(BATCH_USERS, dataset.users()))
+                .boxed()
+                .toList();
+        List<Long> roleBatch = pick(random, dataset.roleIds(), BATCH_ROLES);
+        List<String> roleNameBatch = pick(random, dataset.roleNames(), BATCH_ROLES);
+        List<String> permissionBatch = pick(random, dataset.permissionNames(), BATCH_PERMISSIONS);
+        UserRoleAssignment assignment = assignments.findByUserId(user).getFirst();
+        long assignmentRole = assignment.getRole().getId();
+        List<Long> powerAssignments = assignments.findByUserId(powerUser).stream()
+                .map(UserRoleAssignment::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<QueryCase> cases = new ArrayList<>();
+        cases.add(QueryCase.lookup(
+                "PermissionRepository.findByName", () -> count(permissions.findByName(permissionName).stream())));
+        cases.add(QueryCase.lookup(
+                "PermissionRepository.findByResource",
+                () -> permissions.findByResource(resource).size()));
+        cases.add(QueryCase.lookup("PermissionRepository.findByTypeAndResource", () -> permissions
+                .findByTypeAndResource(PermissionType.RESOURCE, resource)
+                .size()));
+        cases.add(QueryCase.lookup("PermissionRepository.findBy", () -> permissions
+                .findBy(ScrollPosition.keyset(), Sort.by("id"), Limit.of(PAGE_SIZE))
+                .size()));
+
+        cases.add(QueryCase.lookup("RoleRepository.findByName", () -> count(roles.findByName(roleName).stream())));
+        cases.add(QueryCase.lookup("RoleRepository.findByNameIn", () -> roles.findByNameIn(roleNameBatch)
+                .size()));
+        cases.add(QueryCase.lookup(
+                "RoleRepository.findBy", () -> roles.findBy(ScrollPosition.keyset(), Sort.by("id"), Limit.of(PAGE_SIZE))
+                        .size()));
+        cases.add(QueryCase.lookup(
+                "RoleRepository.findByIdWithPermissions[deep role]", () -> roles.findByIdWithPermissions(deepRole)
+                        .map(found -> found.getPermissions().size())
+                        .orElse(0)));
+        cases.add(QueryCase.lookup(
+                "RoleRepository.findByNameWithPermissions[deep role]",
+                () -> roles.findByNameWithPermissions(deepRoleName)
+                        .map(found -> found.getPermissions().size())
+                        .orElse(0)));
+        cases.add(QueryCase.scan("RoleRepository.findAllRolePermissionNames", () -> roles.findAllRolePermissionNames()
+                .size()));
+
+        for (long[] variant : new long[][] {{user, 0}, {powerUser, 1}}) {
+            long userId = variant[0];
+            String suffix = variant[1] == 0 ? "[user]" : "[power user]";
+            cases.add(QueryCase.lookup(
+                    "UserRoleAssignmentRepository.findByUserId" + suffix,
+                    () -> assignments.findByUserId(userId).size()));
+            cases.add(QueryCase.lookup(
+                    "UserRoleAssignmentRepository.findActiveRoleAssignmentsByUserId" + suffix, () -> assignments
+                            .findActiveRoleAssignmentsByUserId(userId, now)
+                            .size()));
+            cases.add(QueryCase.lookup(
+                    "UserRoleAssignmentRepository.hasPermissionThroughRoles" + suffix,
+                    () -> assignments.hasPermissionThroughRoles(userId, permissionName) ? 1 : 0));
+            cases.add(QueryCase.lookup(
+                    "UserEffectivePermissionRepository.findActivePermissionsByUserId" + suffix,
+                    () -> effective.findActivePermissionsByUserId(userId, now).size()));
+            cases.add(QueryCase.lookup(
+                    "UserEffectivePermissionRepository.findActiveGrantExpiries" + suffix, () -> effective
+                            .findActiveGrantExpiries(userId, permissionName, now)
+                            .size()));
+        }
+        cases.add(QueryCase.lookup(
+                "UserRoleAssignmentRepository.existsActiveByUserIdAndRoleId",
+                () -> assignments.existsActiveByUserIdAndRoleId(user, assignmentRole, now) ? 1 : 0));
+        cases.add(QueryCase.lookup("UserRoleAssignmentRepository.findActiveUserRoleIds", () -> assignments
+                .findActiveUserRoleIds(userBatch, roleBatch, now)
+                .size()));
+        cases.add(QueryCase.scan("UserRoleAssignmentRepository.streamActiveRoleGrants", () -> {
+            try (Stream<ActiveRoleGrant> grants = assignments.streamActiveRoleGrants(now)) {
+                return count(grants);
+            }
+        }));
+        cases.add(QueryCase.lookup("UserRoleAssignmentRepository.deleteByUserIdAndRole_Id", () -> {
+            assignments.deleteByUserIdAndRole_Id(user, assignmentRole);
+            return -1;
+        }));
+        cases.add(QueryCase.lookup("UserRoleAssignmentRepository.deleteByUserId[power user]", () -> {
+            assignments.deleteByUserId(powerUser);
+            return -1;
+        }));
+        cases.add(QueryCase.lookup(
+                "UserRoleAssignmentRepository.deleteByUserIdsAndRoleIds",
+                () -> assignments.deleteByUserIdsAndRoleIds(userBatch, roleBatch)));
+
+        cases.add(QueryCase.lookup("UserEffectivePermissionRepository.findActivePermissionNames", () -> effective
+                .findActivePermissionNames(userBatch, permissionBatch, now)
+                .size()));
+        cases.add(QueryCase.lookup(
+                        "UserEffectivePermissionRepository.insertForAssignment",
+                        () -> effective.insertForAssignment(assignment.getId()))
+                .preparedBy(() -> effective.deleteByUserIdAndRoleId(user, assignmentRole)));
+        cases.add(QueryCase.lookup(
+                        "UserEffectivePermissionRepository.insertForAssignments[power user]",
+                        () -> effective.insertForAssignments(powerAssignments))
+                .preparedBy(() -> effective.deleteByUserId(powerUser)));
+        cases.add(QueryCase.lookup(
+                        "UserEffectivePermissionRepository.insertForRolePermission[deep role]",
+                        () -> effective.insertForRolePermission(deepRole, permission))
+                .preparedBy(() -> effective.deleteByRoleIdAndPermissionId(deepRole, permission)));
+        cases.add(
+                QueryCase.scan("UserEffectivePermissionRepository.insertAllFromSource", effective::insertAllFromSource)
+                        .preparedBy(effective::deleteAllRows));
+        cases.add(QueryCase.lookup(
+                "UserEffectivePermissionRepository.deleteByUserIdAndRoleId",
+                () -> effective.deleteByUserIdAndRoleId(user, assignmentRole)));
+        cases.add(QueryCase.lookup(
+                "UserEffectivePermissionRepository.deleteByUserIdsAndRoleIds",
+                () -> effective.deleteByUserIdsAndRoleIds(userBatch, roleBatch)));
+        cases.add(QueryCase.lookup(
+                "UserEffectivePermissionRepository.deleteByUserId[power user]",
+                () -> effective.deleteByUserId(powerUser)));
+        cases.add(QueryCase.lookup(
+                "UserEffectivePermissionRepository.deleteByRoleIdAndPermissionId[deep role]",
+                () -> effective.deleteByRoleIdAndPermissionId(deepRole, permission)));
+        cases.add(QueryCase.scan("UserEffectivePermissionRepository.deleteAllRows", effective::deleteAllRows));
+        cases.add(QueryCase.scan(
+                "UserEffectivePermissionRepository.countMissingRows", () -> (int) effective.countMissingRows()));
+        cases.add(QueryCase.scan(
+                "UserEffectivePermissionRepository.countUnexpectedRows", () -> (int) effective.countUnexpectedRows()));
+
+        cases.add(QueryCase.lookup("TableStatisticsRepository.estimateRowCount", () ->
+                (int) statistics.estimateRowCount("user_role_assignments")));
+        return cases;
+    }
+
+    private static long regularUser(GeneratedPermissions dataset, SplittableRandom random) {
+        long user;
+        do {
+            user = 1L + random.nextInt(dataset.users());
+        } while (dataset.powerUserIds().contains(user));
+        return user;
+    }
+
+    private static <T> List<T> pick(SplittableRandom random, List<T> from, int count) {
+        List<T> shuffled = new ArrayList<>(from);
+        int picked = Math.min(count, shuffled.size());
+        for (int i = 0; i < picked; i++) {
+            Collections.swap(shuffled, i, i + random.nextInt(shuffled.size() - i));
+        }
+        return List.copyOf(shuffled.subList(0, picked));
+    }
+
+    private static int count(Stream<?> rows) {
+        return (int) rows.count();
+    }
+}
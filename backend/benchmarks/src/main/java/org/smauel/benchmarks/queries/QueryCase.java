@@ -0,0 +1,39 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A repository method call timed by the query suite
+ *
+ * @param name The repository and method, and the variant of its arguments if there are several
+ * @param scan Whether the query reads a whole table, scans run fewer iterations
+ * @param prepare Untimed setup run in the same transaction before the query, such as deleting rows the query inserts
+ * @param query The call, returning the number of rows it read or wrote, or -1 if the method does not tell
+ */
+public record QueryCase(String name, boolean scan, Runnable prepare, IntSupplier query) {
+    /**
+     * @param name The repository and method
+     * @param query The call, returning the number of rows it read or wrote, or -1 if the method does not tell
+     * @return A query that reads or writes a bounded number of rows
+     */
+    public static QueryCase lookup(String name, IntSupplier query) {
+        return new QueryCase(name, false, () -> {}, query);
+    }
+
+    /**
+     * @param name The repository and method
+     * @param query The call, returning the number of rows it read or wrote, or -1 if the method does not tell
+     * @return A query that reads or writes a whole table
+     */
+    public static QueryCase scan(String name, IntSupplier query) {
+        return new QueryCase(name, true, () -> {}, query);
+    }
+
+    /**
+     * @param setup Untimed setup run in the same transaction before the query
+     * @return This query, prepared by the setup
+     */
+    public QueryCase preparedBy(Runnable setup) {
+        return new QueryCase(name, scan, setup, query);
+    }
+}
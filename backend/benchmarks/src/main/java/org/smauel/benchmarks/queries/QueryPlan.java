@@ -0,0 +1,12 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.List;
+
+/**
+ * The plan of one statement executed by a repository method
+ *
+ * @param sql The SQL of the statement
+ * @param parameters The parameters it was executed with
+ * @param plan The output of {@code EXPLAIN}, or why it could not be explained
+ */
+public record QueryPlan(String sql, List<String> parameters, String plan) {}
@@ -0,0 +1,19 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.List;
+
+/**
+ * Timings and plans of one {@link QueryCase}. Times are in microseconds, and include flushing the persistence context
+ * but not beginning or rolling back the transaction.
+ *
+ * @param name The name of the case
+ * @param rows The number of rows the query read or wrote, or -1 if the method does not tell
+ * @param iterations The number of measured calls
+ * @param p50 The median time
+ * @param p95 The 95th percentile time
+ * @param p99 The 99th percentile time
+ * @param max The slowest call
+ * @param plans The plans of the statements the query executed
+ */
+public record QueryResult(
+        String name, int rows, int iterations, double p50, double p95, double p99, double max, List<QueryPlan> plans) {}
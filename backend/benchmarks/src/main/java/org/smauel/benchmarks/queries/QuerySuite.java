@@ -0,0 +1,243 @@
+package org.smauel.benchmarks.queries;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Times repository methods against a generated dataset and captures the plan of every statement they execute.
+ *
+ * <p>Every call runs in its own transaction that is rolled back afterwards, so queries that write leave the dataset as
+ * generated and every call sees the same data. The persistence context is flushed inside the timing, so methods that
+ * load entities before deleting them are timed with their deletes. The statements of each case are recorded once,
+ * through the {@link RecordingListener} added by {@link QuerySuiteConfig}, then explained with the parameters
+ * they were executed with, with {@code EXPLAIN (ANALYZE, BUFFERS)} on PostgreSQL and {@code EXPLAIN ANALYZE} on H2.
+ *
+ * <p>Results are logged and written as JSON to {@code <output>/<suite>.json}.
+ */
+@Slf4j
+public class QuerySuite {
+    private static final Pattern EXPLAINABLE =
+            Pattern.compile("^\\s*(select|with|insert|update|delete)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final QuerySuiteProperties properties;
+    private final TransactionTemplate rollbackTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    public QuerySuite(ApplicationContext context) {
+        this.properties = Binder.get(context.getEnvironment())
+                .bind("query-suite", QuerySuiteProperties.class)
+                .orElseGet(QuerySuiteProperties::new);
+        this.rollbackTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        this.dataSource = context.getBean(DataSource.class);
+    }
+
+    /**
+     * Run every case and write the report
+     *
+     * @param suite The name of the suite, and of its report
+     * @param cases The queries to time
+     * @return The result of every case run
+     * @throws IOException if the report cannot be written
+     */
+    public List<QueryResult> run(String suite, List<QueryCase> cases) throws IOException {
+        List<QueryResult> results = new ArrayList<>();
+        for (QueryCase queryCase : cases) {
+            if (queryCase.name().contains(properties.getInclude())) {
+                results.add(run(queryCase));
+            }
+        }
+        Path output = Path.of(properties.getOutput());
+        Files.createDirectories(output);
+        Path report = output.resolve(suite + ".json");
+        JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(report.toFile(), new Report(suite, results));
+        log.info("Query suite {}\n{}", suite, table(results));
+        log.info("Wrote query suite report to {}", report.toAbsolutePath());
+        return results;
+    }
+
+    /**
+     * The JSON report of a suite
+     *
+     * @param suite The name of the suite
+     * @param results The result of every case run
+     */
+    public record Report(String suite, List<QueryResult> results) {}
+
+    private QueryResult run(QueryCase queryCase) {
+        int warmup = queryCase.scan() ? properties.getScanWarmup() : properties.getWarmup();
+        int iterations = Math.max(1, queryCase.scan() ? properties.getScanIterations() : properties.getIterations());
+        for (int i = 0; i < warmup; i++) {
+            time(queryCase);
+        }
+        long[] nanos = new long[iterations];
+        int rows = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] sample = time(queryCase);
+            nanos[i] = sample[0];
+            rows = (int) sample[1];
+        }
+        Arrays.sort(nanos);
+        List<QueryPlan> plans = properties.isExplain() ? plans(queryCase) : List.of();
+        log.info("Timed {} over {} calls, p50 {} µs", queryCase.name(), iterations, micros(percentile(nanos, 0.50)));
+        return new QueryResult(
+                queryCase.name(),
+                rows,
+                iterations,
+                micros(percentile(nanos, 0.50)),
+                micros(percentile(nanos, 0.95)),
+                micros(percentile(nanos, 0.99)),
+                micros(nanos[nanos.length - 1]),
+                plans);
+    }
+
+    /**
+     * @return The time of one call in nanoseconds, and the rows it returned
+     */
+    private long[] time(QueryCase queryCase) {
+        return rollbackTemplate.execute(status -> {
+            status.setRollbackOnly();
+            EntityManager entityManager = prepare(queryCase);
+            long start = System.nanoTime();
+            int rows = queryCase.query().getAsInt();
+            entityManager.flush();
+            return new long[] {System.nanoTime() - start, rows};
+        });
+    }
+
+    private List<QueryPlan> plans(QueryCase queryCase) {
+        List<RecordedStatement> statements = rollbackTemplate.execute(status -> {
+            status.setRollbackOnly();
+            EntityManager entityManager = prepare(queryCase);
+            return RecordingListener.record(() -> {
+                queryCase.query().getAsInt();
+                entityManager.flush();
+            });
+        });
+        return rollbackTemplate.execute(status -> {
+            status.setRollbackOnly();
+            prepare(queryCase);
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                String explain = explainPrefix(connection);
+                return statements.stream()
+                        .map(statement -> explain(connection, explain, statement))
+                        .toList();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to explain " + queryCase.name(), e);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        });
+    }
+
+    private EntityManager prepare(QueryCase queryCase) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        queryCase.prepare().run();
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager;
+    }
+
+    private static QueryPlan explain(Connection connection, String explain, RecordedStatement statement) {
+        List<String> parameters =
+                statement.parameters().stream().map(String::valueOf).toList();
+        if (!EXPLAINABLE.matcher(statement.sql()).find()) {
+            return new QueryPlan(statement.sql(), parameters, "Not explainable");
+        }
+        // A failed statement aborts the whole transaction on PostgreSQL, so each explain gets its own savepoint
+        Savepoint savepoint = null;
+        try {
+            savepoint = connection.setSavepoint();
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement prepared = connection.prepareStatement(explain + statement.sql())) {
+                for (int i = 0; i < statement.parameters().size(); i++) {
+                    prepared.setObject(i + 1, statement.parameters().get(i));
+                }
+                try (ResultSet result = prepared.executeQuery()) {
+                    while (result.next()) {
+                        plan.append(result.getString(1)).append('\n');
+                    }
+                }
+            }
+            connection.releaseSavepoint(savepoint);
+            return new QueryPlan(statement.sql(), parameters, plan.toString().strip());
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                try {
+                    connection.rollback(savepoint);
+                } catch (SQLException rollback) {
+                    e.addSuppressed(rollback);
+                }
+            }
+            log.warn("Failed to explain {}: {}", statement.sql(), e.getMessage());
+            return new QueryPlan(statement.sql(), parameters, "EXPLAIN failed: " + e.getMessage());
+        }
+    }
+
+    private static String explainPrefix(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        return switch (product) {
+            case "PostgreSQL" -> "EXPLAIN (ANALYZE, BUFFERS) ";
+            case "H2" -> "EXPLAIN ANALYZE ";
+            default -> "EXPLAIN ";
+        };
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    private static String table(List<QueryResult> results) {
+        int width = results.stream()
+                .mapToInt(result -> result.name().length())
+                .max()
+                .orElse(4);
+        String format = "%-" + width + "s %8s %10s %10s %10s %10s%n";
+        StringBuilder table = new StringBuilder(
+                String.format(Locale.ROOT, format, "Case", "Rows", "p50 µs", "p95 µs", "p99 µs", "max µs"));
+        for (QueryResult result : results) {
+            table.append(String.format(
+                    Locale.ROOT,
+                    format,
+                    result.name(),
+                    result.rows(),
+                    result.p50(),
+                    result.p95(),
+                    result.p99(),
+                    result.max()));
+        }
+        return table.toString();
+    }
+}
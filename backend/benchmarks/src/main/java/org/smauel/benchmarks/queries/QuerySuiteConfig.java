@@ -0,0 +1,15 @@
+package org.smauel.benchmarks.queries;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Added to the application under test by the query suites, adds a {@link RecordingListener} to its data source.
+ */
+@Configuration(proxyBeanMethods = false)
+public class QuerySuiteConfig {
+    @Bean
+    RecordingListener recordingListener() {
+        return new RecordingListener();
+    }
+}
@@ -0,0 +1,44 @@
+package org.smauel.benchmarks.queries;
+
+import lombok.Data;
+
+/**
+ * Options of a query suite run, bound from {@code query-suite.*}
+ */
+@Data
+public class QuerySuiteProperties {
+    /**
+     * Calls of a lookup made before measuring
+     */
+    private int warmup = 20;
+
+    /**
+     * Measured calls of a lookup
+     */
+    private int iterations = 200;
+
+    /**
+     * Calls of a scan made before measuring
+     */
+    private int scanWarmup = 1;
+
+    /**
+     * Measured calls of a scan
+     */
+    private int scanIterations = 5;
+
+    /**
+     * Whether to capture the plan of every statement with {@code EXPLAIN ANALYZE}
+     */
+    private boolean explain = true;
+
+    /**
+     * Only run cases whose name contains this, or every case if empty
+     */
+    private String include = "";
+
+    /**
+     * Directory the JSON report of each suite is written to
+     */
+    private String output = "target/query-suite";
+}
@@ -0,0 +1,11 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.List;
+
+/**
+ * A statement sent to the db while recording, with the parameters it was executed with
+ *
+ * @param sql The SQL of the statement, with {@code ?} placeholders
+ * @param parameters The bound parameters in placeholder order, empty for a plain statement
+ */
+public record RecordedStatement(String sql, List<Object> parameters) {}
@@ -0,0 +1,76 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Records the statements the current thread executes while {@link #record} runs, so the query suite can explain exactly
+ * the SQL, and the parameters, that a repository method sent to the db.
+ *
+ * <p>Outside of {@link #record} statements cost a thread local read. Each distinct SQL string is recorded once per
+ * recording, with the parameters of its first execution, so batches and padded {@code IN} lists do not flood the
+ * result.
+ */
+public class RecordingListener implements QueryExecutionListener {
+    private static final ThreadLocal<Map<String, RecordedStatement>> RECORDING = new ThreadLocal<>();
+
+    /**
+     * Run an action and collect the statements it executes on this thread
+     *
+     * @param action The action to record
+     * @return The distinct statements executed, in order of first execution
+     */
+    public static List<RecordedStatement> record(Runnable action) {
+        Map<String, RecordedStatement> previous = RECORDING.get();
+        Map<String, RecordedStatement> recorded = new LinkedHashMap<>();
+        RECORDING.set(recorded);
+        try {
+            action.run();
+        } finally {
+            RECORDING.set(previous);
+        }
+        return List.copyOf(recorded.values());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Map<String, RecordedStatement> recorded = RECORDING.get();
+        if (recorded == null) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            recorded.computeIfAbsent(
+                    query.getQuery(),
+                    sql -> new RecordedStatement(
+                            sql,
+                            query.getParametersList().isEmpty()
+                                    ? List.of()
+                                    : parameters(query.getParametersList().getFirst())));
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    /**
+     * @return The values bound, in order of their index, with {@code setNull} recorded as null
+     */
+    private static List<Object> parameters(List<ParameterSetOperation> operations) {
+        List<Object> parameters = new ArrayList<>();
+        operations.stream()
+                .filter(operation -> operation.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .forEach(operation -> parameters.add(
+                        ParameterSetOperation.isSetNullParameterOperation(operation)
+                                ? null
+                                : operation.getArgs()[1]));
+        return parameters;
+    }
+}
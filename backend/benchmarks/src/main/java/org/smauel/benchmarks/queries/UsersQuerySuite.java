@@ -0,0 +1,145 @@
+package org.smauel.benchmarks.queries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.smauel.benchmarks.dataset.GeneratedUsers;
+import org.smauel.benchmarks.dataset.UsersDataGenerator;
+import org.smauel.benchmarks.dataset.UsersDatasetSpec;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.smauel.users.Main;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserBulkRepository;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Generates a users-api dataset and times every query method of its repositories against it.
+ *
+ * <p>Runs users-api without its web server against the db it is configured with, so arguments and properties are
+ * those of the application, plus {@code dataset.users.*} for the {@link UsersDatasetSpec} and {@code query-suite.*}
+ * for the {@link QuerySuiteProperties}. The application.yml of permissions-api comes first on the benchmarks
+ * classpath, so the users-api settings that change its queries are added as defaults here.
+ */
+public final class UsersQuerySuite {
+    private static final int BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 100;
+
+    private UsersQuerySuite() {}
+
+    public static void main(String[] args) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class, QuerySuiteConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=true",
+                        "logging.level.root=WARN",
+                        "logging.level.org.smauel.benchmarks=INFO")
+                .run(args)) {
+            UsersDatasetSpec spec = Binder.get(context.getEnvironment())
+                    .bind("dataset.users", UsersDatasetSpec.class)
+                    .orElseGet(UsersDatasetSpec::new);
+            GeneratedUsers dataset = UsersDataGenerator.load(context, spec);
+            new QuerySuite(context).run("users", cases(context, dataset, spec.getSeed()));
+        }
+    }
+
+    /**
+     * @param context The users-api context
+     * @param dataset The generated dataset, to pick arguments from
+     * @param seed Seed of the picked arguments
+     * @return A case for every query method of the users-api repositories
+     */
+    public static List<QueryCase> cases(ApplicationContext context, GeneratedUsers dataset, long seed) {
+        UserRepository users = context.getBean(UserRepository.class);
+        UserBulkRepository bulk = context.getBean(UserBulkRepository.class);
+        TableStatisticsRepository statistics = context.getBean(TableStatisticsRepository.class);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        String username =
+                dataset.usernames().get(random.nextInt(dataset.usernames().size()));
+        List<String> usernameBatch = pick(random, dataset.usernames(), BATCH_SIZE);
+        List<String> lookupBatch = Stream.concat(
+                        usernameBatch.stream().limit(BATCH_SIZE / 2),
+                        IntStream.range(0, BATCH_SIZE / 2).mapToObj(i -> "missing.user." + i))
+                .toList();
+        List<Long> idBatch = LongStream.generate(() -> dataset.firstId() + random.nextInt(dataset.users()))
+                .distinct()
+                .limit(Math.min(BATCH_SIZE, dataset.users()))
+                .boxed()
+                .toList();
+        long middleId = dataset.firstId() + dataset.users() / 2;
+
+        List<QueryCase> cases = new ArrayList<>();
+        cases.add(QueryCase.lookup(
+                "UserRepository.findByUsername",
+                () -> users.findByUsername(username).isPresent() ? 1 : 0));
+        cases.add(QueryCase.lookup("UserRepository.existsByUsername", () -> users.existsByUsername(username) ? 1 : 0));
+        cases.add(QueryCase.lookup("UserRepository.findByUsernameIn", () -> users.findByUsernameIn(usernameBatch)
+                .size()));
+        cases.add(QueryCase.lookup("UserRepository.findBy[id]", () -> users.findBy(
+                        ScrollPosition.keyset(), Sort.by("id"), Limit.of(PAGE_SIZE))
+                .size()));
+        cases.add(QueryCase.lookup("UserRepository.findBy[username desc]", () -> users.findBy(
+                        ScrollPosition.keyset(),
+                        Sort.by(Sort.Order.desc("username"), Sort.Order.desc("id")),
+                        Limit.of(PAGE_SIZE))
+                .size()));
+        cases.add(QueryCase.scan("UserRepository.streamByIdGreaterThan[half]", () -> {
+            try (Stream<User> stream = users.streamByIdGreaterThan(middleId)) {
+                return (int) stream.count();
+            }
+        }));
+        cases.add(QueryCase.scan("UserRepository.streamAllUsernames", () -> {
+            try (Stream<String> stream = users.streamAllUsernames()) {
+                return (int) stream.count();
+            }
+        }));
+
+        cases.add(QueryCase.lookup(
+                "UserBulkRepository.findExistingUsernames",
+                () -> bulk.findExistingUsernames(lookupBatch).size()));
+        cases.add(QueryCase.lookup("UserBulkRepository.insertAll", () -> {
+            List<User> created = IntStream.range(0, BATCH_SIZE)
+                    .mapToObj(i -> User.builder()
+                            .username("query.suite." + i)
+                            .fullName("Query Suite " + i)
+                            .email("query.suite." + i + "@example.com")
+                            .build())
+                    .toList();
+            bulk.insertAll(created);
+            return created.size();
+        }));
+        cases.add(QueryCase.lookup("UserBulkRepository.updateAll", () -> bulk.updateAll(idBatch.stream()
+                        .map(id ->
+                                User.builder().id(id).fullName("Updated " + id).build())
+                        .toList())
+                .size()));
+        cases.add(QueryCase.lookup(
+                "UserBulkRepository.deleteAll", () -> bulk.deleteAll(idBatch).size()));
+
+        cases.add(QueryCase.lookup(
+                "TableStatisticsRepository.estimateRowCount", () -> (int) statistics.estimateRowCount("users")));
+        return cases;
+    }
+
+    private static <T> List<T> pick(SplittableRandom random, List<T> from, int count) {
+        List<T> shuffled = new ArrayList<>(from);
+        int picked = Math.min(count, shuffled.size());
+        for (int i = 0; i < picked; i++) {
+            Collections.swap(shuffled, i, i + random.nextInt(shuffled.size() - i));
+        }
+        return List.copyOf(shuffled.subList(0, picked));
+    }
+}
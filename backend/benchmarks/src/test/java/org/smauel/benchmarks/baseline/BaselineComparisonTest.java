@@ -0,0 +1,120 @@
+package org.smauel.benchmarks.baseline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.benchmarks.baseline.BaselineComparison.Difference;
+import org.smauel.benchmarks.baseline.BaselineComparison.Verdict;
+
+@DisplayName("Baseline Comparison")
+class BaselineComparisonTest {
+    private static final double THRESHOLD = 0.1;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should read scores, parameters and allocation from a JMH report")
+    void shouldReadReport() throws IOException {
+        Path report = directory.resolve("result.json");
+        Files.writeString(
+                report,
+                """
+                [
+                  {
+                    "benchmark": "org.smauel.benchmarks.mapping.MapperBenchmark.roleToDto",
+                    "mode": "avgt",
+                    "params": {"permissionsPerRole": "10"},
+                    "primaryMetric": {"score": 120.5, "scoreError": 3.5, "scoreUnit": "ns/op"},
+                    "secondaryMetrics": {"gc.alloc.rate.norm": {"score": 1024.0, "scoreUnit": "B/op"}}
+                  },
+                  {
+                    "benchmark": "org.smauel.benchmarks.mapping.RoleDtoSerializationBenchmark.serialize",
+                    "mode": "thrpt",
+                    "primaryMetric": {"score": 5.0, "scoreError": "NaN", "scoreUnit": "ops/us"},
+                    "secondaryMetrics": {}
+                  }
+                ]
+                """);
+
+        assertThat(BenchmarkScore.read(report))
+                .containsExactly(
+                        new BenchmarkScore(
+                                "MapperBenchmark.roleToDto{permissionsPerRole=10}",
+                                "avgt",
+                                120.5,
+                                3.5,
+                                "ns/op",
+                                1024.0),
+                        new BenchmarkScore("RoleDtoSerializationBenchmark.serialize", "thrpt", 5.0, 0, "ops/us", null));
+    }
+
+    @Test
+    @DisplayName("Should flag a slower average time beyond the threshold and the confidence intervals")
+    void shouldFlagSlowerAverageTime() {
+        assertThat(verdict(score("avgt", 100, 2, null), score("avgt", 120, 2, null)))
+                .isEqualTo(Verdict.REGRESSED);
+        assertThat(verdict(score("avgt", 100, 2, null), score("avgt", 80, 2, null)))
+                .isEqualTo(Verdict.IMPROVED);
+    }
+
+    @Test
+    @DisplayName("Should treat a lower throughput as a regression")
+    void shouldFlagLowerThroughput() {
+        assertThat(verdict(score("thrpt", 100, 2, null), score("thrpt", 80, 2, null)))
+                .isEqualTo(Verdict.REGRESSED);
+    }
+
+    @Test
+    @DisplayName("Should ignore changes within the threshold or within the confidence intervals")
+    void shouldIgnoreNoise() {
+        assertThat(verdict(score("avgt", 100, 1, null), score("avgt", 105, 1, null)))
+                .isEqualTo(Verdict.UNCHANGED);
+        assertThat(verdict(score("avgt", 100, 15, null), score("avgt", 125, 15, null)))
+                .isEqualTo(Verdict.UNCHANGED);
+    }
+
+    @Test
+    @DisplayName("Should flag more allocation per operation even when the score is unchanged")
+    void shouldFlagMoreAllocation() {
+        assertThat(verdict(score("avgt", 100, 1, 1000.0), score("avgt", 100, 1, 1200.0)))
+                .isEqualTo(Verdict.REGRESSED);
+        assertThat(verdict(score("avgt", 100, 1, 24.0), score("avgt", 100, 1, 32.0)))
+                .isEqualTo(Verdict.UNCHANGED);
+    }
+
+    @Test
+    @DisplayName("Should report benchmarks missing from either report")
+    void shouldReportNewAndRemovedBenchmarks() {
+        BenchmarkScore kept = score("avgt", 100, 1, null);
+        BenchmarkScore removed = new BenchmarkScore("Removed.benchmark", "avgt", 1, 0, "ns/op", null);
+        BenchmarkScore added = new BenchmarkScore("Added.benchmark", "avgt", 1, 0, "ns/op", null);
+
+        List<Difference> differences =
+                BaselineComparison.compare(List.of(kept, removed), List.of(kept, added), THRESHOLD);
+
+        assertThat(differences)
+                .extracting(Difference::key, Difference::verdict)
+                .containsExactly(
+                        tuple(kept.key(), Verdict.UNCHANGED),
+                        tuple("Added.benchmark", Verdict.NEW),
+                        tuple("Removed.benchmark", Verdict.REMOVED));
+    }
+
+    private static Verdict verdict(BenchmarkScore baseline, BenchmarkScore current) {
+        return BaselineComparison.compare(List.of(baseline), List.of(current), THRESHOLD)
+                .getFirst()
+                .verdict();
+    }
+
+    private static BenchmarkScore score(String mode, double score, double error, Double allocatedBytes) {
+        return new BenchmarkScore("Benchmark.method", mode, score, error, "ns/op", allocatedBytes);
+    }
+}
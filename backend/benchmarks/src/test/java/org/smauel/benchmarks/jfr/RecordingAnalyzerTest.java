@@ -0,0 +1,201 @@
+package org.smauel.benchmarks.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.Call;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.CallStats;
+import org.smauel.benchmarks.jfr.RecordingAnalysis.SlowRequest;
+
+@DisplayName("Recording Analyzer")
+class RecordingAnalyzerTest {
+    @TempDir
+    private Path directory;
+
+    private AnalyzerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyzerProperties();
+        properties.setOutput(directory.resolve("report").toString());
+    }
+
+    @Test
+    @DisplayName("Should report the slowest requests with the calls made while handling them")
+    void shouldReportSlowestRequests() throws Exception {
+        Path file = record(() -> {
+            request("fast", "/api/v1/users/{id}", 0, () -> repositoryCall("fast", "findById", 1, 0));
+            request("slow", "/api/v1/user-roles/users/{userId}/roles", 20, () -> {
+                serviceCall("slow", "getUserRoles", () -> repositoryCall("slow", "findActiveRoleAssignments", 2, 5));
+                permissionCheck("slow", "user:read");
+            });
+        });
+        properties.setRecording(file.toString());
+
+        RecordingAnalysis analysis = new RecordingAnalyzer(properties).run();
+
+        assertThat(analysis.slowestRequests())
+                .extracting(SlowRequest::requestId)
+                .containsExactly("slow", "fast");
+        assertThat(analysis.slowestRequests().getFirst().calls())
+                .extracting(Call::type, Call::name, Call::detail)
+                .containsExactly(
+                        tuple("service", "UserRoleService#getUserRoles", ""),
+                        tuple("repository", "UserRoleAssignmentRepository#findActiveRoleAssignments", "2 rows"),
+                        tuple("permission", "user:read", "granted by engine"));
+        assertThat(analysis.slowestRequests().getFirst().duration()).isGreaterThanOrEqualTo(20);
+        assertThat(analysis.requests())
+                .extracting(CallStats::name)
+                .containsExactly("GET /api/v1/user-roles/users/{userId}/roles", "GET /api/v1/users/{id}");
+        assertThat(analysis.repositoryCalls())
+                .extracting(CallStats::name, CallStats::count, CallStats::rows)
+                .containsExactlyInAnyOrder(
+                        tuple("UserRoleAssignmentRepository#findActiveRoleAssignments", 1L, 2L),
+                        tuple("UserRoleAssignmentRepository#findById", 1L, 1L));
+        assertThat(analysis.permissionChecks()).singleElement().satisfies(check -> assertThat(check.name())
+                .isEqualTo("engine"));
+        assertThat(directory.resolve("report").resolve("recording.json")).exists();
+    }
+
+    @Test
+    @DisplayName("Should report the hottest methods and code paths of the focus package")
+    void shouldReportHottestMethodsAndPaths() throws Exception {
+        Path file = record(RecordingAnalyzerTest::spin);
+        properties.setRecording(file.toString());
+        properties.setFocus(RecordingAnalyzerTest.class.getName());
+
+        RecordingAnalysis analysis = new RecordingAnalyzer(properties).analyze(file);
+
+        assertThat(analysis.samples()).isPositive();
+        assertThat(analysis.hottestMethods())
+                .anySatisfy(method -> assertThat(method.method()).endsWith("RecordingAnalyzerTest.spin"));
+        assertThat(analysis.hottestPaths()).first().satisfies(path -> assertThat(path.frames())
+                .allMatch(frame -> frame.startsWith(RecordingAnalyzerTest.class.getName())));
+    }
+
+    private Path record(Runnable work) throws Exception {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(1));
+            recording.enable(HttpRequest.class);
+            recording.enable(ServiceCall.class);
+            recording.enable(RepositoryCall.class);
+            recording.enable(PermissionCheck.class);
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        assertThat(Files.size(file)).isPositive();
+        return file;
+    }
+
+    private static long spin() {
+        long deadline = System.nanoTime() + Duration.ofMillis(300).toNanos();
+        long sum = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 10_000; i++) {
+                sum += i * 31L ^ sum;
+            }
+        }
+        return sum;
+    }
+
+    private static void request(String requestId, String uri, long sleepMillis, Runnable calls) {
+        HttpRequest event = new HttpRequest();
+        event.begin();
+        calls.run();
+        sleep(sleepMillis);
+        event.requestId = requestId;
+        event.method = "GET";
+        event.uri = uri;
+        event.status = 200;
+        event.commit();
+    }
+
+    private static void serviceCall(String requestId, String method, Runnable calls) {
+        ServiceCall event = new ServiceCall();
+        event.begin();
+        calls.run();
+        event.requestId = requestId;
+        event.service = "UserRoleService";
+        event.method = method;
+        event.commit();
+    }
+
+    private static void repositoryCall(String requestId, String method, int rows, long sleepMillis) {
+        RepositoryCall event = new RepositoryCall();
+        event.begin();
+        sleep(sleepMillis);
+        event.requestId = requestId;
+        event.repository = "UserRoleAssignmentRepository";
+        event.method = method;
+        event.rows = rows;
+        event.commit();
+    }
+
+    private static void permissionCheck(String requestId, String permission) {
+        PermissionCheck event = new PermissionCheck();
+        event.begin();
+        event.requestId = requestId;
+        event.userIdHash = 42;
+        event.permission = permission;
+        event.source = "engine";
+        event.granted = true;
+        event.roleCount = 3;
+        event.commit();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Name(RecordingAnalyzer.HTTP_REQUEST)
+    static class HttpRequest extends Event {
+        String requestId;
+        String method;
+        String uri;
+        int status;
+    }
+
+    @Name(RecordingAnalyzer.SERVICE_CALL)
+    static class ServiceCall extends Event {
+        String requestId;
+        String service;
+        String method;
+        String exception;
+    }
+
+    @Name(RecordingAnalyzer.REPOSITORY_CALL)
+    static class RepositoryCall extends Event {
+        String requestId;
+        String repository;
+        String method;
+        int rows;
+        String exception;
+    }
+
+    @Name(RecordingAnalyzer.PERMISSION_CHECK)
+    static class PermissionCheck extends Event {
+        String requestId;
+        long userIdHash;
+        String permission;
+        String source;
+        boolean granted;
+        int roleCount;
+    }
+}
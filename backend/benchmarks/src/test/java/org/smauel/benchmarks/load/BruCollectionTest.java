@@ -0,0 +1,100 @@
+package org.smauel.benchmarks.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.net.http.HttpHeaders;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+@DisplayName("Bru Collection")
+class BruCollectionTest {
+    private static final BruCollection COLLECTION =
+            BruCollection.open(Path.of("../../collections/src/main/resources/integration-tests"));
+
+    @Test
+    @DisplayName("Should read the variables of an environment")
+    void shouldReadEnvironment() {
+        assertThat(COLLECTION.environment("local"))
+                .containsOnly(
+                        entry("users-api", "http://localhost:8080"), entry("permissions-api", "http://localhost:8081"));
+    }
+
+    @Test
+    @DisplayName("Should list the folders holding requests in run order")
+    void shouldListFolders() {
+        assertThat(COLLECTION.folders())
+                .containsExactly(
+                        "users-api/api-v1-users", "permissions-api/api-v1-permissions", "permissions-api/api-v1-roles");
+    }
+
+    @Test
+    @DisplayName("Should read the requests of a folder in seq order")
+    void shouldReadRequestsInOrder() {
+        List<BruRequest> requests = COLLECTION.requests("users-api");
+
+        assertThat(requests)
+                .extracting(BruRequest::name)
+                .startsWith("Get All Users", "Create User", "Get User By Id")
+                .endsWith("Check Username Availability");
+        assertThat(requests).extracting(BruRequest::seq).isSorted();
+    }
+
+    @Test
+    @DisplayName("Should read the method, body, captures and asserted status of a request")
+    void shouldReadRequest() {
+        BruRequest create = COLLECTION.requests("users-api/api-v1-users").get(1);
+
+        assertThat(create.method()).isEqualTo("POST");
+        assertThat(create.url()).isEqualTo("{{users-api}}/api/v1/users");
+        assertThat(create.contentType()).isEqualTo("application/json");
+        assertThat(create.body()).startsWith("{\n  \"username\": \"{{$randomUserName}}\"");
+        assertThat(create.captures()).containsEntry("userId", "res.body.id");
+        assertThat(create.expectedStatus()).isEqualTo(201);
+        assertThat(create.succeeded(201)).isTrue();
+        assertThat(create.succeeded(200)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read path parameters and requests without a body")
+    void shouldReadPathParameters() {
+        BruRequest get = COLLECTION.requests("users-api/api-v1-users").get(2);
+
+        assertThat(get.method()).isEqualTo("GET");
+        assertThat(get.pathParams()).containsOnly(entry("id", "{{userId}}"));
+        assertThat(get.body()).isNull();
+        assertThat(get.contentType()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should interpolate captured variables, path parameters and dynamic values")
+    void shouldInterpolate() {
+        List<BruRequest> requests = COLLECTION.requests("users-api/api-v1-users");
+        Variables variables = new Variables(COLLECTION.environment("local"));
+        variables.capture(
+                requests.get(1),
+                201,
+                HttpHeaders.of(Map.of(), (name, value) -> true),
+                new JsonMapper().readTree("{\"id\": 7, \"username\": \"jane\"}"));
+
+        assertThat(variables.url(requests.get(2))).isEqualTo("http://localhost:8080/api/v1/users/7");
+        assertThat(variables.interpolate(requests.get(1).body()))
+                .doesNotContain("{{")
+                .containsPattern("\"username\": \"[a-z]+\\.[a-z]+\\.[a-z0-9]+\"")
+                .containsPattern("\"email\": \"[a-z.0-9]+@example\\.com\"");
+        assertThat(variables.interpolate("{{unknown}}")).isEqualTo("{{unknown}}");
+    }
+
+    @Test
+    @DisplayName("Should reject a directory that is not a collection")
+    void shouldRejectMissingCollection() {
+        assertThatThrownBy(() -> BruCollection.open(Path.of("target")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("No Bruno collection at");
+    }
+}
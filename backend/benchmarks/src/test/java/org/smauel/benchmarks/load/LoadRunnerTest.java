@@ -0,0 +1,223 @@
+package org.smauel.benchmarks.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.benchmarks.load.LoadProperties.ScenarioProperties;
+
+@DisplayName("Load Runner")
+class LoadRunnerTest {
+    private static final long SLOW_MILLIS = 20;
+
+    @TempDir
+    private Path directory;
+
+    private HttpServer server;
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/items", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " " + body);
+            if (exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 201, "{\"id\": 7}");
+            } else if (exchange.getRequestURI().getPath().equals("/items/7")) {
+                respond(exchange, 200, "{\"id\": 7}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(SLOW_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "");
+        });
+        server.start();
+
+        write("bruno.json", "{\"version\": \"1\", \"name\": \"test\", \"type\": \"collection\"}");
+        write(
+                "environments/test.bru",
+                """
+                vars {
+                  api: http://localhost:%d
+                }
+                """
+                        .formatted(server.getAddress().getPort()));
+        write(
+                "items/folder.bru",
+                """
+                meta {
+                  name: items
+                  seq: 1
+                }
+                """);
+        write(
+                "items/Create Item.bru",
+                """
+                meta {
+                  name: Create Item
+                  type: http
+                  seq: 1
+                }
+
+                post {
+                  url: {{api}}/items
+                  body: json
+                  auth: inherit
+                }
+
+                body:json {
+                  {
+                    "name": "{{$randomUserName}}"
+                  }
+                }
+
+                vars:post-response {
+                  itemId: res.body.id
+                }
+
+                assert {
+                  res.status: eq 201
+                }
+                """);
+        write(
+                "items/Get Item.bru",
+                """
+                meta {
+                  name: Get Item
+                  type: http
+                  seq: 2
+                }
+
+                get {
+                  url: {{api}}/items/:id
+                  body: none
+                  auth: inherit
+                }
+
+                params:path {
+                  id: {{itemId}}
+                }
+
+                assert {
+                  res.status: eq 200
+                }
+                """);
+        write(
+                "slow/folder.bru",
+                """
+                meta {
+                  name: slow
+                  seq: 2
+                }
+                """);
+        write(
+                "slow/Slow.bru",
+                """
+                meta {
+                  name: Slow
+                  type: http
+                  seq: 1
+                }
+
+                get {
+                  url: {{api}}/slow
+                  body: none
+                  auth: inherit
+                }
+                """);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should replay a scenario with the variables captured from earlier responses")
+    void shouldReplayScenario() throws Exception {
+        LoadProperties properties = properties("items", 50, 10);
+
+        List<LoadResult> results = new LoadRunner(properties).run();
+
+        assertThat(results).extracting(LoadResult::request).containsExactly("Create Item", "Get Item");
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.count()).isBetween(40L, 60L);
+            assertThat(result.errors()).isZero();
+        });
+        assertThat(results.get(1).outcomes()).containsOnlyKeys("200");
+        assertThat(received)
+                .filteredOn(request -> request.startsWith("POST"))
+                .allMatch(request -> request.matches("(?s)POST /items \\{\\s*\"name\": \"[a-z0-9.]+\"\\s*}\\s*"));
+        assertThat(received).filteredOn(request -> request.startsWith("GET")).allMatch("GET /items/7 "::equals);
+        assertThat(directory.resolve("output/load.json")).exists();
+        assertThat(directory.resolve("output/items-Get_Item.hgrm")).exists();
+    }
+
+    @Test
+    @DisplayName("Should measure latency from the scheduled start when arrivals wait for a user")
+    void shouldCorrectForCoordinatedOmission() throws Exception {
+        LoadProperties properties = properties("slow", 100, 1);
+
+        LoadResult result = new LoadRunner(properties).run().getFirst();
+
+        assertThat(result.count()).isEqualTo(100);
+        assertThat(result.serviceP50()).isBetween((double) SLOW_MILLIS, 5.0 * SLOW_MILLIS);
+        assertThat(result.p50()).isGreaterThan(5 * result.serviceP50());
+        assertThat(result.max()).isGreaterThan(result.p50());
+    }
+
+    private LoadProperties properties(String folder, double rate, int users) {
+        ScenarioProperties scenario = new ScenarioProperties();
+        scenario.setFolder(folder);
+        LoadProperties properties = new LoadProperties();
+        properties.setCollection(directory.toString());
+        properties.setEnvironment("test");
+        properties.setScenarios(List.of(scenario));
+        properties.setRate(rate);
+        properties.setUsers(users);
+        properties.setWarmup(Duration.ZERO);
+        properties.setDuration(Duration.ofSeconds(1));
+        properties.setProgress(Duration.ZERO);
+        properties.setOutput(directory.resolve("output").toString());
+        return properties;
+    }
+
+    private void write(String file, String content) throws IOException {
+        Path path = directory.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
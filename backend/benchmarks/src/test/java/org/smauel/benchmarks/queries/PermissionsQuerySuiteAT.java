@@ -0,0 +1,135 @@
+package org.smauel.benchmarks.queries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.benchmarks.dataset.GeneratedPermissions;
+import org.smauel.benchmarks.dataset.PermissionsDataGenerator;
+import org.smauel.benchmarks.dataset.PermissionsDatasetSpec;
+import org.smauel.permissions.PermissionsApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Permissions Query Suite Acceptance Tests")
+class PermissionsQuerySuiteAT {
+    private static final String ASSIGNMENTS =
+            "SELECT user_id, role_id, expires_at IS NULL AS permanent FROM user_role_assignments ORDER BY id";
+    private static final String ROLE_PERMISSIONS =
+            "SELECT role_id, permission_id FROM role_permissions ORDER BY role_id, permission_id";
+
+    @TempDir
+    private static Path output;
+
+    private final PermissionsDatasetSpec spec = spec();
+    private ConfigurableApplicationContext context;
+    private GeneratedPermissions dataset;
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        context = start("query-suite.output=" + output, "query-suite.warmup=1", "query-suite.iterations=3");
+        dataset = PermissionsDataGenerator.load(context, spec);
+    }
+
+    @AfterAll
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should generate the same assignments and role permissions from the same seed")
+    void shouldGenerateDeterministically() throws SQLException {
+        try (ConfigurableApplicationContext other = start()) {
+            PermissionsDataGenerator.load(other, spec);
+
+            JdbcTemplate generated = context.getBean(JdbcTemplate.class);
+            JdbcTemplate regenerated = other.getBean(JdbcTemplate.class);
+            assertThat(regenerated.queryForList(ASSIGNMENTS)).isEqualTo(generated.queryForList(ASSIGNMENTS));
+            assertThat(regenerated.queryForList(ROLE_PERMISSIONS)).isEqualTo(generated.queryForList(ROLE_PERMISSIONS));
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate power users, deep roles and expiring assignments")
+    void shouldGenerateSkew() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        assertThat(dataset.powerUserIds()).isNotEmpty();
+        assertThat(dataset.powerUserIds()).allSatisfy(user -> assertThat(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role_assignments WHERE user_id = ?", Integer.class, user))
+                .isEqualTo(spec.getPowerUserRoles()));
+        assertThat(dataset.deepRoleIds()).isNotEmpty();
+        assertThat(dataset.deepRoleIds()).allSatisfy(role -> assertThat(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM role_permissions WHERE role_id = ?", Integer.class, role))
+                .isEqualTo(spec.getDeepRolePermissions()));
+        assertThat(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role_assignments WHERE expires_at < CURRENT_TIMESTAMP", Long.class))
+                .isPositive();
+        assertThat(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role_assignments WHERE expires_at > CURRENT_TIMESTAMP", Long.class))
+                .isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_effective_permissions", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role_assignments ura "
+                                + "JOIN role_permissions rp ON rp.role_id = ura.role_id",
+                        Long.class));
+    }
+
+    @Test
+    @DisplayName("Should time and explain every repository query")
+    void shouldTimeAndExplainEveryQuery() throws Exception {
+        List<QueryCase> cases = PermissionsQuerySuite.cases(context, dataset, spec.getSeed());
+
+        List<QueryResult> results = new QuerySuite(context).run("permissions", cases);
+
+        assertThat(results)
+                .extracting(QueryResult::name)
+                .containsExactlyElementsOf(cases.stream().map(QueryCase::name).toList());
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.iterations()).isPositive();
+            assertThat(result.p50()).isPositive().isLessThanOrEqualTo(result.max());
+            assertThat(result.plans())
+                    .isNotEmpty()
+                    .allSatisfy(plan -> assertThat(plan.plan()).isNotBlank().doesNotStartWith("EXPLAIN failed"));
+        });
+        assertThat(output.resolve("permissions.json")).exists();
+    }
+
+    private static PermissionsDatasetSpec spec() {
+        PermissionsDatasetSpec spec = new PermissionsDatasetSpec();
+        spec.setUsers(500);
+        spec.setRoles(30);
+        spec.setPermissions(200);
+        spec.setResources(10);
+        spec.setPowerUserRatio(0.02);
+        spec.setPowerUserRoles(20);
+        spec.setDeepRoleRatio(0.1);
+        spec.setDeepRolePermissions(100);
+        spec.setBatchSize(100);
+        return spec;
+    }
+
+    private static ConfigurableApplicationContext start(String... properties) {
+        // Passed as arguments, default properties would lose to the application.yml of permissions-api
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:query-suite-" + System.nanoTime(),
+                "--logging.level.root=WARN"));
+        Arrays.stream(properties).map(property -> "--" + property).forEach(arguments::add);
+        return new SpringApplicationBuilder(PermissionsApplication.class, QuerySuiteConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+    }
+}
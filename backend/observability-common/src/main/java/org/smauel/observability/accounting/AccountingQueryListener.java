@@ -0,0 +1,21 @@
+package org.smauel.observability.accounting;
+
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Counts and times every statement against the {@link RequestResources} of the request it runs for. Statements run
+ * outside of a request, such as scheduled jobs, are not accounted.
+ */
+public class AccountingQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestResources.current().ifPresent(resources -> resources.statement(execInfo.getElapsedTime()));
+    }
+}
@@ -0,0 +1,128 @@
+package org.smauel.observability.accounting;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accounts for the resources used by one request, bound to a {@link ScopedValue} for the duration of the request.
+ *
+ * <p>SQL statements are counted and timed by {@link AccountingQueryListener} on any thread the account is bound to,
+ * including the threads of the application executors it is carried over to by {@link ResourceAccountingTaskDecorator}.
+ * CPU time and allocated bytes are read from the {@link ThreadMXBean} for the thread that handles the request only, from
+ * when the account is started until it is {@linkplain #stopThreadClock stopped}. The JVM does not measure them for
+ * virtual threads, so they are {@linkplain ResourceUsage#UNAVAILABLE unavailable} when requests are handled on virtual
+ * threads.
+ */
+public final class RequestResources {
+    private static final ScopedValue<RequestResources> CURRENT = ScopedValue.newInstance();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS =
+            THREADS instanceof com.sun.management.ThreadMXBean allocations
+                            && allocations.isThreadAllocatedMemorySupported()
+                            && allocations.isThreadAllocatedMemoryEnabled()
+                    ? allocations
+                    : null;
+    private static final boolean CPU_TIME =
+            THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+    private final Thread thread = Thread.currentThread();
+    private final long startNanos = System.nanoTime();
+    private final long startCpuNanos = cpuNanos();
+    private final long startAllocatedBytes = allocatedBytes();
+    private final LongAdder dbNanos = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private volatile boolean threadClockStopped;
+    private volatile long threadCpuNanos = ResourceUsage.UNAVAILABLE;
+    private volatile long threadAllocatedBytes = ResourceUsage.UNAVAILABLE;
+
+    /**
+     * @return The account of the request being handled by the current thread, if any
+     */
+    public static Optional<RequestResources> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /**
+     * Call a task with this account bound
+     *
+     * @param task The task to call
+     * @return The result of the task
+     * @throws Exception if the task throws
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        return ScopedValue.where(CURRENT, this).call(task::call);
+    }
+
+    /**
+     * Run a task with this account bound
+     *
+     * @param task The task to run
+     */
+    public void run(Runnable task) {
+        ScopedValue.where(CURRENT, this).run(task);
+    }
+
+    /**
+     * Account for a SQL statement
+     *
+     * @param durationNanos How long the statement took to execute
+     */
+    void statement(long durationNanos) {
+        dbNanos.add(durationNanos);
+        statements.increment();
+    }
+
+    /**
+     * Stop measuring the CPU time and allocations of the thread handling the request, once it has handed the request
+     * off or finished with it. Must be called on that thread.
+     */
+    void stopThreadClock() {
+        threadCpuNanos = delta(startCpuNanos, cpuNanos());
+        threadAllocatedBytes = delta(startAllocatedBytes, allocatedBytes());
+        threadClockStopped = true;
+    }
+
+    /**
+     * @return The resources used so far. CPU time and allocations are only measured on the thread handling the request
+     *     until its clock is stopped, and are unavailable if read from another thread before then.
+     */
+    public ResourceUsage usage() {
+        long cpu = threadCpuNanos;
+        long allocated = threadAllocatedBytes;
+        if (!threadClockStopped) {
+            boolean handlingThread = Thread.currentThread() == thread;
+            cpu = handlingThread ? delta(startCpuNanos, cpuNanos()) : ResourceUsage.UNAVAILABLE;
+            allocated = handlingThread ? delta(startAllocatedBytes, allocatedBytes()) : ResourceUsage.UNAVAILABLE;
+        }
+        return new ResourceUsage(System.nanoTime() - startNanos, dbNanos.sum(), statements.sum(), cpu, allocated);
+    }
+
+    private static long delta(long start, long end) {
+        return start < 0 || end < 0 ? ResourceUsage.UNAVAILABLE : end - start;
+    }
+
+    private static long cpuNanos() {
+        if (!CPU_TIME) {
+            return ResourceUsage.UNAVAILABLE;
+        }
+        try {
+            return THREADS.getCurrentThreadCpuTime();
+        } catch (UnsupportedOperationException e) {
+            return ResourceUsage.UNAVAILABLE;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (ALLOCATIONS == null) {
+            return ResourceUsage.UNAVAILABLE;
+        }
+        try {
+            return ALLOCATIONS.getCurrentThreadAllocatedBytes();
+        } catch (UnsupportedOperationException e) {
+            return ResourceUsage.UNAVAILABLE;
+        }
+    }
+}
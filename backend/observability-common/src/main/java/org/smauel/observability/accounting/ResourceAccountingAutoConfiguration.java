@@ -0,0 +1,39 @@
+package org.smauel.observability.accounting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Accounting of the DB time, SQL statements, CPU time and allocations of each request to every servlet service,
+ * recorded per endpoint as {@code request.resources.*} meters and optionally sent in a {@code Server-Timing} header
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ResourceAccountingProperties.class)
+@ConditionalOnProperty(
+        prefix = "observability.accounting",
+        name = "enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class ResourceAccountingAutoConfiguration {
+
+    @Bean
+    ResourceAccountingFilter resourceAccountingFilter(
+            MeterRegistry meterRegistry, ResourceAccountingProperties properties) {
+        return new ResourceAccountingFilter(meterRegistry, properties.isServerTiming());
+    }
+
+    @Bean
+    ResourceAccountingTaskDecorator resourceAccountingTaskDecorator() {
+        return new ResourceAccountingTaskDecorator();
+    }
+
+    @Bean
+    AccountingQueryListener accountingQueryListener() {
+        return new AccountingQueryListener();
+    }
+}
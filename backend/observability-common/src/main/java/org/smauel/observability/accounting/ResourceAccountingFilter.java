@@ -0,0 +1,187 @@
+package org.smauel.observability.accounting;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Accounts for the DB time, SQL statements, CPU time and allocations of every request, and records them per endpoint
+ * as {@code request.resources.*} meters once the request completes. A request that goes async, such as a streamed
+ * response, is recorded when the async processing completes.
+ *
+ * <p>When enabled, the usage is also sent in a {@code Server-Timing} header. The header has to be sent before the
+ * body, so it holds the usage up to when the response started to be written, leaving out the serialization of the
+ * body, which the meters include.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ResourceAccountingFilter extends OncePerRequestFilter {
+    /**
+     * The response header the usage is sent in
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTiming;
+
+    /**
+     * @param meterRegistry The registry to record the usage of each request in
+     * @param serverTiming Whether to send the usage in a {@code Server-Timing} header
+     */
+    public ResourceAccountingFilter(MeterRegistry meterRegistry, boolean serverTiming) {
+        this.meterRegistry = meterRegistry;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestResources resources = new RequestResources();
+        ServerTimingResponse timedResponse = serverTiming ? new ServerTimingResponse(response, resources) : null;
+        try {
+            resources.call(() -> {
+                filterChain.doFilter(request, timedResponse == null ? response : timedResponse);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        } finally {
+            if (timedResponse != null) {
+                timedResponse.sendServerTiming();
+            }
+            resources.stopThreadClock();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, resources.usage());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {}
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                record(request, resources.usage());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, ResourceUsage usage) {
+        Tags tags = Tags.of(
+                "method",
+                request.getMethod(),
+                "uri",
+                request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String uri
+                        ? uri
+                        : UNKNOWN);
+        Timer.builder("request.resources.db")
+                .description("Time requests spent executing SQL statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(usage.dbNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("request.resources.statements")
+                .description("SQL statements executed by requests")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(usage.statements());
+        if (usage.cpuNanos() != ResourceUsage.UNAVAILABLE) {
+            Timer.builder("request.resources.cpu")
+                    .description("CPU time used by the threads handling requests")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(usage.cpuNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (usage.allocatedBytes() != ResourceUsage.UNAVAILABLE) {
+            DistributionSummary.builder("request.resources.allocated")
+                    .description("Bytes allocated by the threads handling requests")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(usage.allocatedBytes());
+        }
+    }
+
+    /**
+     * Sends the {@code Server-Timing} header as the response starts to be written, or once the request has been handled
+     * if it has no body
+     */
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestResources resources;
+        private volatile boolean sent;
+
+        ServerTimingResponse(HttpServletResponse response, RequestResources resources) {
+            super(response);
+            this.resources = resources;
+        }
+
+        void sendServerTiming() {
+            if (!sent) {
+                sent = true;
+                if (!isCommitted()) {
+                    setHeader(SERVER_TIMING, resources.usage().serverTiming());
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            sendServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            sendServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            sendServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            sendServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            sendServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            sendServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
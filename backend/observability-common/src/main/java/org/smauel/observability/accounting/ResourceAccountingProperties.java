@@ -0,0 +1,21 @@
+package org.smauel.observability.accounting;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the accounting of the resources used by each request
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.accounting")
+public class ResourceAccountingProperties {
+    /**
+     * Whether the DB time, SQL statements, CPU time and allocations of each request are recorded
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the usage of each request is sent to the client in a {@code Server-Timing} header
+     */
+    private boolean serverTiming = false;
+}
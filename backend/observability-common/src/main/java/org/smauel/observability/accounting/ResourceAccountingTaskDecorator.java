@@ -0,0 +1,17 @@
+package org.smauel.observability.accounting;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the {@link RequestResources} of the submitting thread over to tasks run by the application executors, so the
+ * statements of {@code @Async} methods and streamed responses are accounted to the request that submitted them
+ */
+public class ResourceAccountingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return RequestResources.current()
+                .<Runnable>map(resources -> () -> resources.run(runnable))
+                .orElse(runnable);
+    }
+}
@@ -0,0 +1,47 @@
+package org.smauel.observability.accounting;
+
+import java.util.Locale;
+
+/**
+ * The resources a request used so far
+ *
+ * @param durationNanos The time since the request started
+ * @param dbNanos The time spent executing SQL statements, on any thread working for the request
+ * @param statements The SQL statements executed, on any thread working for the request
+ * @param cpuNanos The CPU time used by the thread handling the request, or {@link #UNAVAILABLE} where the JVM does not
+ *     measure it, as for virtual threads
+ * @param allocatedBytes The bytes allocated by the thread handling the request, or {@link #UNAVAILABLE} where the JVM
+ *     does not measure it, as for virtual threads
+ */
+public record ResourceUsage(long durationNanos, long dbNanos, long statements, long cpuNanos, long allocatedBytes) {
+    /**
+     * The value of a resource the JVM does not measure for the thread handling the request
+     */
+    public static final long UNAVAILABLE = -1;
+
+    /**
+     * @return The usage as the value of a {@code Server-Timing} header, durations in milliseconds, e.g.
+     *     {@code app;dur=12.5, db;dur=4.1, sql;desc="3", cpu;dur=6.0, alloc;desc="524288"}
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder(96)
+                .append("app;dur=")
+                .append(millis(durationNanos))
+                .append(", db;dur=")
+                .append(millis(dbNanos))
+                .append(", sql;desc=\"")
+                .append(statements)
+                .append('"');
+        if (cpuNanos != UNAVAILABLE) {
+            header.append(", cpu;dur=").append(millis(cpuNanos));
+        }
+        if (allocatedBytes != UNAVAILABLE) {
+            header.append(", alloc;desc=\"").append(allocatedBytes).append('"');
+        }
+        return header.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
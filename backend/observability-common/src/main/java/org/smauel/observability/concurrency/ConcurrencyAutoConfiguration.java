@@ -0,0 +1,63 @@
+package org.smauel.observability.concurrency;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Threading of request handling, {@code @Async} methods and scheduled jobs in every servlet service, which all run on
+ * virtual threads when {@code spring.threads.virtual.enabled} is set, as it is in the {@code virtual-threads} profile
+ * of the services. Virtual threads pinned to their carrier are published by Micrometer's {@link VirtualThreadMetrics},
+ * unless the metrics auto-configuration of Spring Boot has registered it already.
+ */
+@AutoConfiguration(
+        afterName = "org.springframework.boot.micrometer.metrics.autoconfigure.jvm.JvmMetricsAutoConfiguration")
+@EnableAsync
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(ConnectionLimiterProperties.class)
+public class ConcurrencyAutoConfiguration {
+
+    @Bean
+    static ConnectionLimiterPostProcessor connectionLimiterPostProcessor(
+            ObjectProvider<ConnectionLimiterProperties> properties) {
+        return new ConnectionLimiterPostProcessor(properties);
+    }
+
+    @Bean
+    MeterBinder connectionLimiterMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> dataSource.ifAvailable(source -> {
+            ConnectionLimitingDataSource limiter =
+                    DataSourceUnwrapper.unwrap(source, ConnectionLimitingDataSource.class);
+            if (limiter != null) {
+                limiter.bindTo(registry);
+            }
+        });
+    }
+
+    @Bean
+    RequestIdFilter requestIdFilter() {
+        return new RequestIdFilter();
+    }
+
+    @Bean
+    RequestContextTaskDecorator requestContextTaskDecorator() {
+        return new RequestContextTaskDecorator();
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnMissingBean(value = VirtualThreadMetrics.class, name = "virtualThreadMetrics")
+    VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
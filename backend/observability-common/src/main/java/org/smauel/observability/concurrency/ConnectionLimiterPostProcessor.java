@@ -0,0 +1,60 @@
+package org.smauel.observability.concurrency;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the application data source in a {@link ConnectionLimitingDataSource} when the connection limiter is enabled,
+ * and warns when the limit does not fit the size of the connection pool.
+ *
+ * <p>Runs ahead of the post-processors that are not ordered, so the limiter sits right on the pool, under any other
+ * wrapper of the data source, and a permit is held exactly as long as a pooled connection.
+ */
+@Slf4j
+public class ConnectionLimiterPostProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<ConnectionLimiterProperties> properties;
+
+    public ConnectionLimiterPostProcessor(ObjectProvider<ConnectionLimiterProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+            return bean;
+        }
+        ConnectionLimiterProperties limiter = properties.getObject();
+        if (!limiter.isEnabled()) {
+            return bean;
+        }
+        HikariConfigMXBean pool =
+                DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        int poolSize = pool != null ? pool.getMaximumPoolSize() : 0;
+        int maxConcurrent = limiter.getMaxConcurrent() > 0 ? limiter.getMaxConcurrent() : poolSize;
+        if (maxConcurrent < 1) {
+            log.warn("Not limiting connections of data source {}, set the maximum number of connections", beanName);
+            return bean;
+        }
+        if (poolSize > 0 && maxConcurrent > poolSize) {
+            log.warn(
+                    "Connection limit of {} exceeds the pool size of {}, callers over the pool size wait in the pool "
+                            + "instead of the limiter",
+                    maxConcurrent,
+                    poolSize);
+        }
+        log.info("Limiting data source {} to {} concurrent connections", beanName, maxConcurrent);
+        return new ConnectionLimitingDataSource(
+                dataSource, maxConcurrent, limiter.getAcquireTimeout(), limiter.getMaxWaiting());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
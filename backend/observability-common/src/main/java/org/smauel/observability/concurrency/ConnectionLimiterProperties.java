@@ -0,0 +1,32 @@
+package org.smauel.observability.concurrency;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the limit on connections checked out of the data source at once
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.connection-limiter")
+public class ConnectionLimiterProperties {
+    /**
+     * Whether connections are checked out through the limiter
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of connections checked out at once, or 0 for the maximum size of the connection pool
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * How long a caller waits for a connection before the checkout fails
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * The maximum number of callers waiting for a connection before checkouts fail immediately, or 0 for no limit
+     */
+    private int maxWaiting = 0;
+}
@@ -0,0 +1,181 @@
+package org.smauel.observability.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that caps the number of connections checked out at once, queueing callers fairly on a semaphore before
+ * they reach the pool.
+ *
+ * <p>With virtual threads the number of concurrent requests is no longer bounded by the size of the Tomcat thread
+ * pool, so thousands of callers can block on the connection pool at once. The limiter keeps that queue in front of the
+ * pool, in arrival order, bounded in length and with its own timeout, and reports how long callers wait. A permit is
+ * held from the checkout of a connection until it is closed, and released exactly once.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final int maxWaiting;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueFull = new LongAdder();
+
+    /**
+     * @param target The data source to check connections out of
+     * @param maxConcurrent The maximum number of connections checked out at once
+     * @param acquireTimeout How long a caller waits for a permit before the checkout fails
+     * @param maxWaiting The maximum number of callers waiting for a permit, or 0 for no limit
+     */
+    public ConnectionLimitingDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout, int maxWaiting) {
+        super(target);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.limiter.active", this, ConnectionLimitingDataSource::getActive)
+                .description("The number of connections checked out through the limiter")
+                .register(registry);
+        Gauge.builder("datasource.limiter.waiting", this, ConnectionLimitingDataSource::getWaiting)
+                .description("The number of callers waiting for a connection permit")
+                .register(registry);
+        Gauge.builder("datasource.limiter.max", this, limiter -> limiter.maxConcurrent)
+                .description("The maximum number of connections checked out at once")
+                .register(registry);
+        FunctionTimer.builder(
+                        "datasource.limiter.acquire",
+                        this,
+                        limiter -> limiter.acquired.sum(),
+                        limiter -> limiter.waitNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent waiting for a connection permit")
+                .register(registry);
+        FunctionCounter.builder("datasource.limiter.rejected", this, limiter -> limiter.timedOut.sum())
+                .description("Checkouts that failed without a connection permit")
+                .tag("reason", "timeout")
+                .register(registry);
+        FunctionCounter.builder("datasource.limiter.rejected", this, limiter -> limiter.queueFull.sum())
+                .description("Checkouts that failed without a connection permit")
+                .tag("reason", "queue-full")
+                .register(registry);
+    }
+
+    /**
+     * @return The maximum number of connections checked out at once
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return The number of connections currently checked out
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return The approximate number of callers waiting for a permit
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        if (maxWaiting > 0 && permits.availablePermits() == 0 && permits.getQueueLength() >= maxWaiting) {
+            queueFull.increment();
+            throw new SQLTransientConnectionException(
+                    "Connection limiter queue is full with " + maxWaiting + " waiting callers");
+        }
+        long start = System.nanoTime();
+        boolean permitted;
+        try {
+            permitted = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection permit", e);
+        }
+        waitNanos.add(System.nanoTime() - start);
+        if (!permitted) {
+            timedOut.increment();
+            throw new SQLTransientConnectionException("Timed out after "
+                    + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms waiting for a connection permit, "
+                    + maxConcurrent + " connections in use");
+        }
+        acquired.increment();
+    }
+
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited " + connection;
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package org.smauel.observability.concurrency;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import org.slf4j.MDC;
+
+/**
+ * The context of the request being handled, bound to a {@link ScopedValue} for the duration of the request and
+ * mirrored into the logging MDC.
+ *
+ * <p>A scoped value is immutable for the extent of its binding and, unlike a thread local, cannot leak into the next
+ * request handled by a pooled thread or be left behind by a virtual thread. Work handed to another thread does not see
+ * the binding, so tasks submitted to the application executors are rebound by {@link RequestContextTaskDecorator}.
+ *
+ * @param requestId The id of the request, echoed in the {@code X-Request-Id} header and logged as {@code requestId}
+ */
+public record RequestContext(String requestId) {
+    /**
+     * The MDC key the request id is logged under
+     */
+    public static final String MDC_KEY = "requestId";
+
+    private static final ScopedValue<RequestContext> CURRENT = ScopedValue.newInstance();
+
+    /**
+     * @return The context of the request being handled by the current thread, if any
+     */
+    public static Optional<RequestContext> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /**
+     * Run a task with this context bound
+     *
+     * @param task The task to run
+     */
+    public void run(Runnable task) {
+        ScopedValue.where(CURRENT, this).run(() -> {
+            String previous = MDC.get(MDC_KEY);
+            MDC.put(MDC_KEY, requestId);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        });
+    }
+
+    /**
+     * Call a task with this context bound
+     *
+     * @param task The task to call
+     * @return The result of the task
+     * @throws Exception if the task throws
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        return ScopedValue.where(CURRENT, this).call(() -> {
+            String previous = MDC.get(MDC_KEY);
+            MDC.put(MDC_KEY, requestId);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        });
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            MDC.remove(MDC_KEY);
+        } else {
+            MDC.put(MDC_KEY, previous);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.smauel.observability.concurrency;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the {@link RequestContext} of the submitting thread over to tasks run by the application executors, such as
+ * {@code @Async} methods and streamed responses.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return RequestContext.current()
+                .<Runnable>map(context -> () -> context.run(runnable))
+                .orElse(runnable);
+    }
+}
@@ -0,0 +1,94 @@
+package org.smauel.observability.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+
+/**
+ * JDK Flight Recorder events of every servlet service, and the {@code jfr} actuator endpoint to record them. The events
+ * cost next to nothing until a recording enables them.
+ *
+ * <p>Also the slow query log, read along with Hibernate's statistics through the {@code hibernate} actuator endpoint.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties({JfrProperties.class, SlowQueryProperties.class})
+public class DiagnosticsAutoConfiguration {
+
+    /**
+     * Records the service calls around their transactions and other advice, so the events time the whole call
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceCallRecorderAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, true), new ServiceCallRecorder());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    HttpRequestRecorder httpRequestRecorder() {
+        return new HttpRequestRecorder();
+    }
+
+    @Bean
+    JfrEndpoint jfrEndpoint(JfrProperties properties, @Value("${spring.application.name}") String service) {
+        return new JfrEndpoint(properties, service);
+    }
+
+    @Bean
+    @ConditionalOnBean(EntityManagerFactory.class)
+    HibernateStatisticsEndpoint hibernateStatisticsEndpoint(
+            EntityManagerFactory entityManagerFactory, ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new HibernateStatisticsEndpoint(entityManagerFactory, slowQueryLog);
+    }
+
+    @Bean
+    static RepositoryCallRecorderPostProcessor repositoryCallRecorderPostProcessor() {
+        return new RepositoryCallRecorderPostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.slow-query",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    SlowQueryLog slowQueryLog(SlowQueryProperties properties) {
+        return new SlowQueryLog(properties.getThreshold(), properties.getCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.slow-query",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    SlowQueryListener slowQueryListener(SlowQueryLog slowQueryLog) {
+        return new SlowQueryListener(slowQueryLog);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.slow-query",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    static RepositoryMethodBinderPostProcessor repositoryMethodBinderPostProcessor() {
+        return new RepositoryMethodBinderPostProcessor();
+    }
+}
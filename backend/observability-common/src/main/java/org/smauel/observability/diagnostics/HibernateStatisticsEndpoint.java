@@ -0,0 +1,183 @@
+package org.smauel.observability.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint reading the statistics Hibernate keeps when {@code hibernate.generate_statistics} is set: per query
+ * execution counts and times, per entity and collection load and fetch counts, and second level cache regions, along
+ * with the most recent {@linkplain SlowQueryLog slow queries}.
+ *
+ * <p>Unlike the {@code hibernate.*} meters, these are keyed by query strings and entity names, so are read on demand
+ * rather than published. Statistics are counted from the start of the service.
+ */
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+    private final SessionFactoryImplementor sessionFactory;
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public HibernateStatisticsEndpoint(
+            EntityManagerFactory entityManagerFactory, ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public HibernateStatistics statistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<QueryStatistic> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> QueryStatistic.of(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStatistic::totalMillis)
+                        .thenComparingLong(QueryStatistic::executions)
+                        .reversed())
+                .toList();
+        List<EntityStatistic> entities = Arrays.stream(statistics.getEntityNames())
+                .sorted()
+                .map(entity -> EntityStatistic.of(entity, statistics.getEntityStatistics(entity)))
+                .toList();
+        List<CollectionStatistic> collections = Arrays.stream(statistics.getCollectionRoleNames())
+                .sorted()
+                .map(role -> CollectionStatistic.of(role, statistics.getCollectionStatistics(role)))
+                .toList();
+        boolean secondLevelCacheEnabled =
+                sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        List<CacheRegionStatistic> cacheRegions = secondLevelCacheEnabled
+                ? Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                        .sorted()
+                        .map(statistics::getCacheRegionStatistics)
+                        .filter(Objects::nonNull)
+                        .map(CacheRegionStatistic::of)
+                        .toList()
+                : List.of();
+        SlowQueryLog slowQueries = slowQueryLog.getIfAvailable();
+        return new HibernateStatistics(
+                statistics.isStatisticsEnabled(),
+                statistics.getStart(),
+                new Totals(
+                        statistics.getQueryExecutionCount(),
+                        statistics.getQueryExecutionMaxTime(),
+                        statistics.getQueryExecutionMaxTimeQueryString(),
+                        statistics.getPrepareStatementCount(),
+                        statistics.getEntityLoadCount(),
+                        statistics.getEntityFetchCount(),
+                        statistics.getCollectionLoadCount(),
+                        statistics.getCollectionFetchCount(),
+                        statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount()),
+                queries,
+                entities,
+                collections,
+                secondLevelCacheEnabled,
+                cacheRegions,
+                slowQueries == null ? List.of() : slowQueries.recent());
+    }
+
+    /**
+     * @param enabled Whether Hibernate is keeping statistics, if not every count is 0
+     * @param since When the statistics started counting
+     * @param totals The totals of the session factory
+     * @param queries The HQL and native queries executed, the most total time first
+     * @param entities The entities by name
+     * @param collections The collections by role
+     * @param secondLevelCacheEnabled Whether the second level cache is enabled
+     * @param cacheRegions The second level cache regions, if it is enabled
+     * @param slowQueries The most recent slow statements, newest first, if the slow query log is enabled
+     */
+    public record HibernateStatistics(
+            boolean enabled,
+            Instant since,
+            Totals totals,
+            List<QueryStatistic> queries,
+            List<EntityStatistic> entities,
+            List<CollectionStatistic> collections,
+            boolean secondLevelCacheEnabled,
+            List<CacheRegionStatistic> cacheRegions,
+            List<SlowQuery> slowQueries) {}
+
+    public record Totals(
+            long queryExecutions,
+            long queryExecutionMaxMillis,
+            String slowestQuery,
+            long statementsPrepared,
+            long entityLoads,
+            long entityFetches,
+            long collectionLoads,
+            long collectionFetches,
+            long secondLevelCacheHits,
+            long secondLevelCacheMisses,
+            long secondLevelCachePuts) {}
+
+    /**
+     * @param query The HQL or native query
+     * @param executions How many times the query was executed
+     * @param rows The rows returned by every execution
+     * @param meanMillis The mean time to execute the query
+     * @param maxMillis The longest time to execute the query
+     * @param totalMillis The time spent executing the query in all
+     */
+    public record QueryStatistic(
+            String query, long executions, long rows, double meanMillis, long maxMillis, long totalMillis) {
+        static QueryStatistic of(String query, QueryStatistics statistics) {
+            return new QueryStatistic(
+                    query,
+                    statistics.getExecutionCount(),
+                    statistics.getExecutionRowCount(),
+                    statistics.getExecutionAvgTimeAsDouble(),
+                    statistics.getExecutionMaxTime(),
+                    statistics.getExecutionTotalTime());
+        }
+    }
+
+    /**
+     * @param entity The name of the entity
+     * @param loads Entities loaded, by id or by a query
+     * @param fetches Entities fetched lazily, each a statement of its own
+     */
+    public record EntityStatistic(String entity, long loads, long fetches, long inserts, long updates, long deletes) {
+        static EntityStatistic of(String entity, EntityStatistics statistics) {
+            return new EntityStatistic(
+                    entity,
+                    statistics.getLoadCount(),
+                    statistics.getFetchCount(),
+                    statistics.getInsertCount(),
+                    statistics.getUpdateCount(),
+                    statistics.getDeleteCount());
+        }
+    }
+
+    /**
+     * @param role The role of the collection, the entity and property holding it
+     * @param loads Collections loaded
+     * @param fetches Collections fetched lazily, each a statement of its own
+     */
+    public record CollectionStatistic(String role, long loads, long fetches) {
+        static CollectionStatistic of(String role, CollectionStatistics statistics) {
+            return new CollectionStatistic(role, statistics.getLoadCount(), statistics.getFetchCount());
+        }
+    }
+
+    public record CacheRegionStatistic(String region, long hits, long misses, long puts, long elementsInMemory) {
+        static CacheRegionStatistic of(CacheRegionStatistics statistics) {
+            return new CacheRegionStatistic(
+                    statistics.getRegionName(),
+                    statistics.getHitCount(),
+                    statistics.getMissCount(),
+                    statistics.getPutCount(),
+                    statistics.getElementCountInMemory());
+        }
+    }
+}
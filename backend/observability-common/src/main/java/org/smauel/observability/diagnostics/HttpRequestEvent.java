@@ -0,0 +1,32 @@
+package org.smauel.observability.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A request handled by the service, recorded by {@link HttpRequestRecorder}. The service and repository calls made
+ * while handling it are recorded with the same request id.
+ */
+@Name("org.smauel.HttpRequest")
+@Label("HTTP Request")
+@Category({"Smauel", "Users API"})
+@Description("A request handled by the service")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    @Description("The path pattern of the handler, rather than the path requested")
+    String uri;
+
+    @Label("Status")
+    int status;
+}
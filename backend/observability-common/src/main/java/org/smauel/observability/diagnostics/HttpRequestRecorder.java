@@ -0,0 +1,47 @@
+package org.smauel.observability.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.smauel.observability.concurrency.RequestContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records an {@link HttpRequestEvent} for every request while a recording has the event enabled. Runs inside the
+ * {@link org.smauel.observability.concurrency.RequestIdFilter}, so the event carries the id of the request.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class HttpRequestRecorder extends OncePerRequestFilter {
+    private static final String UNKNOWN = "UNKNOWN";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId =
+                        RequestContext.current().map(RequestContext::requestId).orElse(null);
+                event.method = request.getMethod();
+                event.uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String uri
+                        ? uri
+                        : UNKNOWN;
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
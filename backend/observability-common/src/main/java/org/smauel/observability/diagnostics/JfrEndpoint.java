@@ -0,0 +1,240 @@
+package org.smauel.observability.diagnostics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Actuator endpoint to take flight recordings of the running service: list ({@code GET}) and start ({@code POST})
+ * recordings, then stop ({@code POST /{id}}), download ({@code GET /{id}}) and delete ({@code DELETE /{id}}) one.
+ *
+ * <p>Recordings are bounded by {@link JfrProperties}: each stops itself after at most {@code max-duration}, keeps at
+ * most {@code max-size} on disk, and only {@code max-recordings} are kept until deleted. They are written to a
+ * temporary directory, which is removed with the recordings when the service stops. Downloading a running recording
+ * returns what it has recorded so far.
+ */
+@Slf4j
+@Endpoint(id = "jfr")
+public class JfrEndpoint implements DisposableBean {
+    private static final String DEFAULT_SETTINGS = "default";
+    private static final Set<String> SETTINGS = Set.of(DEFAULT_SETTINGS, "profile");
+
+    private final JfrProperties properties;
+    private final String service;
+    private final Map<Long, ManagedRecording> recordings = new LinkedHashMap<>();
+    private Path directory;
+
+    /**
+     * @param properties The limits of the recordings
+     * @param service The name of the service, which the recordings and their directory are named after
+     */
+    public JfrEndpoint(JfrProperties properties, String service) {
+        this.properties = properties;
+        this.service = service;
+    }
+
+    @ReadOperation
+    public synchronized List<RecordingDescriptor> recordings() {
+        return recordings.values().stream().map(ManagedRecording::describe).toList();
+    }
+
+    /**
+     * Start a recording
+     *
+     * @param settings The JFR settings to record with, {@code default} or the more detailed {@code profile}
+     * @param duration How long to record for, at most and by default {@code max-duration}
+     * @param maxSize The most disk to use, at most and by default {@code max-size}
+     * @return The recording started, or a bad request if the settings are unknown, the duration or size is not
+     *     positive, or {@code max-recordings} are already kept
+     * @throws IOException if the recording cannot be written to disk
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> start(
+            @Nullable String settings, @Nullable Duration duration, @Nullable DataSize maxSize) throws IOException {
+        String name = settings == null ? DEFAULT_SETTINGS : settings;
+        if (!SETTINGS.contains(name)) {
+            return badRequest("Unknown settings " + name + ", expected one of " + SETTINGS);
+        }
+        if ((duration != null && !duration.isPositive()) || (maxSize != null && maxSize.toBytes() <= 0)) {
+            return badRequest("The duration and size of a recording must be positive");
+        }
+        if (recordings.size() >= properties.getMaxRecordings()) {
+            return badRequest("Already keeping " + recordings.size() + " recordings, delete one first");
+        }
+        Duration length = duration == null || duration.compareTo(properties.getMaxDuration()) > 0
+                ? properties.getMaxDuration()
+                : duration;
+        long size = Math.min(
+                maxSize == null ? Long.MAX_VALUE : maxSize.toBytes(),
+                properties.getMaxSize().toBytes());
+
+        Recording recording = new Recording(configuration(name));
+        try {
+            recording.setName(service + "-" + recording.getId());
+            recording.setToDisk(true);
+            recording.setDuration(length);
+            recording.setMaxSize(size);
+            recording.setDestination(directory().resolve(recording.getId() + ".jfr"));
+            recording.start();
+        } catch (IOException e) {
+            recording.close();
+            throw e;
+        }
+        ManagedRecording managed = new ManagedRecording(recording, name);
+        recordings.put(recording.getId(), managed);
+        log.info("Started flight recording {} with {} settings for {}", recording.getId(), name, length);
+        return new WebEndpointResponse<>(managed.describe());
+    }
+
+    /**
+     * Stop a recording, writing it out for download
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        ManagedRecording managed = recordings.get(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (isRunning(managed.recording())) {
+            managed.recording().stop();
+            log.info("Stopped flight recording {}", id);
+        }
+        return new WebEndpointResponse<>(managed.describe());
+    }
+
+    /**
+     * Download a recording, as a {@code .jfr} file to open in JDK Mission Control or analyze offline
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        ManagedRecording managed = recordings.get(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Recording recording = managed.recording();
+        Path file = recording.getDestination();
+        if (isRunning(recording)) {
+            file = directory().resolve(id + "-snapshot.jfr");
+            recording.dump(file);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    /**
+     * Delete a recording, stopping it if it is still running
+     */
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Void> delete(@Selector long id) throws IOException {
+        ManagedRecording managed = recordings.remove(id);
+        if (managed == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        close(managed.recording());
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        for (ManagedRecording managed : recordings.values()) {
+            close(managed.recording());
+        }
+        recordings.clear();
+        if (directory != null) {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private void close(Recording recording) throws IOException {
+        Path destination = recording.getDestination();
+        recording.close();
+        if (destination != null) {
+            Files.deleteIfExists(destination);
+        }
+        Files.deleteIfExists(directory().resolve(recording.getId() + "-snapshot.jfr"));
+    }
+
+    private static boolean isRunning(Recording recording) {
+        return recording.getState() == RecordingState.RUNNING;
+    }
+
+    private static WebEndpointResponse<Object> badRequest(String message) {
+        return new WebEndpointResponse<>(Map.of("message", message), WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    private Path directory() throws IOException {
+        if (directory == null) {
+            directory = Files.createTempDirectory(service + "-jfr");
+        }
+        return directory;
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings " + name, e);
+        }
+    }
+
+    private record ManagedRecording(Recording recording, String settings) {
+        RecordingDescriptor describe() {
+            return new RecordingDescriptor(
+                    recording.getId(),
+                    recording.getName(),
+                    // a recording with a destination is closed as soon as it stops and has been written out
+                    isRunning(recording) ? RecordingState.RUNNING : RecordingState.STOPPED,
+                    settings,
+                    recording.getStartTime(),
+                    recording.getDuration(),
+                    recording.getMaxSize(),
+                    recording.getSize());
+        }
+    }
+
+    /**
+     * A recording kept by the endpoint
+     *
+     * @param id The id to stop, download or delete the recording by
+     * @param name The name of the recording
+     * @param state Whether the recording is running or stopped
+     * @param settings The JFR settings it records with
+     * @param startTime When it started
+     * @param duration How long it runs before stopping itself
+     * @param maxSize The most bytes it keeps on disk
+     * @param size The bytes it has recorded so far
+     */
+    public record RecordingDescriptor(
+            long id,
+            String name,
+            RecordingState state,
+            String settings,
+            Instant startTime,
+            Duration duration,
+            long maxSize,
+            long size) {}
+}
@@ -0,0 +1,28 @@
+package org.smauel.observability.diagnostics;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Limits of the flight recordings started through the {@code jfr} actuator endpoint
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.jfr")
+public class JfrProperties {
+    /**
+     * Longest a recording may run before it stops itself, and how long it runs when no duration is asked for
+     */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    /**
+     * Most disk a recording may use, beyond which its oldest data is dropped
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Most recordings kept at once, running or stopped, until they are deleted
+     */
+    private int maxRecordings = 3;
+}
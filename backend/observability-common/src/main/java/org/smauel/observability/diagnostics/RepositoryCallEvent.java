@@ -0,0 +1,35 @@
+package org.smauel.observability.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of a method of a Spring Data repository, recorded by {@link RepositoryCallRecorder}
+ */
+@Name("org.smauel.RepositoryCall")
+@Label("Repository Call")
+@Category({"Smauel", "Users API"})
+@Description("A call of a repository method")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows Returned")
+    @Description("The number of rows or entities returned, -1 for a count, a flag or a stream")
+    int rows;
+
+    @Label("Exception")
+    @Description("The class of the exception the call threw, if it threw")
+    String exception;
+}
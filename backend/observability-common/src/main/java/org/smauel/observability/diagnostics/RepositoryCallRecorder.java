@@ -0,0 +1,83 @@
+package org.smauel.observability.diagnostics;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.smauel.observability.concurrency.RequestContext;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+/**
+ * Records a {@link RepositoryCallEvent} for every call of a repository while a recording has the event enabled.
+ * Added to the proxy of each repository by {@link RepositoryCallRecorderPostProcessor}, so calls are recorded with
+ * the repository interface and method they were made through.
+ */
+public class RepositoryCallRecorder implements MethodInterceptor {
+    static final int UNKNOWN_ROWS = -1;
+
+    private final String repository;
+
+    public RepositoryCallRecorder(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        Object result = null;
+        Throwable failure = null;
+        event.begin();
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId =
+                        RequestContext.current().map(RequestContext::requestId).orElse(null);
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.rows = failure == null ? rows(result) : 0;
+                event.exception = failure == null ? null : failure.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @return The number of rows or entities in the result of a repository call, or {@link #UNKNOWN_ROWS} for results
+     *     that are not rows, like counts and flags, or whose rows are only read later, like streams
+     */
+    static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number
+                || result instanceof Boolean
+                || result instanceof Iterable<?>
+                || result instanceof BaseStream<?, ?>) {
+            return UNKNOWN_ROWS;
+        }
+        return 1;
+    }
+}
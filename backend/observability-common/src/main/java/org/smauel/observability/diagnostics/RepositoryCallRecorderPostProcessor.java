@@ -0,0 +1,21 @@
+package org.smauel.observability.diagnostics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds a {@link RepositoryCallRecorder} to the proxy of every Spring Data repository. The recorder is added ahead of
+ * the interceptors that run the query, so it times the query and sees its result.
+ */
+public class RepositoryCallRecorderPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(
+                    factory -> factory.addRepositoryProxyPostProcessor((proxy, repository) ->
+                            proxy.addAdvice(new RepositoryCallRecorder(repository.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
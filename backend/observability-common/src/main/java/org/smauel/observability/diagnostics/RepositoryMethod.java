@@ -0,0 +1,38 @@
+package org.smauel.observability.diagnostics;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * The repository method being called by the current thread, bound to a {@link ScopedValue} for the duration of the call
+ * by {@link RepositoryMethodBinder}, so that the statements it runs can be traced back to it.
+ *
+ * @param repository The simple name of the repository interface
+ * @param method The name of the method called
+ */
+public record RepositoryMethod(String repository, String method) {
+    private static final ScopedValue<RepositoryMethod> CURRENT = ScopedValue.newInstance();
+
+    /**
+     * @return The repository method being called by the current thread, if any
+     */
+    public static Optional<RepositoryMethod> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /**
+     * Call a task with this method bound
+     *
+     * @param task The task to call
+     * @return The result of the task
+     * @throws Exception if the task throws
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        return ScopedValue.where(CURRENT, this).call(task::call);
+    }
+
+    @Override
+    public String toString() {
+        return repository + "." + method;
+    }
+}
@@ -0,0 +1,32 @@
+package org.smauel.observability.diagnostics;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Binds the {@link RepositoryMethod} for every call of a repository. Added to the proxy of each repository by
+ * {@link RepositoryMethodBinderPostProcessor}, ahead of the interceptors that run the query.
+ */
+public class RepositoryMethodBinder implements MethodInterceptor {
+    private final String repository;
+
+    public RepositoryMethodBinder(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return new RepositoryMethod(repository, invocation.getMethod().getName()).call(() -> proceed(invocation));
+    }
+
+    private static Object proceed(MethodInvocation invocation) throws Exception {
+        try {
+            return invocation.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
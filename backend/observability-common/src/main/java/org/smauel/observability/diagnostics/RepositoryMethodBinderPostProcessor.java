@@ -0,0 +1,21 @@
+package org.smauel.observability.diagnostics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Adds a {@link RepositoryMethodBinder} to the proxy of every Spring Data repository, so that slow queries are logged
+ * with the repository method that ran them
+ */
+public class RepositoryMethodBinderPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(
+                    factory -> factory.addRepositoryProxyPostProcessor((proxy, repository) ->
+                            proxy.addAdvice(new RepositoryMethodBinder(repository.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
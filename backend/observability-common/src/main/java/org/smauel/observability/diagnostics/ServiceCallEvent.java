@@ -0,0 +1,31 @@
+package org.smauel.observability.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of a method of a {@code @Service}, recorded by {@link ServiceCallRecorder}
+ */
+@Name("org.smauel.ServiceCall")
+@Label("Service Call")
+@Category({"Smauel", "Users API"})
+@Description("A call of a service method, including its transaction")
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+
+    @Label("Service")
+    String service;
+
+    @Label("Method")
+    String method;
+
+    @Label("Exception")
+    @Description("The class of the exception the call threw, if it threw")
+    String exception;
+}
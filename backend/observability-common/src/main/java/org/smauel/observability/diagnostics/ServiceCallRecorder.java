@@ -0,0 +1,38 @@
+package org.smauel.observability.diagnostics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.smauel.observability.concurrency.RequestContext;
+
+/**
+ * Records a {@link ServiceCallEvent} for every call it intercepts while a recording has the event enabled. Applied to
+ * the {@code @Service} beans by the {@code DiagnosticsConfig} of each service.
+ */
+public class ServiceCallRecorder implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        Throwable failure = null;
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.requestId =
+                        RequestContext.current().map(RequestContext::requestId).orElse(null);
+                event.service = invocation.getMethod().getDeclaringClass().getSimpleName();
+                event.method = invocation.getMethod().getName();
+                event.exception = failure == null ? null : failure.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.smauel.observability.diagnostics;
+
+import java.time.Instant;
+
+/**
+ * A statement that took at least the slow query threshold
+ *
+ * @param at When the statement finished
+ * @param durationMillis How long the statement took to execute
+ * @param sql The SQL of the statement, with its placeholders
+ * @param parameters The types of the values bound to the placeholders, in order, e.g. {@code (Long, Timestamp)}, never
+ *     the values themselves
+ * @param batchSize The rows executed as one batch, or 0 for a statement executed on its own
+ * @param repositoryMethod The repository method that ran the statement, e.g.
+ *     {@code UserRepository.findByUsername}, or null for statements run outside of a repository call, such
+ *     as flushes and lazy loads
+ * @param requestId The id of the request that ran the statement, or null outside of a request
+ */
+public record SlowQuery(
+        Instant at,
+        double durationMillis,
+        String sql,
+        String parameters,
+        int batchSize,
+        String repositoryMethod,
+        String requestId) {}
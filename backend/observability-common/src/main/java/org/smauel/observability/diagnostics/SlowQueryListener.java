@@ -0,0 +1,74 @@
+package org.smauel.observability.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Hands every statement that took at least the threshold to the {@link SlowQueryLog}.
+ *
+ * <p>The SQL and the shape of the parameters are only put together once a statement turns out to be slow, so statements
+ * that are not slow cost a comparison. A batch is logged with the SQL of its statements joined by {@code ;} and the
+ * shape of the parameters bound last.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryListener(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long duration = execInfo.getElapsedTime();
+        if (!slowQueryLog.slow(duration)) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        slowQueryLog.record(
+                duration, sql, () -> parameters(queryInfoList), execInfo.isBatch() ? execInfo.getBatchSize() : 0);
+    }
+
+    /**
+     * @return The types of the parameters bound last, e.g. {@code (Long, Timestamp, null)}
+     */
+    private static String parameters(List<QueryInfo> queryInfoList) {
+        List<List<ParameterSetOperation>> bound =
+                queryInfoList.isEmpty() ? List.of() : queryInfoList.getLast().getParametersList();
+        List<String> types = new ArrayList<>();
+        for (ParameterSetOperation operation : bound.isEmpty() ? List.<ParameterSetOperation>of() : bound.getLast()) {
+            Object[] args = operation.getArgs();
+            if (args[0] instanceof Integer index) {
+                while (types.size() < index) {
+                    types.add("?");
+                }
+                types.set(index - 1, type(operation));
+            } else {
+                types.add(type(operation));
+            }
+        }
+        StringJoiner shape = new StringJoiner(", ", "(", ")");
+        types.forEach(shape::add);
+        return shape.toString();
+    }
+
+    private static String type(ParameterSetOperation operation) {
+        String name = operation.getMethod().getName();
+        Object value = operation.getArgs().length > 1 ? operation.getArgs()[1] : null;
+        if (name.equals("setNull")) {
+            return "null";
+        }
+        if (name.equals("setObject") && value != null) {
+            return value.getClass().getSimpleName();
+        }
+        return name.substring("set".length());
+    }
+}
@@ -0,0 +1,100 @@
+package org.smauel.observability.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.observability.concurrency.RequestContext;
+
+/**
+ * Logs every statement that takes at least the threshold, with the shape of its parameters and the repository method
+ * that ran it, and keeps the most recent for the {@code hibernate} actuator endpoint.
+ *
+ * <p>Statements are timed by {@link SlowQueryListener}. Only the types of the bound values are logged, so slow
+ * queries can be told apart by how they were called, e.g. how many ids an {@code IN} list was given, without logging
+ * user data.
+ */
+@Slf4j
+public class SlowQueryLog implements MeterBinder {
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<SlowQuery> recent;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param threshold How long a statement takes to be logged as slow
+     * @param capacity The most slow queries kept for the endpoint
+     */
+    public SlowQueryLog(Duration threshold, int capacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.recent = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jdbc.statements.slow", count, LongAdder::sum)
+                .description("Statements that took at least the slow query threshold")
+                .register(registry);
+    }
+
+    /**
+     * @param durationNanos How long a statement took
+     * @return Whether the statement is slow, so should be {@linkplain #record recorded}
+     */
+    boolean slow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Log a slow statement
+     *
+     * @param durationNanos How long the statement took
+     * @param sql The SQL of the statement
+     * @param parameters Supplies the shape of the bound parameters
+     * @param batchSize The rows executed as one batch, or 0
+     */
+    void record(long durationNanos, String sql, Supplier<String> parameters, int batchSize) {
+        count.increment();
+        SlowQuery query = new SlowQuery(
+                Instant.now(),
+                durationNanos / 1_000_000.0,
+                sql,
+                parameters.get(),
+                batchSize,
+                RepositoryMethod.current().map(RepositoryMethod::toString).orElse(null),
+                RequestContext.current().map(RequestContext::requestId).orElse(null));
+        log.warn(
+                "Slow query took {} ms in {} with parameters {}{}: {}",
+                String.format("%.1f", query.durationMillis()),
+                query.repositoryMethod() == null ? "no repository call" : query.repositoryMethod(),
+                query.parameters(),
+                batchSize == 0 ? "" : " in a batch of " + batchSize,
+                sql);
+        if (capacity == 0) {
+            return;
+        }
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeLast();
+            }
+            recent.addFirst(query);
+        }
+    }
+
+    /**
+     * @return The most recent slow queries, newest first
+     */
+    public List<SlowQuery> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.smauel.observability.diagnostics;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the slow query log
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.slow-query")
+public class SlowQueryProperties {
+    /**
+     * Whether statements are timed and slow ones logged
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a statement takes to be logged as slow
+     */
+    private Duration threshold = Duration.ofMillis(100);
+
+    /**
+     * Most slow queries kept for the {@code hibernate} actuator endpoint
+     */
+    private int capacity = 100;
+}
@@ -0,0 +1,29 @@
+package org.smauel.observability.diagnostics;
+
+import java.security.SecureRandom;
+
+/**
+ * Hashes user ids for diagnostics, so that recordings and logs taken in production can tell users apart without
+ * carrying their ids. User ids are small and sequential, so the hash is keyed with a secret drawn when the service
+ * starts: hashes of the same user match within a run of the service, but cannot be reversed by hashing every id.
+ */
+public final class UserIdHash {
+    private static final long KEY = new SecureRandom().nextLong();
+
+    private UserIdHash() {}
+
+    /**
+     * @param userId The user id to hash
+     * @return The keyed hash of the id
+     */
+    public static long of(long userId) {
+        // The finalizer of MurmurHash3, which spreads every bit of the keyed id over the whole hash
+        long hash = userId ^ KEY;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,19 @@
+package org.smauel.observability.jdbc;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * The one proxy around the data source of every service that every statement goes through. Accounting, the slow query
+ * log, tracing and the tests each add a {@link QueryExecutionListener} bean rather than a data source of their own.
+ */
+@AutoConfiguration
+public class JdbcAutoConfiguration {
+
+    @Bean
+    static QueryListenerPostProcessor queryListenerPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new QueryListenerPostProcessor(listeners);
+    }
+}
@@ -0,0 +1,52 @@
+package org.smauel.observability.jdbc;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.NanoTimeStopwatchFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the application data source in one {@link ProxyDataSource} that hands every statement executed through it to
+ * each {@link QueryExecutionListener} bean, in order.
+ *
+ * <p>Statements are timed once, in nanoseconds, for all of the listeners, which read the time from
+ * {@link net.ttddyy.dsproxy.ExecutionInfo#getElapsedTime()}. The data source is left alone when there are no listeners.
+ * The proxy is installed just outside the connection limiter, so waiting for a connection is not counted against
+ * statements.
+ */
+public class QueryListenerPostProcessor implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<QueryExecutionListener> listeners;
+
+    public QueryListenerPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        ChainListener chain = new ChainListener();
+        listeners.orderedStream().forEach(chain::addListener);
+        if (chain.getListeners().isEmpty()) {
+            return bean;
+        }
+        ProxyDataSource proxy = new ProxyDataSource(dataSource);
+        proxy.setProxyConfig(ProxyConfig.Builder.create()
+                .dataSourceName(beanName)
+                .queryListener(chain)
+                .stopwatchFactory(new NanoTimeStopwatchFactory())
+                .build());
+        return proxy;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
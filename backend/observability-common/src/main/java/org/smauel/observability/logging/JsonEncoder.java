@@ -0,0 +1,220 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.event.KeyValuePair;
+
+/**
+ * Encodes log events as one JSON object per line: {@code @timestamp}, {@code level}, {@code thread}, {@code logger},
+ * {@code message}, the {@code service} if set, every MDC entry and key value pair of the event, and the
+ * {@code stack_trace} of an exception.
+ *
+ * <p>Events are written as UTF-8 straight into a buffer reused from one event to the next, so that, apart from stack
+ * traces, the only allocation per event is the array of bytes returned. The date and time up to the second are
+ * formatted once a second. Encoding is serialized, as it is meant to run on the single thread of a
+ * {@link RingBufferAppender}.
+ */
+public class JsonEncoder extends EncoderBase<ILoggingEvent> {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final byte[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private final byte[] second = new byte[19];
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length;
+    private long epochSecond = Long.MIN_VALUE;
+    private String service;
+
+    /**
+     * @param service The name of the service, written with every event, or empty to leave it out
+     */
+    public void setService(String service) {
+        this.service = service == null || service.isEmpty() ? null : service;
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public synchronized byte[] encode(ILoggingEvent event) {
+        length = 0;
+        ascii("{\"@timestamp\":\"");
+        timestamp(event.getTimeStamp());
+        ascii("\",\"level\":\"");
+        ascii(event.getLevel().toString());
+        ascii("\",\"thread\":");
+        string(event.getThreadName());
+        ascii(",\"logger\":");
+        string(event.getLoggerName());
+        ascii(",\"message\":");
+        string(event.getFormattedMessage());
+        if (service != null) {
+            ascii(",\"service\":");
+            string(service);
+        }
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                field(entry.getKey(), entry.getValue());
+            }
+        }
+        List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        if (keyValuePairs != null) {
+            for (KeyValuePair pair : keyValuePairs) {
+                field(pair.key, pair.value == null ? null : pair.value.toString());
+            }
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            ascii(",\"stack_trace\":");
+            string(ThrowableProxyUtil.asString(throwable));
+        }
+        ascii("}\n");
+        byte[] encoded = Arrays.copyOf(buffer, length);
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+        return encoded;
+    }
+
+    private void field(String key, String value) {
+        put(',');
+        string(key);
+        put(':');
+        string(value);
+    }
+
+    private void timestamp(long epochMillis) {
+        long seconds = Math.floorDiv(epochMillis, 1000);
+        if (seconds != epochSecond) {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+            digits(second, 0, time.getYear(), 4);
+            second[4] = '-';
+            digits(second, 5, time.getMonthValue(), 2);
+            second[7] = '-';
+            digits(second, 8, time.getDayOfMonth(), 2);
+            second[10] = 'T';
+            digits(second, 11, time.getHour(), 2);
+            second[13] = ':';
+            digits(second, 14, time.getMinute(), 2);
+            second[16] = ':';
+            digits(second, 17, time.getSecond(), 2);
+            epochSecond = seconds;
+        }
+        ensure(second.length + 5);
+        System.arraycopy(second, 0, buffer, length, second.length);
+        length += second.length;
+        buffer[length++] = '.';
+        digits(buffer, length, Math.floorMod(epochMillis, 1000), 3);
+        length += 3;
+        buffer[length++] = 'Z';
+    }
+
+    private static void digits(byte[] target, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            ascii("null");
+            return;
+        }
+        // An escaped control character takes the most bytes, 6 for one char
+        ensure(value.length() * 6 + 2);
+        buffer[length++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                escaped(c);
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xc0 | c >> 6);
+                buffer[length++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xf0 | codePoint >> 18);
+                buffer[length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                buffer[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                buffer[length++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xe0 | c >> 12);
+                buffer[length++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[length++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        buffer[length++] = '"';
+    }
+
+    private void escaped(char c) {
+        switch (c) {
+            case '"', '\\' -> {
+                buffer[length++] = '\\';
+                buffer[length++] = (byte) c;
+            }
+            case '\n' -> {
+                buffer[length++] = '\\';
+                buffer[length++] = 'n';
+            }
+            case '\r' -> {
+                buffer[length++] = '\\';
+                buffer[length++] = 'r';
+            }
+            case '\t' -> {
+                buffer[length++] = '\\';
+                buffer[length++] = 't';
+            }
+            default -> {
+                if (c < 0x20) {
+                    buffer[length++] = '\\';
+                    buffer[length++] = 'u';
+                    buffer[length++] = '0';
+                    buffer[length++] = '0';
+                    buffer[length++] = HEX_DIGITS[c >> 4];
+                    buffer[length++] = HEX_DIGITS[c & 0xf];
+                } else {
+                    buffer[length++] = (byte) c;
+                }
+            }
+        }
+    }
+
+    private void ascii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void put(char c) {
+        ensure(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.smauel.observability.logging;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request scoped fields and meters of the structured logs written by {@code logback-spring.xml} in every servlet
+ * service. The request id is mirrored into the MDC by the {@link org.smauel.observability.concurrency.RequestContext},
+ * and the trace and span ids by Micrometer Tracing.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(LoggingProperties.class)
+public class LoggingAutoConfiguration {
+
+    @Bean
+    LoggingMetrics loggingMetrics() {
+        return new LoggingMetrics();
+    }
+
+    @Bean
+    UserIdLoggingInterceptor userIdLoggingInterceptor(LoggingProperties properties) {
+        return new UserIdLoggingInterceptor(properties.getUserIdVariable());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UserIdLoggingConfigurer implements WebMvcConfigurer {
+        private final UserIdLoggingInterceptor interceptor;
+
+        UserIdLoggingConfigurer(UserIdLoggingInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(interceptor);
+        }
+    }
+}
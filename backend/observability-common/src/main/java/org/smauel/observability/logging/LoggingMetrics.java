@@ -0,0 +1,54 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the events every {@link RingBufferAppender} of the root logger drops or samples out, and how many it has
+ * queued, tagged with the name of the appender.
+ */
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+                context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof RingBufferAppender appender) {
+                bindTo(registry, appender);
+            }
+        }
+    }
+
+    private static void bindTo(MeterRegistry registry, RingBufferAppender appender) {
+        FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::getDropped)
+                .description("Log events dropped because the buffer was full or by sampling")
+                .tag("appender", appender.getName())
+                .tag("reason", "full")
+                .register(registry);
+        FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::getSampled)
+                .description("Log events dropped because the buffer was full or by sampling")
+                .tag("appender", appender.getName())
+                .tag("reason", "sampled")
+                .register(registry);
+        Gauge.builder("logging.events.queued", appender, RingBufferAppender::getQueued)
+                .description("Log events waiting to be appended")
+                .tag("appender", appender.getName())
+                .register(registry);
+        Gauge.builder("logging.events.capacity", appender, RingBufferAppender::getCapacity)
+                .description("The most log events queued")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
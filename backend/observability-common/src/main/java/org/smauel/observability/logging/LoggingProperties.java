@@ -0,0 +1,17 @@
+package org.smauel.observability.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the request scoped fields of the structured logs. The ring buffer the logs are queued on is set up
+ * by {@code logback-spring.xml} from {@code logging.buffer.*} before the application context starts.
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.logging")
+public class LoggingProperties {
+    /**
+     * The path variable holding the id of the user a request is about, logged as its hash
+     */
+    private String userIdVariable = "id";
+}
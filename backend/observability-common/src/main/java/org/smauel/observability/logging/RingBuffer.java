@@ -0,0 +1,96 @@
+package org.smauel.observability.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue of many producers and a single consumer that never locks or blocks, after Dmitry Vyukov's bounded
+ * queue.
+ *
+ * <p>Every slot carries a sequence number that tells whose turn it is: a producer claims the slot at the tail once the
+ * consumer has freed it, and the consumer takes the slot at the head once its producer has published it. Producers
+ * only contend on the tail position, and an offer to a full buffer fails at once rather than waiting.
+ *
+ * @param <E> The element type, elements may not be null
+ */
+final class RingBuffer<E> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity The least number of elements the buffer holds, rounded up to a power of two
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an element at the tail, from any thread
+     *
+     * @param element The element to add
+     * @return Whether the element was added, false if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long turn = sequences.getAcquire(index) - position;
+            if (turn == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (turn < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the element at the head, from the consumer thread only
+     *
+     * @return The element, or null if the buffer is empty
+     */
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        E element = slots.getPlain(index);
+        slots.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return The number of elements in the buffer, including those being added
+     */
+    int size() {
+        return Math.clamp(tail.get() - head, 0, capacity());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
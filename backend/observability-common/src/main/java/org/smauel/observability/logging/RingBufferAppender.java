@@ -0,0 +1,227 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands log events over to the appenders attached to it on a single background thread, through a bounded
+ * {@link RingBuffer}, so that logging never blocks the thread that logs, whatever the attached appenders are waiting
+ * on.
+ *
+ * <p>Once the buffer is filled past the {@linkplain #setSampleThreshold sample threshold}, events below {@code WARN} are
+ * sampled, keeping one in {@linkplain #setSampleRate sample rate}, to leave room for warnings and errors. Events that
+ * find the buffer full are dropped. Both are counted, and published by {@link LoggingMetrics}.
+ *
+ * <p>Events are prepared for deferred processing before they are queued, so the message is formatted and the MDC,
+ * which carries the request scoped fields, is copied on the thread that logs.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private int capacity = 8192;
+    private double sampleThreshold = 0.75;
+    private int sampleRate = 10;
+    private boolean includeCallerData;
+    private int maxFlushTime = 1000;
+    private RingBuffer<ILoggingEvent> buffer;
+    private int sampleSize;
+    private Thread worker;
+    private volatile boolean waiting;
+    private volatile boolean stopping;
+
+    /**
+     * @param capacity The most events queued, rounded up to a power of two
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param sampleThreshold How full the buffer is, from 0 to 1, before events below {@code WARN} are sampled
+     */
+    public void setSampleThreshold(double sampleThreshold) {
+        this.sampleThreshold = sampleThreshold;
+    }
+
+    /**
+     * @param sampleRate Keep one in this many events below {@code WARN} while sampling, 1 to keep them all
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @param includeCallerData Whether to capture the caller of every event, which walks the stack of the thread that
+     *     logs
+     */
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    /**
+     * @param maxFlushTime How long to wait, in milliseconds, for queued events to be appended on stopping
+     */
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    /**
+     * @return The events dropped because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The events below {@code WARN} left out by sampling
+     */
+    public long getSampled() {
+        return sampled.sum();
+    }
+
+    /**
+     * @return The events waiting to be appended
+     */
+    public int getQueued() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * @return The most events queued
+     */
+    public int getCapacity() {
+        return buffer == null ? capacity : buffer.capacity();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (capacity < 1 || sampleRate < 1 || sampleThreshold < 0 || sampleThreshold > 1) {
+            addError("Capacity and sample rate must be positive and the sample threshold between 0 and 1");
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addWarn("No appenders attached to [" + name + "], events will be discarded");
+        }
+        buffer = new RingBuffer<>(capacity);
+        sampleSize = (int) (buffer.capacity() * sampleThreshold);
+        stopping = false;
+        worker = Thread.ofPlatform().name("logback-" + name).daemon().unstarted(this::drain);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        stopping = true;
+        LockSupport.unpark(worker);
+        // Cleared while flushing, so queued events are not lost when stopped from an interrupted thread
+        boolean interrupted = Thread.interrupted();
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Gave up on " + buffer.size() + " queued events after " + maxFlushTime + " ms");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (sampleRate > 1
+                && event.getLevel().toInt() < Level.WARN_INT
+                && buffer.size() >= sampleSize
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampled.increment();
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        if (waiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            ILoggingEvent event = buffer.poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+            } else if (stopping) {
+                return;
+            } else {
+                // Checked again once waiting is set, so an event queued in between is never left behind
+                waiting = true;
+                if (buffer.size() == 0 && !stopping) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                waiting = false;
+            }
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
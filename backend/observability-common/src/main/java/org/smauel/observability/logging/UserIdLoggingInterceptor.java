@@ -0,0 +1,60 @@
+package org.smauel.observability.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.HexFormat;
+import java.util.Map;
+import org.slf4j.MDC;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Logs the {@link UserIdHash} of the user a request is about as {@code userIdHash}, taken from the path variable the
+ * route names the user id with, so logs of the same user can be told apart without carrying the id.
+ *
+ * <p>The hash is put in the MDC of the thread handling the request for as long as the handler runs, so it is not
+ * logged from the threads of the application executors.
+ */
+public class UserIdLoggingInterceptor implements AsyncHandlerInterceptor {
+    /**
+     * The MDC key the user id hash is logged under
+     */
+    public static final String MDC_KEY = "userIdHash";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final String variable;
+
+    /**
+     * @param variable The path variable holding the user id
+     */
+    public UserIdLoggingInterceptor(String variable) {
+        this.variable = variable;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get(variable) instanceof String userId) {
+            try {
+                MDC.put(MDC_KEY, HEX.toHexDigits(UserIdHash.of(Long.parseLong(userId))));
+            } catch (NumberFormatException e) {
+                // Not a user id, the request is rejected when the handler binds it
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MDC.remove(MDC_KEY);
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(MDC_KEY);
+    }
+}
@@ -0,0 +1,40 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Observes every call it intercepts as a {@code component.calls} observation, which the tracing handler records as a
+ * span named after the class and method called. Applied by the services to their controllers and {@code @Service} beans.
+ */
+public class ObservingInterceptor implements MethodInterceptor {
+    static final String NAME = "component.calls";
+
+    private final Supplier<ObservationRegistry> registry;
+    private final String component;
+
+    /**
+     * @param registry Supplies the observation registry, looked up once it is first needed
+     * @param component What the intercepted beans are, recorded as the {@code component} key of their observations
+     */
+    public ObservingInterceptor(Supplier<ObservationRegistry> registry, String component) {
+        this.registry = registry;
+        this.component = component;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String type = method.getDeclaringClass().getSimpleName();
+        return Observation.createNotStarted(NAME, registry.get())
+                .contextualName(type + "." + method.getName())
+                .lowCardinalityKeyValue("component", component)
+                .lowCardinalityKeyValue("class", type)
+                .lowCardinalityKeyValue("method", method.getName())
+                .observeChecked(invocation::proceed);
+    }
+}
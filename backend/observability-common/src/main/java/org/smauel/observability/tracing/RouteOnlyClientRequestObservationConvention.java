@@ -0,0 +1,17 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+/**
+ * Leaves out the URL the default convention records for the requests sent by a {@code RestClient}, which holds the
+ * values of the URI variables and query parameters. The URI template, the method and the status are still recorded.
+ */
+public class RouteOnlyClientRequestObservationConvention extends DefaultClientRequestObservationConvention {
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(ClientRequestObservationContext context) {
+        return KeyValues.empty();
+    }
+}
@@ -0,0 +1,21 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.common.KeyValues;
+import org.smauel.observability.concurrency.RequestContext;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Names the observations of the requests handled after their route, such as {@code /api/v1/users/{id}}, and leaves out
+ * the URL the default convention records, which holds the path variables and query parameters the caller supplied. The
+ * id of the request is recorded instead, to find its log lines from its span.
+ */
+public class RouteOnlyServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(ServerRequestObservationContext context) {
+        return RequestContext.current()
+                .map(request -> KeyValues.of("request.id", request.requestId()))
+                .orElse(KeyValues.empty());
+    }
+}
@@ -0,0 +1,47 @@
+package org.smauel.observability.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+
+/**
+ * Records every trace for the {@link TailSamplingSpanProcessor} to decide on once it finishes, except those started
+ * while the processor has no room for another trace. The spans of a trace that was not recorded are not recorded
+ * either.
+ *
+ * <p>The decision of the caller sent in the {@code traceparent} header is not followed, as each service decides on its
+ * own spans.
+ */
+public class TailSampler implements Sampler {
+    private final TailSamplingSpanProcessor processor;
+
+    public TailSampler(TailSamplingSpanProcessor processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public SamplingResult shouldSample(
+            Context parentContext,
+            String traceId,
+            String name,
+            SpanKind spanKind,
+            Attributes attributes,
+            List<LinkData> parentLinks) {
+        SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (!TailSamplingSpanProcessor.localRoot(parent)) {
+            return parent.isSampled() ? SamplingResult.recordAndSample() : SamplingResult.drop();
+        }
+        return processor.admit() ? SamplingResult.recordAndSample() : SamplingResult.drop();
+    }
+
+    @Override
+    public String getDescription() {
+        return "TailSampler";
+    }
+}
@@ -0,0 +1,183 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the spans of every trace in progress until its local root span ends, then decides whether to keep the trace
+ * and hands the spans of kept traces on to the exporting span processor.
+ *
+ * <p>Deciding once the trace has finished, rather than when it starts, keeps the traces worth looking at: a trace is
+ * kept when its root span failed or answered with a server error, took at least the slow threshold, and otherwise with
+ * the sample rate. The local root is the span that started the trace in this service, such as the span of a request,
+ * so each service decides on its own spans.
+ *
+ * <p>Memory is bounded by the number of traces in progress and the number of spans kept per trace. Traces started while
+ * the processor is full are not recorded at all, which the {@link TailSampler} sees to, and spans over the limit of a
+ * trace, or ending after their trace was decided, are dropped.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor, MeterBinder {
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxPendingTraces;
+    private final int maxSpansPerTrace;
+    private final SpanProcessor exporting;
+    private final Map<String, List<ReadableSpan>> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> localRoots = new ConcurrentHashMap<>();
+    private final LongAdder kept = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder droppedTraces = new LongAdder();
+    private final LongAdder droppedSpans = new LongAdder();
+
+    /**
+     * @param slowThreshold How long a trace takes to be kept as slow
+     * @param sampleRate The fraction of the other traces kept, from 0 to 1
+     * @param maxPendingTraces The most traces held in progress at once
+     * @param maxSpansPerTrace The most spans held for one trace
+     * @param exporting The processor to hand the spans of kept traces to, such as a batch span processor
+     */
+    public TailSamplingSpanProcessor(
+            Duration slowThreshold,
+            double sampleRate,
+            int maxPendingTraces,
+            int maxSpansPerTrace,
+            SpanProcessor exporting) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxPendingTraces = maxPendingTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.exporting = exporting;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tracing.traces", this, processor -> processor.kept.sum())
+                .description("Traces by whether the tail sampler kept, discarded or had no room for them")
+                .tag("decision", "kept")
+                .register(registry);
+        FunctionCounter.builder("tracing.traces", this, processor -> processor.discarded.sum())
+                .description("Traces by whether the tail sampler kept, discarded or had no room for them")
+                .tag("decision", "discarded")
+                .register(registry);
+        FunctionCounter.builder("tracing.traces", this, processor -> processor.droppedTraces.sum())
+                .description("Traces by whether the tail sampler kept, discarded or had no room for them")
+                .tag("decision", "dropped")
+                .register(registry);
+        FunctionCounter.builder("tracing.spans.dropped", this, processor -> processor.droppedSpans.sum())
+                .description("Spans dropped for exceeding the limit of their trace or ending after it was decided")
+                .register(registry);
+        Gauge.builder("tracing.traces.pending", pending, Map::size)
+                .description("Traces in progress held by the tail sampler")
+                .register(registry);
+    }
+
+    /**
+     * @return Whether there is room to hold another trace, counting the trace as dropped when there is not
+     */
+    boolean admit() {
+        if (pending.size() >= maxPendingTraces) {
+            droppedTraces.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        String spanId = span.getSpanContext().getSpanId();
+        if (localRoot(span.getParentSpanContext())) {
+            pending.put(spanId, new ArrayList<>());
+            localRoots.put(spanId, spanId);
+            return;
+        }
+        String localRoot = localRoots.get(span.getParentSpanContext().getSpanId());
+        if (localRoot != null) {
+            localRoots.put(spanId, localRoot);
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String spanId = span.getSpanContext().getSpanId();
+        String localRootSpanId = localRoots.remove(spanId);
+        boolean localRoot = spanId.equals(localRootSpanId);
+        List<ReadableSpan> spans = localRootSpanId == null
+                ? null
+                : localRoot ? pending.remove(localRootSpanId) : pending.get(localRootSpanId);
+        if (spans == null) {
+            droppedSpans.increment();
+            return;
+        }
+        synchronized (spans) {
+            if (spans.size() < maxSpansPerTrace || localRoot) {
+                spans.add(span);
+            } else {
+                droppedSpans.increment();
+            }
+        }
+        if (!localRoot) {
+            return;
+        }
+        if (!keep(span)) {
+            discarded.increment();
+            return;
+        }
+        kept.increment();
+        synchronized (spans) {
+            spans.forEach(exporting::onEnd);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return exporting.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return exporting.shutdown();
+    }
+
+    static boolean localRoot(SpanContext parent) {
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private boolean keep(ReadableSpan root) {
+        return root.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR
+                || "SERVER_ERROR".equals(root.getAttribute(OUTCOME))
+                || root.getLatencyNanos() >= slowThresholdNanos
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,112 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import java.lang.annotation.Annotation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.micrometer.tracing.opentelemetry.autoconfigure.SpanProcessors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Traces of the requests handled by every servlet service, recorded by Micrometer Tracing over the OpenTelemetry SDK
+ * with a span per request, controller call, service call and JDBC statement, and propagated in the W3C
+ * {@code traceparent} header. Traces are kept by a {@link TailSamplingSpanProcessor} once they finish and exported over
+ * OTLP when {@code management.opentelemetry.tracing.export.otlp.endpoint} is set.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.tracing",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    TailSamplingSpanProcessor tailSamplingSpanProcessor(
+            TracingProperties properties, BatchSpanProcessor otelSpanProcessor) {
+        return new TailSamplingSpanProcessor(
+                properties.getSlowThreshold(),
+                properties.getSampleRate(),
+                properties.getMaxPendingTraces(),
+                properties.getMaxSpansPerTrace(),
+                otelSpanProcessor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.tracing",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    TailSampler tailSampler(TailSamplingSpanProcessor tailSamplingSpanProcessor) {
+        return new TailSampler(tailSamplingSpanProcessor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "observability.tracing",
+            name = "enabled",
+            havingValue = "true",
+            matchIfMissing = true)
+    SpanProcessors tailSamplingSpanProcessors(TailSamplingSpanProcessor tailSamplingSpanProcessor) {
+        return SpanProcessors.of(tailSamplingSpanProcessor);
+    }
+
+    @Bean
+    RouteOnlyServerRequestObservationConvention serverRequestObservationConvention() {
+        return new RouteOnlyServerRequestObservationConvention();
+    }
+
+    @Bean
+    RouteOnlyClientRequestObservationConvention clientRequestObservationConvention() {
+        return new RouteOnlyClientRequestObservationConvention();
+    }
+
+    @Bean
+    ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor controllerTracingAdvisor(ObjectProvider<ObservationRegistry> registry) {
+        return tracingAdvisor(RestController.class, registry, "controller");
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTracingAdvisor(ObjectProvider<ObservationRegistry> registry) {
+        return tracingAdvisor(Service.class, registry, "service");
+    }
+
+    @Bean
+    TracingQueryListener tracingQueryListener(Tracer tracer) {
+        return new TracingQueryListener(tracer);
+    }
+
+    private static Advisor tracingAdvisor(
+            Class<? extends Annotation> annotation, ObjectProvider<ObservationRegistry> registry, String component) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(annotation, true),
+                new ObservingInterceptor(SingletonSupplier.of(registry::getObject), component));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+}
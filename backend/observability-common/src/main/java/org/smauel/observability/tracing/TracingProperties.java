@@ -0,0 +1,38 @@
+package org.smauel.observability.tracing;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the tail sampling of the traces recorded for requests, controller and service calls and JDBC
+ * statements
+ */
+@Data
+@ConfigurationProperties(prefix = "observability.tracing")
+public class TracingProperties {
+    /**
+     * Whether traces are tail sampled, rather than head sampled at {@code management.tracing.sampling.probability}
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a trace takes to be kept as slow
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Fraction of the traces that are neither slow nor failed that are kept, from 0 to 1
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Most traces held in progress at once, traces started beyond it are not recorded
+     */
+    private int maxPendingTraces = 10_000;
+
+    /**
+     * Most spans held for one trace, spans beyond it are dropped
+     */
+    private int maxSpansPerTrace = 1_000;
+}
@@ -0,0 +1,64 @@
+package org.smauel.observability.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import java.util.List;
+import java.util.Locale;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records a client span for every statement, as a child of the span current when the statement runs.
+ *
+ * <p>Spans are named after the SQL operation and carry the SQL as {@code db.statement}. Hibernate binds the values passed
+ * to a query as parameters, so the SQL holds no user supplied values. Each execution is one span, so a JDBC batch is one
+ * span however many rows it carries, the same as one round trip to the db.
+ */
+public class TracingQueryListener implements QueryExecutionListener {
+    private static final String SPAN = TracingQueryListener.class.getName();
+
+    private final Tracer tracer;
+
+    public TracingQueryListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = String.join(
+                "; ", queryInfoList.stream().map(QueryInfo::getQuery).toList());
+        execInfo.addCustomValue(
+                SPAN,
+                tracer.spanBuilder()
+                        .name(operation(sql))
+                        .kind(Span.Kind.CLIENT)
+                        .tag("db.statement", sql)
+                        .tag("jdbc.method", execInfo.getMethod().getName())
+                        .start());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.isBatch()) {
+            span.tag("db.batch.size", execInfo.getBatchSize());
+        }
+        if (execInfo.getThrowable() != null) {
+            span.error(execInfo.getThrowable());
+        }
+        span.end();
+    }
+
+    private static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "JDBC" : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
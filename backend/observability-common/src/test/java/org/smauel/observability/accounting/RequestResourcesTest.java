@@ -0,0 +1,60 @@
+package org.smauel.observability.accounting;
+
+import java.util.concurrent.CompletableFuture;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RequestResources Tests")
+class RequestResourcesTest implements WithAssertions {
+    private static volatile Object sink;
+
+    @Test
+    @DisplayName("should account for statements on any thread the account is bound to")
+    void shouldAccountForStatements() throws Exception {
+        RequestResources resources = new RequestResources();
+
+        resources.statement(2_000_000);
+        CompletableFuture.runAsync(() -> resources.run(
+                        () -> RequestResources.current().orElseThrow().statement(3_000_000)))
+                .join();
+
+        ResourceUsage usage = resources.usage();
+        assertThat(usage.statements()).isEqualTo(2);
+        assertThat(usage.dbNanos()).isEqualTo(5_000_000);
+        assertThat(usage.durationNanos()).isPositive();
+    }
+
+    @Test
+    @DisplayName("should only measure the thread handling the request until its clock is stopped")
+    void shouldMeasureHandlingThread() {
+        RequestResources resources = new RequestResources();
+        byte[][] allocations = new byte[64][];
+        for (int i = 0; i < allocations.length; i++) {
+            allocations[i] = new byte[1024];
+        }
+        sink = allocations;
+
+        assertThat(CompletableFuture.supplyAsync(resources::usage).join()).satisfies(usage -> {
+            assertThat(usage.cpuNanos()).isEqualTo(ResourceUsage.UNAVAILABLE);
+            assertThat(usage.allocatedBytes()).isEqualTo(ResourceUsage.UNAVAILABLE);
+        });
+        assertThat(resources.usage().allocatedBytes()).isGreaterThanOrEqualTo(64 * 1024);
+
+        resources.stopThreadClock();
+        ResourceUsage stopped = CompletableFuture.supplyAsync(resources::usage).join();
+        assertThat(stopped.cpuNanos()).isNotNegative();
+        assertThat(stopped.allocatedBytes()).isGreaterThanOrEqualTo(64 * 1024);
+        assertThat(resources.usage().allocatedBytes()).isEqualTo(stopped.allocatedBytes());
+    }
+
+    @Test
+    @DisplayName("should format the usage as a Server-Timing header, leaving out what is unavailable")
+    void shouldFormatServerTiming() {
+        assertThat(new ResourceUsage(12_345_678, 4_100_000, 3, 6_000_000, 524_288).serverTiming())
+                .isEqualTo("app;dur=12.3, db;dur=4.1, sql;desc=\"3\", cpu;dur=6.0, alloc;desc=\"524288\"");
+        assertThat(new ResourceUsage(1_000_000, 0, 0, ResourceUsage.UNAVAILABLE, ResourceUsage.UNAVAILABLE)
+                        .serverTiming())
+                .isEqualTo("app;dur=1.0, db;dur=0.0, sql;desc=\"0\"");
+    }
+}
@@ -0,0 +1,60 @@
+package org.smauel.observability.accounting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assertions on the resources accounted to the requests of a service, for the resource accounting acceptance test of a
+ * service to check them against its own endpoints. The requests are expected on platform threads, where the JVM
+ * measures CPU time and allocations. Shared with the services through the test jar of this module.
+ */
+public final class ResourceAccountingAssertions {
+    private static final String SERVER_TIMING =
+            "app;dur=\\d+\\.\\d, db;dur=\\d+\\.\\d, sql;desc=\"[1-9]\\d*\", cpu;dur=\\d+\\.\\d, alloc;desc=\"[1-9]\\d*\"";
+
+    private ResourceAccountingAssertions() {}
+
+    /**
+     * Check that a request was accounted, in its {@code Server-Timing} header and in the meters of its route
+     *
+     * @param registry The meter registry of the service
+     * @param serverTiming The {@code Server-Timing} header the request was answered with
+     * @param method The HTTP method of the request
+     * @param uri The route template of the request
+     */
+    public static void assertRequestAccounted(MeterRegistry registry, String serverTiming, String method, String uri) {
+        assertThat(serverTiming).matches(SERVER_TIMING);
+        assertThat(registry
+                        .get("request.resources.statements")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .summary()
+                        .totalAmount())
+                .isPositive();
+        assertThat(registry
+                        .get("request.resources.db")
+                        .tag("uri", uri)
+                        .timer()
+                        .totalTime(TimeUnit.NANOSECONDS))
+                .isPositive();
+    }
+
+    /**
+     * Wait for the statements of a streamed response to be accounted to its route, as they are recorded once the
+     * response has been written, after the client may have read it
+     *
+     * @param registry The meter registry of the service
+     * @param uri The route template of the request
+     */
+    public static void awaitStatementsAccounted(MeterRegistry registry, String uri) throws InterruptedException {
+        Search statements = registry.find("request.resources.statements").tag("uri", uri);
+        for (int attempt = 0; attempt < 50 && statements.summary() == null; attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(statements.summary()).as("statements of %s", uri).isNotNull();
+        assertThat(statements.summary().totalAmount()).isPositive();
+    }
+}
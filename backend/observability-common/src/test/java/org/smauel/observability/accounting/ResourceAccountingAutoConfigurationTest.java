@@ -0,0 +1,67 @@
+package org.smauel.observability.accounting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@DisplayName("Resource Accounting Auto Configuration")
+class ResourceAccountingAutoConfigurationTest {
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ResourceAccountingAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    @DisplayName("Should account requests, statements and tasks")
+    void shouldRegisterAccounting() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(ResourceAccountingFilter.class);
+            assertThat(context).hasSingleBean(ResourceAccountingTaskDecorator.class);
+            assertThat(context).hasSingleBean(AccountingQueryListener.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should not account anything when accounting is disabled")
+    void shouldSkipWhenDisabled() {
+        runner.withPropertyValues("observability.accounting.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(ResourceAccountingFilter.class);
+            assertThat(context).doesNotHaveBean(ResourceAccountingTaskDecorator.class);
+            assertThat(context).doesNotHaveBean(AccountingQueryListener.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should send and record the resources used by a failed request")
+    void shouldAccountFailedRequest() {
+        runner.withPropertyValues("observability.accounting.server-timing=true").run(context -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/things/1");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/things/{id}");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FilterChain notFound = (req, res) -> ((HttpServletResponse) res).sendError(404);
+
+            context.getBean(ResourceAccountingFilter.class).doFilter(request, response, notFound);
+
+            assertThat(response.getStatus()).isEqualTo(404);
+            assertThat(response.getHeader(ResourceAccountingFilter.SERVER_TIMING))
+                    .startsWith("app;dur=")
+                    .contains("sql;desc=\"0\"");
+            assertThat(context.getBean(MeterRegistry.class)
+                            .get("request.resources.statements")
+                            .tag("method", "GET")
+                            .tag("uri", "/api/v1/things/{id}")
+                            .summary()
+                            .count())
+                    .isEqualTo(1);
+        });
+    }
+}
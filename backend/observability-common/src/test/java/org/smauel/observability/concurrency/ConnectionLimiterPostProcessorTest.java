@@ -0,0 +1,57 @@
+package org.smauel.observability.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+@DisplayName("Connection Limiter Post Processor")
+class ConnectionLimiterPostProcessorTest {
+    private ConnectionLimiterProperties properties;
+    private ConnectionLimiterPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConnectionLimiterProperties();
+        properties.setEnabled(true);
+        postProcessor = new ConnectionLimiterPostProcessor(
+                new StaticListableBeanFactory(Map.of("properties", properties))
+                        .getBeanProvider(ConnectionLimiterProperties.class));
+    }
+
+    @Test
+    @DisplayName("Should default the limit to the size of a pool found behind another wrapper")
+    void shouldLimitToWrappedPoolSize() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(7);
+
+        Object limited = postProcessor.postProcessAfterInitialization(new DelegatingDataSource(pool), "dataSource");
+
+        assertThat(limited).isInstanceOfSatisfying(ConnectionLimitingDataSource.class, limiter -> assertThat(
+                        limiter.getMaxConcurrent())
+                .isEqualTo(7));
+    }
+
+    @Test
+    @DisplayName("Should leave the data source alone when the limiter is disabled")
+    void shouldSkipWhenDisabled() {
+        properties.setEnabled(false);
+        DataSource pool = new HikariDataSource();
+
+        assertThat(postProcessor.postProcessAfterInitialization(pool, "dataSource"))
+                .isSameAs(pool);
+    }
+
+    @Test
+    @DisplayName("Should wrap the data source before the post-processors that are not ordered")
+    void shouldRunFirst() {
+        assertThat(postProcessor.getOrder()).isEqualTo(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
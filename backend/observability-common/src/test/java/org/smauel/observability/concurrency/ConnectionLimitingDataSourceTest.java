@@ -0,0 +1,131 @@
+package org.smauel.observability.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Connection Limiting Data Source")
+class ConnectionLimitingDataSourceTest {
+    private DataSource target;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should hold a permit until the connection is closed and release it only once")
+    void shouldReleasePermitOnce() throws SQLException {
+        ConnectionLimitingDataSource dataSource = limiter(2, Duration.ofMillis(10), 0);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertThat(dataSource.getActive()).isEqualTo(2);
+
+        first.close();
+        first.close();
+        assertThat(dataSource.getActive()).isEqualTo(1);
+        second.close();
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close the underlying connection when the limited connection is closed")
+    void shouldCloseUnderlyingConnection() throws SQLException {
+        Connection underlying = mock(Connection.class);
+        when(target.getConnection()).thenReturn(underlying);
+        ConnectionLimitingDataSource dataSource = limiter(1, Duration.ofMillis(10), 0);
+
+        Connection connection = dataSource.getConnection();
+        connection.isValid(1);
+        connection.close();
+
+        verify(underlying).isValid(1);
+        verify(underlying, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("Should time out when every permit is held and count the rejection")
+    void shouldTimeOutWhenExhausted() throws SQLException {
+        ConnectionLimitingDataSource dataSource = limiter(1, Duration.ofMillis(10), 0);
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(meterRegistry
+                        .get("datasource.limiter.rejected")
+                        .tag("reason", "timeout")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject immediately when the wait queue is full")
+    void shouldRejectWhenQueueFull() throws Exception {
+        ConnectionLimitingDataSource dataSource = limiter(1, Duration.ofSeconds(10), 1);
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("queue is full");
+
+        held.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        assertThat(dataSource.getActive()).isZero();
+        assertThat(meterRegistry
+                        .get("datasource.limiter.rejected")
+                        .tag("reason", "queue-full")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the underlying data source fails")
+    void shouldReleaseOnFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionLimitingDataSource dataSource = limiter(1, Duration.ofMillis(10), 0);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("down");
+
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    private ConnectionLimitingDataSource limiter(int maxConcurrent, Duration acquireTimeout, int maxWaiting) {
+        ConnectionLimitingDataSource dataSource =
+                new ConnectionLimitingDataSource(target, maxConcurrent, acquireTimeout, maxWaiting);
+        dataSource.bindTo(meterRegistry);
+        return dataSource;
+    }
+}
@@ -0,0 +1,68 @@
+package org.smauel.observability.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+@DisplayName("Request Context")
+class RequestContextTest {
+
+    @Test
+    @DisplayName("Should bind the context and MDC only for the duration of the task")
+    void shouldBindForTask() throws Exception {
+        String seen = new RequestContext("abc").call(() -> {
+            assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("abc");
+            return RequestContext.current().orElseThrow().requestId();
+        });
+
+        assertThat(seen).isEqualTo("abc");
+        assertThat(RequestContext.current()).isEmpty();
+        assertThat(MDC.get(RequestContext.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should restore the outer context after a nested binding")
+    void shouldRestoreOuterContext() {
+        new RequestContext("outer").run(() -> {
+            new RequestContext("inner")
+                    .run(() -> assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("inner"));
+
+            assertThat(RequestContext.current().orElseThrow().requestId()).isEqualTo("outer");
+            assertThat(MDC.get(RequestContext.MDC_KEY)).isEqualTo("outer");
+        });
+    }
+
+    @Test
+    @DisplayName("Should carry the context to tasks run on virtual threads by the decorator")
+    void shouldCarryContextToDecoratedTasks() throws Exception {
+        RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+        CompletableFuture<String> requestId = new CompletableFuture<>();
+        CompletableFuture<String> mdc = new CompletableFuture<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            new RequestContext("abc")
+                    .run(() -> executor.execute(decorator.decorate(() -> {
+                        requestId.complete(RequestContext.current()
+                                .map(RequestContext::requestId)
+                                .orElse(null));
+                        mdc.complete(MDC.get(RequestContext.MDC_KEY));
+                    })));
+
+            assertThat(requestId.get(5, TimeUnit.SECONDS)).isEqualTo("abc");
+            assertThat(mdc.get(5, TimeUnit.SECONDS)).isEqualTo("abc");
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave tasks submitted outside a request undecorated")
+    void shouldNotDecorateOutsideRequest() {
+        Runnable task = () -> {};
+
+        assertThat(new RequestContextTaskDecorator().decorate(task)).isSameAs(task);
+    }
+}
@@ -0,0 +1,164 @@
+package org.smauel.observability.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares the throughput of one endpoint of a service served by the platform threads of Tomcat and by virtual threads
+ * with the connection limiter. Each mode boots the service in its own application context, with its own in-memory db
+ * and otherwise its own configuration, and sends the same load to it over HTTP. Shared with the services through the
+ * test jar of this module.
+ *
+ * <pre>{@code
+ * new VirtualThreadBenchmark(Main.class, context -> "/api/v1/users/" + save(context).getId()).run();
+ * }</pre>
+ *
+ * <p>More requests are sent at once than Tomcat has platform threads by default, so that the platform threads are the
+ * bottleneck unless the endpoint is bound by the db. Both modes must answer every request with a 200.
+ */
+@Slf4j
+public class VirtualThreadBenchmark {
+    private static final int REQUESTS = 2_000;
+    private static final int CONCURRENCY = 400;
+
+    private final Class<?> application;
+    private final Function<ConfigurableApplicationContext, String> fixture;
+    private final String[] properties;
+
+    /**
+     * @param application The {@code @SpringBootApplication} of the service
+     * @param fixture Writes the data the endpoint reads to a started service and returns the path to request
+     * @param properties Properties to start the service with in both modes, such as disabling a cache
+     */
+    public VirtualThreadBenchmark(
+            Class<?> application, Function<ConfigurableApplicationContext, String> fixture, String... properties) {
+        this.application = application;
+        this.fixture = fixture;
+        this.properties = properties.clone();
+    }
+
+    /**
+     * Benchmark the endpoint on platform threads and then on virtual threads, and log the results
+     *
+     * @return The results of both modes
+     * @throws AssertionError if a request failed, or the virtual thread mode is missing the limiter or its metrics
+     */
+    public Comparison run() throws Exception {
+        Comparison comparison = new Comparison(run(false), run(true));
+        log.info(
+                "{} served {} requests {} at a time: platform threads {} req/s (p50 {} ms, p99 {} ms), "
+                        + "virtual threads {} req/s (p50 {} ms, p99 {} ms)",
+                application.getSimpleName(),
+                REQUESTS,
+                CONCURRENCY,
+                comparison.platform().throughput(),
+                comparison.platform().percentile(0.5),
+                comparison.platform().percentile(0.99),
+                comparison.virtual().throughput(),
+                comparison.virtual().percentile(0.5),
+                comparison.virtual().percentile(0.99));
+        return comparison;
+    }
+
+    private Result run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                        .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode)
+                        .properties(properties)
+                        .profiles(virtual ? new String[] {"virtual-threads"} : new String[0])
+                        .run();
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build()) {
+            assertThat(context.getBean(DataSource.class).isWrapperFor(ConnectionLimitingDataSource.class))
+                    .as(mode)
+                    .isEqualTo(virtual);
+            if (virtual) {
+                assertThat(context.getBeanProvider(VirtualThreadMetrics.class).getIfAvailable()).isNotNull();
+                assertThat(context.getBean(MeterRegistry.class)
+                                .find("jvm.threads.virtual.pinned")
+                                .timer())
+                        .isNotNull();
+            }
+            URI uri = URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + fixture.apply(context));
+            // Warm up so the comparison is not dominated by class loading and connection setup
+            load(client, uri, CONCURRENCY);
+            return load(client, uri, REQUESTS);
+        }
+    }
+
+    private static Result load(HttpClient client, URI uri, int requests) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int index = i;
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        assertThat(failures).as("failed requests to %s", uri.getPath()).hasValue(0);
+        Arrays.sort(latencies);
+        return new Result(requests, nanos, latencies);
+    }
+
+    /**
+     * The results of the same load on platform threads and on virtual threads
+     */
+    public record Comparison(Result platform, Result virtual) {}
+
+    /**
+     * The throughput and latencies of one mode
+     */
+    public record Result(int requests, long nanos, long[] latencies) {
+        /**
+         * @return The requests served per second
+         */
+        public long throughput() {
+            return requests * 1_000_000_000L / Math.max(nanos, 1);
+        }
+
+        /**
+         * @param percentile The percentile, between 0 and 1
+         * @return The latency of the percentile in milliseconds
+         */
+        public long percentile(double percentile) {
+            return latencies[(int) Math.ceil(percentile * latencies.length) - 1] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.smauel.observability.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.util.unit.DataSize;
+
+@DisplayName("Diagnostics Auto Configuration")
+class DiagnosticsAutoConfigurationTest {
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DiagnosticsAutoConfiguration.class))
+            .withPropertyValues("spring.application.name=diagnosed");
+
+    @Test
+    @DisplayName("Should register the recorders, the jfr endpoint and the slow query log")
+    void shouldRegisterDiagnostics() {
+        runner.withPropertyValues("observability.slow-query.threshold=PT0.25S", "observability.slow-query.capacity=7")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(HttpRequestRecorder.class);
+                    assertThat(context).hasSingleBean(JfrEndpoint.class);
+                    assertThat(context).hasSingleBean(RepositoryCallRecorderPostProcessor.class);
+                    assertThat(context).hasSingleBean(SlowQueryListener.class);
+                    assertThat(context).hasSingleBean(RepositoryMethodBinderPostProcessor.class);
+                    assertThat(context)
+                            .getBean(SlowQueryProperties.class)
+                            .satisfies(properties -> {
+                                assertThat(properties.getThreshold()).isEqualTo(Duration.ofMillis(250));
+                                assertThat(properties.getCapacity()).isEqualTo(7);
+                            });
+                    assertThat(context).hasSingleBean(SlowQueryLog.class);
+                });
+    }
+
+    @Test
+    @DisplayName("Should leave the slow query log out when it is disabled")
+    void shouldSkipSlowQueryLogWhenDisabled() {
+        runner.withPropertyValues("observability.slow-query.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(SlowQueryLog.class);
+            assertThat(context).doesNotHaveBean(SlowQueryListener.class);
+            assertThat(context).doesNotHaveBean(RepositoryMethodBinderPostProcessor.class);
+            assertThat(context).hasSingleBean(JfrEndpoint.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should bound the recordings of the jfr endpoint by the observability.jfr properties")
+    void shouldBoundRecordings() {
+        runner.withPropertyValues("observability.jfr.max-duration=PT1M", "observability.jfr.max-recordings=1")
+                .run(context -> {
+                    JfrEndpoint endpoint = context.getBean(JfrEndpoint.class);
+
+                    WebEndpointResponse<Object> started =
+                            endpoint.start(null, Duration.ofHours(1), DataSize.ofGigabytes(1));
+
+                    assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+                    assertThat(started.getBody())
+                            .isInstanceOfSatisfying(JfrEndpoint.RecordingDescriptor.class, recording -> {
+                                assertThat(recording.name()).startsWith("diagnosed-");
+                                assertThat(recording.duration()).isEqualTo(Duration.ofMinutes(1));
+                                assertThat(recording.maxSize()).isEqualTo(DataSize.ofMegabytes(100).toBytes());
+                            });
+                    assertThat(endpoint.start(null, null, null).getStatus())
+                            .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+                    assertThat(endpoint.start("verbose", null, null).getStatus())
+                            .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+                });
+    }
+
+    @Test
+    @DisplayName("Should not register anything outside a servlet application")
+    void shouldSkipOutsideServletApplication() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DiagnosticsAutoConfiguration.class))
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(JfrEndpoint.class);
+                    assertThat(context).doesNotHaveBean(HttpRequestRecorder.class);
+                });
+    }
+}
@@ -0,0 +1,143 @@
+package org.smauel.observability.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.smauel.observability.concurrency.RequestIdFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Client of a service started on a random port with the {@code ops} profile, which serves the diagnostics endpoints on
+ * the management port. Shared with the services through the test jar of this module.
+ *
+ * <pre>{@code
+ * long recording = diagnostics.startRecording("default");
+ * String requestId = diagnostics.requestId("/api/v1/users/{id}", id);
+ * List<RecordedEvent> events = diagnostics.stopRecording(recording, directory);
+ * assertThat(DiagnosticsClient.events(events, "org.smauel.HttpRequest", requestId)).hasSize(1);
+ * }</pre>
+ */
+public class DiagnosticsClient {
+    private final RestClient application;
+    private final RestClient management;
+
+    /**
+     * @param port The application port of the service
+     * @param managementPort The management port of the service
+     */
+    public DiagnosticsClient(int port, int managementPort) {
+        this.application = RestClient.create("http://localhost:" + port);
+        this.management = RestClient.create("http://localhost:" + managementPort + "/actuator");
+    }
+
+    /**
+     * Check that actuator endpoints are served on the management port and not on the application port
+     *
+     * @param endpoints The ids of the endpoints
+     */
+    public void assertServedOnManagementPortOnly(List<String> endpoints) {
+        for (String endpoint : endpoints) {
+            assertThat(status(application, "/actuator/" + endpoint).is2xxSuccessful())
+                    .as(endpoint)
+                    .isFalse();
+            assertThat(status(management, "/" + endpoint)).as(endpoint).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    /**
+     * Send a GET request to the application
+     *
+     * @param uri The uri template of the request
+     * @param uriVariables The values of the uri template variables
+     * @return The request id the service answered with
+     */
+    public String requestId(String uri, Object... uriVariables) {
+        return application
+                .get()
+                .uri(uri, uriVariables)
+                .retrieve()
+                .toBodilessEntity()
+                .getHeaders()
+                .getFirst(RequestIdFilter.HEADER);
+    }
+
+    /**
+     * Start a flight recording through the jfr endpoint
+     *
+     * @param settings The JFR settings to record with, {@code default} or {@code profile}
+     * @return The id of the recording
+     */
+    public long startRecording(String settings) {
+        JsonNode started = management
+                .post()
+                .uri("/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"settings\":\"" + settings + "\"}")
+                .retrieve()
+                .body(JsonNode.class);
+        return started.get("id").asLong();
+    }
+
+    /**
+     * Stop a flight recording and download it through the jfr endpoint
+     *
+     * @param id The id of the recording
+     * @param directory The directory to write the recording to
+     * @return The events recorded
+     */
+    public List<RecordedEvent> stopRecording(long id, Path directory) throws IOException {
+        management.post().uri("/jfr/{id}", id).retrieve().toBodilessEntity();
+        byte[] recording = management.get().uri("/jfr/{id}", id).retrieve().body(byte[].class);
+        return RecordingFile.readAllEvents(Files.write(directory.resolve(id + ".jfr"), recording));
+    }
+
+    /**
+     * Delete every recording of the jfr endpoint, so that tests do not share recordings
+     */
+    public void deleteRecordings() {
+        for (JsonNode recording : management.get().uri("/jfr").retrieve().body(JsonNode.class)) {
+            management
+                    .delete()
+                    .uri("/jfr/{id}", recording.get("id").asLong())
+                    .retrieve()
+                    .toBodilessEntity();
+        }
+    }
+
+    /**
+     * Check that the hibernate endpoint lists slow queries and counts the queries executed
+     */
+    public void assertHibernateStatistics() {
+        JsonNode statistics = management.get().uri("/hibernate").retrieve().body(JsonNode.class);
+        assertThat(statistics.get("slowQueries").isEmpty()).isFalse();
+        assertThat(statistics.get("totals").get("queryExecutions").asLong()).isPositive();
+    }
+
+    /**
+     * Pick the events of one type recorded for one request
+     *
+     * @param events The events of a recording
+     * @param type The name of the event type, such as {@code org.smauel.HttpRequest}
+     * @param requestId The request id of the request
+     * @return The matching events
+     */
+    public static List<RecordedEvent> events(List<RecordedEvent> events, String type, String requestId) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(type))
+                .filter(event -> requestId.equals(event.getString("requestId")))
+                .toList();
+    }
+
+    private static HttpStatusCode status(RestClient client, String path) {
+        return client.get().uri(path).exchange((request, response) -> response.getStatusCode());
+    }
+}
@@ -0,0 +1,121 @@
+package org.smauel.observability.diagnostics;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SlowQueryListener Tests")
+class SlowQueryListenerTest implements WithAssertions {
+    private static final String SQL = "select * from users where username = ? and created_at > ?";
+
+    private DataSource target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    @DisplayName("should log slow statements with the types of their parameters and the repository method")
+    void shouldLogSlowStatements() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, 10);
+        DataSource dataSource = listening(log);
+
+        new RepositoryMethod("UserRepository", "findByUsername").call(() -> {
+            PreparedStatement statement = dataSource.getConnection().prepareStatement(SQL);
+            statement.setString(1, "slowuser");
+            statement.setObject(2, LocalDateTime.now());
+            return statement.executeQuery();
+        });
+
+        assertThat(log.recent()).singleElement().satisfies(query -> {
+            assertThat(query.sql()).isEqualTo(SQL);
+            assertThat(query.parameters()).isEqualTo("(String, LocalDateTime)");
+            assertThat(query.repositoryMethod()).isEqualTo("UserRepository.findByUsername");
+            assertThat(query.batchSize()).isZero();
+            assertThat(query.durationMillis()).isNotNegative();
+        });
+    }
+
+    @Test
+    @DisplayName("should not log statements faster than the threshold")
+    void shouldNotLogFastStatements() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(Duration.ofHours(1), 10);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        log.bindTo(meterRegistry);
+        DataSource dataSource = listening(log);
+
+        PreparedStatement statement = dataSource.getConnection().prepareStatement(SQL);
+        statement.setString(1, "fastuser");
+        statement.executeQuery();
+
+        assertThat(log.recent()).isEmpty();
+        assertThat(meterRegistry.get("jdbc.statements.slow").functionCounter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("should log batches with their size, and statements outside of a repository call without a method")
+    void shouldLogBatches() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, 10);
+        DataSource dataSource = listening(log);
+
+        PreparedStatement statement = dataSource.getConnection().prepareStatement(SQL);
+        for (int i = 0; i < 3; i++) {
+            statement.setString(1, "batcheduser" + i);
+            statement.setNull(2, Types.TIMESTAMP);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+        statement.setString(1, "updateduser");
+        statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+        statement.executeUpdate();
+
+        assertThat(log.recent()).hasSize(2);
+        assertThat(log.recent().getFirst().batchSize()).isZero();
+        assertThat(log.recent().getFirst().parameters()).isEqualTo("(String, Timestamp)");
+        assertThat(log.recent().getLast().batchSize()).isEqualTo(3);
+        assertThat(log.recent().getLast().parameters()).isEqualTo("(String, null)");
+        assertThat(log.recent().getLast().repositoryMethod()).isNull();
+    }
+
+    @Test
+    @DisplayName("should keep the most recent slow queries, newest first")
+    void shouldKeepMostRecent() throws SQLException {
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, 2);
+        DataSource dataSource = listening(log);
+
+        Statement statement = dataSource.getConnection().createStatement();
+        statement.execute("select 1");
+        statement.execute("select 2");
+        statement.execute("select 3");
+
+        assertThat(log.recent()).extracting(SlowQuery::sql).containsExactly("select 3", "select 2");
+    }
+
+    private DataSource listening(SlowQueryLog log) {
+        return ProxyDataSourceBuilder.create(target)
+                .listener(new SlowQueryListener(log))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package org.smauel.observability.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+@DisplayName("Jdbc Auto Configuration")
+class JdbcAutoConfigurationTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JdbcAutoConfiguration.class))
+            .withBean(DataSource.class, () -> mock(DataSource.class));
+
+    @Test
+    @DisplayName("Should proxy the data source once for the statement listeners")
+    void shouldProxyDataSource() {
+        runner.withBean(StatementCountingListener.class).run(context -> assertThat(context)
+                .getBean(DataSource.class)
+                .isInstanceOf(ProxyDataSource.class));
+    }
+
+    @Test
+    @DisplayName("Should leave the data source alone without statement listeners")
+    void shouldSkipWithoutListeners() {
+        runner.run(context ->
+                assertThat(context).getBean(DataSource.class).isNotInstanceOf(ProxyDataSource.class));
+    }
+}
@@ -0,0 +1,128 @@
+package org.smauel.observability.jdbc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Performs controller calls through {@link MockMvc} and fails any that execute more SQL statements than their budget,
+ * listing the statements they executed. Added to an acceptance test by {@link StatementBudgetConfig}.
+ *
+ * <pre>{@code
+ * statements.perform(1, get("/api/v1/users/{id}", id)).andExpect(status().isOk());
+ * }</pre>
+ *
+ * <p>Statements are counted from the start of the call until its response is written, including responses streamed
+ * after an async dispatch, which is performed as part of the call. The controller methods called are remembered, so a
+ * test can check that every endpoint of the application has a budget.
+ */
+public class StatementBudget {
+    private final MockMvc mockMvc;
+    private final StatementCountingListener counter;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final List<String> applicationPackages;
+    private final Set<Method> budgeted = ConcurrentHashMap.newKeySet();
+
+    public StatementBudget(
+            MockMvc mockMvc,
+            StatementCountingListener counter,
+            RequestMappingHandlerMapping handlerMapping,
+            List<String> applicationPackages) {
+        this.mockMvc = mockMvc;
+        this.counter = counter;
+        this.handlerMapping = handlerMapping;
+        this.applicationPackages = List.copyOf(applicationPackages);
+    }
+
+    /**
+     * Perform a request, failing if the call executes more than the budgeted number of statements
+     *
+     * @param max The maximum number of SQL statements the call may execute
+     * @param request The request to perform
+     * @return The result of the call, after its async dispatch if it started one, to assert on
+     * @throws AssertionError if the call executed more than {@code max} statements
+     */
+    public ResultActions perform(int max, RequestBuilder request) throws Exception {
+        counter.start();
+        List<String> statements;
+        ResultActions actions;
+        MvcResult result;
+        try {
+            actions = mockMvc.perform(request);
+            result = actions.andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                actions = mockMvc.perform(asyncDispatch(result));
+            }
+        } finally {
+            statements = counter.stop();
+        }
+        if (result.getHandler() instanceof HandlerMethod handler) {
+            budgeted.add(handler.getMethod());
+        }
+        if (statements.size() > max) {
+            throw new AssertionError(String.format(
+                    "%s %s executed %d SQL statements, over its budget of %d:%n%s",
+                    result.getRequest().getMethod(),
+                    result.getRequest().getRequestURI(),
+                    statements.size(),
+                    max,
+                    IntStream.range(0, statements.size())
+                            .mapToObj(i -> String.format("%3d. %s", i + 1, statements.get(i)))
+                            .collect(Collectors.joining(System.lineSeparator()))));
+        }
+        return actions;
+    }
+
+    /**
+     * Check that every controller endpoint in the packages of the application, those of its
+     * {@code @SpringBootApplication}, was called through {@link #perform}
+     *
+     * @throws AssertionError listing the endpoints that were not called with a budget
+     */
+    public void assertEveryEndpointBudgeted() {
+        assertEveryEndpointBudgeted(applicationPackages);
+    }
+
+    /**
+     * Check that every controller endpoint in the given packages was called through {@link #perform}
+     *
+     * @param basePackages The packages of the controllers to check, to leave out those of libraries
+     * @throws AssertionError listing the endpoints that were not called with a budget
+     */
+    public void assertEveryEndpointBudgeted(List<String> basePackages) {
+        Set<String> missing = new TreeSet<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry :
+                handlerMapping.getHandlerMethods().entrySet()) {
+            HandlerMethod handler = entry.getValue();
+            String controllerPackage = handler.getBeanType().getPackageName();
+            if (basePackages.stream().anyMatch(controllerPackage::startsWith)
+                    && !budgeted.contains(handler.getMethod())) {
+                missing.add(describe(entry.getKey(), handler));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new AssertionError("Endpoints without a statement budget:" + System.lineSeparator()
+                    + String.join(System.lineSeparator(), missing));
+        }
+    }
+
+    private static String describe(RequestMappingInfo mapping, HandlerMethod handler) {
+        return mapping.getMethodsCondition().getMethods() + " " + mapping.getPatternValues() + " "
+                + handler.getBeanType().getSimpleName() + "#"
+                + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,35 @@
+package org.smauel.observability.jdbc;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Adds a {@link StatementCountingListener} to the data source and provides a {@link StatementBudget}. Import it into a
+ * MockMvc acceptance test to enforce statement budgets on its controller calls. Shared with the services through the
+ * test jar of this module.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementBudgetConfig {
+
+    @Bean
+    StatementCountingListener statementCountingListener() {
+        return new StatementCountingListener();
+    }
+
+    @Bean
+    StatementBudget statementBudget(
+            MockMvc mockMvc,
+            StatementCountingListener statementCountingListener,
+            RequestMappingHandlerMapping requestMappingHandlerMapping,
+            BeanFactory beanFactory) {
+        return new StatementBudget(
+                mockMvc,
+                statementCountingListener,
+                requestMappingHandlerMapping,
+                AutoConfigurationPackages.get(beanFactory));
+    }
+}
@@ -0,0 +1,49 @@
+package org.smauel.observability.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records the SQL of every statement executed while a recording is running, from any thread.
+ *
+ * <p>Each execution counts once, so a JDBC batch is one statement however many rows it carries, the same as one round
+ * trip to the db. Plain statements are recorded with the SQL they are executed with, prepared and callable statements
+ * with the SQL they were prepared with, and the statements of a plain batch joined by {@code ;}.
+ */
+public class StatementCountingListener implements QueryExecutionListener {
+    private volatile List<String> recording;
+
+    /**
+     * Start recording statements, discarding those of an unfinished recording
+     */
+    public void start() {
+        recording = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * Stop recording statements
+     *
+     * @return The SQL of every statement executed since the recording started, in order
+     */
+    public List<String> stop() {
+        List<String> statements = recording;
+        recording = null;
+        return statements == null ? List.of() : List.copyOf(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = recording;
+        if (statements != null) {
+            statements.add(String.join(
+                    "; ", queryInfoList.stream().map(QueryInfo::getQuery).toList()));
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+}
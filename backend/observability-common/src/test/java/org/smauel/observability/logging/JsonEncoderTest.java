@@ -0,0 +1,108 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+@DisplayName("JsonEncoder Tests")
+class JsonEncoderTest implements WithAssertions {
+    private static final long TIMESTAMP =
+            Instant.parse("2026-10-17T09:30:15.042Z").toEpochMilli();
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private JsonEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.setService("users-api");
+        encoder.start();
+    }
+
+    @Test
+    @DisplayName("should encode an event as a JSON line with the MDC of the request")
+    void shouldEncodeEvent() {
+        LoggingEvent event = event(Level.INFO, "Imported {} of {} users", 7, 9);
+        Map<String, String> mdc = new LinkedHashMap<>();
+        mdc.put("requestId", "b3c1d2e4");
+        mdc.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        event.setMDCPropertyMap(mdc);
+
+        assertThat(new String(encoder.encode(event), StandardCharsets.UTF_8))
+                .isEqualTo("{\"@timestamp\":\"2026-10-17T09:30:15.042Z\",\"level\":\"INFO\",\"thread\":\"worker-1\","
+                        + "\"logger\":\"org.smauel.observability.logging.JsonEncoderTest\","
+                        + "\"message\":\"Imported 7 of 9 users\",\"service\":\"users-api\","
+                        + "\"requestId\":\"b3c1d2e4\",\"traceId\":\"4bf92f3577b34da6a3ce929d0e0e4736\"}\n");
+    }
+
+    @Test
+    @DisplayName("should escape control characters and encode any character as UTF-8")
+    void shouldEscapeAndEncodeUtf8() {
+        String message = "User \"zoë\" at C:\\users\n\tcafé costs 5€ 🔐\u0001";
+
+        byte[] encoded = encoder.encode(event(Level.WARN, message));
+
+        assertThat(new String(encoded, StandardCharsets.UTF_8))
+                .contains("\"message\":\"User \\\"zoë\\\" at C:\\\\users\\n\\tcafé costs 5€ 🔐\\u0001\"");
+        assertThat(json(encoded).get("message").asString()).isEqualTo(message);
+    }
+
+    @Test
+    @DisplayName("should write the key value pairs and stack trace of an event")
+    void shouldWriteKeyValuePairsAndStackTrace() {
+        LoggingEvent event = event(Level.ERROR, "Failed to rebuild the search index");
+        event.addKeyValuePair(new KeyValuePair("users", 12));
+        event.setThrowableProxy(new ThrowableProxy(new IllegalStateException("Index is stale")));
+
+        JsonNode json = json(encoder.encode(event));
+
+        assertThat(json.get("users").asString()).isEqualTo("12");
+        assertThat(json.get("stack_trace").asString())
+                .startsWith("java.lang.IllegalStateException: Index is stale")
+                .contains("at org.smauel.observability.logging.JsonEncoderTest");
+    }
+
+    @Test
+    @DisplayName("should keep encoding after an event larger than the buffer it retains")
+    void shouldEncodeLargeEvents() {
+        String large = "x".repeat(100_000);
+
+        assertThat(json(encoder.encode(event(Level.INFO, large))).get("message").asString())
+                .isEqualTo(large);
+        assertThat(json(encoder.encode(event(Level.INFO, "small")))
+                        .get("message")
+                        .asString())
+                .isEqualTo("small");
+    }
+
+    private LoggingEvent event(Level level, String message, Object... arguments) {
+        LoggingEvent event = new LoggingEvent(
+                JsonEncoderTest.class.getName(),
+                context.getLogger(JsonEncoderTest.class),
+                level,
+                message,
+                null,
+                arguments);
+        event.setTimeStamp(TIMESTAMP);
+        event.setThreadName("worker-1");
+        return event;
+    }
+
+    private static JsonNode json(byte[] encoded) {
+        return new ObjectMapper().readTree(encoded);
+    }
+}
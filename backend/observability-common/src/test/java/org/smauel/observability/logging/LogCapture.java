@@ -0,0 +1,110 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Captures the JSON lines written through the ring buffer set up by {@code logback-spring.xml}, for an acceptance test
+ * to assert on what a request logs. Shared with the services through the test jar of this module.
+ *
+ * <pre>{@code
+ * try (LogCapture logs = LogCapture.debug("org.springframework.web.servlet.mvc.method.annotation")) {
+ *     mockMvc.perform(get("/api/v1/users/{id}", id));
+ *     assertThat(logs.awaitLine(line -> line.contains(requestId))).contains("\"userIdHash\"");
+ * }
+ * }</pre>
+ *
+ * <p>Lines are captured next to the {@code JSON} appender of the {@code BUFFER} ring buffer and encoded by its encoder,
+ * so they are the lines the service writes, with the MDC of the thread that logged. As the ring buffer writes them on
+ * its own thread, they are awaited.
+ */
+public class LogCapture implements AutoCloseable {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final Logger logger;
+    private final Level level;
+    private final RingBufferAppender buffer;
+    private final CapturingAppender appender;
+
+    private LogCapture(Logger logger, Level captured) {
+        Logger root = logger.getLoggerContext().getLogger(Logger.ROOT_LOGGER_NAME);
+        if (!(root.getAppender("BUFFER") instanceof RingBufferAppender ringBuffer)
+                || !(ringBuffer.getAppender("JSON") instanceof OutputStreamAppender<ILoggingEvent> json)) {
+            throw new IllegalStateException("The root logger does not log through the ring buffer");
+        }
+        this.logger = logger;
+        this.level = logger.getLevel();
+        this.buffer = ringBuffer;
+        this.appender = new CapturingAppender(json.getEncoder());
+        appender.setContext(logger.getLoggerContext());
+        appender.setName("CAPTURE");
+        appender.start();
+        buffer.addAppender(appender);
+        logger.setLevel(captured);
+    }
+
+    /**
+     * Start capturing, with the given logger logging at {@code DEBUG} until the capture is closed
+     *
+     * @param loggerName The logger whose debug events the test needs, other loggers log at their own level
+     * @return The capture, to close once the test has asserted on it
+     */
+    public static LogCapture debug(String loggerName) {
+        return new LogCapture(((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(loggerName), Level.DEBUG);
+    }
+
+    /**
+     * Wait for a line to be written
+     *
+     * @param matching The line to wait for
+     * @return The first matching line captured
+     * @throws AssertionError listing the captured lines if none matched in time
+     */
+    public String awaitLine(Predicate<String> matching) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (true) {
+            for (String line : appender.lines) {
+                if (matching.test(line)) {
+                    return line;
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("No matching line logged within " + TIMEOUT + ", captured:"
+                        + System.lineSeparator() + String.join("", appender.lines));
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    public void close() {
+        logger.setLevel(level);
+        buffer.detachAppender(appender);
+        appender.stop();
+    }
+
+    private static final class CapturingAppender extends AppenderBase<ILoggingEvent> {
+        private final Encoder<ILoggingEvent> encoder;
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+
+        private CapturingAppender(Encoder<ILoggingEvent> encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            lines.add(new String(encoder.encode(event), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.smauel.observability.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HexFormat;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@DisplayName("Logging Auto Configuration")
+class LoggingAutoConfigurationTest {
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(LoggingAutoConfiguration.class));
+
+    @Test
+    @DisplayName("Should log the hash of the user named by the id path variable by default")
+    void shouldLogUserIdHash() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(WebMvcConfigurer.class);
+            assertThat(logged(context.getBean(UserIdLoggingInterceptor.class), Map.of("id", "42")))
+                    .isEqualTo(HexFormat.of().toHexDigits(UserIdHash.of(42)));
+        });
+    }
+
+    @Test
+    @DisplayName("Should log the hash of the user named by the observability.logging path variable")
+    void shouldLogUserIdHashOfConfiguredVariable() {
+        runner.withPropertyValues("observability.logging.user-id-variable=userId").run(context -> {
+            UserIdLoggingInterceptor interceptor = context.getBean(UserIdLoggingInterceptor.class);
+
+            assertThat(logged(interceptor, Map.of("userId", "42")))
+                    .isEqualTo(HexFormat.of().toHexDigits(UserIdHash.of(42)));
+            assertThat(logged(interceptor, Map.of("id", "42"))).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should publish the log events dropped and queued by the ring buffers of the root logger")
+    void shouldPublishRingBufferMeters() {
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        RingBufferAppender buffer = new RingBufferAppender();
+        buffer.setContext(root.getLoggerContext());
+        buffer.setName("METERED");
+        buffer.setCapacity(64);
+        NOPAppender<ILoggingEvent> nop = new NOPAppender<>();
+        nop.setContext(root.getLoggerContext());
+        nop.start();
+        buffer.addAppender(nop);
+        buffer.start();
+        root.addAppender(buffer);
+        try {
+            runner.run(context -> {
+                MeterRegistry registry = new SimpleMeterRegistry();
+                context.getBean(LoggingMetrics.class).bindTo(registry);
+
+                assertThat(registry
+                                .get("logging.events.dropped")
+                                .tag("appender", "METERED")
+                                .tag("reason", "full")
+                                .functionCounter()
+                                .count())
+                        .isZero();
+                assertThat(registry
+                                .get("logging.events.dropped")
+                                .tag("appender", "METERED")
+                                .tag("reason", "sampled")
+                                .functionCounter())
+                        .isNotNull();
+                assertThat(registry
+                                .get("logging.events.queued")
+                                .tag("appender", "METERED")
+                                .gauge()
+                                .value())
+                        .isNotNegative();
+                assertThat(registry
+                                .get("logging.events.capacity")
+                                .tag("appender", "METERED")
+                                .gauge()
+                                .value())
+                        .isEqualTo(64);
+            });
+        } finally {
+            root.detachAppender(buffer);
+            buffer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not register anything outside a servlet application")
+    void shouldSkipOutsideServletApplication() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(LoggingAutoConfiguration.class))
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(LoggingMetrics.class);
+                    assertThat(context).doesNotHaveBean(UserIdLoggingInterceptor.class);
+                });
+    }
+
+    private static String logged(UserIdLoggingInterceptor interceptor, Map<String, String> variables) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+
+        interceptor.preHandle(request, response, new Object());
+        String logged = MDC.get(UserIdLoggingInterceptor.MDC_KEY);
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertThat(MDC.get(UserIdLoggingInterceptor.MDC_KEY)).isNull();
+        return logged;
+    }
+}
@@ -0,0 +1,139 @@
+package org.smauel.observability.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+@DisplayName("RingBufferAppender Tests")
+class RingBufferAppenderTest implements WithAssertions {
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private RecordingAppender recorded;
+    private RingBufferAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        recorded = new RecordingAppender(released);
+        recorded.setContext(context);
+        recorded.start();
+        appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("TEST");
+        appender.addAppender(recorded);
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("should append events in order on a background thread and flush them on stopping")
+    void shouldAppendEventsInOrder() {
+        released.countDown();
+        appender.start();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event(Level.INFO, "Event " + i));
+        }
+        appender.stop();
+
+        assertThat(recorded.events)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactlyElementsOf(
+                        IntStream.range(0, 100).mapToObj(i -> "Event " + i).toList());
+        assertThat(recorded.threads).containsOnly("logback-TEST");
+        assertThat(recorded.isStarted()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should drop events that find the buffer full rather than wait")
+    void shouldDropEventsWhenFull() throws Exception {
+        appender.setCapacity(4);
+        appender.setSampleRate(1);
+        appender.start();
+        appender.doAppend(event(Level.ERROR, "Blocking"));
+        assertThat(recorded.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 7; i++) {
+            appender.doAppend(event(Level.ERROR, "Event " + i));
+        }
+
+        assertThat(appender.getQueued()).isEqualTo(4);
+        assertThat(appender.getDropped()).isEqualTo(3);
+        released.countDown();
+        appender.stop();
+        assertThat(recorded.events).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("should sample events below WARN once past the threshold, keeping warnings and errors")
+    void shouldSampleBelowWarn() throws Exception {
+        appender.setCapacity(8);
+        appender.setSampleThreshold(0.5);
+        appender.setSampleRate(Integer.MAX_VALUE);
+        appender.start();
+        appender.doAppend(event(Level.ERROR, "Blocking"));
+        assertThat(recorded.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 7; i++) {
+            appender.doAppend(event(Level.INFO, "Info " + i));
+        }
+        appender.doAppend(event(Level.WARN, "Warning"));
+        appender.doAppend(event(Level.ERROR, "Error"));
+
+        assertThat(appender.getSampled()).isEqualTo(3);
+        assertThat(appender.getDropped()).isZero();
+        assertThat(appender.getQueued()).isEqualTo(6);
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(
+                RingBufferAppenderTest.class.getName(),
+                context.getLogger(RingBufferAppenderTest.class),
+                level,
+                message,
+                null,
+                null);
+    }
+
+    /**
+     * Records the events appended to it, blocking on the first until released
+     */
+    private static final class RecordingAppender extends AppenderBase<ILoggingEvent> {
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released;
+
+        private RecordingAppender(CountDownLatch released) {
+            this.released = released;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            events.add(event);
+            threads.add(Thread.currentThread().getName());
+            blocked.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.smauel.observability.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assertions on the meters every service publishes, for the metrics acceptance test of a service to check them against
+ * its own endpoints, services and repositories. Shared with the services through the test jar of this module.
+ */
+public final class MetricsAssertions {
+    private MetricsAssertions() {}
+
+    /**
+     * Check that requests to a route were timed with the SLO buckets of the services
+     *
+     * @param registry The meter registry of the service
+     * @param method The HTTP method of the requests
+     * @param uri The route template of the requests
+     * @param status The status the requests answered with
+     */
+    public static void assertRequestTimed(MeterRegistry registry, String method, String uri, int status) {
+        Timer timer = registry
+                .get("http.server.requests")
+                .tag("uri", uri)
+                .tag("method", method)
+                .tag("status", String.valueOf(status))
+                .timer();
+        assertThat(timer.count()).isPositive();
+        assertThat(bucketsInMillis(timer)).contains(5.0, 100.0, 1000.0, 5000.0);
+    }
+
+    /**
+     * Check that calls to a service method were timed with the SLO buckets of the services, and that every
+     * {@code @Service} of the application is {@code @Timed}
+     *
+     * @param context The application context of the service
+     * @param service The service class
+     * @param method The name of the service method
+     */
+    public static void assertServiceTimed(ApplicationContext context, Class<?> service, String method) {
+        Timer timer = context.getBean(MeterRegistry.class)
+                .get("service.invocations")
+                .tag("class", service.getName())
+                .tag("method", method)
+                .timer();
+        assertThat(timer.count()).isPositive();
+        assertThat(bucketsInMillis(timer)).contains(1.0, 1000.0);
+        assertThat(context.getBeansWithAnnotation(Service.class).values())
+                .allSatisfy(bean -> assertThat(AopUtils.getTargetClass(bean).isAnnotationPresent(Timed.class))
+                        .as("%s is @Timed", AopUtils.getTargetClass(bean).getName())
+                        .isTrue());
+    }
+
+    /**
+     * Check that calls to a repository method were timed
+     *
+     * @param registry The meter registry of the service
+     * @param repository The simple name of the repository interface
+     * @param method The name of the repository method
+     */
+    public static void assertRepositoryTimed(MeterRegistry registry, String repository, String method) {
+        assertThat(registry
+                        .get("spring.data.repository.invocations")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .timer()
+                        .count())
+                .isPositive();
+    }
+
+    /**
+     * Check that the connection pool, Hibernate and JVM meters are published, once the service has served a request
+     *
+     * @param registry The meter registry of the service
+     */
+    public static void assertPoolHibernateAndJvmMetrics(MeterRegistry registry) {
+        assertThat(registry.get("hikaricp.connections.max").gauge().value()).isPositive();
+        assertThat(registry.get("hibernate.sessions.open").functionCounter().count()).isPositive();
+        assertThat(registry
+                        .get("hibernate.transactions")
+                        .tag("result", "success")
+                        .functionCounter()
+                        .count())
+                .isPositive();
+        assertThat(registry.get("jvm.memory.used").gauges()).isNotEmpty();
+        assertThat(registry.get("jvm.threads.live").gauge().value()).isPositive();
+        assertThat(registry.find("jvm.gc.memory.allocated").counter()).isNotNull();
+    }
+
+    /**
+     * Check that no meter is tagged with request data
+     *
+     * @param registry The meter registry of the service
+     * @param values The ids, names or other request data the service has been sent
+     */
+    public static void assertNoTagContains(MeterRegistry registry, String... values) {
+        assertThat(registry.getMeters().stream()
+                        .map(Meter::getId)
+                        .flatMap(id -> id.getTags().stream())
+                        .map(Tag::getValue))
+                .noneMatch(value -> Arrays.stream(values).anyMatch(value::contains));
+    }
+
+    private static List<Double> bucketsInMillis(Timer timer) {
+        return Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .map(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toList();
+    }
+}
@@ -0,0 +1,137 @@
+package org.smauel.observability.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the spans the application exported to memory, flushing them first as spans are exported in batches. Added to
+ * an acceptance test by {@link SpanCaptureConfig}.
+ *
+ * <pre>{@code
+ * mockMvc.perform(get("/api/v1/users/{id}", id).header("traceparent", "00-" + traceId + "-" + spanId + "-01"));
+ * List<SpanData> spans = spanCapture.awaitTrace(traceId, "http get /api/v1/users/{id}");
+ * spanCapture.assertRequestTraced(spans, spanId, "/api/v1/users/{id}", requestId, "UserController.getUserById",
+ *         "UserService.getUserById", "users");
+ * }</pre>
+ */
+public class SpanCapture {
+    private static final int ATTEMPTS = 50;
+
+    private final InMemorySpanExporter exporter;
+    private final SdkTracerProvider tracerProvider;
+
+    public SpanCapture(InMemorySpanExporter exporter, SdkTracerProvider tracerProvider) {
+        this.exporter = exporter;
+        this.tracerProvider = tracerProvider;
+    }
+
+    /**
+     * Drop the spans exported so far, so that a test only sees the spans of its own requests
+     */
+    public void reset() {
+        flush();
+        exporter.reset();
+    }
+
+    /**
+     * @return The spans exported so far
+     */
+    public List<SpanData> finished() {
+        flush();
+        return exporter.getFinishedSpanItems();
+    }
+
+    /**
+     * Wait for a span of a trace to be exported, as the server span ends after the response has been sent
+     *
+     * @param traceId The id of the trace
+     * @param name The name of the span to wait for
+     * @return The spans of the trace exported once the span was
+     * @throws AssertionError listing the spans of the trace if the span was not exported in time
+     */
+    public List<SpanData> awaitTrace(String traceId, String name) throws InterruptedException {
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            List<SpanData> spans = trace(traceId);
+            if (spans.stream().anyMatch(span -> span.getName().equals(name))) {
+                return spans;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No span " + name + " in trace " + traceId + ": " + trace(traceId));
+    }
+
+    /**
+     * Check that a request was traced as a server span continuing the trace of its caller, with a controller span, a
+     * service span and the SQL statements of the service as children of one another
+     *
+     * @param spans The spans of the trace of the request
+     * @param callerSpanId The id of the span of the caller, sent in the {@code traceparent} header
+     * @param uri The route template of the request
+     * @param requestId The request id the service answered with
+     * @param controllerMethod The controller method, as {@code Class.method}
+     * @param serviceMethod The service method, as {@code Class.method}
+     * @param table The table the service method reads
+     */
+    public void assertRequestTraced(
+            List<SpanData> spans,
+            String callerSpanId,
+            String uri,
+            String requestId,
+            String controllerMethod,
+            String serviceMethod,
+            String table) {
+        SpanData server = span(spans, "http get " + uri);
+        assertThat(server.getKind()).isEqualTo(SpanKind.SERVER);
+        assertThat(server.getParentSpanId()).isEqualTo(callerSpanId);
+        assertThat(server.getAttributes().get(AttributeKey.stringKey("uri"))).isEqualTo(uri);
+        assertThat(server.getAttributes().get(AttributeKey.stringKey("status"))).isEqualTo("200");
+        assertThat(server.getAttributes().get(AttributeKey.stringKey("request.id")))
+                .isEqualTo(requestId);
+        SpanData controller = span(spans, controllerMethod);
+        assertThat(controller.getParentSpanId()).isEqualTo(server.getSpanId());
+        assertThat(controller.getAttributes().get(AttributeKey.stringKey("component")))
+                .isEqualTo("controller");
+        SpanData service = span(spans, serviceMethod);
+        assertThat(service.getParentSpanId()).isEqualTo(controller.getSpanId());
+        assertThat(service.getAttributes().get(AttributeKey.stringKey("component")))
+                .isEqualTo("service");
+        assertThat(spans).filteredOn(span -> span.getKind() == SpanKind.CLIENT).anySatisfy(span -> {
+            assertThat(span.getName()).isEqualTo("SELECT");
+            assertThat(span.getParentSpanId()).isEqualTo(service.getSpanId());
+            assertThat(span.getAttributes().get(AttributeKey.stringKey("db.statement")))
+                    .containsIgnoringCase(table);
+        });
+    }
+
+    /**
+     * Pick a span by name
+     *
+     * @param spans The spans to pick from
+     * @param name The name of the span
+     * @return The first span with the name
+     * @throws AssertionError listing the spans if none has the name
+     */
+    public static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No span " + name + " in " + spans));
+    }
+
+    private List<SpanData> trace(String traceId) {
+        return finished().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+    }
+
+    private void flush() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+    }
+}
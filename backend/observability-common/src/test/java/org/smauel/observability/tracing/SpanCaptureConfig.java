@@ -0,0 +1,24 @@
+package org.smauel.observability.tracing;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Exports the spans of the application to memory and provides a {@link SpanCapture}. Import it into an acceptance test
+ * to assert on the traces of its requests. Shared with the services through the test jar of this module.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SpanCaptureConfig {
+
+    @Bean
+    InMemorySpanExporter inMemorySpanExporter() {
+        return InMemorySpanExporter.create();
+    }
+
+    @Bean
+    SpanCapture spanCapture(InMemorySpanExporter inMemorySpanExporter, SdkTracerProvider sdkTracerProvider) {
+        return new SpanCapture(inMemorySpanExporter, sdkTracerProvider);
+    }
+}
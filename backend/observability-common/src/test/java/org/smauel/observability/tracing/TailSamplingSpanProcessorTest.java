@@ -0,0 +1,203 @@
+package org.smauel.observability.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tail Sampling Span Processor")
+class TailSamplingSpanProcessorTest {
+    private InMemorySpanExporter exporter;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        exporter = InMemorySpanExporter.create();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should keep slow traces with every span")
+    void shouldKeepSlowTraces() throws Exception {
+        Tracer tracer = tracer(Duration.ofMillis(20), 0, 10, 10);
+
+        Span root = tracer.spanBuilder("http get /api/v1/users/{id}")
+                .setSpanKind(SpanKind.SERVER)
+                .startSpan();
+        Context.current()
+                .with(root)
+                .wrap(() -> {
+                    Span child = tracer.spanBuilder("UserService.getUserById").startSpan();
+                    Context.current()
+                            .with(child)
+                            .wrap(() -> tracer.spanBuilder("SELECT")
+                                    .setSpanKind(SpanKind.CLIENT)
+                                    .startSpan()
+                                    .end())
+                            .run();
+                    child.end();
+                    Thread.sleep(25);
+                    return null;
+                })
+                .call();
+        root.end();
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        assertThat(spans)
+                .extracting(SpanData::getName, SpanData::getKind)
+                .containsExactlyInAnyOrder(
+                        tuple("http get /api/v1/users/{id}", SpanKind.SERVER),
+                        tuple("UserService.getUserById", SpanKind.INTERNAL),
+                        tuple("SELECT", SpanKind.CLIENT));
+        assertThat(spans)
+                .extracting(SpanData::getTraceId)
+                .containsOnly(root.getSpanContext().getTraceId());
+        assertThat(span(spans, "UserService.getUserById").getParentSpanId())
+                .isEqualTo(root.getSpanContext().getSpanId());
+        assertThat(span(spans, "SELECT").getParentSpanId())
+                .isEqualTo(span(spans, "UserService.getUserById").getSpanId());
+        assertThat(counter("kept")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should discard fast traces and keep failed ones")
+    void shouldDiscardFastTracesAndKeepFailedOnes() {
+        Tracer tracer = tracer(Duration.ofMinutes(1), 0, 10, 10);
+
+        tracer.spanBuilder("http get /fast").startSpan().end();
+        tracer.spanBuilder("http get /failed")
+                .startSpan()
+                .setStatus(StatusCode.ERROR, "HTTP 500")
+                .end();
+        tracer.spanBuilder("http get /server-error")
+                .setAttribute("outcome", "SERVER_ERROR")
+                .startSpan()
+                .end();
+
+        assertThat(exporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("http get /failed", "http get /server-error");
+        assertThat(counter("kept")).isEqualTo(2);
+        assertThat(counter("discarded")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep fast traces at the sample rate")
+    void shouldKeepFastTracesAtSampleRate() {
+        Tracer tracer = tracer(Duration.ofMinutes(1), 1, 10, 10);
+
+        tracer.spanBuilder("http get /fast").startSpan().end();
+
+        assertThat(exporter.getFinishedSpanItems()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should continue the trace of the caller and decide on its own spans")
+    void shouldContinueTraceOfCaller() {
+        Tracer tracer = tracer(Duration.ZERO, 0, 10, 10);
+        SpanContext caller = SpanContext.createFromRemoteParent(
+                "4bf92f3577b34da6a3ce929d0e0e4736",
+                "00f067aa0ba902b7",
+                TraceFlags.getDefault(),
+                TraceState.getDefault());
+
+        tracer.spanBuilder("http get /api/v1/users/{id}")
+                .setParent(Context.root().with(Span.wrap(caller)))
+                .startSpan()
+                .end();
+
+        assertThat(exporter.getFinishedSpanItems()).singleElement().satisfies(span -> {
+            assertThat(span.getTraceId()).isEqualTo(caller.getTraceId());
+            assertThat(span.getParentSpanId()).isEqualTo(caller.getSpanId());
+        });
+    }
+
+    @Test
+    @DisplayName("Should not record traces beyond the limits of the processor")
+    void shouldBoundPendingTracesAndSpans() {
+        Tracer tracer = tracer(Duration.ZERO, 0, 1, 2);
+
+        Span first = tracer.spanBuilder("http get /first").startSpan();
+        Span second = tracer.spanBuilder("http get /second").startSpan();
+        Context.current()
+                .with(first)
+                .wrap(() -> {
+                    for (int i = 0; i < 3; i++) {
+                        tracer.spanBuilder("SELECT").startSpan().end();
+                    }
+                })
+                .run();
+        second.end();
+        first.end();
+
+        assertThat(second.isRecording()).isFalse();
+        assertThat(exporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactly("SELECT", "SELECT", "http get /first");
+        assertThat(counter("dropped")).isEqualTo(1);
+        assertThat(meterRegistry.get("tracing.spans.dropped").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop spans ending after their trace was decided")
+    void shouldDropLateSpans() {
+        Tracer tracer = tracer(Duration.ZERO, 0, 10, 10);
+
+        Span root = tracer.spanBuilder("http get /api/v1/users/export").startSpan();
+        Span late = tracer.spanBuilder("SELECT")
+                .setParent(Context.current().with(root))
+                .startSpan();
+        root.end();
+        late.end();
+
+        assertThat(exporter.getFinishedSpanItems()).hasSize(1);
+        assertThat(meterRegistry.get("tracing.spans.dropped").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("tracing.traces.pending").gauge().value()).isZero();
+    }
+
+    private Tracer tracer(Duration slowThreshold, double sampleRate, int maxPendingTraces, int maxSpansPerTrace) {
+        TailSamplingSpanProcessor processor = new TailSamplingSpanProcessor(
+                slowThreshold, sampleRate, maxPendingTraces, maxSpansPerTrace, SimpleSpanProcessor.create(exporter));
+        processor.bindTo(meterRegistry);
+        return SdkTracerProvider.builder()
+                .setSampler(new TailSampler(processor))
+                .addSpanProcessor(processor)
+                .build()
+                .get("test");
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private double counter(String decision) {
+        return meterRegistry
+                .get("tracing.traces")
+                .tag("decision", decision)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,67 @@
+package org.smauel.observability.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.micrometer.tracing.opentelemetry.autoconfigure.SpanProcessors;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+@DisplayName("Tracing Auto Configuration")
+class TracingAutoConfigurationTest {
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TracingAutoConfiguration.class))
+            .withBean(Tracer.class, () -> mock(Tracer.class))
+            .withBean(BatchSpanProcessor.class, () -> BatchSpanProcessor.builder(InMemorySpanExporter.create())
+                    .build());
+
+    @Test
+    @DisplayName("Should tail sample traces by the observability.tracing properties")
+    void shouldTailSampleTraces() {
+        runner.withPropertyValues("observability.tracing.slow-threshold=PT2S", "observability.tracing.sample-rate=0.5")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(TailSamplingSpanProcessor.class);
+                    assertThat(context).hasSingleBean(TailSampler.class);
+                    assertThat(context).hasSingleBean(SpanProcessors.class);
+                    assertThat(context)
+                            .getBean(TracingProperties.class)
+                            .satisfies(properties -> {
+                                assertThat(properties.getSlowThreshold()).isEqualTo(Duration.ofSeconds(2));
+                                assertThat(properties.getSampleRate()).isEqualTo(0.5);
+                            });
+                });
+    }
+
+    @Test
+    @DisplayName("Should trace controllers, services, statements and tasks")
+    void shouldRegisterInstrumentation() {
+        runner.run(context -> {
+            assertThat(context)
+                    .getBeans(Advisor.class)
+                    .containsKeys("controllerTracingAdvisor", "serviceTracingAdvisor");
+            assertThat(context).hasSingleBean(TracingQueryListener.class);
+            assertThat(context).hasSingleBean(ContextPropagatingTaskDecorator.class);
+            assertThat(context).hasSingleBean(RouteOnlyServerRequestObservationConvention.class);
+            assertThat(context).hasSingleBean(RouteOnlyClientRequestObservationConvention.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Should leave sampling to Boot when tail sampling is disabled")
+    void shouldSkipTailSamplingWhenDisabled() {
+        runner.withPropertyValues("observability.tracing.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(TailSamplingSpanProcessor.class);
+            assertThat(context).doesNotHaveBean(TailSampler.class);
+            assertThat(context).doesNotHaveBean(SpanProcessors.class);
+            assertThat(context).hasSingleBean(TracingQueryListener.class);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package org.smauel.permissions.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+
+/**
+ * Outcome of a permission check together with how long it stays true.
+ *
+ * @param granted Whether the permission is held
+ * @param validUntilMillis The instant, in epoch millis, at which the outcome may change without any write to the
+ *     authorization graph; {@link Long#MAX_VALUE} when only a write can change it
+ */
+public record Decision(boolean granted, long validUntilMillis) {
+    private static final Decision DENIED = new Decision(false, Long.MAX_VALUE);
+
+    public static Decision denied() {
+        return DENIED;
+    }
+
+    /**
+     * Build the decision for a user holding a permission through assignments with the given expiries
+     *
+     * @param expiries The expiry of every active assignment granting the permission, null for assignments that never
+     *     expire
+     * @return A denial when there are no assignments, otherwise a grant valid until the last assignment expires
+     */
+    public static Decision fromExpiries(Collection<LocalDateTime> expiries) {
+        if (expiries.isEmpty()) {
+            return DENIED;
+        }
+        long validUntil = Long.MIN_VALUE;
+        for (LocalDateTime expiresAt : expiries) {
+            if (expiresAt == null) {
+                return new Decision(true, Long.MAX_VALUE);
+            }
+            validUntil = Math.max(
+                    validUntil,
+                    expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return new Decision(true, validUntil);
+    }
+}
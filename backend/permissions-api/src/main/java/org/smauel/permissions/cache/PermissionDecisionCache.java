@@ -0,0 +1,139 @@
+package org.smauel.permissions.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.smauel.permissions.config.DecisionCacheProperties;
+import org.smauel.permissions.event.AuthorizationChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded cache of permission check outcomes, both positive and negative.
+ *
+ * <p>Concurrent misses for the same user and permission are coalesced: the first caller loads the decision and every
+ * other caller waits for its result instead of querying the database again.
+ *
+ * <p>Entries are invalidated through a global epoch that is bumped after every committed change to the authorization
+ * graph. Each entry remembers the epoch that was current when its load started, so an entry loaded concurrently with
+ * a change is never served once the change has committed. Grants are also only served until the last granting
+ * assignment expires.
+ */
+@Component
+public class PermissionDecisionCache {
+    private final DecisionCacheProperties properties;
+    private final AsyncCache<DecisionKey, CachedDecision> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loads;
+
+    public PermissionDecisionCache(DecisionCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .buildAsync();
+        this.hits = Counter.builder("permissions.decision.cache.requests")
+                .description("Permission checks answered by the decision cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("permissions.decision.cache.requests")
+                .description("Permission checks answered by the decision cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.loads = Timer.builder("permissions.decision.cache.load")
+                .description("Time taken to load a permission check outcome on a cache miss")
+                .register(meterRegistry);
+        Gauge.builder("permissions.decision.cache.size", cache, c -> c.synchronous()
+                        .estimatedSize())
+                .description("Approximate number of cached permission check outcomes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Check whether a user holds a permission, loading the decision with {@code loader} unless a valid one is cached
+     *
+     * @param userId The user to check
+     * @param permissionName The name of the permission
+     * @param loader Loads the decision from the source of truth on a miss
+     * @return true if the user holds the permission
+     */
+    public boolean hasPermission(long userId, String permissionName, Supplier<Decision> loader) {
+        DecisionKey key = new DecisionKey(userId, permissionName);
+        long currentEpoch = epoch.get();
+        while (true) {
+            CompletableFuture<CachedDecision> cached = cache.getIfPresent(key);
+            if (cached == null) {
+                CompletableFuture<CachedDecision> loading = new CompletableFuture<>();
+                if (cache.asMap().putIfAbsent(key, loading) == null) {
+                    return load(key, loading, currentEpoch, loader);
+                }
+                continue;
+            }
+            CachedDecision decision = await(cached);
+            if (decision.isValid(currentEpoch, System.currentTimeMillis())) {
+                hits.increment();
+                return decision.granted();
+            }
+            CompletableFuture<CachedDecision> loading = new CompletableFuture<>();
+            if (cache.asMap().replace(key, cached, loading)) {
+                return load(key, loading, currentEpoch, loader);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        epoch.incrementAndGet();
+    }
+
+    private boolean load(
+            DecisionKey key, CompletableFuture<CachedDecision> loading, long loadEpoch, Supplier<Decision> loader) {
+        misses.increment();
+        long started = System.nanoTime();
+        try {
+            Decision decision = loader.get();
+            loading.complete(new CachedDecision(decision.granted(), decision.validUntilMillis(), loadEpoch));
+            return decision.granted();
+        } catch (RuntimeException | Error e) {
+            // Failed loads are never cached, waiting callers see the same failure
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static CachedDecision await(CompletableFuture<CachedDecision> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record DecisionKey(long userId, String permissionName) {}
+
+    private record CachedDecision(boolean granted, long validUntilMillis, long epoch) {
+        boolean isValid(long currentEpoch, long nowMillis) {
+            return epoch >= currentEpoch && nowMillis < validUntilMillis;
+        }
+    }
+}
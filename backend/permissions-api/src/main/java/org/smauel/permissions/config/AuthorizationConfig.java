@@ -0,0 +1,25 @@
+package org.smauel.permissions.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Slf4j
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({
+    AuthorizationEngineProperties.class,
+    DecisionCacheProperties.class,
+    BulkOperationProperties.class
+})
+public class AuthorizationConfig {
+
+    AuthorizationConfig(
+            AuthorizationEngineProperties engineProperties, DecisionCacheProperties decisionCacheProperties) {
+        if (engineProperties.isEnabled() && decisionCacheProperties.isEnabled()) {
+            log.warn("The decision cache is only used until the authorization engine has loaded, "
+                    + "disable permissions.decision-cache or permissions.engine");
+        }
+    }
+}
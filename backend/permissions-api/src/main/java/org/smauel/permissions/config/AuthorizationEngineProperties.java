@@ -0,0 +1,20 @@
+package org.smauel.permissions.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "permissions.engine")
+public class AuthorizationEngineProperties {
+    /**
+     * Whether permission checks are answered from the in-memory engine instead of the database
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often the engine is fully reloaded from the database, picking up changes made outside the services and on
+     * other instances. Bounds how long another instance may answer with a decision a change has made stale.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+}
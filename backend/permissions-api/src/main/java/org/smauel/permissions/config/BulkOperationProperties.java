@@ -0,0 +1,13 @@
+package org.smauel.permissions.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "permissions.bulk")
+public class BulkOperationProperties {
+    /**
+     * The maximum number of user and role pairs changed in a single transaction
+     */
+    private int chunkSize = 1000;
+}
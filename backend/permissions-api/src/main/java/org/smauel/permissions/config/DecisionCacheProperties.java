@@ -0,0 +1,26 @@
+package org.smauel.permissions.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "permissions.decision-cache")
+public class DecisionCacheProperties {
+    /**
+     * Whether database permission checks are cached. The cache is the alternative to the authorization engine rather
+     * than a layer under it: checks only reach the database, and so the cache, while the engine is disabled or has not
+     * loaded yet.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The maximum number of cached decisions
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a decision may be cached, as a safety net for changes made outside the services
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -1,12 +1,18 @@
 package org.smauel.permissions.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.request.CreatePermissionRequest;
 import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.pagination.PermissionSortKey;
 import org.smauel.permissions.service.PermissionService;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.PageQuery;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +22,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -43,12 +50,29 @@ public class PermissionController {
         return ResponseEntity.ok(permission);
     }
 
-    @GetMapping
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<PermissionDto>> getAllPermissions() {
         List<PermissionDto> permissions = permissionService.getAllPermissions();
         return ResponseEntity.ok(permissions);
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPage<PermissionDto>> getPermissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(defaultValue = "ID") PermissionSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<PermissionDto> page = permissionService.getPermissions(PageQuery.<PermissionSortKey>builder()
+                .sort(sort)
+                .direction(direction)
+                .limit(limit)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
+                .build());
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/resource/{resource}")
     public ResponseEntity<List<PermissionDto>> getPermissionsByResource(@PathVariable String resource) {
         List<PermissionDto> permissions = permissionService.getPermissionsByResource(resource);
@@ -1,11 +1,17 @@
 package org.smauel.permissions.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.smauel.permissions.dto.RoleDto;
 import org.smauel.permissions.dto.request.CreateRoleRequest;
+import org.smauel.permissions.pagination.RoleSortKey;
 import org.smauel.permissions.service.RoleService;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.PageQuery;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -16,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -43,12 +50,29 @@ public class RoleController {
         return ResponseEntity.ok(role);
     }
 
-    @GetMapping
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<RoleDto>> getAllRoles() {
         List<RoleDto> roles = roleService.getAllRoles();
         return ResponseEntity.ok(roles);
     }
 
+    @GetMapping
+    public ResponseEntity<CursorPage<RoleDto>> getRoles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(defaultValue = "ID") RoleSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<RoleDto> page = roleService.getRoles(PageQuery.<RoleSortKey>builder()
+                .sort(sort)
+                .direction(direction)
+                .limit(limit)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
+                .build());
+        return ResponseEntity.ok(page);
+    }
+
     @PutMapping("/{roleId}/permissions/{permissionId}")
     public ResponseEntity<RoleDto> addPermissionToRole(@PathVariable Long roleId, @PathVariable Long permissionId) {
         RoleDto updatedRole = roleService.addPermissionToRole(roleId, permissionId);
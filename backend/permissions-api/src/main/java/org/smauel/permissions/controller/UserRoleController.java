@@ -1,12 +1,21 @@
 package org.smauel.permissions.controller;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.smauel.permissions.dto.BulkRoleAssignmentResult;
+import org.smauel.permissions.dto.PermissionCheckResult;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.UserRoleAssignmentDto;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.BulkRoleRevocationRequest;
 import org.smauel.permissions.dto.request.GrantRoleRequest;
+import org.smauel.permissions.dto.request.PermissionCheckRequest;
+import org.smauel.permissions.service.UserRoleBulkService;
 import org.smauel.permissions.service.UserRoleService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,6 +25,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/v1/user-roles")
@@ -23,6 +34,8 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 public class UserRoleController {
     private final UserRoleService userRoleService;
+    private final UserRoleBulkService userRoleBulkService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/users/{userId}/roles")
     public ResponseEntity<UserRoleAssignmentDto> assignRole(
@@ -31,6 +44,18 @@ public class UserRoleController {
         return ResponseEntity.ok(assignment);
     }
 
+    @PostMapping("/roles/bulk-assign")
+    public ResponseEntity<BulkRoleAssignmentResult> assignRoles(@Valid @RequestBody BulkRoleAssignmentRequest request) {
+        BulkRoleAssignmentResult result = userRoleBulkService.assignRoles(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/roles/bulk-revoke")
+    public ResponseEntity<BulkRoleAssignmentResult> revokeRoles(@Valid @RequestBody BulkRoleRevocationRequest request) {
+        BulkRoleAssignmentResult result = userRoleBulkService.revokeRoles(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/users/{userId}/permissions")
     public ResponseEntity<List<PermissionDto>> getUserPermissions(@PathVariable Long userId) {
         List<PermissionDto> permissions = userRoleService.getUserPermissions(userId);
@@ -49,6 +74,31 @@ public class UserRoleController {
         return ResponseEntity.ok(hasPermission);
     }
 
+    @PostMapping(value = "/permissions/check", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<PermissionCheckResult>> checkPermissions(
+            @Valid @RequestBody PermissionCheckRequest request) {
+        List<PermissionCheckResult> results = userRoleService.checkPermissions(request);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping(value = "/permissions/check", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPermissionChecks(
+            @Valid @RequestBody PermissionCheckRequest request) {
+        // Each chunk is flushed as soon as it is written, so the client receives results while later chunks resolve
+        StreamingResponseBody body = outputStream -> userRoleService.checkPermissions(request, results -> {
+            try {
+                for (PermissionCheckResult result : results) {
+                    outputStream.write(objectMapper.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @DeleteMapping("/users/{userId}/roles/{roleId}")
     public ResponseEntity<Void> revokeRole(@PathVariable Long userId, @PathVariable Long roleId) {
         userRoleService.revokeRole(userId, roleId);
@@ -0,0 +1,99 @@
+package org.smauel.permissions.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.smauel.observability.concurrency.RequestContext;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.smauel.permissions.engine.AuthorizationEngine;
+
+/**
+ * A check of a single permission of a user, recorded by {@code UserRoleService#hasPermission} with where the decision
+ * came from. The user is only recorded by its {@link UserIdHash}. Checks are the hottest path of the service, so
+ * the event is only created while a recording has it enabled.
+ *
+ * <pre>{@code
+ * PermissionCheckEvent event = PermissionCheckEvent.isRecording() ? PermissionCheckEvent.start() : null;
+ * boolean granted = ...;
+ * if (event != null) {
+ *     event.complete(userId, permissionName, PermissionCheckEvent.ENGINE, granted, authorizationEngine);
+ * }
+ * }</pre>
+ */
+@Name("org.smauel.PermissionCheck")
+@Label("Permission Check")
+@Category({"Smauel", "Permissions API"})
+@Description("A check of a single permission of a user")
+@StackTrace(false)
+public class PermissionCheckEvent extends Event {
+    public static final String ENGINE = "engine";
+    public static final String CACHE = "cache";
+    public static final String DATABASE = "database";
+    public static final int UNKNOWN_ROLE_COUNT = -1;
+
+    private static final EventType TYPE = EventType.getEventType(PermissionCheckEvent.class);
+
+    @Label("Request Id")
+    String requestId;
+
+    @Label("User Id Hash")
+    long userIdHash;
+
+    @Label("Permission")
+    String permission;
+
+    @Label("Source")
+    @Description("Where the decision came from: engine, cache or database")
+    String source;
+
+    @Label("Granted")
+    boolean granted;
+
+    @Label("Role Count")
+    @Description("The active roles of the user, -1 when the decision was not made by the engine")
+    int roleCount;
+
+    /**
+     * @return Whether a recording has the event enabled, checked before an event is created
+     */
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * @return A new event, started if a recording has it enabled
+     */
+    public static PermissionCheckEvent start() {
+        PermissionCheckEvent event = new PermissionCheckEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if a recording has it enabled and it ran over its threshold, only then counting the roles
+     *
+     * @param userId The user checked
+     * @param permission The permission checked
+     * @param source Where the decision came from
+     * @param granted Whether the permission was granted
+     * @param engine The engine that made the decision to count the active roles of the user with, or null to record
+     *     {@link #UNKNOWN_ROLE_COUNT}
+     */
+    public void complete(long userId, String permission, String source, boolean granted, AuthorizationEngine engine) {
+        end();
+        if (shouldCommit()) {
+            this.requestId =
+                    RequestContext.current().map(RequestContext::requestId).orElse(null);
+            this.userIdHash = UserIdHash.of(userId);
+            this.permission = permission;
+            this.source = source;
+            this.granted = granted;
+            this.roleCount = engine == null ? UNKNOWN_ROLE_COUNT : engine.activeRoleCount(userId);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.smauel.permissions.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of a bulk role grant or revocation.
+ *
+ * <p>{@code requested} counts distinct user and role pairs. Grants report the pairs newly {@code assigned} and those
+ * {@code skipped} because they already had an active assignment; revocations report the number of assignments
+ * {@code revoked}, which may include expired ones.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRoleAssignmentResult {
+    private long requested;
+    private Long assigned;
+    private Long skipped;
+    private Long revoked;
+}
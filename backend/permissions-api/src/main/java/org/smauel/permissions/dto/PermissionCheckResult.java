@@ -0,0 +1,26 @@
+package org.smauel.permissions.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a batch permission check for a single user.
+ *
+ * <p>{@code permissions} holds one entry per requested permission, in request order. {@code allOf} and
+ * {@code anyOf} are only present when the matching expression was requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PermissionCheckResult {
+    private Long userId;
+    private List<Boolean> permissions;
+    private Boolean allOf;
+    private Boolean anyOf;
+}
@@ -0,0 +1,29 @@
+package org.smauel.permissions.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Grant every listed role to every listed user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRoleAssignmentRequest {
+    @NotEmpty(message = "At least one user id is required") @Size(max = 10_000, message = "At most 10000 users can be changed at once") private List<@NotNull Long> userIds;
+
+    @NotEmpty(message = "At least one role name is required") @Size(max = 100, message = "At most 100 roles can be changed at once") private List<@NotBlank String> roleNames;
+
+    @NotNull(message = "Granted by is required") private Long grantedBy;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,48 @@
+package org.smauel.permissions.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckRequest {
+    @NotEmpty(message = "At least one user id is required") @Size(max = 10_000, message = "At most 10000 users can be checked at once") private List<@NotNull Long> userIds;
+
+    @Size(max = 100, message = "At most 100 permissions can be checked at once") private List<@NotNull String> permissions;
+
+    @Size(max = 100, message = "At most 100 permissions can be checked at once") private List<@NotNull String> allOf;
+
+    @Size(max = 100, message = "At most 100 permissions can be checked at once") private List<@NotNull String> anyOf;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one of permissions, allOf or anyOf is required") public boolean isCheckRequested() {
+        return !isEmpty(permissions) || !isEmpty(allOf) || !isEmpty(anyOf);
+    }
+
+    /**
+     * Every distinct permission name referenced by the request, in first-seen order
+     */
+    @JsonIgnore
+    public Set<String> getReferencedPermissions() {
+        Set<String> names = new LinkedHashSet<>();
+        Stream.of(permissions, allOf, anyOf).filter(list -> !isEmpty(list)).forEach(names::addAll);
+        return names;
+    }
+
+    private static boolean isEmpty(List<String> list) {
+        return list == null || list.isEmpty();
+    }
+}
@@ -0,0 +1,251 @@
+package org.smauel.permissions.engine;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.permissions.config.AuthorizationEngineProperties;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.AuthorizationChangedEvent;
+import org.smauel.permissions.event.PermissionDeletedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RoleCreatedEvent;
+import org.smauel.permissions.event.RoleDeletedEvent;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
+import org.smauel.permissions.event.RolesAssignedEvent;
+import org.smauel.permissions.event.RolesRevokedEvent;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.ActiveRoleGrant;
+import org.smauel.permissions.repository.projection.RolePermissionName;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory, compiled view of the authorization model used to answer permission checks without touching the database.
+ *
+ * <p>The engine holds an immutable {@link AuthorizationSnapshot} behind a volatile reference. Checks read the current
+ * snapshot without locking or allocating; writers (full reloads and the incremental updates driven by
+ * {@link AuthorizationChangedEvent}s) are serialised and publish a new snapshot once their change is complete.
+ *
+ * <p>Incremental updates are applied after the originating transaction commits, and a periodic full reload picks up
+ * anything written to the database behind the services' back. Until the first load completes (or when the engine is
+ * disabled) {@link #isReady()} returns false and callers should fall back to the database. Changes made while the
+ * first load runs have no snapshot to be applied to, so they are only recorded and the first load is repeated once.
+ *
+ * <p>Incremental updates only reach the engine of the instance that made the change. With several instances, a grant
+ * or revoke made on one is only seen by the others at their next full reload, so they may keep answering with the old
+ * decision for up to {@code permissions.engine.refresh-interval}. The default interval matches the decision cache TTL,
+ * so no instance serves a stale decision for longer than a cached one would be.
+ */
+@Slf4j
+@Component
+public class AuthorizationEngine {
+    private final UserRoleAssignmentRepository userRoleAssignmentRepository;
+    private final RoleRepository roleRepository;
+    private final AuthorizationEngineProperties properties;
+    private final TransactionTemplate readTransaction;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile AuthorizationSnapshot snapshot;
+    private volatile boolean missedChange;
+
+    public AuthorizationEngine(
+            UserRoleAssignmentRepository userRoleAssignmentRepository,
+            RoleRepository roleRepository,
+            AuthorizationEngineProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.userRoleAssignmentRepository = userRoleAssignmentRepository;
+        this.roleRepository = roleRepository;
+        this.properties = properties;
+        // Loads may run from after-commit callbacks, where the finished transaction is still bound to the thread
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Check whether a user currently holds a permission through any of their active role assignments
+     *
+     * @param userId The user to check
+     * @param permissionName The name of the permission
+     * @return true if the user holds the permission
+     * @throws IllegalStateException if the engine has not been loaded
+     */
+    public boolean hasPermission(long userId, String permissionName) {
+        return hasPermission(userId, permissionName, System.currentTimeMillis());
+    }
+
+    /**
+     * Check whether a user holds a permission through any role assignment active at the given instant
+     *
+     * @param userId The user to check
+     * @param permissionName The name of the permission
+     * @param nowMillis The instant to evaluate assignment expiry against, in epoch millis
+     * @return true if the user holds the permission
+     * @throws IllegalStateException if the engine has not been loaded
+     */
+    public boolean hasPermission(long userId, String permissionName, long nowMillis) {
+        AuthorizationSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Authorization engine has not been loaded");
+        }
+        return current.hasPermission(userId, permissionName, nowMillis);
+    }
+
+    /**
+     * Count the role assignments of a user that are currently active
+     *
+     * @param userId The user whose roles to count
+     * @return The number of active role assignments of the user
+     * @throws IllegalStateException if the engine has not been loaded
+     */
+    public int activeRoleCount(long userId) {
+        AuthorizationSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Authorization engine has not been loaded");
+        }
+        return current.activeRoleCount(userId, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Scheduled(
+            initialDelayString = "${permissions.engine.refresh-interval:PT1M}",
+            fixedDelayString = "${permissions.engine.refresh-interval:PT1M}")
+    public void onRefreshInterval() {
+        refresh();
+    }
+
+    /**
+     * Rebuild the whole snapshot from the database, does nothing when the engine is disabled
+     */
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            boolean initial = snapshot == null;
+            if (initial) {
+                missedChange = false;
+            }
+            reload();
+            // Later changes wait for the lock now that a snapshot is published, so one more load covers those missed
+            if (initial && missedChange) {
+                missedChange = false;
+                reload();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        if (snapshot == null) {
+            missedChange = true;
+            // Checked again, as the first load may have published its snapshot before the change was recorded
+            if (snapshot == null) {
+                return;
+            }
+        }
+        writeLock.lock();
+        try {
+            AuthorizationSnapshot current = snapshot;
+            snapshot = switch (event) {
+                case RoleAssignedEvent assigned ->
+                    current.withAssignment(
+                            assigned.userId(),
+                            assigned.roleId(),
+                            toEpochMillis(assigned.expiresAt()),
+                            System.currentTimeMillis());
+                case RolesAssignedEvent assigned ->
+                    current.withAssignments(
+                            assigned.assignments().stream()
+                                    .map(assignment -> new AuthorizationSnapshot.Grant(
+                                            assignment.userId(),
+                                            assignment.roleId(),
+                                            toEpochMillis(assignment.expiresAt())))
+                                    .toList(),
+                            System.currentTimeMillis());
+                case RoleRevokedEvent revoked -> current.withoutRole(revoked.userId(), revoked.roleId());
+                case RolesRevokedEvent revoked -> current.withoutRoles(revoked.userIds(), revoked.roleIds());
+                case AllRolesRevokedEvent revoked -> current.withoutUser(revoked.userId());
+                case RoleCreatedEvent created -> current.withRoleGraph(readRoleGraph());
+                case RoleDeletedEvent deleted -> current.withRoleGraph(readRoleGraph());
+                case RolePermissionAddedEvent added -> current.withRoleGraph(readRoleGraph());
+                case RolePermissionRemovedEvent removed -> current.withRoleGraph(readRoleGraph());
+                case PermissionDeletedEvent deleted -> current.withRoleGraph(readRoleGraph());
+            };
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload() {
+        long started = System.nanoTime();
+        AuthorizationSnapshot loaded = readTransaction.execute(status -> load());
+        snapshot = loaded;
+        log.info(
+                "Loaded authorization engine with {} users, {} roles and {} permissions in {} ms",
+                loaded.userCount(),
+                loaded.roleCount(),
+                loaded.permissionCount(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private AuthorizationSnapshot load() {
+        RoleGraph roleGraph = loadRoleGraph();
+        LocalDateTime now = LocalDateTime.now();
+        long nowMillis = toEpochMillis(now);
+        LongObjectMap.Builder<UserGrants> userGrants = LongObjectMap.builder(1024);
+        try (Stream<ActiveRoleGrant> grants = userRoleAssignmentRepository.streamActiveRoleGrants(now)) {
+            grants.forEach(grant -> {
+                long expiresAtMillis = toEpochMillis(grant.expiresAt());
+                UserGrants existing = userGrants.get(grant.userId());
+                userGrants.put(
+                        grant.userId(),
+                        existing == null
+                                ? UserGrants.of(grant.roleId(), expiresAtMillis)
+                                : existing.with(grant.roleId(), expiresAtMillis, nowMillis));
+            });
+        }
+        return new AuthorizationSnapshot(roleGraph, userGrants.build());
+    }
+
+    private RoleGraph readRoleGraph() {
+        return readTransaction.execute(status -> loadRoleGraph());
+    }
+
+    private RoleGraph loadRoleGraph() {
+        RoleGraph.Builder builder = RoleGraph.builder();
+        for (RolePermissionName edge : roleRepository.findAllRolePermissionNames()) {
+            builder.grant(edge.roleId(), edge.permissionName());
+        }
+        return builder.build();
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return UserGrants.NEVER_EXPIRES;
+        }
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
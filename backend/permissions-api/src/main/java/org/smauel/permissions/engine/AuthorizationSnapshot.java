@@ -0,0 +1,129 @@
+package org.smauel.permissions.engine;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Immutable point-in-time view of everything needed to answer a permission check.
+ *
+ * <p>Mutations return a new snapshot that shares the unchanged parts with this one; the engine publishes the result
+ * with a single volatile write, so readers never observe a partially applied change.
+ */
+final class AuthorizationSnapshot {
+    static final AuthorizationSnapshot EMPTY = new AuthorizationSnapshot(RoleGraph.empty(), LongObjectMap.empty());
+
+    private final RoleGraph roleGraph;
+    private final LongObjectMap<UserGrants> userGrants;
+
+    AuthorizationSnapshot(RoleGraph roleGraph, LongObjectMap<UserGrants> userGrants) {
+        this.roleGraph = roleGraph;
+        this.userGrants = userGrants;
+    }
+
+    /**
+     * Check whether a user holds a permission through any assignment that is still active at {@code nowMillis}
+     */
+    boolean hasPermission(long userId, String permissionName, long nowMillis) {
+        int permissionId = roleGraph.permissionId(permissionName);
+        if (permissionId == RoleGraph.UNKNOWN_PERMISSION) {
+            return false;
+        }
+        UserGrants grants = userGrants.get(userId);
+        if (grants == null) {
+            return false;
+        }
+        for (int i = 0; i < grants.size(); i++) {
+            if (grants.isActive(i, nowMillis) && roleGraph.grants(grants.roleId(i), permissionId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count the assignments of a user that are still active at {@code nowMillis}
+     */
+    int activeRoleCount(long userId, long nowMillis) {
+        UserGrants grants = userGrants.get(userId);
+        return grants == null ? 0 : grants.countActive(nowMillis);
+    }
+
+    AuthorizationSnapshot withRoleGraph(RoleGraph roleGraph) {
+        return new AuthorizationSnapshot(roleGraph, userGrants);
+    }
+
+    AuthorizationSnapshot withAssignment(long userId, long roleId, long expiresAtMillis, long nowMillis) {
+        UserGrants existing = userGrants.get(userId);
+        UserGrants updated = existing == null
+                ? UserGrants.of(roleId, expiresAtMillis)
+                : existing.with(roleId, expiresAtMillis, nowMillis);
+        return new AuthorizationSnapshot(roleGraph, userGrants.with(userId, updated));
+    }
+
+    /**
+     * Apply many assignments at once, copying each shard of the user map they touch a single time
+     */
+    AuthorizationSnapshot withAssignments(List<Grant> grants, long nowMillis) {
+        LongObjectMap.Builder<UserGrants> builder = userGrants.toBuilder();
+        for (Grant grant : grants) {
+            UserGrants existing = builder.get(grant.userId());
+            builder.put(
+                    grant.userId(),
+                    existing == null
+                            ? UserGrants.of(grant.roleId(), grant.expiresAtMillis())
+                            : existing.with(grant.roleId(), grant.expiresAtMillis(), nowMillis));
+        }
+        return new AuthorizationSnapshot(roleGraph, builder.build());
+    }
+
+    AuthorizationSnapshot withoutRole(long userId, long roleId) {
+        UserGrants existing = userGrants.get(userId);
+        if (existing == null) {
+            return this;
+        }
+        UserGrants updated = existing.without(roleId);
+        return new AuthorizationSnapshot(
+                roleGraph, updated == null ? userGrants.without(userId) : userGrants.with(userId, updated));
+    }
+
+    /**
+     * Remove every listed role from every listed user
+     */
+    AuthorizationSnapshot withoutRoles(Collection<Long> userIds, Collection<Long> roleIds) {
+        LongObjectMap.Builder<UserGrants> builder = userGrants.toBuilder();
+        for (long userId : userIds) {
+            UserGrants updated = builder.get(userId);
+            for (Iterator<Long> roles = roleIds.iterator(); updated != null && roles.hasNext(); ) {
+                updated = updated.without(roles.next());
+            }
+            if (updated == null) {
+                builder.remove(userId);
+            } else {
+                builder.put(userId, updated);
+            }
+        }
+        return new AuthorizationSnapshot(roleGraph, builder.build());
+    }
+
+    AuthorizationSnapshot withoutUser(long userId) {
+        return new AuthorizationSnapshot(roleGraph, userGrants.without(userId));
+    }
+
+    int userCount() {
+        return userGrants.size();
+    }
+
+    int roleCount() {
+        return roleGraph.roleCount();
+    }
+
+    int permissionCount() {
+        return roleGraph.permissionCount();
+    }
+
+    /**
+     * A single role assignment
+     */
+    record Grant(long userId, long roleId, long expiresAtMillis) {}
+}
@@ -0,0 +1,358 @@
+package org.smauel.permissions.engine;
+
+import java.util.Arrays;
+
+/**
+ * Immutable open-addressing hash map keyed by primitive {@code long}s.
+ *
+ * <p>Lookups never box the key or allocate. The keys are spread over shards, each its own open-addressing table, and
+ * the number of shards doubles as the map grows so that a shard holds about a thousand keys at most. Updates copy
+ * the shard holding the key and the array of shards and return a new map that shares every other shard with the
+ * original, so an update costs a small copy however large the map is, and an instance can be shared freely between
+ * threads once published.
+ *
+ * @param <V> The value type, values may not be null
+ */
+final class LongObjectMap<V> {
+    /**
+     * The most keys a shard holds before the map doubles its shards
+     */
+    private static final int SHARD_SIZE = 1024;
+
+    /**
+     * Shards are picked by the top 16 bits of the hash, the bits the slot within a shard is not picked by
+     */
+    private static final int MAX_SHARDS = 1 << 16;
+
+    private static final LongObjectMap<?> EMPTY = new LongObjectMap<>(new Shard[] {Shard.EMPTY}, 0);
+
+    private final Shard[] shards;
+    private final int size;
+    private final int shardMask;
+
+    private LongObjectMap(Shard[] shards, int size) {
+        this.shards = shards;
+        this.size = size;
+        this.shardMask = shards.length - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> LongObjectMap<V> empty() {
+        return (LongObjectMap<V>) EMPTY;
+    }
+
+    static <V> Builder<V> builder(int expectedSize) {
+        return new Builder<>(expectedSize);
+    }
+
+    /**
+     * Return a builder over this map's mappings, for applying many updates while copying each shard at most once
+     */
+    Builder<V> toBuilder() {
+        return new Builder<>(shards, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        Shard shard = shards[shardOf(key, shardMask)];
+        long[] keys = shard.keys;
+        Object[] values = shard.values;
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Return a copy of this map with the given mapping added or replaced
+     */
+    LongObjectMap<V> with(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        boolean replacing = get(key) != null;
+        int newSize = replacing ? size : size + 1;
+        if (shardCountFor(newSize) > shards.length) {
+            // Resharding rehashes every key, as often as growing a single table would
+            return toBuilder().put(key, value).build();
+        }
+        int index = shardOf(key, shardMask);
+        Shard shard = shards[index];
+        int shardSize = replacing ? shard.size : shard.size + 1;
+        long[] newKeys;
+        Object[] newValues;
+        if (capacityFor(shardSize) > shard.keys.length) {
+            newKeys = new long[capacityFor(shardSize)];
+            newValues = new Object[newKeys.length];
+            rehash(shard.keys, shard.values, newKeys, newValues);
+        } else {
+            newKeys = shard.keys.clone();
+            newValues = shard.values.clone();
+        }
+        insert(newKeys, newValues, key, value);
+        return new LongObjectMap<>(replace(index, new Shard(newKeys, newValues, shardSize)), newSize);
+    }
+
+    /**
+     * Return a copy of this map without the mapping for the given key
+     */
+    LongObjectMap<V> without(long key) {
+        if (get(key) == null) {
+            return this;
+        }
+        int index = shardOf(key, shardMask);
+        Shard shard = shards[index];
+        long[] newKeys = shard.keys.clone();
+        Object[] newValues = shard.values.clone();
+        remove(newKeys, newValues, key);
+        return new LongObjectMap<>(replace(index, new Shard(newKeys, newValues, shard.size - 1)), size - 1);
+    }
+
+    private Shard[] replace(int index, Shard shard) {
+        Shard[] newShards = shards.clone();
+        newShards[index] = shard;
+        return newShards;
+    }
+
+    private static int capacityFor(int size) {
+        // Keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(size, 4) * 2 - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+
+    private static int shardCountFor(int size) {
+        int shards = 1;
+        while (shards < MAX_SHARDS && (long) shards * SHARD_SIZE < size) {
+            shards <<= 1;
+        }
+        return shards;
+    }
+
+    private static int shardOf(long key, int shardMask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 48) & shardMask;
+    }
+
+    private static int slotOf(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static void insert(long[] keys, Object[] values, long key, Object value) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private static boolean remove(long[] keys, Object[] values, long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == null) {
+            return false;
+        }
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = slotOf(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0L;
+        values[gap] = null;
+        return true;
+    }
+
+    private static void rehash(long[] fromKeys, Object[] fromValues, long[] toKeys, Object[] toValues) {
+        for (int i = 0; i < fromValues.length; i++) {
+            if (fromValues[i] != null) {
+                insert(toKeys, toValues, fromKeys[i], fromValues[i]);
+            }
+        }
+    }
+
+    /**
+     * One open-addressing table of the map, never written once it belongs to a map
+     */
+    private static final class Shard {
+        private static final Shard EMPTY = new Shard(new long[8], new Object[8], 0);
+
+        private final long[] keys;
+        private final Object[] values;
+        private final int size;
+
+        private Shard(long[] keys, Object[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Mutable builder used to populate a map in one pass without copying on every insert. A builder over an existing
+     * map copies a shard the first time it writes to it, and shares the shards it never writes to with the map.
+     */
+    static final class Builder<V> {
+        private long[][] keys;
+        private Object[][] values;
+        private int[] sizes;
+        private boolean[] owned;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int shards = shardCountFor(expectedSize);
+            this.keys = new long[shards][];
+            this.values = new Object[shards][];
+            this.sizes = new int[shards];
+            this.owned = new boolean[shards];
+            for (int i = 0; i < shards; i++) {
+                keys[i] = new long[capacityFor(expectedSize / shards)];
+                values[i] = new Object[keys[i].length];
+                owned[i] = true;
+            }
+        }
+
+        private Builder(Shard[] shards, int size) {
+            this.keys = new long[shards.length][];
+            this.values = new Object[shards.length][];
+            this.sizes = new int[shards.length];
+            this.owned = new boolean[shards.length];
+            this.size = size;
+            for (int i = 0; i < shards.length; i++) {
+                keys[i] = shards[i].keys;
+                values[i] = shards[i].values;
+                sizes[i] = shards[i].size;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            int shard = shardOf(key, keys.length - 1);
+            long[] shardKeys = keys[shard];
+            Object[] shardValues = values[shard];
+            int mask = shardKeys.length - 1;
+            int slot = slotOf(key, mask);
+            while (shardValues[slot] != null) {
+                if (shardKeys[slot] == key) {
+                    return (V) shardValues[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        Builder<V> put(long key, V value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Null values are not supported");
+            }
+            boolean adding = get(key) == null;
+            if (adding) {
+                size++;
+                if (shardCountFor(size) > keys.length) {
+                    reshard(shardCountFor(size));
+                }
+            }
+            int shard = shardOf(key, keys.length - 1);
+            int shardSize = adding ? sizes[shard] + 1 : sizes[shard];
+            if (capacityFor(shardSize) > keys[shard].length) {
+                long[] newKeys = new long[capacityFor(shardSize)];
+                Object[] newValues = new Object[newKeys.length];
+                rehash(keys[shard], values[shard], newKeys, newValues);
+                keys[shard] = newKeys;
+                values[shard] = newValues;
+                owned[shard] = true;
+            } else {
+                own(shard);
+            }
+            insert(keys[shard], values[shard], key, value);
+            sizes[shard] = shardSize;
+            return this;
+        }
+
+        Builder<V> remove(long key) {
+            if (get(key) == null) {
+                return this;
+            }
+            int shard = shardOf(key, keys.length - 1);
+            own(shard);
+            LongObjectMap.remove(keys[shard], values[shard], key);
+            sizes[shard]--;
+            size--;
+            return this;
+        }
+
+        LongObjectMap<V> build() {
+            Shard[] shards = new Shard[keys.length];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new Shard(keys[i], values[i], sizes[i]);
+            }
+            // The builder must not mutate arrays that now belong to an immutable map
+            Arrays.fill(owned, false);
+            return new LongObjectMap<>(shards, size);
+        }
+
+        private void own(int shard) {
+            if (!owned[shard]) {
+                keys[shard] = keys[shard].clone();
+                values[shard] = values[shard].clone();
+                owned[shard] = true;
+            }
+        }
+
+        private void reshard(int shards) {
+            long[][] newKeys = new long[shards][];
+            Object[][] newValues = new Object[shards][];
+            int[] newSizes = new int[shards];
+            for (int i = 0; i < keys.length; i++) {
+                for (int slot = 0; slot < values[i].length; slot++) {
+                    if (values[i][slot] != null) {
+                        newSizes[shardOf(keys[i][slot], shards - 1)]++;
+                    }
+                }
+            }
+            for (int i = 0; i < shards; i++) {
+                newKeys[i] = new long[capacityFor(newSizes[i])];
+                newValues[i] = new Object[newKeys[i].length];
+            }
+            for (int i = 0; i < keys.length; i++) {
+                for (int slot = 0; slot < values[i].length; slot++) {
+                    if (values[i][slot] != null) {
+                        long key = keys[i][slot];
+                        int shard = shardOf(key, shards - 1);
+                        insert(newKeys[shard], newValues[shard], key, values[i][slot]);
+                    }
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+            sizes = newSizes;
+            owned = new boolean[shards];
+            Arrays.fill(owned, true);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.smauel.permissions.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of the role to permission graph.
+ *
+ * <p>Permission names are interned to dense int ids and every role holds a bitset of the permission ids it grants.
+ */
+final class RoleGraph {
+    static final int UNKNOWN_PERMISSION = -1;
+
+    private final Map<String, Integer> permissionIds;
+    private final LongObjectMap<long[]> rolePermissions;
+
+    private RoleGraph(Map<String, Integer> permissionIds, LongObjectMap<long[]> rolePermissions) {
+        this.permissionIds = permissionIds;
+        this.rolePermissions = rolePermissions;
+    }
+
+    static RoleGraph empty() {
+        return new RoleGraph(Map.of(), LongObjectMap.empty());
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int permissionId(String permissionName) {
+        Integer id = permissionIds.get(permissionName);
+        return id == null ? UNKNOWN_PERMISSION : id;
+    }
+
+    boolean grants(long roleId, int permissionId) {
+        long[] bits = rolePermissions.get(roleId);
+        int word = permissionId >>> 6;
+        return bits != null && word < bits.length && (bits[word] & (1L << permissionId)) != 0;
+    }
+
+    int roleCount() {
+        return rolePermissions.size();
+    }
+
+    int permissionCount() {
+        return permissionIds.size();
+    }
+
+    static final class Builder {
+        private final Map<String, Integer> permissionIds = new HashMap<>();
+        private final Map<Long, long[]> rolePermissions = new HashMap<>();
+
+        private Builder() {}
+
+        Builder grant(long roleId, String permissionName) {
+            int id = permissionIds.computeIfAbsent(permissionName, name -> permissionIds.size());
+            long[] bits = rolePermissions.getOrDefault(roleId, new long[0]);
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                long[] grown = new long[word + 1];
+                System.arraycopy(bits, 0, grown, 0, bits.length);
+                bits = grown;
+            }
+            bits[word] |= 1L << id;
+            rolePermissions.put(roleId, bits);
+            return this;
+        }
+
+        RoleGraph build() {
+            LongObjectMap.Builder<long[]> roles = LongObjectMap.builder(rolePermissions.size());
+            rolePermissions.forEach(roles::put);
+            return new RoleGraph(Map.copyOf(permissionIds), roles.build());
+        }
+    }
+}
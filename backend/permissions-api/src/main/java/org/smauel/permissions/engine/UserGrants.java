@@ -0,0 +1,85 @@
+package org.smauel.permissions.engine;
+
+import java.util.Arrays;
+
+/**
+ * Immutable list of the role assignments held by a single user.
+ *
+ * <p>Assignments are stored as parallel primitive arrays of role ids and expiry instants (epoch millis,
+ * {@link Long#MAX_VALUE} when the assignment never expires) so checks can scan them without allocating.
+ */
+final class UserGrants {
+    static final long NEVER_EXPIRES = Long.MAX_VALUE;
+
+    private final long[] roleIds;
+    private final long[] expiresAtMillis;
+
+    UserGrants(long[] roleIds, long[] expiresAtMillis) {
+        this.roleIds = roleIds;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    static UserGrants of(long roleId, long expiresAtMillis) {
+        return new UserGrants(new long[] {roleId}, new long[] {expiresAtMillis});
+    }
+
+    int size() {
+        return roleIds.length;
+    }
+
+    long roleId(int index) {
+        return roleIds[index];
+    }
+
+    boolean isActive(int index, long nowMillis) {
+        return expiresAtMillis[index] > nowMillis;
+    }
+
+    /**
+     * Return a copy with the given assignment appended, dropping any assignments that have already expired
+     */
+    UserGrants with(long roleId, long expiresAtMillis, long nowMillis) {
+        int active = countActive(nowMillis);
+        long[] newRoleIds = new long[active + 1];
+        long[] newExpiries = new long[active + 1];
+        int next = 0;
+        for (int i = 0; i < roleIds.length; i++) {
+            if (isActive(i, nowMillis)) {
+                newRoleIds[next] = roleIds[i];
+                newExpiries[next++] = this.expiresAtMillis[i];
+            }
+        }
+        newRoleIds[next] = roleId;
+        newExpiries[next] = expiresAtMillis;
+        return new UserGrants(newRoleIds, newExpiries);
+    }
+
+    /**
+     * Return a copy without any assignment of the given role, or null when no assignments remain
+     */
+    UserGrants without(long roleId) {
+        int kept = 0;
+        long[] newRoleIds = new long[roleIds.length];
+        long[] newExpiries = new long[roleIds.length];
+        for (int i = 0; i < roleIds.length; i++) {
+            if (roleIds[i] != roleId) {
+                newRoleIds[kept] = roleIds[i];
+                newExpiries[kept++] = expiresAtMillis[i];
+            }
+        }
+        if (kept == 0) {
+            return null;
+        }
+        return new UserGrants(Arrays.copyOf(newRoleIds, kept), Arrays.copyOf(newExpiries, kept));
+    }
+
+    int countActive(long nowMillis) {
+        int active = 0;
+        for (long expiry : expiresAtMillis) {
+            if (expiry > nowMillis) {
+                active++;
+            }
+        }
+        return active;
+    }
+}
@@ -0,0 +1,8 @@
+package org.smauel.permissions.event;
+
+/**
+ * Every role assignment of a user was revoked
+ *
+ * @param userId The user whose roles were revoked
+ */
+public record AllRolesRevokedEvent(Long userId) implements AuthorizationChangedEvent {}
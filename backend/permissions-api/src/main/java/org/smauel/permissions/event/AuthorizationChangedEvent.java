@@ -0,0 +1,19 @@
+package org.smauel.permissions.event;
+
+/**
+ * Published by the services whenever a change could alter the outcome of a permission check.
+ *
+ * <p>Events are published inside the transaction that made the change, so listeners that need the change to be
+ * visible to other transactions should use {@code @TransactionalEventListener}.
+ */
+public sealed interface AuthorizationChangedEvent
+        permits RoleAssignedEvent,
+                RolesAssignedEvent,
+                RoleRevokedEvent,
+                RolesRevokedEvent,
+                AllRolesRevokedEvent,
+                RoleCreatedEvent,
+                RoleDeletedEvent,
+                RolePermissionAddedEvent,
+                RolePermissionRemovedEvent,
+                PermissionDeletedEvent {}
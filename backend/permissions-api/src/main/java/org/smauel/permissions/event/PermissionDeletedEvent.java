@@ -0,0 +1,8 @@
+package org.smauel.permissions.event;
+
+/**
+ * A permission was deleted
+ *
+ * @param permissionId The deleted permission
+ */
+public record PermissionDeletedEvent(Long permissionId) implements AuthorizationChangedEvent {}
@@ -0,0 +1,14 @@
+package org.smauel.permissions.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A role was assigned to a user
+ *
+ * @param assignmentId The id of the new assignment
+ * @param userId The user the role was assigned to
+ * @param roleId The assigned role
+ * @param expiresAt When the assignment expires, or null if it never does
+ */
+public record RoleAssignedEvent(Long assignmentId, Long userId, Long roleId, LocalDateTime expiresAt)
+        implements AuthorizationChangedEvent {}
@@ -0,0 +1,8 @@
+package org.smauel.permissions.event;
+
+/**
+ * A role was created
+ *
+ * @param roleId The new role
+ */
+public record RoleCreatedEvent(Long roleId) implements AuthorizationChangedEvent {}
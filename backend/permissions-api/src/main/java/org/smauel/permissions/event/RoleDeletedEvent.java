@@ -0,0 +1,8 @@
+package org.smauel.permissions.event;
+
+/**
+ * A role was deleted
+ *
+ * @param roleId The deleted role
+ */
+public record RoleDeletedEvent(Long roleId) implements AuthorizationChangedEvent {}
@@ -0,0 +1,9 @@
+package org.smauel.permissions.event;
+
+/**
+ * A permission was added to a role
+ *
+ * @param roleId The role that was changed
+ * @param permissionId The added permission
+ */
+public record RolePermissionAddedEvent(Long roleId, Long permissionId) implements AuthorizationChangedEvent {}
@@ -0,0 +1,9 @@
+package org.smauel.permissions.event;
+
+/**
+ * A permission was removed from a role
+ *
+ * @param roleId The role that was changed
+ * @param permissionId The removed permission
+ */
+public record RolePermissionRemovedEvent(Long roleId, Long permissionId) implements AuthorizationChangedEvent {}
@@ -0,0 +1,9 @@
+package org.smauel.permissions.event;
+
+/**
+ * Every assignment of a role was revoked from a user
+ *
+ * @param userId The user the role was revoked from
+ * @param roleId The revoked role
+ */
+public record RoleRevokedEvent(Long userId, Long roleId) implements AuthorizationChangedEvent {}
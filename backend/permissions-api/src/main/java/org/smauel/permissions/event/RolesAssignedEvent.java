@@ -0,0 +1,10 @@
+package org.smauel.permissions.event;
+
+import java.util.List;
+
+/**
+ * Roles were assigned to many users at once by a bulk grant
+ *
+ * @param assignments The new assignments
+ */
+public record RolesAssignedEvent(List<RoleAssignedEvent> assignments) implements AuthorizationChangedEvent {}
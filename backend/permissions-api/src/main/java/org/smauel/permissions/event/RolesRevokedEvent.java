@@ -0,0 +1,12 @@
+package org.smauel.permissions.event;
+
+import java.util.Collection;
+
+/**
+ * Every assignment of each role was revoked from each user by a bulk revocation
+ *
+ * @param userIds The users the roles were revoked from
+ * @param roleIds The revoked roles
+ */
+public record RolesRevokedEvent(Collection<Long> userIds, Collection<Long> roleIds)
+        implements AuthorizationChangedEvent {}
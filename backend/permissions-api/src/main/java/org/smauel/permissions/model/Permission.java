@@ -4,8 +4,6 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
@@ -17,6 +15,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.smauel.permissions.model.enums.Action;
 import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.persistence.id.GeneratedId;
 
 @Entity
 @Table(name = "permissions")
@@ -26,7 +25,7 @@ import org.smauel.permissions.model.enums.PermissionType;
 @Builder
 public class Permission {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedId(sequence = "permissions_seq")
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -0,0 +1,59 @@
+package org.smauel.permissions.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read model row recording that a user holds a permission through one of their role assignments.
+ *
+ * <p>There is one row per assignment and permission of the assigned role, including expired assignments, so the
+ * table mirrors {@code user_role_assignments} joined with {@code role_permissions} exactly. Rows are written only by
+ * {@code EffectivePermissionProjector} and {@code EffectivePermissionMaintenance}.
+ */
+@Entity
+@Table(
+        name = "user_effective_permissions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"assignment_id", "permission_id"}),
+        indexes = {
+            @Index(name = "idx_uep_user_permission", columnList = "user_id, permission_id"),
+            @Index(name = "idx_uep_role_permission", columnList = "role_id, permission_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserEffectivePermission {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assignment_id", nullable = false)
+    private Long assignmentId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "role_id", nullable = false)
+    private Long roleId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "permission_id", nullable = false)
+    private Permission permission;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -3,8 +3,6 @@ package org.smauel.permissions.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -15,6 +13,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.smauel.persistence.id.GeneratedId;
 
 @Entity
 @Table(name = "user_role_assignments")
@@ -24,7 +23,7 @@ import org.hibernate.annotations.CreationTimestamp;
 @Builder
 public class UserRoleAssignment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedId(sequence = "user_role_assignments_seq")
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,17 @@
+package org.smauel.permissions.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.SortKey;
+
+/**
+ * Orderings supported when listing roles, each backed by a unique index
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RoleSortKey implements SortKey {
+    ID("id"),
+    NAME("name");
+
+    private final String property;
+}
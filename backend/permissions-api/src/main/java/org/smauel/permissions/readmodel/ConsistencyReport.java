@@ -0,0 +1,13 @@
+package org.smauel.permissions.readmodel;
+
+/**
+ * Result of comparing the effective permissions read model against the source tables
+ *
+ * @param missingRows Rows implied by the source tables that are absent from the read model
+ * @param unexpectedRows Rows in the read model that the source tables do not imply
+ */
+public record ConsistencyReport(long missingRows, long unexpectedRows) {
+    public boolean isConsistent() {
+        return missingRows == 0 && unexpectedRows == 0;
+    }
+}
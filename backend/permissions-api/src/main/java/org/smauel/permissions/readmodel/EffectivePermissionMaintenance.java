@@ -0,0 +1,72 @@
+package org.smauel.permissions.readmodel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuild and consistency checks for the {@code user_effective_permissions} read model.
+ *
+ * <p>The model is verified when the application starts, which also backfills it for databases that predate it, and
+ * optionally on the {@code permissions.read-model.check-cron} schedule. Any drift is logged and repaired with a full
+ * rebuild.
+ */
+@Slf4j
+@Component
+public class EffectivePermissionMaintenance {
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransaction;
+
+    public EffectivePermissionMaintenance(
+            UserEffectivePermissionRepository userEffectivePermissionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.userEffectivePermissionRepository = userEffectivePermissionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Compare the read model against the rows implied by the source tables
+     *
+     * @return The number of missing and unexpected rows
+     */
+    public ConsistencyReport check() {
+        return readTransaction.execute(status -> new ConsistencyReport(
+                userEffectivePermissionRepository.countMissingRows(),
+                userEffectivePermissionRepository.countUnexpectedRows()));
+    }
+
+    /**
+     * Replace the whole read model with the rows implied by the source tables, in a single transaction
+     *
+     * @return The number of rows written
+     */
+    public int rebuild() {
+        int inserted = transactionTemplate.execute(status -> {
+            userEffectivePermissionRepository.deleteAllRows();
+            return userEffectivePermissionRepository.insertAllFromSource();
+        });
+        log.info("Rebuilt effective permissions read model with {} rows", inserted);
+        return inserted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${permissions.read-model.check-cron:-}")
+    public void verify() {
+        ConsistencyReport report = check();
+        if (!report.isConsistent()) {
+            log.warn(
+                    "Effective permissions read model is out of date ({} missing, {} unexpected rows), rebuilding",
+                    report.missingRows(),
+                    report.unexpectedRows());
+            rebuild();
+        }
+    }
+}
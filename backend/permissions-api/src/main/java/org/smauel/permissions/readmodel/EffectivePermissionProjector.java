@@ -0,0 +1,55 @@
+package org.smauel.permissions.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.AuthorizationChangedEvent;
+import org.smauel.permissions.event.PermissionDeletedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RoleCreatedEvent;
+import org.smauel.permissions.event.RoleDeletedEvent;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
+import org.smauel.permissions.event.RolesAssignedEvent;
+import org.smauel.permissions.event.RolesRevokedEvent;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code user_effective_permissions} read model in step with the authorization graph.
+ *
+ * <p>Changes are applied synchronously, inside the transaction that changed the graph, so the read model commits or
+ * rolls back together with the source tables.
+ */
+@Component
+@RequiredArgsConstructor
+public class EffectivePermissionProjector {
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+
+    @EventListener
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        switch (event) {
+            case RoleAssignedEvent assigned ->
+                userEffectivePermissionRepository.insertForAssignment(assigned.assignmentId());
+            case RolesAssignedEvent assigned ->
+                userEffectivePermissionRepository.insertForAssignments(assigned.assignments().stream()
+                        .map(RoleAssignedEvent::assignmentId)
+                        .toList());
+            case RoleRevokedEvent revoked ->
+                userEffectivePermissionRepository.deleteByUserIdAndRoleId(revoked.userId(), revoked.roleId());
+            case RolesRevokedEvent revoked ->
+                userEffectivePermissionRepository.deleteByUserIdsAndRoleIds(revoked.userIds(), revoked.roleIds());
+            case AllRolesRevokedEvent revoked -> userEffectivePermissionRepository.deleteByUserId(revoked.userId());
+            case RolePermissionAddedEvent added ->
+                userEffectivePermissionRepository.insertForRolePermission(added.roleId(), added.permissionId());
+            case RolePermissionRemovedEvent removed ->
+                userEffectivePermissionRepository.deleteByRoleIdAndPermissionId(
+                        removed.roleId(), removed.permissionId());
+            // New roles have no assignments yet, and roles or permissions still in use cannot be deleted
+            case RoleCreatedEvent created -> {}
+            case RoleDeletedEvent deleted -> {}
+            case PermissionDeletedEvent deleted -> {}
+        }
+    }
+}
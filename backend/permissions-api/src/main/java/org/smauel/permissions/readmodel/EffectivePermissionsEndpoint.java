@@ -0,0 +1,28 @@
+package org.smauel.permissions.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to check ({@code GET}) and rebuild ({@code POST}) the effective permissions read model
+ */
+@Component
+@Endpoint(id = "effectivepermissions")
+@RequiredArgsConstructor
+public class EffectivePermissionsEndpoint {
+    private final EffectivePermissionMaintenance maintenance;
+
+    @ReadOperation
+    public ConsistencyReport check() {
+        return maintenance.check();
+    }
+
+    @WriteOperation
+    public ConsistencyReport rebuild() {
+        maintenance.rebuild();
+        return maintenance.check();
+    }
+}
@@ -4,6 +4,10 @@ import java.util.List;
 import java.util.Optional;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.enums.PermissionType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,4 +18,6 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
     List<Permission> findByResource(String resource);
 
     List<Permission> findByTypeAndResource(PermissionType type, String resource);
+
+    Window<Permission> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
@@ -1,7 +1,14 @@
 package org.smauel.permissions.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.smauel.permissions.model.Role;
+import org.smauel.permissions.repository.projection.RolePermissionName;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,9 +17,17 @@ import org.springframework.stereotype.Repository;
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
 
+    List<Role> findByNameIn(Collection<String> names);
+
+    Window<Role> findBy(ScrollPosition position, Sort sort, Limit limit);
+
     @Query("SELECT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.id = :id")
     Optional<Role> findByIdWithPermissions(Long id);
 
     @Query("SELECT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.name = :name")
     Optional<Role> findByNameWithPermissions(String name);
+
+    @Query("SELECT new org.smauel.permissions.repository.projection.RolePermissionName(r.id, p.name) "
+            + "FROM Role r JOIN r.permissions p")
+    List<RolePermissionName> findAllRolePermissionNames();
 }
@@ -0,0 +1,94 @@
+package org.smauel.permissions.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.UserEffectivePermission;
+import org.smauel.permissions.repository.projection.UserPermissionName;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserEffectivePermissionRepository extends JpaRepository<UserEffectivePermission, Long> {
+    String SOURCE_ROWS = "SELECT ura.id, ura.user_id, ura.role_id, rp.permission_id, ura.expires_at "
+            + "FROM user_role_assignments ura "
+            + "JOIN role_permissions rp ON rp.role_id = ura.role_id";
+    String MODEL_ROWS =
+            "SELECT assignment_id, user_id, role_id, permission_id, expires_at FROM user_effective_permissions";
+    String INSERT_INTO =
+            "INSERT INTO user_effective_permissions " + "(assignment_id, user_id, role_id, permission_id, expires_at) ";
+
+    @Query("SELECT DISTINCT p FROM UserEffectivePermission uep "
+            + "JOIN uep.permission p "
+            + "WHERE uep.userId = :userId "
+            + "AND (uep.expiresAt IS NULL OR uep.expiresAt > :now)")
+    List<Permission> findActivePermissionsByUserId(Long userId, LocalDateTime now);
+
+    @Query("SELECT uep.expiresAt FROM UserEffectivePermission uep "
+            + "JOIN uep.permission p "
+            + "WHERE uep.userId = :userId AND p.name = :permissionName "
+            + "AND (uep.expiresAt IS NULL OR uep.expiresAt > :now)")
+    List<LocalDateTime> findActiveGrantExpiries(Long userId, String permissionName, LocalDateTime now);
+
+    @Query("SELECT DISTINCT new org.smauel.permissions.repository.projection.UserPermissionName(uep.userId, p.name) "
+            + "FROM UserEffectivePermission uep "
+            + "JOIN uep.permission p "
+            + "WHERE uep.userId IN :userIds AND p.name IN :permissionNames "
+            + "AND (uep.expiresAt IS NULL OR uep.expiresAt > :now)")
+    List<UserPermissionName> findActivePermissionNames(
+            Collection<Long> userIds, Collection<String> permissionNames, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_INTO + SOURCE_ROWS + " WHERE ura.id = :assignmentId", nativeQuery = true)
+    int insertForAssignment(Long assignmentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_INTO + SOURCE_ROWS + " WHERE ura.id IN :assignmentIds", nativeQuery = true)
+    int insertForAssignments(Collection<Long> assignmentIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+            value = INSERT_INTO
+                    + "SELECT ura.id, ura.user_id, ura.role_id, :permissionId, ura.expires_at "
+                    + "FROM user_role_assignments ura "
+                    + "WHERE ura.role_id = :roleId "
+                    + "AND NOT EXISTS (SELECT 1 FROM user_effective_permissions uep "
+                    + "WHERE uep.assignment_id = ura.id AND uep.permission_id = :permissionId)",
+            nativeQuery = true)
+    int insertForRolePermission(Long roleId, Long permissionId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_INTO + SOURCE_ROWS, nativeQuery = true)
+    int insertAllFromSource();
+
+    @Modifying
+    @Query("DELETE FROM UserEffectivePermission uep WHERE uep.userId = :userId AND uep.roleId = :roleId")
+    int deleteByUserIdAndRoleId(Long userId, Long roleId);
+
+    @Modifying
+    @Query("DELETE FROM UserEffectivePermission uep WHERE uep.userId IN :userIds AND uep.roleId IN :roleIds")
+    int deleteByUserIdsAndRoleIds(Collection<Long> userIds, Collection<Long> roleIds);
+
+    @Modifying
+    @Query("DELETE FROM UserEffectivePermission uep WHERE uep.userId = :userId")
+    int deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserEffectivePermission uep WHERE uep.roleId = :roleId AND uep.permission.id = :permissionId")
+    int deleteByRoleIdAndPermissionId(Long roleId, Long permissionId);
+
+    @Modifying
+    @Query("DELETE FROM UserEffectivePermission")
+    int deleteAllRows();
+
+    @Query(value = "SELECT COUNT(*) FROM (" + SOURCE_ROWS + " EXCEPT " + MODEL_ROWS + ") missing", nativeQuery = true)
+    long countMissingRows();
+
+    @Query(
+            value = "SELECT COUNT(*) FROM (" + MODEL_ROWS + " EXCEPT " + SOURCE_ROWS + ") unexpected",
+            nativeQuery = true)
+    long countUnexpectedRows();
+}
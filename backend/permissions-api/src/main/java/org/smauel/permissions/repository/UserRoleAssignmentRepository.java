@@ -1,9 +1,14 @@
 package org.smauel.permissions.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.repository.projection.ActiveRoleGrant;
+import org.smauel.permissions.repository.projection.UserRoleId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -23,6 +28,12 @@ public interface UserRoleAssignmentRepository extends JpaRepository<UserRoleAssi
             + "AND (ura.expiresAt IS NULL OR ura.expiresAt > :now)")
     boolean existsActiveByUserIdAndRoleId(Long userId, Long roleId, LocalDateTime now);
 
+    @Query("SELECT new org.smauel.permissions.repository.projection.UserRoleId(ura.userId, ura.role.id) "
+            + "FROM UserRoleAssignment ura "
+            + "WHERE ura.userId IN :userIds AND ura.role.id IN :roleIds "
+            + "AND (ura.expiresAt IS NULL OR ura.expiresAt > :now)")
+    List<UserRoleId> findActiveUserRoleIds(Collection<Long> userIds, Collection<Long> roleIds, LocalDateTime now);
+
     @Query("SELECT CASE WHEN COUNT(ura) > 0 THEN true ELSE false END "
             + "FROM UserRoleAssignment ura "
             + "JOIN ura.role r "
@@ -31,7 +42,17 @@ public interface UserRoleAssignmentRepository extends JpaRepository<UserRoleAssi
             + "AND (ura.expiresAt IS NULL OR ura.expiresAt > CURRENT_TIMESTAMP)")
     boolean hasPermissionThroughRoles(Long userId, String permissionName);
 
+    @Query(
+            "SELECT new org.smauel.permissions.repository.projection.ActiveRoleGrant(ura.userId, ura.role.id, ura.expiresAt) "
+                    + "FROM UserRoleAssignment ura "
+                    + "WHERE ura.expiresAt IS NULL OR ura.expiresAt > :now")
+    Stream<ActiveRoleGrant> streamActiveRoleGrants(LocalDateTime now);
+
     void deleteByUserIdAndRole_Id(Long userId, Long roleId);
 
     void deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserRoleAssignment ura WHERE ura.userId IN :userIds AND ura.role.id IN :roleIds")
+    int deleteByUserIdsAndRoleIds(Collection<Long> userIds, Collection<Long> roleIds);
 }
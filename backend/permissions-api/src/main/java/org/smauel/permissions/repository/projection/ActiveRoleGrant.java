@@ -0,0 +1,12 @@
+package org.smauel.permissions.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of an active role assignment, without loading the role itself
+ *
+ * @param userId The user holding the role
+ * @param roleId The assigned role
+ * @param expiresAt When the assignment expires, or null if it never does
+ */
+public record ActiveRoleGrant(Long userId, Long roleId, LocalDateTime expiresAt) {}
@@ -0,0 +1,9 @@
+package org.smauel.permissions.repository.projection;
+
+/**
+ * A single edge of the role to permission graph
+ *
+ * @param roleId The role granting the permission
+ * @param permissionName The name of the granted permission
+ */
+public record RolePermissionName(Long roleId, String permissionName) {}
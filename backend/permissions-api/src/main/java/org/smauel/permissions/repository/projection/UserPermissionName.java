@@ -0,0 +1,9 @@
+package org.smauel.permissions.repository.projection;
+
+/**
+ * A permission held by a user
+ *
+ * @param userId The user holding the permission
+ * @param permissionName The name of the permission
+ */
+public record UserPermissionName(Long userId, String permissionName) {}
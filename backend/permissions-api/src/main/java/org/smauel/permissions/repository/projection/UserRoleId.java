@@ -0,0 +1,6 @@
+package org.smauel.permissions.repository.projection;
+
+/**
+ * A user and one of their roles
+ */
+public record UserRoleId(Long userId, Long roleId) {}
@@ -1,24 +1,37 @@
 package org.smauel.permissions.service;
 
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.request.CreatePermissionRequest;
+import org.smauel.permissions.event.PermissionDeletedEvent;
 import org.smauel.permissions.exception.PermissionNotFoundException;
 import org.smauel.permissions.mapper.PermissionMapper;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.pagination.PermissionSortKey;
 import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.KeysetCursor;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("service.invocations")
 @Transactional
 @RequiredArgsConstructor
 public class PermissionService {
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableStatisticsRepository tableStatisticsRepository;
 
     public PermissionDto createPermission(CreatePermissionRequest request) {
         Permission permission = permissionMapper.toEntity(request);
@@ -38,6 +51,18 @@ public class PermissionService {
         return permissionMapper.toDto(permission);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PermissionDto> getPermissions(PageQuery<PermissionSortKey> query) {
+        Window<Permission> window = permissionRepository.findBy(
+                KeysetCursor.position(query), KeysetCursor.sort(query), Limit.of(query.getLimit()));
+        return CursorPage.<PermissionDto>builder()
+                .items(window.map(permissionMapper::toDto).getContent())
+                .nextCursor(KeysetCursor.next(window, query))
+                .estimatedTotal(
+                        query.isIncludeTotal() ? tableStatisticsRepository.estimateRowCount("permissions") : null)
+                .build();
+    }
+
     public List<PermissionDto> getAllPermissions() {
         return permissionRepository.findAll().stream()
                 .map(permissionMapper::toDto)
@@ -61,5 +86,6 @@ public class PermissionService {
             throw new PermissionNotFoundException(id);
         }
         permissionRepository.deleteById(id);
+        eventPublisher.publishEvent(new PermissionDeletedEvent(id));
     }
 }
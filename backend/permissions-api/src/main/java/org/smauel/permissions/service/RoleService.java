@@ -1,40 +1,64 @@
 package org.smauel.permissions.service;
 
+import io.micrometer.core.annotation.Timed;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.smauel.permissions.dto.RoleDto;
 import org.smauel.permissions.dto.request.CreateRoleRequest;
+import org.smauel.permissions.event.RoleCreatedEvent;
+import org.smauel.permissions.event.RoleDeletedEvent;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
 import org.smauel.permissions.exception.PermissionNotFoundException;
 import org.smauel.permissions.exception.RoleNotFoundException;
 import org.smauel.permissions.mapper.RoleMapper;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.Role;
+import org.smauel.permissions.pagination.RoleSortKey;
 import org.smauel.permissions.repository.PermissionRepository;
 import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.KeysetCursor;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("service.invocations")
 @Transactional
 @RequiredArgsConstructor
 public class RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RoleMapper roleMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableStatisticsRepository tableStatisticsRepository;
 
     public RoleDto createRole(CreateRoleRequest request) {
         Role role = roleMapper.toEntity(request);
 
         if (request.getPermissionIds() != null && !request.getPermissionIds().isEmpty()) {
-            Set<Permission> permissions = request.getPermissionIds().stream()
-                    .map(id -> permissionRepository.findById(id).orElseThrow(() -> new PermissionNotFoundException(id)))
-                    .collect(Collectors.toSet());
+            // one query for all the permissions, rather than one per id
+            Set<Permission> permissions = new HashSet<>(permissionRepository.findAllById(request.getPermissionIds()));
+            Set<Long> found = permissions.stream().map(Permission::getId).collect(Collectors.toSet());
+            request.getPermissionIds().stream()
+                    .filter(id -> !found.contains(id))
+                    .findFirst()
+                    .ifPresent(id -> {
+                        throw new PermissionNotFoundException(id);
+                    });
             role.setPermissions(permissions);
         }
 
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleCreatedEvent(savedRole.getId()));
         return roleMapper.toDto(savedRole);
     }
 
@@ -48,6 +72,18 @@ public class RoleService {
         return roleMapper.toDto(role);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<RoleDto> getRoles(PageQuery<RoleSortKey> query) {
+        // Permissions are batch fetched per page rather than joined, so the limit is applied by the database
+        Window<Role> window = roleRepository.findBy(
+                KeysetCursor.position(query), KeysetCursor.sort(query), Limit.of(query.getLimit()));
+        return CursorPage.<RoleDto>builder()
+                .items(window.map(roleMapper::toDto).getContent())
+                .nextCursor(KeysetCursor.next(window, query))
+                .estimatedTotal(query.isIncludeTotal() ? tableStatisticsRepository.estimateRowCount("roles") : null)
+                .build();
+    }
+
     public List<RoleDto> getAllRoles() {
         return roleRepository.findAll().stream().map(roleMapper::toDto).collect(Collectors.toList());
     }
@@ -60,6 +96,7 @@ public class RoleService {
 
         role.addPermission(permission);
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RolePermissionAddedEvent(roleId, permissionId));
         return roleMapper.toDto(savedRole);
     }
 
@@ -71,6 +108,7 @@ public class RoleService {
 
         role.removePermission(permission);
         Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RolePermissionRemovedEvent(roleId, permissionId));
         return roleMapper.toDto(savedRole);
     }
 
@@ -79,5 +117,6 @@ public class RoleService {
             throw new RoleNotFoundException(id);
         }
         roleRepository.deleteById(id);
+        eventPublisher.publishEvent(new RoleDeletedEvent(id));
     }
 }
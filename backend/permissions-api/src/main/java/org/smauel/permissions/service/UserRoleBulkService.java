@@ -0,0 +1,149 @@
+package org.smauel.permissions.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.smauel.permissions.config.BulkOperationProperties;
+import org.smauel.permissions.dto.BulkRoleAssignmentResult;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.BulkRoleRevocationRequest;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RolesAssignedEvent;
+import org.smauel.permissions.event.RolesRevokedEvent;
+import org.smauel.permissions.exception.RoleNotFoundException;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.UserRoleId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Grants and revokes many roles for many users at once.
+ *
+ * <p>Roles are resolved by name once per request. Users are then processed in chunks of at most
+ * {@code permissions.bulk.chunk-size} user and role pairs, each in its own transaction, so a request for thousands of
+ * users never holds one long transaction or an unbounded persistence context. A failing chunk rolls back on its own;
+ * chunks committed before it stay committed.
+ */
+@Service
+@Timed("service.invocations")
+@RequiredArgsConstructor
+public class UserRoleBulkService {
+    private final RoleRepository roleRepository;
+    private final UserRoleAssignmentRepository userRoleAssignmentRepository;
+    private final BulkOperationProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Assign every requested role to every requested user, skipping pairs that already have an active assignment
+     */
+    public BulkRoleAssignmentResult assignRoles(BulkRoleAssignmentRequest request) {
+        List<Long> roleIds = resolveRoleIds(request.getRoleNames());
+        List<Long> userIds = List.copyOf(new LinkedHashSet<>(request.getUserIds()));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long assigned = 0;
+        for (List<Long> chunk : chunk(userIds, roleIds.size())) {
+            assigned += transaction.execute(status -> assignChunk(chunk, roleIds, request));
+        }
+        long requested = (long) userIds.size() * roleIds.size();
+        return BulkRoleAssignmentResult.builder()
+                .requested(requested)
+                .assigned(assigned)
+                .skipped(requested - assigned)
+                .build();
+    }
+
+    /**
+     * Revoke every assignment of the requested roles from the requested users
+     */
+    public BulkRoleAssignmentResult revokeRoles(BulkRoleRevocationRequest request) {
+        List<Long> roleIds = resolveRoleIds(request.getRoleNames());
+        List<Long> userIds = List.copyOf(new LinkedHashSet<>(request.getUserIds()));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long revoked = 0;
+        for (List<Long> chunk : chunk(userIds, roleIds.size())) {
+            revoked += transaction.execute(status -> {
+                int deleted = userRoleAssignmentRepository.deleteByUserIdsAndRoleIds(chunk, roleIds);
+                if (deleted > 0) {
+                    eventPublisher.publishEvent(new RolesRevokedEvent(chunk, roleIds));
+                }
+                return deleted;
+            });
+        }
+        return BulkRoleAssignmentResult.builder()
+                .requested((long) userIds.size() * roleIds.size())
+                .revoked(revoked)
+                .build();
+    }
+
+    private int assignChunk(List<Long> userIds, List<Long> roleIds, BulkRoleAssignmentRequest request) {
+        Set<UserRoleId> existing = new HashSet<>(
+                userRoleAssignmentRepository.findActiveUserRoleIds(userIds, roleIds, LocalDateTime.now()));
+        List<UserRoleAssignment> assignments = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (Long roleId : roleIds) {
+                if (!existing.contains(new UserRoleId(userId, roleId))) {
+                    assignments.add(UserRoleAssignment.builder()
+                            .userId(userId)
+                            .role(entityManager.getReference(Role.class, roleId))
+                            .assignedBy(request.getGrantedBy())
+                            .expiresAt(request.getExpiresAt())
+                            .build());
+                }
+            }
+        }
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+        // Ids are allocated up front, so the inserts are sent in JDBC batches when the chunk is flushed
+        userRoleAssignmentRepository.saveAll(assignments);
+        eventPublisher.publishEvent(new RolesAssignedEvent(assignments.stream()
+                .map(assignment -> new RoleAssignedEvent(
+                        assignment.getId(),
+                        assignment.getUserId(),
+                        assignment.getRole().getId(),
+                        assignment.getExpiresAt()))
+                .toList()));
+        entityManager.flush();
+        entityManager.clear();
+        return assignments.size();
+    }
+
+    private List<Long> resolveRoleIds(List<String> roleNames) {
+        Set<String> names = new LinkedHashSet<>(roleNames);
+        Map<String, Long> roleIdsByName =
+                roleRepository.findByNameIn(names).stream().collect(Collectors.toMap(Role::getName, Role::getId));
+        return names.stream()
+                .map(name -> {
+                    Long roleId = roleIdsByName.get(name);
+                    if (roleId == null) {
+                        throw new RoleNotFoundException(name);
+                    }
+                    return roleId;
+                })
+                .toList();
+    }
+
+    private List<List<Long>> chunk(List<Long> userIds, int rolesPerUser) {
+        int usersPerChunk = Math.max(1, properties.getChunkSize() / rolesPerUser);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += usersPerChunk) {
+            chunks.add(userIds.subList(from, Math.min(from + usersPerChunk, userIds.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,34 +1,81 @@
 package org.smauel.permissions.service;
 
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import org.smauel.permissions.cache.Decision;
+import org.smauel.permissions.cache.PermissionDecisionCache;
+import org.smauel.permissions.diagnostics.PermissionCheckEvent;
+import org.smauel.permissions.dto.PermissionCheckResult;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.UserRoleAssignmentDto;
 import org.smauel.permissions.dto.request.GrantRoleRequest;
+import org.smauel.permissions.dto.request.PermissionCheckRequest;
+import org.smauel.permissions.engine.AuthorizationEngine;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
 import org.smauel.permissions.exception.RoleAlreadyAssignedException;
 import org.smauel.permissions.exception.RoleNotFoundException;
 import org.smauel.permissions.mapper.PermissionMapper;
 import org.smauel.permissions.mapper.UserRoleAssignmentMapper;
-import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.Role;
 import org.smauel.permissions.model.UserRoleAssignment;
 import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
 import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.UserPermissionName;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
+@Timed("service.invocations")
 @Transactional
-@RequiredArgsConstructor
 public class UserRoleService {
+    private static final int PERMISSION_CHECK_CHUNK_SIZE = 500;
+
     private final UserRoleAssignmentRepository userRoleAssignmentRepository;
     private final RoleRepository roleRepository;
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
     private final UserRoleAssignmentMapper userRoleAssignmentMapper;
     private final PermissionMapper permissionMapper;
+    private final AuthorizationEngine authorizationEngine;
+    private final PermissionDecisionCache decisionCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserRoleService(
+            UserRoleAssignmentRepository userRoleAssignmentRepository,
+            RoleRepository roleRepository,
+            UserEffectivePermissionRepository userEffectivePermissionRepository,
+            UserRoleAssignmentMapper userRoleAssignmentMapper,
+            PermissionMapper permissionMapper,
+            AuthorizationEngine authorizationEngine,
+            PermissionDecisionCache decisionCache,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.userRoleAssignmentRepository = userRoleAssignmentRepository;
+        this.roleRepository = roleRepository;
+        this.userEffectivePermissionRepository = userEffectivePermissionRepository;
+        this.userRoleAssignmentMapper = userRoleAssignmentMapper;
+        this.permissionMapper = permissionMapper;
+        this.authorizationEngine = authorizationEngine;
+        this.decisionCache = decisionCache;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     public UserRoleAssignmentDto assignRoleToUser(Long userId, GrantRoleRequest request) {
         Role role = roleRepository
@@ -48,30 +95,74 @@ public class UserRoleService {
                 .build();
 
         UserRoleAssignment saved = userRoleAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new RoleAssignedEvent(saved.getId(), userId, role.getId(), saved.getExpiresAt()));
         return userRoleAssignmentMapper.toDto(saved);
     }
 
+    /**
+     * Check whether a user holds a permission. The authorization engine answers without a transaction once it is
+     * ready, a read-only transaction is only opened when falling back to the decision cache or the db. The decision
+     * cache is the alternative to the engine, not a layer in front of the db under it, so it is only consulted while
+     * the engine is disabled or still loading.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermission(Long userId, String permissionName) {
-        return userRoleAssignmentRepository.hasPermissionThroughRoles(userId, permissionName);
+        PermissionCheckEvent event = PermissionCheckEvent.isRecording() ? PermissionCheckEvent.start() : null;
+        if (authorizationEngine.isReady()) {
+            boolean granted = authorizationEngine.hasPermission(userId, permissionName);
+            if (event != null) {
+                event.complete(userId, permissionName, PermissionCheckEvent.ENGINE, granted, authorizationEngine);
+            }
+            return granted;
+        }
+        if (decisionCache.isEnabled()) {
+            boolean granted =
+                    decisionCache.hasPermission(userId, permissionName, () -> loadDecision(userId, permissionName));
+            if (event != null) {
+                event.complete(userId, permissionName, PermissionCheckEvent.CACHE, granted, null);
+            }
+            return granted;
+        }
+        boolean granted = hasPermissionThroughRoles(userId, permissionName);
+        if (event != null) {
+            event.complete(userId, permissionName, PermissionCheckEvent.DATABASE, granted, null);
+        }
+        return granted;
     }
 
+    @Transactional(readOnly = true)
     public List<PermissionDto> getUserPermissions(Long userId) {
-        List<UserRoleAssignment> activeRoles =
-                userRoleAssignmentRepository.findActiveRoleAssignmentsByUserId(userId, LocalDateTime.now());
+        return userEffectivePermissionRepository.findActivePermissionsByUserId(userId, LocalDateTime.now()).stream()
+                .map(permissionMapper::toDto)
+                .collect(Collectors.toList());
+    }
 
-        // TODO: do this in the db
-        // Extract all unique permissions from the user's roles
-        Set<Permission> allPermissions = new HashSet<>();
-        for (UserRoleAssignment assignment : activeRoles) {
-            Role role = assignment.getRole();
-            // If role.getPermissions() is lazy-loaded, ensure it's fetched
-            Role roleWithPermissions = roleRepository
-                    .findByIdWithPermissions(role.getId())
-                    .orElse(role); // Fallback to the already loaded role if for some reason it can't be found
-            allPermissions.addAll(roleWithPermissions.getPermissions());
-        }
+    /**
+     * Check a batch of permissions for a batch of users, resolving each chunk of users with a single query
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PermissionCheckResult> checkPermissions(PermissionCheckRequest request) {
+        List<PermissionCheckResult> results = new ArrayList<>(request.getUserIds().size());
+        checkPermissions(request, results::addAll);
+        return results;
+    }
 
-        return allPermissions.stream().map(permissionMapper::toDto).collect(Collectors.toList());
+    /**
+     * Check a batch of permissions for a batch of users, handing the results of each chunk of users to {@code sink} as
+     * soon as it has been resolved. Each chunk is read from the db in its own short read-only transaction, or without
+     * one when the authorization engine is ready, so no transaction is held while {@code sink} runs.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void checkPermissions(PermissionCheckRequest request, Consumer<List<PermissionCheckResult>> sink) {
+        Set<String> permissionNames = request.getReferencedPermissions();
+        List<Long> userIds = request.getUserIds();
+        for (int from = 0; from < userIds.size(); from += PERMISSION_CHECK_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + PERMISSION_CHECK_CHUNK_SIZE, userIds.size()));
+            BiPredicate<Long, String> granted = resolvePermissions(chunk, permissionNames);
+            sink.accept(chunk.stream()
+                    .map(userId -> toCheckResult(userId, request, name -> granted.test(userId, name)))
+                    .toList());
+        }
     }
 
     public List<UserRoleAssignmentDto> getUserRoles(Long userId) {
@@ -80,11 +171,60 @@ public class UserRoleService {
         return assignments.stream().map(userRoleAssignmentMapper::toDto).collect(Collectors.toList());
     }
 
+    private boolean hasPermissionThroughRoles(Long userId, String permissionName) {
+        return readOnlyTransaction.execute(
+                status -> userRoleAssignmentRepository.hasPermissionThroughRoles(userId, permissionName));
+    }
+
+    private Decision loadDecision(Long userId, String permissionName) {
+        // Only misses open a transaction, hits and callers waiting on a concurrent load never hold one
+        return readOnlyTransaction.execute(
+                status -> Decision.fromExpiries(userEffectivePermissionRepository.findActiveGrantExpiries(
+                        userId, permissionName, LocalDateTime.now())));
+    }
+
+    private BiPredicate<Long, String> resolvePermissions(List<Long> userIds, Set<String> permissionNames) {
+        if (authorizationEngine.isReady()) {
+            return authorizationEngine::hasPermission;
+        }
+        Set<UserPermissionName> granted = readOnlyTransaction.execute(
+                status -> new HashSet<>(userEffectivePermissionRepository.findActivePermissionNames(
+                        new HashSet<>(userIds), permissionNames, LocalDateTime.now())));
+        return (userId, name) -> granted.contains(new UserPermissionName(userId, name));
+    }
+
+    private static PermissionCheckResult toCheckResult(
+            Long userId, PermissionCheckRequest request, Predicate<String> granted) {
+        return PermissionCheckResult.builder()
+                .userId(userId)
+                .permissions(
+                        isEmpty(request.getPermissions())
+                                ? null
+                                : request.getPermissions().stream()
+                                        .map(granted::test)
+                                        .toList())
+                .allOf(
+                        isEmpty(request.getAllOf())
+                                ? null
+                                : request.getAllOf().stream().allMatch(granted))
+                .anyOf(
+                        isEmpty(request.getAnyOf())
+                                ? null
+                                : request.getAnyOf().stream().anyMatch(granted))
+                .build();
+    }
+
+    private static boolean isEmpty(List<String> permissionNames) {
+        return permissionNames == null || permissionNames.isEmpty();
+    }
+
     public void revokeRole(Long userId, Long roleId) {
         userRoleAssignmentRepository.deleteByUserIdAndRole_Id(userId, roleId);
+        eventPublisher.publishEvent(new RoleRevokedEvent(userId, roleId));
     }
 
     public void revokeAllRoles(Long userId) {
         userRoleAssignmentRepository.deleteByUserId(userId);
+        eventPublisher.publishEvent(new AllRolesRevokedEvent(userId));
     }
 }
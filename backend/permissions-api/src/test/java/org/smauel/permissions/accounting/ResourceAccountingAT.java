@@ -0,0 +1,86 @@
+package org.smauel.permissions.accounting;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Description;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.accounting.ResourceAccountingAssertions;
+import org.smauel.observability.accounting.ResourceAccountingFilter;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The resource accounting auto-configured by observability-common, wired into the service, of requests handled on
+ * platform threads, where the JVM measures CPU time and allocations
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "observability.accounting.server-timing=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Resource accounting")
+class ResourceAccountingAT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private Permission permission;
+    private Role role;
+
+    @BeforeAll
+    void setUp() {
+        permission = permissionRepository.save(Permission.builder()
+                .name("ACCOUNTED_PERMISSION")
+                .description("Permission read by the resource accounting tests")
+                .type(PermissionType.RESOURCE)
+                .resource("accounted")
+                .action(Action.READ)
+                .build());
+        role = roleRepository.save(Role.builder()
+                .name("ACCOUNTED_ROLE")
+                .permissions(Set.of(permission))
+                .build());
+    }
+
+    @AfterAll
+    void tearDown() {
+        roleRepository.delete(role);
+        permissionRepository.delete(permission);
+    }
+
+    @Test
+    @DisplayName("Should send the resources used by a request in a Server-Timing header and record them")
+    @Description("GET /api/v1/roles/{id}")
+    void shouldAccountRequest() throws Exception {
+        String serverTiming = mockMvc.perform(get("/api/v1/roles/{id}", role.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(ResourceAccountingFilter.SERVER_TIMING);
+
+        ResourceAccountingAssertions.assertRequestAccounted(meterRegistry, serverTiming, "GET", "/api/v1/roles/{id}");
+    }
+}
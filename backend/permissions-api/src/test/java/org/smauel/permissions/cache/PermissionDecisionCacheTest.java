@@ -0,0 +1,252 @@
+package org.smauel.permissions.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.smauel.permissions.config.DecisionCacheProperties;
+import org.smauel.permissions.event.RoleRevokedEvent;
+
+@DisplayName("PermissionDecisionCache Tests")
+class PermissionDecisionCacheTest implements WithAssertions {
+    private SimpleMeterRegistry meterRegistry;
+    private PermissionDecisionCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PermissionDecisionCache(new DecisionCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<Decision> loading(Decision decision) {
+        return () -> {
+            loads.incrementAndGet();
+            return decision;
+        };
+    }
+
+    @Nested
+    @DisplayName("Caching")
+    class CachingTests {
+
+        @Test
+        @DisplayName("should load once and serve repeated checks from the cache")
+        void shouldCacheGrants() {
+            // Given
+            Supplier<Decision> loader = loading(new Decision(true, Long.MAX_VALUE));
+
+            // When
+            boolean first = cache.hasPermission(1L, "perm.read", loader);
+            boolean second = cache.hasPermission(1L, "perm.read", loader);
+
+            // Then
+            assertThat(first).isTrue();
+            assertThat(second).isTrue();
+            assertThat(loads).hasValue(1);
+            assertThat(meterRegistry
+                            .get("permissions.decision.cache.requests")
+                            .tag("result", "hit")
+                            .counter()
+                            .count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry
+                            .get("permissions.decision.cache.requests")
+                            .tag("result", "miss")
+                            .counter()
+                            .count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry
+                            .get("permissions.decision.cache.load")
+                            .timer()
+                            .count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should cache negative decisions")
+        void shouldCacheDenials() {
+            // Given
+            Supplier<Decision> loader = loading(Decision.denied());
+
+            // When
+            cache.hasPermission(1L, "perm.read", loader);
+            boolean result = cache.hasPermission(1L, "perm.read", loader);
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(loads).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should keep decisions for different users and permissions apart")
+        void shouldKeyByUserAndPermission() {
+            // When
+            cache.hasPermission(1L, "perm.read", loading(new Decision(true, Long.MAX_VALUE)));
+            boolean otherUser = cache.hasPermission(2L, "perm.read", loading(Decision.denied()));
+            boolean otherPermission = cache.hasPermission(1L, "perm.write", loading(Decision.denied()));
+
+            // Then
+            assertThat(otherUser).isFalse();
+            assertThat(otherPermission).isFalse();
+            assertThat(loads).hasValue(3);
+        }
+
+        @Test
+        @DisplayName("should reload grants whose assignments have expired")
+        void shouldRespectExpiry() {
+            // Given
+            long alreadyExpired = System.currentTimeMillis() - 1;
+            cache.hasPermission(1L, "perm.read", loading(new Decision(true, alreadyExpired)));
+
+            // When
+            boolean result = cache.hasPermission(1L, "perm.read", loading(Decision.denied()));
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(loads).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should not cache failed loads")
+        void shouldNotCacheFailures() {
+            // Given
+            Supplier<Decision> failing = () -> {
+                throw new IllegalStateException("database unavailable");
+            };
+
+            // When & Then
+            assertThatIllegalStateException().isThrownBy(() -> cache.hasPermission(1L, "perm.read", failing));
+            assertThat(cache.hasPermission(1L, "perm.read", loading(new Decision(true, Long.MAX_VALUE))))
+                    .isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should reload every decision after the authorization graph changes")
+        void shouldInvalidateOnEpochBump() {
+            // Given
+            cache.hasPermission(1L, "perm.read", loading(new Decision(true, Long.MAX_VALUE)));
+            cache.hasPermission(2L, "perm.read", loading(Decision.denied()));
+
+            // When
+            cache.onAuthorizationChanged(new RoleRevokedEvent(1L, 10L));
+            boolean revoked = cache.hasPermission(1L, "perm.read", loading(Decision.denied()));
+            boolean granted = cache.hasPermission(2L, "perm.read", loading(new Decision(true, Long.MAX_VALUE)));
+
+            // Then
+            assertThat(revoked).isFalse();
+            assertThat(granted).isTrue();
+            assertThat(loads).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("should not serve a decision loaded while the graph was changing")
+        void shouldDiscardDecisionLoadedDuringChange() {
+            // Given
+            Supplier<Decision> staleLoader = () -> {
+                loads.incrementAndGet();
+                // The change commits while the stale decision is being read
+                cache.onAuthorizationChanged(new RoleRevokedEvent(1L, 10L));
+                return new Decision(true, Long.MAX_VALUE);
+            };
+            cache.hasPermission(1L, "perm.read", staleLoader);
+
+            // When
+            boolean result = cache.hasPermission(1L, "perm.read", loading(Decision.denied()));
+
+            // Then
+            assertThat(result).isFalse();
+            assertThat(loads).hasValue(2);
+        }
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent misses into a single load")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given
+        int callers = 16;
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Decision> slowLoader = () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Decision(true, Long.MAX_VALUE);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // When
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.hasPermission(1L, "perm.read", slowLoader)));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.hasPermission(1L, "perm.read", slowLoader)));
+            }
+            release.countDown();
+
+            // Then
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Nested
+    @DisplayName("Decision")
+    class DecisionTests {
+
+        @Test
+        @DisplayName("should deny when there are no granting assignments")
+        void shouldDenyWithoutAssignments() {
+            assertThat(Decision.fromExpiries(List.of())).isEqualTo(Decision.denied());
+        }
+
+        @Test
+        @DisplayName("should never expire when any granting assignment never expires")
+        void shouldNeverExpireWithPermanentAssignment() {
+            Decision decision =
+                    Decision.fromExpiries(Arrays.asList(LocalDateTime.now().plusDays(1), null));
+
+            assertThat(decision).isEqualTo(new Decision(true, Long.MAX_VALUE));
+        }
+
+        @Test
+        @DisplayName("should stay valid until the last granting assignment expires")
+        void shouldExpireWithLastAssignment() {
+            LocalDateTime later = LocalDateTime.of(2030, 1, 2, 0, 0);
+            Decision decision = Decision.fromExpiries(List.of(LocalDateTime.of(2030, 1, 1, 0, 0), later));
+
+            assertThat(decision.granted()).isTrue();
+            assertThat(decision.validUntilMillis())
+                    .isEqualTo(later.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.smauel.permissions.concurrency;
+
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.smauel.observability.concurrency.VirtualThreadBenchmark;
+import org.smauel.permissions.PermissionsApplication;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Compares platform and virtual threads on permission checks. The engine and the decision cache are off by default, so
+ * every check reads the roles of the user from the db.
+ */
+@Tag("benchmark")
+@DisplayName("Virtual Thread Benchmark")
+class VirtualThreadBenchmarkAT {
+    private static final long USER_ID = 765432109L;
+
+    @Test
+    @DisplayName("Should serve permission checks on platform threads and on virtual threads")
+    void shouldServePermissionChecks() throws Exception {
+        new VirtualThreadBenchmark(PermissionsApplication.class, VirtualThreadBenchmarkAT::grant).run();
+    }
+
+    private static String grant(ApplicationContext context) {
+        Permission permission = context.getBean(PermissionRepository.class)
+                .save(Permission.builder()
+                        .name("BENCHMARKED_PERMISSION")
+                        .description("Permission checked by the virtual thread benchmark")
+                        .type(PermissionType.RESOURCE)
+                        .resource("benchmarked")
+                        .action(Action.READ)
+                        .build());
+        Role role = context.getBean(RoleRepository.class)
+                .save(Role.builder()
+                        .name("BENCHMARKED_ROLE")
+                        .permissions(Set.of(permission))
+                        .build());
+        context.getBean(UserRoleAssignmentRepository.class)
+                .save(UserRoleAssignment.builder().userId(USER_ID).role(role).build());
+        return "/api/v1/user-roles/users/" + USER_ID + "/permissions/" + permission.getName() + "/check";
+    }
+}
@@ -3,6 +3,7 @@ package org.smauel.permissions.controller;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.concurrency.RequestIdFilter;
 import org.smauel.permissions.dto.request.CreatePermissionRequest;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.enums.Action;
@@ -114,6 +116,15 @@ class PermissionControllerAT {
         mockMvc.perform(get("/api/v1/permissions/" + NON_EXISTENT_ID)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should echo the request id sent by the caller")
+    @Description("GET /api/v1/permissions/{id}")
+    void shouldEchoRequestId() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions/" + NON_EXISTENT_ID).header(RequestIdFilter.HEADER, "caller-id-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(RequestIdFilter.HEADER, "caller-id-1"));
+    }
+
     @Test
     @DisplayName("Should return permission by name when found")
     @Description("GET /api/v1/permissions/name/{name}")
@@ -162,9 +173,77 @@ class PermissionControllerAT {
 
         mockMvc.perform(get("/api/v1/permissions"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return every permission as a plain array when unpaged is requested")
+    @Description("GET /api/v1/permissions")
+    void shouldReturnAllPermissionsWhenUnpaged() throws Exception {
+        permissionRepository.saveAll(List.of(
+                Permission.builder()
+                        .name("CREATE_USER")
+                        .description("Create new user")
+                        .type(PermissionType.RESOURCE)
+                        .resource("user")
+                        .action(Action.CREATE)
+                        .build(),
+                Permission.builder()
+                        .name("DELETE_USER")
+                        .description("Delete user")
+                        .type(PermissionType.RESOURCE)
+                        .resource("user")
+                        .action(Action.DELETE)
+                        .build()));
+
+        mockMvc.perform(get("/api/v1/permissions").param("limit", "1").param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    @DisplayName("Should page through permissions by name using the returned cursor")
+    @Description("GET /api/v1/permissions")
+    void shouldPageThroughPermissionsByName() throws Exception {
+        permissionRepository.saveAll(List.of(
+                Permission.builder().name("C").type(PermissionType.SYSTEM).build(),
+                Permission.builder().name("A").type(PermissionType.SYSTEM).build(),
+                Permission.builder().name("B").type(PermissionType.SYSTEM).build()));
+
+        String first = mockMvc.perform(get("/api/v1/permissions")
+                        .param("limit", "2")
+                        .param("sort", "NAME")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("A"))
+                .andExpect(jsonPath("$.items[1].name").value("B"))
+                .andExpect(jsonPath("$.estimatedTotal").value(3))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asString();
+
+        mockMvc.perform(get("/api/v1/permissions")
+                        .param("limit", "2")
+                        .param("sort", "NAME")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("C"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when listing permissions with an invalid cursor or limit")
+    @Description("GET /api/v1/permissions")
+    void shouldRejectInvalidPageParameters() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions").param("cursor", "bogus")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/permissions").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/permissions").param("sort", "RESOURCE")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return permissions by resource")
     @Description("GET /api/v1/permissions/resource/{resource}")
@@ -78,6 +78,35 @@ class RoleControllerAT {
         return permissionRepository.save(permission);
     }
 
+    @Test
+    @DisplayName("Should return a page of roles with their permissions")
+    @Description("GET /roles - Paged")
+    void shouldReturnPageOfRoles() throws Exception {
+        Permission permission = createAndSavePermission("READ_USER", "user", Action.READ);
+        Role admin = createAndSaveRole("ADMIN", "Administrator");
+        admin.addPermission(permission);
+        roleRepository.save(admin);
+        createAndSaveRole("EDITOR", "Editor");
+        createAndSaveRole("VIEWER", "Viewer");
+
+        mockMvc.perform(get(API_BASE_PATH)
+                        .param("sort", "NAME")
+                        .param("direction", "DESC")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].name").value("VIEWER"))
+                .andExpect(jsonPath("$.items[1].name").value("EDITOR"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        mockMvc.perform(get(API_BASE_PATH).param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[?(@.name == 'ADMIN')].permissions[0].name")
+                        .value("READ_USER"));
+    }
+
     @Test
     @DisplayName("Should create role successfully")
     @Description("POST /roles")
@@ -152,14 +181,14 @@ class RoleControllerAT {
         createAndSaveRole("ROLE_ONE", "First role");
         createAndSaveRole("ROLE_TWO", "Second role");
 
-        mockMvc.perform(get(API_BASE_PATH)).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get(API_BASE_PATH)).andExpect(status().isOk()).andExpect(jsonPath("$.items", hasSize(2)));
     }
 
     @Test
     @DisplayName("Should return empty list when no roles exist")
     @Description("GET /roles - Empty List")
     void shouldReturnEmptyListWhenNoRolesExist() throws Exception {
-        mockMvc.perform(get(API_BASE_PATH)).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get(API_BASE_PATH)).andExpect(status().isOk()).andExpect(jsonPath("$.items", hasSize(0)));
     }
 
     @Test
@@ -1,23 +1,35 @@
 package org.smauel.permissions.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.qameta.allure.Description;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.concurrency.RequestIdFilter;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.smauel.observability.logging.LogCapture;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.BulkRoleRevocationRequest;
 import org.smauel.permissions.dto.request.GrantRoleRequest;
+import org.smauel.permissions.dto.request.PermissionCheckRequest;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.Role;
 import org.smauel.permissions.model.enums.Action;
@@ -28,7 +40,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import tools.jackson.databind.ObjectMapper;
 
@@ -243,6 +257,22 @@ class UserRoleControllerAT {
                 .andExpect(jsonPath("$[*].role.name", hasItem(adminRole.getName())));
     }
 
+    @Test
+    @DisplayName("Should log the request id and the hash of the user a request is about")
+    @Description("GET /api/v1/user-roles/users/{userId}/roles")
+    void shouldLogRequestFields() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+
+        try (LogCapture logs = LogCapture.debug("org.springframework.web.servlet.mvc.method.annotation")) {
+            mockMvc.perform(get(API_BASE_PATH + "/users/" + userId + "/roles")
+                            .header(RequestIdFilter.HEADER, "logged-id-1"))
+                    .andExpect(status().isOk());
+
+            assertThat(logs.awaitLine(line -> line.contains("\"requestId\":\"logged-id-1\"")))
+                    .contains("\"userIdHash\":\"" + HexFormat.of().toHexDigits(UserIdHash.of(userId)) + "\"");
+        }
+    }
+
     @Test
     @DisplayName("Should ignore expired roles")
     @Description("GET /api/v1/user-roles/users/{userId}/roles - Expired Roles")
@@ -349,6 +379,199 @@ class UserRoleControllerAT {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Should check a matrix of users and permissions")
+    @Description("POST /api/v1/user-roles/permissions/check")
+    void shouldCheckPermissionMatrix() throws Exception {
+        Long otherUserId = userId + 1;
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("ADMIN_ROLE", grantedById, validExpiry));
+        userRoleService.assignRoleToUser(otherUserId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+        PermissionCheckRequest request = PermissionCheckRequest.builder()
+                .userIds(List.of(userId, otherUserId, NON_EXISTENT_USER_ID))
+                .permissions(List.of(permReadData.getName(), permWriteData.getName(), NON_EXISTENT_PERMISSION_NAME))
+                .build();
+
+        mockMvc.perform(post(API_BASE_PATH + "/permissions/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].userId").value(userId))
+                .andExpect(jsonPath("$[0].permissions", contains(true, true, false)))
+                .andExpect(jsonPath("$[1].userId").value(otherUserId))
+                .andExpect(jsonPath("$[1].permissions", contains(true, false, false)))
+                .andExpect(jsonPath("$[2].userId").value(NON_EXISTENT_USER_ID))
+                .andExpect(jsonPath("$[2].permissions", contains(false, false, false)))
+                .andExpect(jsonPath("$[0].allOf").doesNotExist())
+                .andExpect(jsonPath("$[0].anyOf").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should evaluate allOf and anyOf expressions")
+    @Description("POST /api/v1/user-roles/permissions/check - allOf / anyOf")
+    void shouldCheckPermissionExpressions() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+        PermissionCheckRequest request = PermissionCheckRequest.builder()
+                .userIds(List.of(userId))
+                .allOf(List.of(permReadData.getName(), permWriteData.getName()))
+                .anyOf(List.of(permReadData.getName(), permWriteData.getName()))
+                .build();
+
+        mockMvc.perform(post(API_BASE_PATH + "/permissions/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].allOf").value(false))
+                .andExpect(jsonPath("$[0].anyOf").value(true))
+                .andExpect(jsonPath("$[0].permissions").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should ignore expired roles when checking permissions in bulk")
+    @Description("POST /api/v1/user-roles/permissions/check - Expired Permissions")
+    void shouldIgnoreExpiredRolesInPermissionCheck() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("ADMIN_ROLE", grantedById, invalidExpiry));
+        PermissionCheckRequest request = PermissionCheckRequest.builder()
+                .userIds(List.of(userId))
+                .anyOf(List.of(permReadData.getName(), permManageUsers.getName()))
+                .build();
+
+        mockMvc.perform(post(API_BASE_PATH + "/permissions/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].anyOf").value(false));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when no permissions are requested")
+    @Description("POST /api/v1/user-roles/permissions/check - Invalid Request")
+    void shouldReturnBadRequestForPermissionCheckWithoutPermissions() throws Exception {
+        PermissionCheckRequest request =
+                PermissionCheckRequest.builder().userIds(List.of(userId)).build();
+
+        mockMvc.perform(post(API_BASE_PATH + "/permissions/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should stream permission checks as NDJSON")
+    @Description("POST /api/v1/user-roles/permissions/check - NDJSON")
+    void shouldStreamPermissionChecks() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+        // The response is written on another thread, which can only see committed data
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+            PermissionCheckRequest request = PermissionCheckRequest.builder()
+                    .userIds(List.of(userId, NON_EXISTENT_USER_ID))
+                    .permissions(List.of(permReadData.getName(), permWriteData.getName()))
+                    .build();
+
+            MvcResult result = mockMvc.perform(post(API_BASE_PATH + "/permissions/check")
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content()
+                            .string("{\"userId\":" + userId + ",\"permissions\":[true,false]}\n" + "{\"userId\":"
+                                    + NON_EXISTENT_USER_ID + ",\"permissions\":[false,false]}\n"));
+        } finally {
+            TestTransaction.start();
+            userRoleService.revokeAllRoles(userId);
+            roleRepository.deleteAll();
+            permissionRepository.deleteAll();
+            TestTransaction.flagForCommit();
+        }
+    }
+
+    @Test
+    @DisplayName("Should assign roles to many users at once")
+    @Description("POST /api/v1/user-roles/roles/bulk-assign")
+    void shouldAssignRolesInBulk() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+        BulkRoleAssignmentRequest request = new BulkRoleAssignmentRequest(
+                List.of(userId, 124L, 125L), List.of("USER_ROLE", "ADMIN_ROLE"), grantedById, validExpiry);
+
+        mockMvc.perform(post(API_BASE_PATH + "/roles/bulk-assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(6))
+                .andExpect(jsonPath("$.assigned").value(5))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        mockMvc.perform(get(API_BASE_PATH + "/users/125/roles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get(API_BASE_PATH + "/users/124/permissions/MANAGE_USERS/check"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 when a role in a bulk assignment does not exist")
+    @Description("POST /api/v1/user-roles/roles/bulk-assign - Role Not Found")
+    void shouldReturnNotFoundForBulkAssignmentOfNonExistentRole() throws Exception {
+        BulkRoleAssignmentRequest request = new BulkRoleAssignmentRequest(
+                List.of(userId), List.of("USER_ROLE", "NON_EXISTENT"), grantedById, validExpiry);
+
+        mockMvc.perform(post(API_BASE_PATH + "/roles/bulk-assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get(API_BASE_PATH + "/users/" + userId + "/roles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a bulk assignment without users")
+    @Description("POST /api/v1/user-roles/roles/bulk-assign - Invalid Request")
+    void shouldReturnBadRequestForBulkAssignmentWithoutUsers() throws Exception {
+        BulkRoleAssignmentRequest request =
+                new BulkRoleAssignmentRequest(List.of(), List.of("USER_ROLE"), grantedById, validExpiry);
+
+        mockMvc.perform(post(API_BASE_PATH + "/roles/bulk-assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should revoke roles from many users at once")
+    @Description("POST /api/v1/user-roles/roles/bulk-revoke")
+    void shouldRevokeRolesInBulk() throws Exception {
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("USER_ROLE", grantedById, validExpiry));
+        userRoleService.assignRoleToUser(userId, new GrantRoleRequest("ADMIN_ROLE", grantedById, validExpiry));
+        userRoleService.assignRoleToUser(124L, new GrantRoleRequest("ADMIN_ROLE", grantedById, validExpiry));
+        BulkRoleRevocationRequest request = new BulkRoleRevocationRequest(List.of(userId, 124L), List.of("ADMIN_ROLE"));
+
+        mockMvc.perform(post(API_BASE_PATH + "/roles/bulk-revoke")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.revoked").value(2));
+
+        mockMvc.perform(get(API_BASE_PATH + "/users/" + userId + "/permissions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("READ_DATA"));
+        mockMvc.perform(get(API_BASE_PATH + "/users/124/roles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     @DisplayName("Should revoke all roles from user")
     @Description("DELETE /api/v1/user-roles/users/{userId}")
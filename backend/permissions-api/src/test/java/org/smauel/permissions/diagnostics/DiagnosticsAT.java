@@ -0,0 +1,172 @@
+package org.smauel.permissions.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.qameta.allure.Description;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.observability.diagnostics.DiagnosticsClient;
+import org.smauel.observability.diagnostics.SlowQueryLog;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.smauel.permissions.engine.AuthorizationEngine;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The diagnostics auto-configured by observability-common, wired into the service and exposed on the management port
+ * by the {@code ops} profile. Every statement counts as slow, and the authorization engine is on so that permission
+ * checks record the roles of the user.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ops")
+@TestPropertySource(
+        properties = {
+            "management.server.port=0",
+            "permissions.engine.enabled=true",
+            "observability.slow-query.threshold=PT0S"
+        })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Diagnostics")
+class DiagnosticsAT {
+    private static final String PERMISSION_NAME = "DIAGNOSED_PERMISSION";
+    private static final long USER_ID = 876543210L;
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRoleAssignmentRepository userRoleAssignmentRepository;
+
+    @Autowired
+    private AuthorizationEngine authorizationEngine;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    private DiagnosticsClient diagnostics;
+    private Permission permission;
+    private Role role;
+
+    @BeforeAll
+    void setUp() {
+        permission = permissionRepository.save(Permission.builder()
+                .name(PERMISSION_NAME)
+                .description("Permission checked by the diagnostics tests")
+                .type(PermissionType.RESOURCE)
+                .resource("diagnosed")
+                .action(Action.READ)
+                .build());
+        role = roleRepository.save(Role.builder()
+                .name("DIAGNOSED_ROLE")
+                .permissions(Set.of(permission))
+                .build());
+        userRoleAssignmentRepository.save(
+                UserRoleAssignment.builder().userId(USER_ID).role(role).build());
+        authorizationEngine.refresh();
+    }
+
+    @AfterAll
+    void tearDown() {
+        userRoleAssignmentRepository.deleteAll(userRoleAssignmentRepository.findByUserId(USER_ID));
+        roleRepository.delete(role);
+        permissionRepository.delete(permission);
+        authorizationEngine.refresh();
+    }
+
+    @BeforeEach
+    void createClient() {
+        diagnostics = new DiagnosticsClient(port, managementPort);
+    }
+
+    @AfterEach
+    void deleteRecordings() {
+        diagnostics.deleteRecordings();
+    }
+
+    @Test
+    @DisplayName("Should serve the diagnostics endpoints on the management port and not on the application port")
+    @Description("GET /actuator/{endpoint}")
+    void shouldServeDiagnosticsOnManagementPortOnly() {
+        diagnostics.assertServedOnManagementPortOnly(List.of("jfr", "hibernate", "effectivepermissions"));
+    }
+
+    @Test
+    @DisplayName("Should record permission checks with the request and its calls")
+    @Description("POST /actuator/jfr, GET /actuator/jfr/{id}")
+    void shouldRecordPermissionChecks(@TempDir Path directory) throws Exception {
+        long recording = diagnostics.startRecording("profile");
+        String check = diagnostics.requestId(
+                "/api/v1/user-roles/users/{userId}/permissions/{permissionName}/check", USER_ID, PERMISSION_NAME);
+        String byName = diagnostics.requestId("/api/v1/permissions/name/{permissionName}", PERMISSION_NAME);
+        List<RecordedEvent> events = diagnostics.stopRecording(recording, directory);
+
+        assertThat(DiagnosticsClient.events(events, "org.smauel.PermissionCheck", check))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getLong("userIdHash")).isEqualTo(UserIdHash.of(USER_ID));
+                    assertThat(event.getString("permission")).isEqualTo(PERMISSION_NAME);
+                    assertThat(event.getString("source")).isEqualTo(PermissionCheckEvent.ENGINE);
+                    assertThat(event.getBoolean("granted")).isTrue();
+                    assertThat(event.getInt("roleCount")).isEqualTo(1);
+                });
+        assertThat(DiagnosticsClient.events(events, "org.smauel.HttpRequest", check))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("uri"))
+                        .isEqualTo("/api/v1/user-roles/users/{userId}/permissions/{permissionName}/check"));
+        assertThat(DiagnosticsClient.events(events, "org.smauel.RepositoryCall", byName))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("repository")).isEqualTo("PermissionRepository");
+                    assertThat(event.getString("method")).isEqualTo("findByName");
+                });
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().startsWith("org.smauel."))
+                .extracting(RecordedEvent::toString)
+                .noneMatch(event -> event.contains(Long.toString(USER_ID)));
+    }
+
+    @Test
+    @DisplayName("Should log slow queries with their repository method but not their values")
+    @Description("GET /api/v1/user-roles/users/{userId}/roles, GET /actuator/hibernate")
+    void shouldLogSlowQueries() {
+        String requestId = diagnostics.requestId("/api/v1/user-roles/users/{userId}/roles", USER_ID);
+
+        assertThat(slowQueryLog.recent())
+                .filteredOn(query -> requestId.equals(query.requestId()))
+                .isNotEmpty()
+                .anySatisfy(query -> assertThat(query.repositoryMethod())
+                        .isEqualTo("UserRoleAssignmentRepository.findActiveRoleAssignmentsByUserId"))
+                .allSatisfy(query -> assertThat(query.parameters()).doesNotContain(Long.toString(USER_ID)));
+        diagnostics.assertHibernateStatistics();
+    }
+}
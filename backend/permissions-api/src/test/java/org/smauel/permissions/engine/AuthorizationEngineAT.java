@@ -0,0 +1,234 @@
+package org.smauel.permissions.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.permissions.config.AuthorizationConfig;
+import org.smauel.permissions.config.AuthorizationEngineProperties;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.ActiveRoleGrant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Differential test comparing every engine answer against the database query it replaces.
+ *
+ * <p>The engine loads through its own transaction, so the seeded data is committed rather than rolled back.
+ */
+@DataJpaTest(showSql = false)
+@Import({AuthorizationConfig.class, AuthorizationEngine.class})
+@TestPropertySource(properties = "permissions.engine.enabled=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("AuthorizationEngine Acceptance Tests")
+class AuthorizationEngineAT {
+    private static final int PERMISSIONS = 40;
+    private static final int ROLES = 12;
+    private static final int USERS = 120;
+
+    @Autowired
+    private AuthorizationEngine authorizationEngine;
+
+    @Autowired
+    private UserRoleAssignmentRepository userRoleAssignmentRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private AuthorizationEngineProperties properties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Random random = new Random(42);
+    private final List<Permission> permissions = new ArrayList<>();
+    private final List<Role> roles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        for (int i = 0; i < PERMISSIONS; i++) {
+            permissions.add(permissionRepository.save(Permission.builder()
+                    .name("perm:" + i)
+                    .type(PermissionType.RESOURCE)
+                    .build()));
+        }
+        for (int i = 0; i < ROLES; i++) {
+            Set<Permission> granted = new HashSet<>();
+            // Skew role sizes so some roles are empty and some grant most permissions
+            int size = random.nextInt(PERMISSIONS * (i + 1) / ROLES + 1);
+            for (int j = 0; j < size; j++) {
+                granted.add(permissions.get(random.nextInt(PERMISSIONS)));
+            }
+            roles.add(roleRepository.save(
+                    Role.builder().name("ROLE_" + i).permissions(granted).build()));
+        }
+        for (long userId = 1; userId <= USERS; userId++) {
+            int assignments = random.nextInt(5);
+            for (int j = 0; j < assignments; j++) {
+                assign(userId, roles.get(random.nextInt(ROLES)), randomExpiry());
+            }
+        }
+        authorizationEngine.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRoleAssignmentRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        permissions.clear();
+        roles.clear();
+    }
+
+    @Test
+    @DisplayName("should agree with the database after a full load")
+    void shouldMatchDatabaseAfterLoad() {
+        assertThat(authorizationEngine.isReady()).isTrue();
+        assertMatchesDatabase();
+    }
+
+    @Test
+    @DisplayName("should agree with the database after incremental updates")
+    void shouldMatchDatabaseAfterIncrementalUpdates() {
+        for (int i = 0; i < 200; i++) {
+            long userId = 1 + random.nextInt(USERS + 10);
+            Role role = roles.get(random.nextInt(ROLES));
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    UserRoleAssignment saved = assign(userId, role, randomExpiry());
+                    authorizationEngine.onAuthorizationChanged(
+                            new RoleAssignedEvent(saved.getId(), userId, role.getId(), saved.getExpiresAt()));
+                }
+                case 1 -> {
+                    userRoleAssignmentRepository.findByUserId(userId).stream()
+                            .filter(assignment -> assignment.getRole().getId().equals(role.getId()))
+                            .forEach(userRoleAssignmentRepository::delete);
+                    authorizationEngine.onAuthorizationChanged(new RoleRevokedEvent(userId, role.getId()));
+                }
+                case 2 -> {
+                    userRoleAssignmentRepository.deleteAll(userRoleAssignmentRepository.findByUserId(userId));
+                    authorizationEngine.onAuthorizationChanged(new AllRolesRevokedEvent(userId));
+                }
+                case 3 -> {
+                    Permission permission = permissions.get(random.nextInt(PERMISSIONS));
+                    Role loaded =
+                            roleRepository.findByIdWithPermissions(role.getId()).orElseThrow();
+                    loaded.addPermission(permission);
+                    roleRepository.save(loaded);
+                    authorizationEngine.onAuthorizationChanged(
+                            new RolePermissionAddedEvent(role.getId(), permission.getId()));
+                }
+                default -> {
+                    Role loaded =
+                            roleRepository.findByIdWithPermissions(role.getId()).orElseThrow();
+                    loaded.getPermissions().stream().findAny().ifPresent(permission -> {
+                        loaded.removePermission(permission);
+                        roleRepository.save(loaded);
+                        authorizationEngine.onAuthorizationChanged(
+                                new RolePermissionRemovedEvent(role.getId(), permission.getId()));
+                    });
+                }
+            }
+        }
+
+        assertMatchesDatabase();
+    }
+
+    @Test
+    @DisplayName("should pick up a change committed while the first snapshot is loading")
+    void shouldReloadChangesMissedByFirstLoad() {
+        UserRoleAssignmentRepository repository =
+                mock(UserRoleAssignmentRepository.class, delegatesTo(userRoleAssignmentRepository));
+        AuthorizationEngine engine =
+                new AuthorizationEngine(repository, roleRepository, properties, transactionManager);
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        long userId = USERS + 1;
+        Role role = roles.stream()
+                .filter(candidate -> !candidate.getPermissions().isEmpty())
+                .findFirst()
+                .orElseThrow();
+        String permissionName = role.getPermissions().iterator().next().getName();
+        // Commit an assignment once the first load has read the grants, before it publishes its snapshot
+        doAnswer(invocation -> {
+                    Stream<ActiveRoleGrant> grants =
+                            userRoleAssignmentRepository.streamActiveRoleGrants(invocation.getArgument(0));
+                    return grants.onClose(() -> {
+                        UserRoleAssignment saved = writeTransaction.execute(status -> assign(userId, role, null));
+                        engine.onAuthorizationChanged(new RoleAssignedEvent(saved.getId(), userId, role.getId(), null));
+                    });
+                })
+                .when(repository)
+                .streamActiveRoleGrants(any());
+
+        engine.refresh();
+
+        assertThat(engine.hasPermission(userId, permissionName)).isTrue();
+    }
+
+    private void assertMatchesDatabase() {
+        List<String> names =
+                new ArrayList<>(permissions.stream().map(Permission::getName).toList());
+        names.add("perm:unknown");
+        for (long userId = 1; userId <= USERS + 10; userId++) {
+            for (String name : names) {
+                assertThat(authorizationEngine.hasPermission(userId, name))
+                        .as("user %d permission %s", userId, name)
+                        .isEqualTo(userRoleAssignmentRepository.hasPermissionThroughRoles(userId, name));
+            }
+        }
+    }
+
+    private UserRoleAssignment assign(long userId, Role role, LocalDateTime expiresAt) {
+        return userRoleAssignmentRepository.save(UserRoleAssignment.builder()
+                .userId(userId)
+                .role(role)
+                .assignedBy(999L)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    private LocalDateTime randomExpiry() {
+        return switch (random.nextInt(3)) {
+            case 0 -> null;
+            case 1 -> LocalDateTime.now().minusDays(1 + random.nextInt(30));
+            default -> LocalDateTime.now().plusDays(1 + random.nextInt(30));
+        };
+    }
+}
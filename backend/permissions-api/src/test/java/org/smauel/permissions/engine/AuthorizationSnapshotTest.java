@@ -0,0 +1,214 @@
+package org.smauel.permissions.engine;
+
+import java.util.List;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("AuthorizationSnapshot Tests")
+class AuthorizationSnapshotTest implements WithAssertions {
+    private static final long NOW = 1_000_000L;
+    private static final long ADMIN = 1L;
+    private static final long READER = 2L;
+
+    private AuthorizationSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        RoleGraph roleGraph = RoleGraph.builder()
+                .grant(ADMIN, "user:read")
+                .grant(ADMIN, "user:delete")
+                .grant(READER, "user:read")
+                .build();
+        snapshot = AuthorizationSnapshot.EMPTY.withRoleGraph(roleGraph);
+    }
+
+    @Nested
+    @DisplayName("Check Permission")
+    class HasPermissionTests {
+
+        @Test
+        @DisplayName("should grant permissions held through an active role")
+        void shouldGrantThroughActiveRole() {
+            // Given
+            var current = snapshot.withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When & Then
+            assertThat(current.hasPermission(10L, "user:read", NOW)).isTrue();
+            assertThat(current.hasPermission(10L, "user:delete", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should ignore assignments that have expired")
+        void shouldIgnoreExpiredAssignments() {
+            // Given
+            var current = snapshot.withAssignment(10L, ADMIN, NOW + 1, NOW);
+
+            // When & Then
+            assertThat(current.hasPermission(10L, "user:delete", NOW)).isTrue();
+            assertThat(current.hasPermission(10L, "user:delete", NOW + 1)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should count only the active roles of a user")
+        void shouldCountActiveRoles() {
+            // Given
+            var current = snapshot.withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(10L, ADMIN, NOW + 1, NOW);
+
+            // When & Then
+            assertThat(current.activeRoleCount(10L, NOW)).isEqualTo(2);
+            assertThat(current.activeRoleCount(10L, NOW + 1)).isEqualTo(1);
+            assertThat(current.activeRoleCount(11L, NOW)).isZero();
+        }
+
+        @Test
+        @DisplayName("should deny unknown users and permissions")
+        void shouldDenyUnknownUsersAndPermissions() {
+            // Given
+            var current = snapshot.withAssignment(10L, ADMIN, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When & Then
+            assertThat(current.hasPermission(11L, "user:read", NOW)).isFalse();
+            assertThat(current.hasPermission(10L, "user:unknown", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should deny permissions of roles missing from the role graph")
+        void shouldDenyPermissionsOfDeletedRoles() {
+            // Given
+            var current = snapshot.withAssignment(10L, 99L, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When & Then
+            assertThat(current.hasPermission(10L, "user:read", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should handle permission ids beyond the first bitset word")
+        void shouldHandleLargePermissionIds() {
+            // Given
+            RoleGraph.Builder builder = RoleGraph.builder();
+            for (int i = 0; i < 200; i++) {
+                builder.grant(i % 2 == 0 ? ADMIN : READER, "perm:" + i);
+            }
+            var current = AuthorizationSnapshot.EMPTY
+                    .withRoleGraph(builder.build())
+                    .withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When & Then
+            assertThat(current.hasPermission(10L, "perm:199", NOW)).isTrue();
+            assertThat(current.hasPermission(10L, "perm:198", NOW)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Apply Changes")
+    class ChangeTests {
+
+        @Test
+        @DisplayName("should revoke a single role and keep the others")
+        void shouldRevokeSingleRole() {
+            // Given
+            var current = snapshot.withAssignment(10L, ADMIN, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When
+            var revoked = current.withoutRole(10L, ADMIN);
+
+            // Then
+            assertThat(revoked.hasPermission(10L, "user:delete", NOW)).isFalse();
+            assertThat(revoked.hasPermission(10L, "user:read", NOW)).isTrue();
+            assertThat(current.hasPermission(10L, "user:delete", NOW)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should drop the user once their last role is revoked")
+        void shouldDropUserWithoutRoles() {
+            // Given
+            var current = snapshot.withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When
+            var revoked = current.withoutRole(10L, READER);
+
+            // Then
+            assertThat(revoked.userCount()).isZero();
+            assertThat(revoked.hasPermission(10L, "user:read", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should revoke all roles of a user")
+        void shouldRevokeAllRoles() {
+            // Given
+            var current = snapshot.withAssignment(10L, ADMIN, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(20L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When
+            var revoked = current.withoutUser(10L);
+
+            // Then
+            assertThat(revoked.hasPermission(10L, "user:read", NOW)).isFalse();
+            assertThat(revoked.hasPermission(20L, "user:read", NOW)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should apply many assignments at once")
+        void shouldApplyManyAssignments() {
+            // Given
+            var current = snapshot.withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When
+            var updated = current.withAssignments(
+                    List.of(
+                            new AuthorizationSnapshot.Grant(10L, ADMIN, NOW + 1),
+                            new AuthorizationSnapshot.Grant(20L, READER, UserGrants.NEVER_EXPIRES),
+                            new AuthorizationSnapshot.Grant(20L, ADMIN, UserGrants.NEVER_EXPIRES)),
+                    NOW);
+
+            // Then
+            assertThat(updated.userCount()).isEqualTo(2);
+            assertThat(updated.hasPermission(10L, "user:read", NOW + 1)).isTrue();
+            assertThat(updated.hasPermission(10L, "user:delete", NOW)).isTrue();
+            assertThat(updated.hasPermission(10L, "user:delete", NOW + 1)).isFalse();
+            assertThat(updated.hasPermission(20L, "user:delete", NOW)).isTrue();
+            assertThat(current.hasPermission(20L, "user:read", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should revoke many roles from many users at once")
+        void shouldRevokeManyRoles() {
+            // Given
+            var current = snapshot.withAssignment(10L, ADMIN, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(20L, ADMIN, UserGrants.NEVER_EXPIRES, NOW)
+                    .withAssignment(30L, ADMIN, UserGrants.NEVER_EXPIRES, NOW);
+
+            // When
+            var revoked = current.withoutRoles(List.of(10L, 20L, 40L), List.of(ADMIN));
+
+            // Then
+            assertThat(revoked.userCount()).isEqualTo(2);
+            assertThat(revoked.hasPermission(10L, "user:delete", NOW)).isFalse();
+            assertThat(revoked.hasPermission(10L, "user:read", NOW)).isTrue();
+            assertThat(revoked.hasPermission(20L, "user:read", NOW)).isFalse();
+            assertThat(revoked.hasPermission(30L, "user:delete", NOW)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should apply a new role graph to existing assignments")
+        void shouldApplyNewRoleGraph() {
+            // Given
+            var current = snapshot.withAssignment(10L, READER, UserGrants.NEVER_EXPIRES, NOW);
+            RoleGraph roleGraph =
+                    RoleGraph.builder().grant(READER, "user:update").build();
+
+            // When
+            var updated = current.withRoleGraph(roleGraph);
+
+            // Then
+            assertThat(updated.hasPermission(10L, "user:update", NOW)).isTrue();
+            assertThat(updated.hasPermission(10L, "user:read", NOW)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.smauel.permissions.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LongObjectMap Tests")
+class LongObjectMapTest implements WithAssertions {
+
+    @Nested
+    @DisplayName("Copy-on-write updates")
+    class CopyOnWriteTests {
+
+        @Test
+        @DisplayName("should leave the original map untouched when adding")
+        void shouldNotMutateOriginalOnWith() {
+            // Given
+            LongObjectMap<String> original = LongObjectMap.<String>empty().with(1L, "one");
+
+            // When
+            LongObjectMap<String> updated = original.with(2L, "two").with(1L, "uno");
+
+            // Then
+            assertThat(original.size()).isEqualTo(1);
+            assertThat(original.get(1L)).isEqualTo("one");
+            assertThat(original.get(2L)).isNull();
+            assertThat(updated.size()).isEqualTo(2);
+            assertThat(updated.get(1L)).isEqualTo("uno");
+            assertThat(updated.get(2L)).isEqualTo("two");
+        }
+
+        @Test
+        @DisplayName("should leave the original map untouched when removing")
+        void shouldNotMutateOriginalOnWithout() {
+            // Given
+            LongObjectMap<String> original =
+                    LongObjectMap.<String>empty().with(1L, "one").with(2L, "two");
+
+            // When
+            LongObjectMap<String> updated = original.without(1L);
+
+            // Then
+            assertThat(original.get(1L)).isEqualTo("one");
+            assertThat(updated.get(1L)).isNull();
+            assertThat(updated.get(2L)).isEqualTo("two");
+            assertThat(updated.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should return the same map when removing a missing key")
+        void shouldReturnSameMapWhenKeyMissing() {
+            // Given
+            LongObjectMap<String> map = LongObjectMap.<String>empty().with(1L, "one");
+
+            // When & Then
+            assertThat(map.without(42L)).isSameAs(map);
+        }
+
+        @Test
+        @DisplayName("should reject null values")
+        void shouldRejectNullValues() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> LongObjectMap.<String>empty().with(1L, null));
+        }
+    }
+
+    @Test
+    @DisplayName("should behave like a HashMap under random inserts and removals")
+    void shouldMatchHashMapUnderRandomOperations() {
+        // Given
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        LongObjectMap<Long> actual = LongObjectMap.empty();
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            // A small key space forces collisions, re-inserts and removals of present keys
+            long key = random.nextInt(512) - 256L;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.without(key);
+            } else {
+                expected.put(key, (long) i);
+                actual = actual.with(key, (long) i);
+            }
+        }
+
+        // Then
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (long key = -300; key < 300; key++) {
+            assertThat(actual.get(key)).as("key %d", key).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("should spread keys over more shards as the map grows and keep every snapshot intact")
+    void shouldReshardAsMapGrows() {
+        // Given
+        Random random = new Random(11);
+        Map<Long, Long> expected = new HashMap<>();
+        LongObjectMap<Long> actual = LongObjectMap.empty();
+        LongObjectMap<Long> small = null;
+
+        // When
+        for (int i = 0; i < 60_000; i++) {
+            long key = random.nextInt(20_000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                actual = actual.without(key);
+            } else {
+                expected.put(key, (long) i);
+                actual = actual.with(key, (long) i);
+            }
+            if (i == 100) {
+                small = actual;
+            }
+        }
+
+        // Then
+        assertThat(small.shardCount()).isEqualTo(1);
+        assertThat(small.size()).isLessThanOrEqualTo(101);
+        assertThat(actual.shardCount()).isGreaterThan(1);
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 20_000; key++) {
+            assertThat(actual.get(key)).as("key %d", key).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    @DisplayName("should reshard a builder over an existing map without touching the map")
+    void shouldReshardThroughBuilder() {
+        // Given
+        LongObjectMap<Long> original = LongObjectMap.<Long>empty().with(1L, 1L);
+
+        // When
+        LongObjectMap.Builder<Long> builder = original.toBuilder();
+        for (long key = 0; key < 10_000; key++) {
+            builder.put(key, -key);
+        }
+        LongObjectMap<Long> edited = builder.build();
+
+        // Then
+        assertThat(original.size()).isEqualTo(1);
+        assertThat(original.get(1L)).isEqualTo(1L);
+        assertThat(original.shardCount()).isEqualTo(1);
+        assertThat(edited.size()).isEqualTo(10_000);
+        assertThat(edited.shardCount()).isGreaterThan(1);
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(edited.get(key)).as("key %d", key).isEqualTo(-key);
+        }
+    }
+
+    @Test
+    @DisplayName("should build a map that is isolated from later builder writes")
+    void shouldIsolateBuiltMapFromBuilder() {
+        // Given
+        LongObjectMap.Builder<String> builder = LongObjectMap.builder(2);
+        builder.put(1L, "one").put(2L, "two");
+
+        // When
+        LongObjectMap<String> built = builder.build();
+        builder.put(1L, "uno").put(3L, "three");
+
+        // Then
+        assertThat(built.size()).isEqualTo(2);
+        assertThat(built.get(1L)).isEqualTo("one");
+        assertThat(built.get(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should edit a copy of an existing map through a builder")
+    void shouldEditCopyThroughBuilder() {
+        // Given
+        Random random = new Random(7);
+        Map<Long, Long> expected = new HashMap<>();
+        LongObjectMap.Builder<Long> seed = LongObjectMap.builder(16);
+        for (long key = 0; key < 300; key++) {
+            expected.put(key, key);
+            seed.put(key, key);
+        }
+        LongObjectMap<Long> original = seed.build();
+
+        // When
+        LongObjectMap.Builder<Long> builder = original.toBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            long key = random.nextInt(400);
+            if (random.nextBoolean()) {
+                expected.remove(key);
+                builder.remove(key);
+            } else {
+                expected.put(key, (long) -i);
+                builder.put(key, (long) -i);
+            }
+        }
+        LongObjectMap<Long> edited = builder.build();
+
+        // Then
+        assertThat(original.size()).isEqualTo(300);
+        assertThat(original.get(5L)).isEqualTo(5L);
+        assertThat(edited.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 400; key++) {
+            assertThat(edited.get(key)).as("key %d", key).isEqualTo(expected.get(key));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.smauel.permissions.metrics;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Description;
+import java.util.List;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.metrics.MetricsAssertions;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.service.PermissionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Metrics")
+class MetricsAT {
+    private static final String PERMISSION_NAME = "METERED_PERMISSION";
+    private static final long USER_ID = 987654321L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    private Permission permission;
+
+    @BeforeAll
+    void setUp() {
+        permission = permissionRepository.save(Permission.builder()
+                .name(PERMISSION_NAME)
+                .description("Permission looked up by the metrics tests")
+                .type(PermissionType.RESOURCE)
+                .resource("metered")
+                .action(Action.READ)
+                .build());
+    }
+
+    @AfterAll
+    void tearDown() {
+        permissionRepository.delete(permission);
+    }
+
+    @Test
+    @DisplayName("Should time requests per endpoint with SLO buckets")
+    @Description("GET /api/v1/permissions/{id}")
+    void shouldTimeRequestsPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions/{id}", permission.getId())).andExpect(status().isOk());
+
+        MetricsAssertions.assertRequestTimed(meterRegistry, "GET", "/api/v1/permissions/{id}", 200);
+    }
+
+    @Test
+    @DisplayName("Should time every service method and repository call")
+    @Description("service.invocations, spring.data.repository.invocations")
+    void shouldTimeServicesAndRepositories() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions/name/{name}", PERMISSION_NAME)).andExpect(status().isOk());
+
+        MetricsAssertions.assertServiceTimed(applicationContext, PermissionService.class, "getPermissionByName");
+        MetricsAssertions.assertRepositoryTimed(meterRegistry, "PermissionRepository", "findByName");
+    }
+
+    @Test
+    @DisplayName("Should publish connection pool, Hibernate and JVM metrics")
+    @Description("hikaricp.*, hibernate.*, jvm.*")
+    void shouldPublishPoolHibernateAndJvmMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions/{id}", permission.getId())).andExpect(status().isOk());
+
+        MetricsAssertions.assertPoolHibernateAndJvmMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should not tag meters with user ids or permission names")
+    @Description("GET /actuator/metrics")
+    void shouldNotTagMetersWithUserData() throws Exception {
+        mockMvc.perform(get("/api/v1/permissions/name/{name}", PERMISSION_NAME)).andExpect(status().isOk());
+        mockMvc.perform(get(
+                        "/api/v1/user-roles/users/{userId}/permissions/{permissionName}/check",
+                        USER_ID,
+                        PERMISSION_NAME))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/user-roles/users/{userId}/roles", USER_ID)).andExpect(status().isOk());
+        // an unmatched path must not become a uri tag of its own, whatever its status
+        mockMvc.perform(get("/api/v1/unmapped/{name}", PERMISSION_NAME));
+
+        MetricsAssertions.assertNoTagContains(meterRegistry, PERMISSION_NAME, String.valueOf(USER_ID));
+        mockMvc.perform(get("/actuator/metrics/http.server.requests"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'uri')].values[*]")
+                        .value(Matchers.hasItem(
+                                "/api/v1/user-roles/users/{userId}/permissions/{permissionName}/check")))
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'application')].values[*]")
+                        .value(Matchers.contains("permissions-api")));
+    }
+
+    @Test
+    @DisplayName("Should expose only the metrics and health endpoints without the ops profile")
+    @Description("GET /actuator")
+    void shouldNotExposeDiagnosticsByDefault() throws Exception {
+        ResultActions links = mockMvc.perform(get("/actuator")).andExpect(status().isOk());
+        links.andExpect(jsonPath("$._links.prometheus").exists());
+        for (String endpoint : List.of("jfr", "hibernate", "effectivepermissions")) {
+            links.andExpect(jsonPath("$._links." + endpoint).doesNotExist());
+        }
+    }
+}
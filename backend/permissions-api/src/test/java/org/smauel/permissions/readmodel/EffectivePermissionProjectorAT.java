@@ -0,0 +1,183 @@
+package org.smauel.permissions.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(showSql = false)
+@Import({EffectivePermissionProjector.class, EffectivePermissionMaintenance.class})
+@DisplayName("EffectivePermissionProjector Acceptance Tests")
+class EffectivePermissionProjectorAT {
+    private static final Long USER_ID = 111L;
+
+    @Autowired
+    private EffectivePermissionProjector projector;
+
+    @Autowired
+    private EffectivePermissionMaintenance maintenance;
+
+    @Autowired
+    private UserEffectivePermissionRepository userEffectivePermissionRepository;
+
+    @Autowired
+    private UserRoleAssignmentRepository userRoleAssignmentRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    private Permission read, write, delete;
+    private Role editor, viewer;
+
+    @BeforeEach
+    void setUp() {
+        read = savePermission("data:read");
+        write = savePermission("data:write");
+        delete = savePermission("data:delete");
+        editor = roleRepository.save(Role.builder()
+                .name("EDITOR")
+                .permissions(new HashSet<>(List.of(read, write)))
+                .build());
+        viewer = roleRepository.save(Role.builder()
+                .name("VIEWER")
+                .permissions(new HashSet<>(List.of(read)))
+                .build());
+        roleRepository.flush();
+    }
+
+    @Test
+    @DisplayName("should add rows when a role is assigned")
+    void shouldProjectAssignment() {
+        assign(USER_ID, editor, null);
+
+        assertThat(activePermissionNames(USER_ID)).containsExactlyInAnyOrder("data:read", "data:write");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should keep rows of expired assignments but not list them")
+    void shouldIgnoreExpiredAssignments() {
+        assign(USER_ID, editor, LocalDateTime.now().minusDays(1));
+        assign(USER_ID, viewer, LocalDateTime.now().plusDays(1));
+
+        assertThat(activePermissionNames(USER_ID)).containsExactly("data:read");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should remove rows when a role is revoked")
+    void shouldProjectRevocation() {
+        assign(USER_ID, editor, null);
+        assign(USER_ID, viewer, null);
+
+        userRoleAssignmentRepository.deleteByUserIdAndRole_Id(USER_ID, editor.getId());
+        projector.onAuthorizationChanged(new RoleRevokedEvent(USER_ID, editor.getId()));
+        userRoleAssignmentRepository.flush();
+
+        assertThat(activePermissionNames(USER_ID)).containsExactly("data:read");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should remove all rows of a user when all roles are revoked")
+    void shouldProjectRevokeAll() {
+        assign(USER_ID, editor, null);
+        assign(222L, viewer, null);
+
+        userRoleAssignmentRepository.deleteByUserId(USER_ID);
+        projector.onAuthorizationChanged(new AllRolesRevokedEvent(USER_ID));
+        userRoleAssignmentRepository.flush();
+
+        assertThat(activePermissionNames(USER_ID)).isEmpty();
+        assertThat(activePermissionNames(222L)).containsExactly("data:read");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should follow permissions added to and removed from an assigned role")
+    void shouldProjectRolePermissionChanges() {
+        assign(USER_ID, viewer, null);
+        assign(222L, viewer, null);
+
+        viewer.addPermission(delete);
+        roleRepository.saveAndFlush(viewer);
+        projector.onAuthorizationChanged(new RolePermissionAddedEvent(viewer.getId(), delete.getId()));
+        // Adding a permission the role already grants must not duplicate rows
+        projector.onAuthorizationChanged(new RolePermissionAddedEvent(viewer.getId(), delete.getId()));
+
+        assertThat(activePermissionNames(USER_ID)).containsExactlyInAnyOrder("data:read", "data:delete");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+
+        viewer.removePermission(read);
+        roleRepository.saveAndFlush(viewer);
+        projector.onAuthorizationChanged(new RolePermissionRemovedEvent(viewer.getId(), read.getId()));
+
+        assertThat(activePermissionNames(USER_ID)).containsExactly("data:delete");
+        assertThat(activePermissionNames(222L)).containsExactly("data:delete");
+        assertThat(maintenance.check().isConsistent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should detect drift and repair it with a rebuild")
+    void shouldRebuildInconsistentModel() {
+        assign(USER_ID, editor, null);
+        // Written behind the projector's back
+        userRoleAssignmentRepository.saveAndFlush(
+                UserRoleAssignment.builder().userId(222L).role(viewer).build());
+        userEffectivePermissionRepository.deleteByUserId(USER_ID);
+
+        ConsistencyReport report = maintenance.check();
+        assertThat(report.missingRows()).isEqualTo(3);
+        assertThat(report.unexpectedRows()).isZero();
+
+        maintenance.verify();
+
+        assertThat(maintenance.check().isConsistent()).isTrue();
+        assertThat(activePermissionNames(USER_ID)).containsExactlyInAnyOrder("data:read", "data:write");
+        assertThat(activePermissionNames(222L)).containsExactly("data:read");
+    }
+
+    private void assign(Long userId, Role role, LocalDateTime expiresAt) {
+        UserRoleAssignment saved = userRoleAssignmentRepository.saveAndFlush(UserRoleAssignment.builder()
+                .userId(userId)
+                .role(role)
+                .expiresAt(expiresAt)
+                .build());
+        projector.onAuthorizationChanged(
+                new RoleAssignedEvent(saved.getId(), userId, role.getId(), saved.getExpiresAt()));
+    }
+
+    private List<String> activePermissionNames(Long userId) {
+        return userEffectivePermissionRepository.findActivePermissionsByUserId(userId, LocalDateTime.now()).stream()
+                .map(Permission::getName)
+                .toList();
+    }
+
+    private Permission savePermission(String name) {
+        return permissionRepository.save(
+                Permission.builder().name(name).type(PermissionType.RESOURCE).build());
+    }
+}
@@ -19,12 +19,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.request.CreatePermissionRequest;
+import org.smauel.permissions.event.PermissionDeletedEvent;
 import org.smauel.permissions.exception.PermissionNotFoundException;
 import org.smauel.permissions.mapper.PermissionMapper;
 import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.enums.Action;
 import org.smauel.permissions.model.enums.PermissionType;
 import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.springframework.context.ApplicationEventPublisher;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("PermissionService Tests")
@@ -33,13 +36,20 @@ class PermissionServiceTest implements WithAssertions {
     @Mock
     private PermissionRepository permissionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TableStatisticsRepository tableStatisticsRepository;
+
     private final PermissionMapper permissionMapper = Mappers.getMapper(PermissionMapper.class);
 
     private PermissionService permissionService;
 
     @BeforeEach
     void setUp() {
-        permissionService = new PermissionService(permissionRepository, permissionMapper);
+        permissionService = new PermissionService(
+                permissionRepository, permissionMapper, eventPublisher, tableStatisticsRepository);
     }
 
     @Nested
@@ -309,6 +319,7 @@ class PermissionServiceTest implements WithAssertions {
 
             // Then
             verify(permissionRepository).deleteById(id);
+            verify(eventPublisher).publishEvent(new PermissionDeletedEvent(id));
         }
 
         @Test
@@ -16,10 +16,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.smauel.permissions.dto.RoleDto;
 import org.smauel.permissions.dto.request.CreateRoleRequest;
+import org.smauel.permissions.event.RolePermissionAddedEvent;
+import org.smauel.permissions.event.RolePermissionRemovedEvent;
 import org.smauel.permissions.exception.PermissionNotFoundException;
 import org.smauel.permissions.exception.RoleNotFoundException;
 import org.smauel.permissions.mapper.RoleMapper;
@@ -27,7 +30,9 @@ import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.Role;
 import org.smauel.permissions.repository.PermissionRepository;
 import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
@@ -48,6 +53,12 @@ class RoleServiceTest implements WithAssertions {
     @Mock
     private PermissionRepository permissionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TableStatisticsRepository tableStatisticsRepository;
+
     @Autowired
     private RoleMapper roleMapper;
 
@@ -55,7 +66,8 @@ class RoleServiceTest implements WithAssertions {
 
     @BeforeEach
     void setUp() {
-        roleService = new RoleService(roleRepository, permissionRepository, roleMapper);
+        roleService = new RoleService(
+                roleRepository, permissionRepository, roleMapper, eventPublisher, tableStatisticsRepository);
     }
 
     @Nested
@@ -103,8 +115,7 @@ class RoleServiceTest implements WithAssertions {
                     .permissions(Set.of(p1, p2))
                     .build();
 
-            when(permissionRepository.findById(p1.getId())).thenReturn(Optional.of(p1));
-            when(permissionRepository.findById(p2.getId())).thenReturn(Optional.of(p2));
+            when(permissionRepository.findAllById(request.getPermissionIds())).thenReturn(List.of(p1, p2));
             when(roleRepository.save(any(Role.class))).thenReturn(savedRole);
 
             // When
@@ -116,12 +127,33 @@ class RoleServiceTest implements WithAssertions {
             verify(roleRepository).save(any(Role.class));
         }
 
+        @Test
+        @DisplayName("should create a role whose permissions can be changed afterwards")
+        void shouldCreateRoleWithMutablePermissions() {
+            // Given
+            var p1 = Permission.builder().id(101L).name("perm.read").build();
+            var p2 = Permission.builder().id(102L).name("perm.write").build();
+            var request = new CreateRoleRequest("EDITOR", "Editor Role", Set.of(p1.getId()));
+            when(permissionRepository.findAllById(request.getPermissionIds())).thenReturn(List.of(p1));
+            when(roleRepository.save(any(Role.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            var saved = ArgumentCaptor.forClass(Role.class);
+
+            // When
+            roleService.createRole(request);
+
+            // Then
+            verify(roleRepository).save(saved.capture());
+            saved.getValue().addPermission(p2);
+            saved.getValue().removePermission(p1);
+            assertThat(saved.getValue().getPermissions()).containsExactly(p2);
+        }
+
         @Test
         @DisplayName("should throw PermissionNotFoundException for invalid permission ID")
         void shouldThrowWhenPermissionNotFound() {
             // Given
             var request = new CreateRoleRequest("TEST_ROLE", "Test Role", Set.of(999L));
-            when(permissionRepository.findById(999L)).thenReturn(Optional.empty());
+            when(permissionRepository.findAllById(request.getPermissionIds())).thenReturn(List.of());
 
             // When & Then
             assertThatExceptionOfType(PermissionNotFoundException.class)
@@ -264,6 +296,7 @@ class RoleServiceTest implements WithAssertions {
             assertThat(result.getPermissions()).hasSize(1);
             assertThat(role.getPermissions()).contains(permission);
             verify(roleRepository).save(role);
+            verify(eventPublisher).publishEvent(new RolePermissionAddedEvent(role.getId(), permission.getId()));
         }
 
         @Test
@@ -324,6 +357,7 @@ class RoleServiceTest implements WithAssertions {
             assertThat(result.getPermissions()).isEmpty();
             assertThat(role.getPermissions()).doesNotContain(permission);
             verify(roleRepository).save(role);
+            verify(eventPublisher).publishEvent(new RolePermissionRemovedEvent(role.getId(), permission.getId()));
         }
 
         @Test
@@ -0,0 +1,216 @@
+package org.smauel.permissions.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.smauel.permissions.config.BulkOperationProperties;
+import org.smauel.permissions.dto.BulkRoleAssignmentResult;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.BulkRoleRevocationRequest;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RolesAssignedEvent;
+import org.smauel.permissions.event.RolesRevokedEvent;
+import org.smauel.permissions.exception.RoleNotFoundException;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.UserRoleAssignment;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.UserRoleId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("UserRoleBulkService Tests")
+class UserRoleBulkServiceTest implements WithAssertions {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserRoleAssignmentRepository userRoleAssignmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BulkOperationProperties properties;
+    private UserRoleBulkService userRoleBulkService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkOperationProperties();
+        userRoleBulkService = new UserRoleBulkService(
+                roleRepository,
+                userRoleAssignmentRepository,
+                properties,
+                transactionManager,
+                entityManager,
+                eventPublisher);
+        when(roleRepository.findByNameIn(anyCollection()))
+                .thenReturn(List.of(
+                        Role.builder().id(10L).name("ADMIN").build(),
+                        Role.builder().id(20L).name("USER").build()));
+        when(entityManager.getReference(eq(Role.class), anyLong()))
+                .thenAnswer(invocation ->
+                        Role.builder().id(invocation.getArgument(1)).build());
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+                    List<UserRoleAssignment> assignments = invocation.getArgument(0);
+                    assignments.forEach(assignment -> assignment.setId(ids.incrementAndGet()));
+                    return assignments;
+                })
+                .when(userRoleAssignmentRepository)
+                .saveAll(anyList());
+    }
+
+    @Nested
+    @DisplayName("Assign Roles")
+    class AssignRolesTests {
+
+        @Test
+        @DisplayName("should assign every role to every user, skipping active assignments")
+        void shouldSkipActiveAssignments() {
+            // Given
+            var expiresAt = LocalDateTime.now().plusDays(1);
+            var request = new BulkRoleAssignmentRequest(List.of(1L, 2L, 1L), List.of("ADMIN", "USER"), 99L, expiresAt);
+            when(userRoleAssignmentRepository.findActiveUserRoleIds(
+                            eq(List.of(1L, 2L)), eq(List.of(10L, 20L)), any(LocalDateTime.class)))
+                    .thenReturn(List.of(new UserRoleId(1L, 20L)));
+
+            // When
+            BulkRoleAssignmentResult result = userRoleBulkService.assignRoles(request);
+
+            // Then
+            assertThat(result.getRequested()).isEqualTo(4);
+            assertThat(result.getAssigned()).isEqualTo(3);
+            assertThat(result.getSkipped()).isEqualTo(1);
+            assertThat(result.getRevoked()).isNull();
+            var event = ArgumentCaptor.forClass(RolesAssignedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().assignments())
+                    .containsExactly(
+                            new RoleAssignedEvent(1L, 1L, 10L, expiresAt),
+                            new RoleAssignedEvent(2L, 2L, 10L, expiresAt),
+                            new RoleAssignedEvent(3L, 2L, 20L, expiresAt));
+        }
+
+        @Test
+        @DisplayName("should split users into chunks of at most the configured number of pairs")
+        void shouldChunkUsers() {
+            // Given
+            properties.setChunkSize(4);
+            var request =
+                    new BulkRoleAssignmentRequest(List.of(1L, 2L, 3L, 4L, 5L), List.of("ADMIN", "USER"), 99L, null);
+
+            // When
+            BulkRoleAssignmentResult result = userRoleBulkService.assignRoles(request);
+
+            // Then
+            assertThat(result.getAssigned()).isEqualTo(10);
+            verify(userRoleAssignmentRepository).findActiveUserRoleIds(eq(List.of(1L, 2L)), anyCollection(), any());
+            verify(userRoleAssignmentRepository).findActiveUserRoleIds(eq(List.of(3L, 4L)), anyCollection(), any());
+            verify(userRoleAssignmentRepository).findActiveUserRoleIds(eq(List.of(5L)), anyCollection(), any());
+            verify(transactionManager, times(3)).commit(any());
+            verify(entityManager, times(3)).clear();
+        }
+
+        @Test
+        @DisplayName("should not write anything when every pair is already assigned")
+        void shouldSkipChunkWithoutNewAssignments() {
+            // Given
+            var request = new BulkRoleAssignmentRequest(List.of(1L), List.of("ADMIN"), 99L, null);
+            when(roleRepository.findByNameIn(anyCollection()))
+                    .thenReturn(List.of(Role.builder().id(10L).name("ADMIN").build()));
+            when(userRoleAssignmentRepository.findActiveUserRoleIds(anyCollection(), anyCollection(), any()))
+                    .thenReturn(List.of(new UserRoleId(1L, 10L)));
+
+            // When
+            BulkRoleAssignmentResult result = userRoleBulkService.assignRoles(request);
+
+            // Then
+            assertThat(result.getAssigned()).isZero();
+            assertThat(result.getSkipped()).isEqualTo(1);
+            verify(userRoleAssignmentRepository, never()).saveAll(anyList());
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("should reject the whole request when a role does not exist")
+        void shouldRejectUnknownRoles() {
+            // Given
+            var request = new BulkRoleAssignmentRequest(List.of(1L), List.of("ADMIN", "GHOST"), 99L, null);
+
+            // When & Then
+            assertThatThrownBy(() -> userRoleBulkService.assignRoles(request))
+                    .isInstanceOf(RoleNotFoundException.class)
+                    .hasMessageContaining("GHOST");
+            verify(transactionManager, never()).getTransaction(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Revoke Roles")
+    class RevokeRolesTests {
+
+        @Test
+        @DisplayName("should revoke every role from every user")
+        void shouldRevokeRoles() {
+            // Given
+            var request = new BulkRoleRevocationRequest(List.of(1L, 2L), List.of("USER", "ADMIN"));
+            when(userRoleAssignmentRepository.deleteByUserIdsAndRoleIds(List.of(1L, 2L), List.of(20L, 10L)))
+                    .thenReturn(3);
+
+            // When
+            BulkRoleAssignmentResult result = userRoleBulkService.revokeRoles(request);
+
+            // Then
+            assertThat(result.getRequested()).isEqualTo(4);
+            assertThat(result.getRevoked()).isEqualTo(3);
+            assertThat(result.getAssigned()).isNull();
+            verify(eventPublisher).publishEvent(new RolesRevokedEvent(List.of(1L, 2L), List.of(20L, 10L)));
+        }
+
+        @Test
+        @DisplayName("should not publish an event when nothing was revoked")
+        void shouldNotPublishWhenNothingRevoked() {
+            // Given
+            var request = new BulkRoleRevocationRequest(List.of(1L), List.of("USER"));
+
+            // When
+            BulkRoleAssignmentResult result = userRoleBulkService.revokeRoles(request);
+
+            // Then
+            assertThat(result.getRevoked()).isZero();
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+    }
+}
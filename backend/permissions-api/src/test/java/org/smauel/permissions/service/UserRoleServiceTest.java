@@ -1,15 +1,22 @@
 package org.smauel.permissions.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,9 +25,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.smauel.permissions.cache.Decision;
+import org.smauel.permissions.cache.PermissionDecisionCache;
+import org.smauel.permissions.dto.PermissionCheckResult;
 import org.smauel.permissions.dto.PermissionDto;
 import org.smauel.permissions.dto.UserRoleAssignmentDto;
 import org.smauel.permissions.dto.request.GrantRoleRequest;
+import org.smauel.permissions.dto.request.PermissionCheckRequest;
+import org.smauel.permissions.engine.AuthorizationEngine;
+import org.smauel.permissions.event.AllRolesRevokedEvent;
+import org.smauel.permissions.event.RoleAssignedEvent;
+import org.smauel.permissions.event.RoleRevokedEvent;
 import org.smauel.permissions.exception.RoleAlreadyAssignedException;
 import org.smauel.permissions.exception.RoleNotFoundException;
 import org.smauel.permissions.mapper.PermissionMapper;
@@ -32,10 +47,14 @@ import org.smauel.permissions.model.Permission;
 import org.smauel.permissions.model.Role;
 import org.smauel.permissions.model.UserRoleAssignment;
 import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.repository.UserEffectivePermissionRepository;
 import org.smauel.permissions.repository.UserRoleAssignmentRepository;
+import org.smauel.permissions.repository.projection.UserPermissionName;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith({SpringExtension.class, MockitoExtension.class})
 @ContextConfiguration(classes = {UserRoleAssignmentMapperImpl.class, RoleMapperImpl.class, PermissionMapperImpl.class})
@@ -48,6 +67,21 @@ class UserRoleServiceTest implements WithAssertions {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private UserEffectivePermissionRepository userEffectivePermissionRepository;
+
+    @Mock
+    private AuthorizationEngine authorizationEngine;
+
+    @Mock
+    private PermissionDecisionCache decisionCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private UserRoleAssignmentMapper userRoleAssignmentMapper;
 
@@ -59,7 +93,15 @@ class UserRoleServiceTest implements WithAssertions {
     @BeforeEach
     void setUp() {
         userRoleService = new UserRoleService(
-                userRoleAssignmentRepository, roleRepository, userRoleAssignmentMapper, permissionMapper);
+                userRoleAssignmentRepository,
+                roleRepository,
+                userEffectivePermissionRepository,
+                userRoleAssignmentMapper,
+                permissionMapper,
+                authorizationEngine,
+                decisionCache,
+                eventPublisher,
+                transactionManager);
     }
 
     @Nested
@@ -74,8 +116,11 @@ class UserRoleServiceTest implements WithAssertions {
             Long grantorUserId = 2L;
             var request = new GrantRoleRequest("ADMIN", grantorUserId, null);
             var role = Role.builder().id(10L).name("ADMIN").build();
-            var assignment =
-                    UserRoleAssignment.builder().userId(userId).role(role).build();
+            var assignment = UserRoleAssignment.builder()
+                    .id(5L)
+                    .userId(userId)
+                    .role(role)
+                    .build();
 
             when(roleRepository.findByNameWithPermissions(request.getRoleName()))
                     .thenReturn(Optional.of(role));
@@ -92,6 +137,7 @@ class UserRoleServiceTest implements WithAssertions {
             assertThat(result.getUserId()).isEqualTo(userId);
             assertThat(result.getRole().getName()).isEqualTo("ADMIN");
             verify(userRoleAssignmentRepository).save(any(UserRoleAssignment.class));
+            verify(eventPublisher).publishEvent(new RoleAssignedEvent(5L, userId, 10L, null));
         }
 
         @Test
@@ -128,6 +174,7 @@ class UserRoleServiceTest implements WithAssertions {
             assertThatExceptionOfType(RoleAlreadyAssignedException.class)
                     .isThrownBy(() -> userRoleService.assignRoleToUser(userId, request))
                     .withMessage("Role 'ADMIN' is already assigned to user with ID 1");
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
@@ -166,6 +213,46 @@ class UserRoleServiceTest implements WithAssertions {
             // Then
             assertThat(result).isFalse();
         }
+
+        @Test
+        @DisplayName("should answer from the authorization engine once it is loaded")
+        void shouldUseAuthorizationEngineWhenReady() {
+            // Given
+            Long userId = 1L;
+            String permissionName = "perm.read";
+            when(authorizationEngine.isReady()).thenReturn(true);
+            when(authorizationEngine.hasPermission(userId, permissionName)).thenReturn(true);
+
+            // When
+            boolean result = userRoleService.hasPermission(userId, permissionName);
+
+            // Then
+            assertThat(result).isTrue();
+            verify(userRoleAssignmentRepository, never()).hasPermissionThroughRoles(any(), anyString());
+            verifyNoInteractions(transactionManager);
+        }
+
+        @Test
+        @DisplayName("should load decisions through the decision cache when it is enabled")
+        void shouldUseDecisionCacheWhenEnabled() {
+            // Given
+            Long userId = 1L;
+            String permissionName = "perm.read";
+            when(decisionCache.isEnabled()).thenReturn(true);
+            when(decisionCache.hasPermission(eq(1L), eq(permissionName), any()))
+                    .thenAnswer(invocation ->
+                            invocation.<Supplier<Decision>>getArgument(2).get().granted());
+            when(userEffectivePermissionRepository.findActiveGrantExpiries(
+                            eq(userId), eq(permissionName), any(LocalDateTime.class)))
+                    .thenReturn(Collections.singletonList(null));
+
+            // When
+            boolean result = userRoleService.hasPermission(userId, permissionName);
+
+            // Then
+            assertThat(result).isTrue();
+            verify(userRoleAssignmentRepository, never()).hasPermissionThroughRoles(any(), anyString());
+        }
     }
 
     @Nested
@@ -173,29 +260,14 @@ class UserRoleServiceTest implements WithAssertions {
     class GetUserPermissionsTests {
 
         @Test
-        @DisplayName("should return a list of unique permissions")
+        @DisplayName("should return the user's active permissions from the read model")
         void shouldReturnUniquePermissions() {
             // Given
             Long userId = 1L;
             var p1 = Permission.builder().id(101L).name("perm.read").build();
             var p2 = Permission.builder().id(102L).name("perm.write").build();
-            var role1 =
-                    Role.builder().id(1L).name("READER").permissions(Set.of(p1)).build();
-            var role2 = Role.builder()
-                    .id(2L)
-                    .name("WRITER")
-                    .permissions(Set.of(p1, p2))
-                    .build();
-
-            var assignment1 =
-                    UserRoleAssignment.builder().userId(userId).role(role1).build();
-            var assignment2 =
-                    UserRoleAssignment.builder().userId(userId).role(role2).build();
-
-            when(userRoleAssignmentRepository.findActiveRoleAssignmentsByUserId(eq(userId), any(LocalDateTime.class)))
-                    .thenReturn(List.of(assignment1, assignment2));
-            when(roleRepository.findByIdWithPermissions(1L)).thenReturn(Optional.of(role1));
-            when(roleRepository.findByIdWithPermissions(2L)).thenReturn(Optional.of(role2));
+            when(userEffectivePermissionRepository.findActivePermissionsByUserId(eq(userId), any(LocalDateTime.class)))
+                    .thenReturn(List.of(p1, p2));
 
             // When
             List<PermissionDto> permissions = userRoleService.getUserPermissions(userId);
@@ -205,6 +277,7 @@ class UserRoleServiceTest implements WithAssertions {
             assertThat(permissions)
                     .extracting(PermissionDto::getName)
                     .containsExactlyInAnyOrder("perm.read", "perm.write");
+            verify(roleRepository, never()).findByIdWithPermissions(any());
         }
 
         @Test
@@ -212,7 +285,7 @@ class UserRoleServiceTest implements WithAssertions {
         void shouldReturnEmptyListForNoRoles() {
             // Given
             Long userId = 1L;
-            when(userRoleAssignmentRepository.findActiveRoleAssignmentsByUserId(eq(userId), any(LocalDateTime.class)))
+            when(userEffectivePermissionRepository.findActivePermissionsByUserId(eq(userId), any(LocalDateTime.class)))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -223,6 +296,84 @@ class UserRoleServiceTest implements WithAssertions {
         }
     }
 
+    @Nested
+    @DisplayName("Check Permissions In Bulk")
+    class CheckPermissionsTests {
+
+        @Test
+        @DisplayName("should resolve all users and permissions with a single query")
+        void shouldResolveWithSingleQuery() {
+            // Given
+            var request = PermissionCheckRequest.builder()
+                    .userIds(List.of(1L, 2L))
+                    .permissions(List.of("perm.read", "perm.write"))
+                    .allOf(List.of("perm.read", "perm.write"))
+                    .anyOf(List.of("perm.write", "perm.delete"))
+                    .build();
+            when(userEffectivePermissionRepository.findActivePermissionNames(
+                            eq(Set.of(1L, 2L)),
+                            eq(Set.of("perm.read", "perm.write", "perm.delete")),
+                            any(LocalDateTime.class)))
+                    .thenReturn(List.of(
+                            new UserPermissionName(1L, "perm.read"),
+                            new UserPermissionName(1L, "perm.write"),
+                            new UserPermissionName(2L, "perm.read")));
+
+            // When
+            List<PermissionCheckResult> results = userRoleService.checkPermissions(request);
+
+            // Then
+            assertThat(results)
+                    .containsExactly(
+                            new PermissionCheckResult(1L, List.of(true, true), true, true),
+                            new PermissionCheckResult(2L, List.of(true, false), false, false));
+            verify(userEffectivePermissionRepository).findActivePermissionNames(any(), any(), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("should answer from the authorization engine once it is loaded")
+        void shouldUseAuthorizationEngineWhenReady() {
+            // Given
+            var request = PermissionCheckRequest.builder()
+                    .userIds(List.of(1L))
+                    .anyOf(List.of("perm.read"))
+                    .build();
+            when(authorizationEngine.isReady()).thenReturn(true);
+            when(authorizationEngine.hasPermission(1L, "perm.read")).thenReturn(true);
+
+            // When
+            List<PermissionCheckResult> results = userRoleService.checkPermissions(request);
+
+            // Then
+            assertThat(results).containsExactly(new PermissionCheckResult(1L, null, null, true));
+            verify(userEffectivePermissionRepository, never()).findActivePermissionNames(any(), any(), any());
+            verifyNoInteractions(transactionManager);
+        }
+
+        @Test
+        @DisplayName("should resolve each chunk of users in its own transaction, committed before it is handed over")
+        void shouldResolveEachChunkInItsOwnTransaction() {
+            // Given
+            var request = PermissionCheckRequest.builder()
+                    .userIds(LongStream.rangeClosed(1, 501).boxed().toList())
+                    .anyOf(List.of("perm.read"))
+                    .build();
+            when(userEffectivePermissionRepository.findActivePermissionNames(any(), any(), any(LocalDateTime.class)))
+                    .thenReturn(List.of(new UserPermissionName(1L, "perm.read")));
+            List<Integer> chunkSizes = new ArrayList<>();
+
+            // When
+            userRoleService.checkPermissions(request, results -> {
+                verify(transactionManager, times(chunkSizes.size() + 1)).commit(any());
+                chunkSizes.add(results.size());
+            });
+
+            // Then
+            assertThat(chunkSizes).containsExactly(500, 1);
+            verify(transactionManager, times(2)).getTransaction(any());
+        }
+    }
+
     @Nested
     @DisplayName("Get User Roles")
     class GetUserRolesTests {
@@ -263,6 +414,7 @@ class UserRoleServiceTest implements WithAssertions {
 
             // Then
             verify(userRoleAssignmentRepository).deleteByUserIdAndRole_Id(userId, roleId);
+            verify(eventPublisher).publishEvent(new RoleRevokedEvent(userId, roleId));
         }
 
         @Test
@@ -276,6 +428,7 @@ class UserRoleServiceTest implements WithAssertions {
 
             // Then
             verify(userRoleAssignmentRepository).deleteByUserId(userId);
+            verify(eventPublisher).publishEvent(new AllRolesRevokedEvent(userId));
         }
     }
 }
@@ -0,0 +1,312 @@
+package org.smauel.permissions.sql;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.qameta.allure.Description;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.smauel.observability.jdbc.StatementBudget;
+import org.smauel.observability.jdbc.StatementBudgetConfig;
+import org.smauel.permissions.dto.request.BulkRoleAssignmentRequest;
+import org.smauel.permissions.dto.request.BulkRoleRevocationRequest;
+import org.smauel.permissions.dto.request.CreatePermissionRequest;
+import org.smauel.permissions.dto.request.CreateRoleRequest;
+import org.smauel.permissions.dto.request.GrantRoleRequest;
+import org.smauel.permissions.dto.request.PermissionCheckRequest;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.Role;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.smauel.permissions.repository.RoleRepository;
+import org.smauel.permissions.service.UserRoleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Statement budgets of every endpoint, over roles and users with several permissions and roles each, so that a query
+ * per role or per permission shows up as a blown budget. Nothing is committed by the test itself, so every call reads
+ * through the db rather than a persistence context the test shares.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(StatementBudgetConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Statement Budgets")
+class StatementBudgetAT {
+    private static final int ROLES = 5;
+    private static final int PERMISSIONS_PER_ROLE = 4;
+    private static final Long USER_ID = 123L;
+    private static final Long OTHER_USER_ID = 124L;
+    private static final Long GRANTED_BY = 456L;
+    private static final String PERMISSIONS = "/api/v1/permissions";
+    private static final String ROLES_PATH = "/api/v1/roles";
+    private static final String USER_ROLES = "/api/v1/user-roles";
+
+    @Autowired
+    private StatementBudget statements;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private UserRoleService userRoleService;
+
+    private final List<Role> roles = new ArrayList<>();
+    private final List<Permission> permissions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        for (int r = 0; r < ROLES; r++) {
+            Set<Permission> granted = new HashSet<>();
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                Permission permission = permissionRepository.save(Permission.builder()
+                        .name("PERMISSION_" + r + "_" + p)
+                        .description("Permission " + p + " of role " + r)
+                        .type(PermissionType.RESOURCE)
+                        .resource("data")
+                        .action(Action.READ)
+                        .build());
+                permissions.add(permission);
+                granted.add(permission);
+            }
+            roles.add(roleRepository.save(Role.builder()
+                    .name("ROLE_" + r)
+                    .description("Role " + r)
+                    .permissions(granted)
+                    .build()));
+        }
+        for (Role role : roles) {
+            userRoleService.assignRoleToUser(
+                    USER_ID,
+                    new GrantRoleRequest(
+                            role.getName(), GRANTED_BY, LocalDateTime.now().plusDays(1)));
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        for (Long userId : List.of(USER_ID, OTHER_USER_ID, 125L, 126L)) {
+            userRoleService.revokeAllRoles(userId);
+        }
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        roles.clear();
+        permissions.clear();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should keep the permission endpoints within their statement budgets")
+    @Description("/api/v1/permissions")
+    void shouldKeepPermissionEndpointsWithinBudget() throws Exception {
+        Permission permission = permissions.getFirst();
+
+        statements.perform(1, get(PERMISSIONS + "/{id}", permission.getId())).andExpect(status().isOk());
+        statements
+                .perform(1, get(PERMISSIONS + "/name/{name}", permission.getName()))
+                .andExpect(status().isOk());
+        statements
+                .perform(2, get(PERMISSIONS).param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(ROLES * PERMISSIONS_PER_ROLE)));
+        statements
+                .perform(1, get(PERMISSIONS + "/resource/{resource}", "data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROLES * PERMISSIONS_PER_ROLE)));
+        statements
+                .perform(1, get(PERMISSIONS + "/type/{type}/resource/{resource}", "RESOURCE", "data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROLES * PERMISSIONS_PER_ROLE)));
+
+        CreatePermissionRequest request = new CreatePermissionRequest();
+        request.setName("NEW_PERMISSION");
+        request.setType(PermissionType.RESOURCE);
+        request.setResource("data");
+        request.setAction(Action.CREATE);
+        String created = statements
+                .perform(
+                        1,
+                        post(PERMISSIONS)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        statements.perform(3, delete(PERMISSIONS + "/{id}", id)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should keep the role endpoints within their statement budgets")
+    @Description("/api/v1/roles")
+    void shouldKeepRoleEndpointsWithinBudget() throws Exception {
+        Role role = roles.getFirst();
+
+        statements.perform(1, get(ROLES_PATH + "/{id}", role.getId())).andExpect(status().isOk());
+        statements.perform(1, get(ROLES_PATH + "/name/{name}", role.getName())).andExpect(status().isOk());
+        statements
+                .perform(3, get(ROLES_PATH).param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(ROLES)))
+                .andExpect(jsonPath("$.items[0].permissions", hasSize(PERMISSIONS_PER_ROLE)));
+        statements
+                .perform(2, get(ROLES_PATH).param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROLES)))
+                .andExpect(jsonPath("$[0].permissions", hasSize(PERMISSIONS_PER_ROLE)));
+
+        Permission other = permissions.getLast();
+        statements
+                .perform(5, put(ROLES_PATH + "/{roleId}/permissions/{permissionId}", role.getId(), other.getId()))
+                .andExpect(status().isOk());
+        statements
+                .perform(5, delete(ROLES_PATH + "/{roleId}/permissions/{permissionId}", role.getId(), other.getId()))
+                .andExpect(status().isOk());
+
+        CreateRoleRequest request = new CreateRoleRequest();
+        request.setName("NEW_ROLE");
+        request.setPermissionIds(Set.of(
+                permissions.get(0).getId(),
+                permissions.get(1).getId(),
+                permissions.get(2).getId(),
+                permissions.get(3).getId()));
+        String created = statements
+                .perform(
+                        3,
+                        post(ROLES_PATH)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        statements.perform(4, delete(ROLES_PATH + "/{id}", id)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Should keep the user role endpoints within their statement budgets")
+    @Description("/api/v1/user-roles")
+    void shouldKeepUserRoleEndpointsWithinBudget() throws Exception {
+        Permission permission = permissions.getFirst();
+
+        statements
+                .perform(1, get(USER_ROLES + "/users/{userId}/permissions", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROLES * PERMISSIONS_PER_ROLE)));
+        statements
+                .perform(2, get(USER_ROLES + "/users/{userId}/roles", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROLES)));
+        statements
+                .perform(
+                        1,
+                        get(
+                                USER_ROLES + "/users/{userId}/permissions/{permissionName}/check",
+                                USER_ID,
+                                permission.getName()))
+                .andExpect(status().isOk());
+
+        PermissionCheckRequest check = PermissionCheckRequest.builder()
+                .userIds(List.of(USER_ID, OTHER_USER_ID))
+                .permissions(List.of(permission.getName(), permissions.getLast().getName()))
+                .build();
+        statements
+                .perform(
+                        1,
+                        post(USER_ROLES + "/permissions/check")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(check)))
+                .andExpect(status().isOk());
+        statements
+                .perform(
+                        1,
+                        post(USER_ROLES + "/permissions/check")
+                                .accept(MediaType.APPLICATION_NDJSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(check)))
+                .andExpect(status().isOk());
+
+        statements
+                .perform(
+                        4,
+                        post(USER_ROLES + "/users/{userId}/roles", OTHER_USER_ID)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new GrantRoleRequest(roles.getFirst().getName(), GRANTED_BY, null))))
+                .andExpect(status().isOk());
+        statements
+                .perform(
+                        3,
+                        delete(
+                                USER_ROLES + "/users/{userId}/roles/{roleId}",
+                                OTHER_USER_ID,
+                                roles.getFirst().getId()))
+                .andExpect(status().isNoContent());
+
+        List<String> roleNames = roles.stream().limit(2).map(Role::getName).toList();
+        List<Long> userIds = List.of(OTHER_USER_ID, 125L, 126L);
+        statements
+                .perform(
+                        4,
+                        post(USER_ROLES + "/roles/bulk-assign")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(BulkRoleAssignmentRequest.builder()
+                                        .userIds(userIds)
+                                        .roleNames(roleNames)
+                                        .grantedBy(GRANTED_BY)
+                                        .build())))
+                .andExpect(status().isOk());
+        statements
+                .perform(
+                        3,
+                        post(USER_ROLES + "/roles/bulk-revoke")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(BulkRoleRevocationRequest.builder()
+                                        .userIds(userIds)
+                                        .roleNames(roleNames)
+                                        .build())))
+                .andExpect(status().isOk());
+        statements.perform(3, delete(USER_ROLES + "/users/{userId}", USER_ID)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    @DisplayName("Should have a statement budget for every endpoint")
+    void shouldBudgetEveryEndpoint() {
+        statements.assertEveryEndpointBudgeted();
+    }
+}
@@ -0,0 +1,97 @@
+package org.smauel.permissions.tracing;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.qameta.allure.Description;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.concurrency.RequestIdFilter;
+import org.smauel.observability.tracing.SpanCapture;
+import org.smauel.observability.tracing.SpanCaptureConfig;
+import org.smauel.permissions.model.Permission;
+import org.smauel.permissions.model.enums.Action;
+import org.smauel.permissions.model.enums.PermissionType;
+import org.smauel.permissions.repository.PermissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The tracing auto-configured by observability-common, wired into the service: traces of requests, kept whatever their
+ * duration and exported to memory
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(SpanCaptureConfig.class)
+@TestPropertySource(properties = {"observability.tracing.slow-threshold=PT0S", "observability.tracing.sample-rate=0"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Tracing")
+class TracingAT {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+    private static final String TRACEPARENT = "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private SpanCapture spanCapture;
+
+    private Permission permission;
+
+    @BeforeAll
+    void setUp() {
+        permission = permissionRepository.save(Permission.builder()
+                .name("TRACED_PERMISSION")
+                .description("Permission read by the tracing tests")
+                .type(PermissionType.RESOURCE)
+                .resource("traced")
+                .action(Action.READ)
+                .build());
+    }
+
+    @AfterAll
+    void tearDown() {
+        permissionRepository.delete(permission);
+    }
+
+    @BeforeEach
+    void clearTraces() {
+        spanCapture.reset();
+    }
+
+    @Test
+    @DisplayName("Should trace a request through its controller, service and SQL statements")
+    @Description("GET /api/v1/permissions/{id}")
+    void shouldTraceRequest() throws Exception {
+        String requestId = mockMvc.perform(
+                        get("/api/v1/permissions/{id}", permission.getId()).header("traceparent", TRACEPARENT))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(RequestIdFilter.HEADER);
+
+        List<SpanData> spans = spanCapture.awaitTrace(TRACE_ID, "http get /api/v1/permissions/{id}");
+        spanCapture.assertRequestTraced(
+                spans,
+                CALLER_SPAN_ID,
+                "/api/v1/permissions/{id}",
+                requestId,
+                "PermissionController.getPermissionById",
+                "PermissionService.getPermissionById",
+                "permissions");
+    }
+}
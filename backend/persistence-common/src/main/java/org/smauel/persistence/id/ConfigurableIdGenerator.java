@@ -0,0 +1,113 @@
+package org.smauel.persistence.id;
+
+import java.io.Serial;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+
+/**
+ * Hibernate id generator behind {@link GeneratedId}, delegating to a pooled-lo sequence or a
+ * {@link TimeOrderedIdGenerator} depending on the configured {@link IdStrategy}.
+ *
+ * <p>Configured through Hibernate properties, i.e. {@code spring.jpa.properties.persistence.id.*}:
+ *
+ * <ul>
+ *   <li>{@value #STRATEGY}: {@code sequence} (default) or {@code time-ordered}
+ *   <li>{@value #ALLOCATION_SIZE}: ids reserved per sequence call, defaults to {@value #DEFAULT_ALLOCATION_SIZE}
+ *   <li>{@value #NODE_ID}: this instance's node id, required for time-ordered ids, e.g. the StatefulSet pod index
+ * </ul>
+ */
+public class ConfigurableIdGenerator implements IdentifierGenerator {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final String STRATEGY = "persistence.id.strategy";
+    public static final String ALLOCATION_SIZE = "persistence.id.allocation-size";
+    public static final String NODE_ID = "persistence.id.node-id";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final IdStrategy strategy;
+    private final String sequenceName;
+    private final SequenceStyleGenerator sequence;
+    private final TimeOrderedIdGenerator timeOrdered;
+
+    public ConfigurableIdGenerator(GeneratedId config, Member member, GeneratorCreationContext context) {
+        Map<String, Object> settings = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings();
+        this.strategy = IdStrategy.from(settings.get(STRATEGY));
+        this.sequenceName = config.sequence();
+        if (strategy == IdStrategy.SEQUENCE) {
+            Properties parameters = new Properties();
+            parameters.put(SequenceStyleGenerator.SEQUENCE_PARAM, sequenceName);
+            parameters.put(
+                    OptimizableGenerator.INCREMENT_PARAM, setting(settings, ALLOCATION_SIZE, DEFAULT_ALLOCATION_SIZE));
+            parameters.put(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+            this.sequence = new SequenceStyleGenerator();
+            this.sequence.configure(context, parameters);
+            this.timeOrdered = null;
+        } else {
+            this.sequence = null;
+            this.timeOrdered = new TimeOrderedIdGenerator(nodeId(settings));
+        }
+    }
+
+    public IdStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * The sequence ids are allocated from
+     *
+     * @return The sequence name, or null if ids are not allocated from a sequence
+     */
+    public String getSequenceName() {
+        return strategy == IdStrategy.SEQUENCE ? sequenceName : null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return sequence != null ? sequence.generate(session, object) : timeOrdered.nextId();
+    }
+
+    @Override
+    public void registerExportables(Database database) {
+        if (sequence != null) {
+            sequence.registerExportables(database);
+        }
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        if (sequence != null) {
+            sequence.initialize(context);
+        }
+    }
+
+    private static int setting(Map<String, Object> settings, String name, int defaultValue) {
+        Object value = settings.get(name);
+        return value == null || value.toString().isBlank()
+                ? defaultValue
+                : Integer.parseInt(value.toString().trim());
+    }
+
+    private static int nodeId(Map<String, Object> settings) {
+        // A derived node id, e.g. from the host name, can collide between instances and silently duplicate ids
+        int nodeId = setting(settings, NODE_ID, -1);
+        if (nodeId == -1) {
+            throw new IllegalStateException(
+                    NODE_ID + " must be set to a node id unique to this instance, between 0 and "
+                            + TimeOrderedIdGenerator.MAX_NODE_ID + ", to generate time-ordered ids");
+        }
+        return nodeId;
+    }
+}
@@ -0,0 +1,23 @@
+package org.smauel.persistence.id;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generate the annotated id with the configured {@link IdStrategy}, ids are always assigned before the insert so
+ * Hibernate can batch inserts
+ */
+@IdGeneratorType(ConfigurableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedId {
+    /**
+     * The sequence ids are allocated from when using {@link IdStrategy#SEQUENCE}
+     *
+     * @return The sequence name
+     */
+    String sequence();
+}
@@ -0,0 +1,32 @@
+package org.smauel.persistence.id;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Aligns the sequences behind {@link GeneratedId} ids in every service that maps entities with JPA
+ */
+@AutoConfiguration(
+        afterName = {
+            "org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.jdbc.autoconfigure.JdbcTemplateAutoConfiguration"
+        })
+@ConditionalOnClass({EntityManagerFactory.class, JdbcTemplate.class})
+@ConditionalOnBean({EntityManagerFactory.class, JdbcTemplate.class, PlatformTransactionManager.class})
+public class IdAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    SequenceAligner sequenceAligner(
+            EntityManagerFactory entityManagerFactory,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        return new SequenceAligner(entityManagerFactory, jdbcTemplate, transactionManager);
+    }
+}
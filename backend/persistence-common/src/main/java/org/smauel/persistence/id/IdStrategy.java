@@ -0,0 +1,31 @@
+package org.smauel.persistence.id;
+
+import java.util.Locale;
+
+/**
+ * The ways entity ids can be generated, selected with the {@code persistence.id.strategy} Hibernate property
+ */
+public enum IdStrategy {
+    /**
+     * Allocate blocks of ids from a database sequence with the pooled-lo optimizer, one sequence call per block
+     */
+    SEQUENCE,
+
+    /**
+     * Generate time-ordered 64-bit ids in memory, unique across instances as long as each has its own node id
+     */
+    TIME_ORDERED;
+
+    /**
+     * Parse a strategy from a configuration value, ignoring case and treating dashes as underscores
+     *
+     * @param value The configured value, or null
+     * @return The strategy, {@link #SEQUENCE} if no value is configured
+     */
+    public static IdStrategy from(Object value) {
+        if (value == null || value.toString().isBlank()) {
+            return SEQUENCE;
+        }
+        return valueOf(value.toString().trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,116 @@
+package org.smauel.persistence.id;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves id sequences past the ids already in their tables, once per database.
+ *
+ * <p>Tables created before ids were allocated from sequences were populated by identity columns, so a newly created
+ * sequence would hand out ids that are already taken. On startup each sequence is aligned once, as a migration step
+ * recorded in the {@value #ALIGNMENTS_TABLE} table: the first instance to start claims the sequence by inserting its
+ * row, and aligns it in the same transaction, so instances starting together wait for it and then skip the sequence.
+ * A sequence is never restarted again once other instances may be allocating ids from it. Registered by
+ * {@link IdAutoConfiguration} in every service with an entity manager.
+ */
+@Slf4j
+public class SequenceAligner implements SmartInitializingSingleton {
+    /**
+     * The table recording the sequences that have been aligned
+     */
+    public static final String ALIGNMENTS_TABLE = "id_sequence_alignments";
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS " + ALIGNMENTS_TABLE
+            + " (sequence_name VARCHAR(255) PRIMARY KEY, aligned_at TIMESTAMP NOT NULL)";
+    private static final String CLAIM =
+            "INSERT INTO " + ALIGNMENTS_TABLE + " (sequence_name, aligned_at) VALUES (?, CURRENT_TIMESTAMP)";
+    private static final String ALIGNED = "SELECT COUNT(*) FROM " + ALIGNMENTS_TABLE + " WHERE sequence_name = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SequenceAligner(
+            EntityManagerFactory entityManagerFactory,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute(CREATE);
+        forEachSequence((dialect, sequence, table, idColumn) -> {
+            if (aligned(sequence)) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    jdbcTemplate.update(CLAIM, sequence);
+                } catch (DuplicateKeyException e) {
+                    // Another instance aligned the sequence first
+                    status.setRollbackOnly();
+                    return;
+                }
+                align(dialect, sequence, table, idColumn);
+            });
+        });
+    }
+
+    /**
+     * Align every sequence again, whether or not it was aligned before. Only for tools that bulk load rows with
+     * explicit ids into a database no service instance is allocating ids from.
+     */
+    public void realign() {
+        forEachSequence(this::align);
+    }
+
+    private boolean aligned(String sequence) {
+        Integer count = jdbcTemplate.queryForObject(ALIGNED, Integer.class, sequence);
+        return count != null && count > 0;
+    }
+
+    private void forEachSequence(SequenceVisitor visitor) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            if (descriptor.getGenerator() instanceof ConfigurableIdGenerator generator
+                    && generator.getSequenceName() != null
+                    && descriptor instanceof AbstractEntityPersister persister) {
+                visitor.visit(
+                        dialect,
+                        generator.getSequenceName(),
+                        persister.getTableName(),
+                        persister.getIdentifierColumnNames()[0]);
+            }
+        });
+    }
+
+    private void align(Dialect dialect, String sequence, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        if (next != null && next <= maxId) {
+            log.info("Restarting sequence {} at {} to follow the existing ids in {}", sequence, maxId + 1, table);
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+        }
+    }
+
+    @FunctionalInterface
+    private interface SequenceVisitor {
+        void visit(Dialect dialect, String sequence, String table, String idColumn);
+    }
+}
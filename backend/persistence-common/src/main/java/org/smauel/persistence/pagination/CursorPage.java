@@ -0,0 +1,32 @@
+package org.smauel.persistence.pagination;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single page of a keyset paginated list
+ *
+ * @param <T> The type of the items in the page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+
+    /**
+     * Opaque token to pass as the cursor to read the next page, null once the last page has been read
+     */
+    private String nextCursor;
+
+    /**
+     * Approximate number of rows in the whole list, only present when requested
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedTotal;
+}
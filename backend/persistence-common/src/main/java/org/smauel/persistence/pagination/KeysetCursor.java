@@ -0,0 +1,134 @@
+package org.smauel.persistence.pagination;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe continuation tokens.
+ *
+ * <p>A token records the sort key and direction it was issued for alongside the key values of the last row
+ * returned, so the next page can be read with an indexed range predicate instead of an offset.
+ */
+public final class KeysetCursor {
+    private static final String ID_PROPERTY = "id";
+    private static final byte VERSION = 1;
+    private static final byte LONG_VALUE = 'L';
+    private static final byte STRING_VALUE = 'S';
+
+    private KeysetCursor() {}
+
+    /**
+     * Resolve the scroll position a page should start from
+     *
+     * @param query The page query
+     * @return The initial position if no cursor was given, else the position encoded in the cursor
+     * @throws InvalidCursorException if the cursor is malformed or was issued for a different ordering
+     */
+    public static KeysetScrollPosition position(PageQuery<?> query) {
+        if (query.getCursor() == null || query.getCursor().isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        return decode(query.getCursor(), query.getSort(), query.getDirection());
+    }
+
+    /**
+     * Build the ordering for a page query, ties are broken by id so every ordering is total
+     *
+     * @param query The page query
+     * @return The sort to apply
+     */
+    public static Sort sort(PageQuery<?> query) {
+        Sort sort = Sort.by(query.getDirection(), query.getSort().getProperty());
+        return ID_PROPERTY.equals(query.getSort().getProperty())
+                ? sort
+                : sort.and(Sort.by(query.getDirection(), ID_PROPERTY));
+    }
+
+    /**
+     * Create the token for the page following the given window
+     *
+     * @param window The window that was just read
+     * @param query The page query the window was read for
+     * @return The continuation token, or null if there are no further rows
+     */
+    public static String next(Window<?> window, PageQuery<?> query) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return encode(query.getSort(), query.getDirection(), position.getKeys());
+    }
+
+    static String encode(SortKey sort, Sort.Direction direction, Map<String, ?> keys) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sort.name());
+            out.writeUTF(direction.name());
+            out.writeByte(keys.size());
+            for (Map.Entry<String, ?> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                switch (key.getValue()) {
+                    case Long value -> {
+                        out.writeByte(LONG_VALUE);
+                        out.writeLong(value);
+                    }
+                    case String value -> {
+                        out.writeByte(STRING_VALUE);
+                        out.writeUTF(value);
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported key value for " + key.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    static KeysetScrollPosition decode(String cursor, SortKey sort, Sort.Direction direction) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("Unsupported cursor version");
+            }
+            if (!sort.name().equals(in.readUTF()) || !direction.name().equals(in.readUTF())) {
+                throw new InvalidCursorException("Cursor was issued for a different sort order");
+            }
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                String property = in.readUTF();
+                Object value =
+                        switch (in.readByte()) {
+                            case LONG_VALUE -> in.readLong();
+                            case STRING_VALUE -> in.readUTF();
+                            default -> throw new InvalidCursorException("Malformed cursor");
+                        };
+                keys.put(property, value);
+            }
+            if (in.read() != -1) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!keys.keySet().equals(Set.copyOf(List.of(sort.getProperty(), ID_PROPERTY)))) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
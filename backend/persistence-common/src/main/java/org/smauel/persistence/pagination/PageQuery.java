@@ -0,0 +1,32 @@
+package org.smauel.persistence.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Parameters for reading a single page of a keyset paginated list
+ *
+ * @param <S> The sort keys supported by the list
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageQuery<S extends SortKey> {
+    private S sort;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    private int limit;
+
+    /**
+     * Opaque continuation token returned with the previous page, null for the first page
+     */
+    private String cursor;
+
+    private boolean includeTotal;
+}
@@ -0,0 +1,24 @@
+package org.smauel.persistence.pagination;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Registers the {@link TableStatisticsRepository} the paginated lists estimate their totals with in every service
+ * with a {@link JdbcTemplate}
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.jdbc.autoconfigure.JdbcTemplateAutoConfiguration")
+@ConditionalOnClass(JdbcTemplate.class)
+@ConditionalOnBean(JdbcTemplate.class)
+public class PaginationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    TableStatisticsRepository tableStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        return new TableStatisticsRepository(jdbcTemplate);
+    }
+}
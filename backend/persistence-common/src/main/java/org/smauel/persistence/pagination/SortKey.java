@@ -0,0 +1,20 @@
+package org.smauel.persistence.pagination;
+
+/**
+ * A column a list endpoint can be ordered by
+ */
+public interface SortKey {
+    /**
+     * The name of the sort key, as it is accepted by the API
+     *
+     * @return The sort key name
+     */
+    String name();
+
+    /**
+     * The entity property the sort key orders by
+     *
+     * @return The entity property name
+     */
+    String getProperty();
+}
@@ -0,0 +1,51 @@
+package org.smauel.persistence.pagination;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Cheap row count estimates for paginated list endpoints, registered by {@link PaginationAutoConfiguration}
+ */
+@RequiredArgsConstructor
+public class TableStatisticsRepository {
+    private static final String POSTGRES = "PostgreSQL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Estimate the number of rows in a table.
+     *
+     * <p>On PostgreSQL this reads the planner statistics rather than scanning the table, falling back to an exact
+     * count if the table has never been analysed. Other databases always use an exact count.
+     *
+     * @param table The name of the table, this must be a trusted identifier as it is not escaped
+     * @return The estimated number of rows
+     */
+    public long estimateRowCount(String table) {
+        if (isPostgres()) {
+            Long estimate = jdbcTemplate
+                    .queryForList(
+                            "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table)
+                    .stream()
+                    .findFirst()
+                    .orElse(-1L);
+            if (estimate >= 0) {
+                return estimate;
+            }
+        }
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private boolean isPostgres() {
+        Boolean isPostgres = postgres;
+        if (isPostgres == null) {
+            isPostgres = POSTGRES.equals(jdbcTemplate.execute((ConnectionCallback<String>)
+                    connection -> connection.getMetaData().getDatabaseProductName()));
+            postgres = isPostgres;
+        }
+        return isPostgres;
+    }
+}
@@ -0,0 +1,72 @@
+package org.smauel.persistence.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Time Ordered Id Generator")
+class TimeOrderedIdGeneratorTest {
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("Should encode the timestamp and node id in each id")
+    void shouldEncodeTimestampAndNode() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(42, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertThat(id).isPositive();
+        assertThat(TimeOrderedIdGenerator.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(TimeOrderedIdGenerator.nodeOf(id)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids within the same millisecond")
+    void shouldIncreaseWithinMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+        // More than 4096 ids in one millisecond borrow from the following milliseconds
+        assertThat(TimeOrderedIdGenerator.timestampOf(previous)).isEqualTo(Instant.ofEpochMilli(NOW + 2));
+        assertThat(TimeOrderedIdGenerator.nodeOf(previous)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep increasing when the clock steps backwards")
+    void shouldIncreaseWhenClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 1_000);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Should order ids from different nodes by time first")
+    void shouldOrderAcrossNodesByTime() {
+        long earlier = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID, () -> NOW).nextId();
+        long later = new TimeOrderedIdGenerator(0, () -> NOW + 1).nextId();
+
+        assertThat(later).isGreaterThan(earlier);
+        assertThat(new TimeOrderedIdGenerator(2, () -> NOW).nextId())
+                .isNotEqualTo(new TimeOrderedIdGenerator(3, () -> NOW).nextId());
+    }
+
+    @Test
+    @DisplayName("Should reject node ids that do not fit in 10 bits")
+    void shouldRejectInvalidNodeIds() {
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
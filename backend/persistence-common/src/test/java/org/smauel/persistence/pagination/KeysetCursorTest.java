@@ -0,0 +1,77 @@
+package org.smauel.persistence.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+@DisplayName("Keyset Cursor")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should round trip the key values of a position")
+    void shouldRoundTripKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", "jane|doe=é");
+        keys.put("id", 42L);
+
+        String cursor = KeysetCursor.encode(TestSortKey.USERNAME, Sort.Direction.DESC, keys);
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, TestSortKey.USERNAME, Sort.Direction.DESC);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(position.getKeys()).isEqualTo(keys);
+        assertThat(position.scrollsForward()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different sort key")
+    void shouldRejectDifferentSortKey() {
+        String cursor = KeysetCursor.encode(TestSortKey.ID, Sort.Direction.ASC, Map.of("id", 1L));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, TestSortKey.USERNAME, Sort.Direction.ASC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for a different direction")
+    void shouldRejectDifferentDirection() {
+        String cursor = KeysetCursor.encode(TestSortKey.ID, Sort.Direction.ASC, Map.of("id", 1L));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, TestSortKey.ID, Sort.Direction.DESC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor with keys other than the sort key and id")
+    void shouldRejectUnexpectedKeys() {
+        String cursor = KeysetCursor.encode(TestSortKey.ID, Sort.Direction.ASC, Map.of("email", "a@b.c"));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, TestSortKey.ID, Sort.Direction.ASC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void shouldRejectMalformedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor", TestSortKey.ID, Sort.Direction.ASC))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("AQ", TestSortKey.ID, Sort.Direction.ASC))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private enum TestSortKey implements SortKey {
+        ID("id"),
+        USERNAME("username");
+
+        private final String property;
+    }
+}
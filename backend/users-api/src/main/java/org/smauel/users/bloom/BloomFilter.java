@@ -0,0 +1,69 @@
+package org.smauel.users.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, thread safe Bloom filter over pre-computed 64-bit hashes, one slice of a {@link ScalableBloomFilter}.
+ *
+ * <p>Bit positions are derived from two hashes by double hashing, so adding or probing an element never allocates.
+ */
+final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Create a filter sized to hold {@code capacity} elements at the given false positive rate
+     */
+    BloomFilter(long capacity, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.words = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) >>> 6));
+        this.bits = words.length() * 64L;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / capacity * LN2));
+        this.capacity = capacity;
+    }
+
+    void add(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isFull() {
+        return count.get() >= capacity;
+    }
+
+    long count() {
+        return count.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long bitSize() {
+        return bits;
+    }
+}
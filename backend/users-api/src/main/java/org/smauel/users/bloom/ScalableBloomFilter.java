@@ -0,0 +1,137 @@
+package org.smauel.users.bloom;
+
+import java.util.Arrays;
+
+/**
+ * Thread safe Bloom filter of strings that grows with the number of elements added.
+ *
+ * <p>Elements are added to the newest of a series of {@link BloomFilter} slices; once it is full a new slice with
+ * {@value #GROWTH} times the capacity and half the false positive rate is appended. The false positive rates of the
+ * slices form a geometric series, so the filter as a whole stays below the configured rate however many slices it
+ * grows (Almeida et al., "Scalable Bloom Filters"). Probes never allocate and answer either "definitely absent" or
+ * "possibly present"; elements can never be removed.
+ */
+public final class ScalableBloomFilter {
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final double falsePositiveRate;
+    private volatile BloomFilter[] slices;
+
+    /**
+     * Create a filter
+     *
+     * @param initialCapacity The number of elements the first slice holds
+     * @param falsePositiveRate The upper bound on the false positive rate of the whole filter
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter parameters: capacity " + initialCapacity
+                    + ", false positive rate " + falsePositiveRate);
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.slices = new BloomFilter[] {new BloomFilter(initialCapacity, sliceFalsePositiveRate(0))};
+    }
+
+    /**
+     * Add an element
+     *
+     * @param value The element to add
+     */
+    public void add(CharSequence value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        BloomFilter[] current = slices;
+        if (contains(current, hash1, hash2)) {
+            return;
+        }
+        BloomFilter last = current[current.length - 1];
+        if (last.isFull()) {
+            last = grow(current);
+        }
+        last.add(hash1, hash2);
+    }
+
+    /**
+     * Probe for an element
+     *
+     * @param value The element to look for
+     * @return false if the element was definitely never added, true if it possibly was
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash1 = hash(value);
+        return contains(slices, hash1, mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1);
+    }
+
+    /**
+     * @return The approximate number of distinct elements added
+     */
+    public long approximateSize() {
+        long size = 0;
+        for (BloomFilter slice : slices) {
+            size += slice.count();
+        }
+        return size;
+    }
+
+    /**
+     * @return The total number of bits across all slices
+     */
+    public long bitSize() {
+        long bits = 0;
+        for (BloomFilter slice : slices) {
+            bits += slice.bitSize();
+        }
+        return bits;
+    }
+
+    int sliceCount() {
+        return slices.length;
+    }
+
+    private synchronized BloomFilter grow(BloomFilter[] seen) {
+        BloomFilter[] current = slices;
+        if (current != seen && !current[current.length - 1].isFull()) {
+            // Another thread grew the filter first
+            return current[current.length - 1];
+        }
+        BloomFilter last = current[current.length - 1];
+        BloomFilter next = new BloomFilter(last.capacity() * GROWTH, sliceFalsePositiveRate(current.length));
+        BloomFilter[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        slices = grown;
+        return next;
+    }
+
+    private double sliceFalsePositiveRate(int slice) {
+        return falsePositiveRate * (1 - TIGHTENING) * Math.pow(TIGHTENING, slice);
+    }
+
+    private static boolean contains(BloomFilter[] slices, long hash1, long hash2) {
+        for (BloomFilter slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long hash(CharSequence value) {
+        // FNV-1a over the UTF-16 code units, finished with a strong mix so low bits are usable
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
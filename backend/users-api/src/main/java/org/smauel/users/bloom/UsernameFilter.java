@@ -0,0 +1,148 @@
+package org.smauel.users.bloom;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.users.config.UsernameFilterProperties;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bloom filter of every taken username, used to answer availability checks of usernames that are free without the db.
+ *
+ * <p>The filter is built once the application is ready by streaming all usernames from the db. Until then, or when it
+ * is disabled, every username is reported as possibly taken so callers fall back to the db. New usernames are added
+ * before they are written, so a username created through this instance is never reported as definitely absent; a
+ * rolled back create only leaves behind a false positive.
+ *
+ * <p>Usernames created by other instances or written to the db directly are only seen once the filter is rebuilt,
+ * which happens every {@code users.username-filter.rebuild-interval}. Rebuilding also drops deleted usernames, which
+ * cannot be removed from a Bloom filter. Usernames added while a rebuild is streaming are written to both filters, and
+ * usernames whose transaction was still running when the rebuild started are replayed into the new filter, so a
+ * create that commits after the rebuild started reading is not lost.
+ */
+@Slf4j
+@Component
+public class UsernameFilter implements MeterBinder {
+    private final UserRepository userRepository;
+    private final UsernameFilterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> uncommitted = ConcurrentHashMap.newKeySet();
+    private final Object rebuildLock = new Object();
+    private volatile ScalableBloomFilter current;
+    private volatile ScalableBloomFilter pending;
+
+    public UsernameFilter(
+            UserRepository userRepository,
+            UsernameFilterProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.username.filter.size", this, filter -> filter.size(ScalableBloomFilter::approximateSize))
+                .description("The approximate number of usernames in the filter")
+                .register(registry);
+        Gauge.builder("users.username.filter.bits", this, filter -> filter.size(ScalableBloomFilter::bitSize))
+                .description("The size of the filter in bits")
+                .baseUnit("bits")
+                .register(registry);
+    }
+
+    /**
+     * Check whether a username may be taken
+     *
+     * @param username The username to check
+     * @return false if no user has the username, true if one possibly does
+     */
+    public boolean mightContain(String username) {
+        ScalableBloomFilter filter = current;
+        return filter == null || !properties.isEnabled() || filter.mightContain(username);
+    }
+
+    /**
+     * Record a username that is about to be taken, must be called before the user is written
+     *
+     * @param username The new username
+     */
+    public void add(String username) {
+        // Recorded first, so a rebuild that has not yet published its pending filter will replay it
+        if (TransactionSynchronizationManager.isSynchronizationActive() && uncommitted.add(username)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    uncommitted.remove(username);
+                }
+            });
+        }
+        // Pending is read before current: a rebuild publishes current before clearing pending, so no pending filter
+        // means either the rebuild has yet to snapshot the uncommitted usernames or current is already its filter
+        ScalableBloomFilter next = pending;
+        ScalableBloomFilter filter = current;
+        if (next != null) {
+            next.add(username);
+        }
+        if (filter != null) {
+            filter.add(username);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${users.username-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${users.username-filter.rebuild-interval:PT1H}")
+    void onRebuildInterval() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the filter from the usernames in the db
+     */
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            ScalableBloomFilter next =
+                    new ScalableBloomFilter(properties.getInitialCapacity(), properties.getFalsePositiveRate());
+            pending = next;
+            List<String> inFlight = new ArrayList<>(uncommitted);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    usernames.forEach(next::add);
+                }
+            });
+            inFlight.forEach(next::add);
+            current = next;
+            pending = null;
+            log.info("Built username filter of {} usernames in {} bits", next.approximateSize(), next.bitSize());
+        }
+    }
+
+    private double size(ToLongFunction<ScalableBloomFilter> measure) {
+        ScalableBloomFilter filter = current;
+        return filter == null ? 0 : measure.applyAsLong(filter);
+    }
+}
@@ -0,0 +1,148 @@
+package org.smauel.users.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.smauel.users.config.UserCacheProperties;
+import org.smauel.users.dto.UserDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded read-through cache of users, looked up by id or username.
+ *
+ * <p>Users are held once, keyed by id, and weighed by the approximate size of their fields. A separate index maps
+ * usernames to ids; a username hit is only served if the cached user still has that username, so the two keys can
+ * never disagree even though they are evicted independently. Lookups that hit allocate nothing.
+ *
+ * <p>Changes invalidate the cached user once their transaction commits. Each invalidation also advances a version
+ * number, and a user loaded while an invalidation happened is discarded rather than cached, so a read that raced with
+ * a write can never leave the old user behind.
+ */
+@Component
+public class UserCache {
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final UserCacheProperties properties;
+    private final Cache<Long, UserDto> usersById;
+    private final Cache<String, Long> idsByUsername;
+    private final AtomicLong version = new AtomicLong();
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.usersById = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((Long id, UserDto user) -> weigh(user))
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight())
+                .weigher((String username, Long id) -> ENTRY_OVERHEAD + 2 * username.length())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "usernames");
+    }
+
+    /**
+     * Look up a cached user by id
+     *
+     * @param id The id of the user
+     * @return The cached user, or null on a miss or when caching is disabled
+     */
+    public UserDto getById(Long id) {
+        return properties.isEnabled() ? usersById.getIfPresent(id) : null;
+    }
+
+    /**
+     * Look up a cached user by username
+     *
+     * @param username The username of the user
+     * @return The cached user, or null on a miss or when caching is disabled
+     */
+    public UserDto getByUsername(String username) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Long id = idsByUsername.getIfPresent(username);
+        if (id == null) {
+            return null;
+        }
+        UserDto user = usersById.getIfPresent(id);
+        return user != null && username.equals(user.getUsername()) ? user : null;
+    }
+
+    /**
+     * The current version, to be read before loading a user that is then passed to {@link #put(UserDto, long)}
+     *
+     * @return The number of invalidations so far
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Cache a user loaded from the database, unless it was invalidated while it was being loaded
+     *
+     * @param user The loaded user
+     * @param loadedAt The {@link #version()} read before the user was loaded
+     */
+    public void put(UserDto user, long loadedAt) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        usersById.put(user.getId(), user);
+        idsByUsername.put(user.getUsername(), user.getId());
+        if (version.get() != loadedAt) {
+            usersById.invalidate(user.getId());
+        }
+    }
+
+    /**
+     * Invalidate a user once the current transaction commits, or immediately outside a transaction
+     *
+     * @param id The id of the changed user
+     */
+    public void invalidate(Long id) {
+        invalidateAll(List.of(id));
+    }
+
+    /**
+     * Invalidate users once the current transaction commits, or immediately outside a transaction
+     *
+     * @param ids The ids of the changed users
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ids);
+                }
+            });
+        } else {
+            evict(ids);
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        // The version must move before the entries go, see put
+        version.incrementAndGet();
+        usersById.invalidateAll(ids);
+    }
+
+    private static int weigh(UserDto user) {
+        return ENTRY_OVERHEAD + 2 * (length(user.getUsername()) + length(user.getFullName()) + length(user.getEmail()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
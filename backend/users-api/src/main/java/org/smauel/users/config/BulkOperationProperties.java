@@ -0,0 +1,26 @@
+package org.smauel.users.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the bulk user operations and lookup endpoints
+ */
+@Data
+@ConfigurationProperties(prefix = "users.bulk")
+public class BulkOperationProperties {
+    /**
+     * Number of operations applied per transaction and JDBC batch
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Longest NDJSON line accepted, in bytes, longer lines are rejected without being buffered
+     */
+    private int maxLineLength = 64 * 1024;
+
+    /**
+     * Number of ids or usernames bound to a single {@code IN} query when looking up many users
+     */
+    private int lookupChunkSize = 500;
+}
@@ -0,0 +1,27 @@
+package org.smauel.users.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the in-process cache of users read by id and username
+ */
+@Data
+@ConfigurationProperties(prefix = "users.cache")
+public class UserCacheProperties {
+    /**
+     * Whether single user lookups are cached
+     */
+    private boolean enabled = true;
+
+    /**
+     * Approximate number of bytes of cached users, the username index is bounded separately by the same amount
+     */
+    private long maximumWeight = 32L * 1024 * 1024;
+
+    /**
+     * How long a user may be cached, as a safety net for changes made outside the service
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
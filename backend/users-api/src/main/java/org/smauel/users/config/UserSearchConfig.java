@@ -0,0 +1,8 @@
+package org.smauel.users.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserSearchProperties.class)
+public class UserSearchConfig {}
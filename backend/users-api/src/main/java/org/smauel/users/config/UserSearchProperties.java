@@ -0,0 +1,17 @@
+package org.smauel.users.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the in-memory user search index
+ */
+@Data
+@ConfigurationProperties(prefix = "users.search")
+public class UserSearchProperties {
+    /**
+     * The maximum number of best ranked users a query serves across its pages, bounding the cost of ranking very short
+     * or very common queries
+     */
+    private int maxCandidates = 10_000;
+}
@@ -0,0 +1,10 @@
+package org.smauel.users.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(UsernameFilterProperties.class)
+public class UsernameFilterConfig {}
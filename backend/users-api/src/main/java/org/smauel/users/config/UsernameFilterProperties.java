@@ -0,0 +1,32 @@
+package org.smauel.users.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the in-memory Bloom filter of taken usernames
+ */
+@Data
+@ConfigurationProperties(prefix = "users.username-filter")
+public class UsernameFilterProperties {
+    /**
+     * Whether availability checks consult the filter before the db
+     */
+    private boolean enabled = true;
+
+    /**
+     * The number of usernames the filter is sized for before it first grows
+     */
+    private long initialCapacity = 100_000;
+
+    /**
+     * The upper bound on the rate of taken answers for usernames that are actually free
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often the filter is rebuilt from the db
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
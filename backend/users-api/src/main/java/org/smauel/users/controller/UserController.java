@@ -1,13 +1,37 @@
 package org.smauel.users.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.users.dto.BulkOperationResult;
 import org.smauel.users.dto.UserDto;
+import org.smauel.users.dto.UserLookupResult;
+import org.smauel.users.dto.UsernameAvailabilityDto;
 import org.smauel.users.dto.request.CreateUserRequest;
 import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.dto.request.UserLookupRequest;
+import org.smauel.users.pagination.UserSortKey;
+import org.smauel.users.service.UserBulkService;
+import org.smauel.users.service.UserExportService;
+import org.smauel.users.service.UserSearchService;
 import org.smauel.users.service.UserService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,8 +40,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 /**
  * API for user management
@@ -27,7 +55,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 @Validated
 public class UserController {
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserBulkService userBulkService;
+    private final UserSearchService userSearchService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new user
@@ -78,25 +112,156 @@ public class UserController {
      */
     @GetMapping("/username/{username}")
     public ResponseEntity<UserDto> getUserByUsername(@PathVariable String username) {
-        try {
-            UserDto user = userService.getUserByUsername(username);
-            return ResponseEntity.ok(user);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        return userService
+                .findUserByUsername(username)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
-     * Return all users
+     * Look up many users by id and username in one request
+     *
+     * @param request Up to 1000 ids and 1000 usernames
+     * @return The user for each id and username in request order, null where there is none, and the keys no user has
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<UserLookupResult> lookupUsers(@Valid @RequestBody UserLookupRequest request) {
+        return ResponseEntity.ok(userService.lookupUsers(request));
+    }
+
+    /**
+     * Check whether a username is available for a new user
+     *
+     * @param username The username to check
+     * @return The availability of the username
+     */
+    @GetMapping("/username/{username}/availability")
+    public ResponseEntity<UsernameAvailabilityDto> checkUsernameAvailability(@PathVariable String username) {
+        return ResponseEntity.ok(userService.checkUsernameAvailability(username));
+    }
+
+    /**
+     * Return every user in a single unordered list, for clients that opt in with {@code unpaged=true}
      *
      * @return All users
      */
-    @GetMapping
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<UserDto>> getAllUsers() {
         List<UserDto> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Return a page of users, ordered by the given sort key with ties broken by id
+     *
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The maximum number of users to return
+     * @param sort The key to order users by
+     * @param direction The direction to order users in
+     * @param includeTotal Whether to include an estimate of the total number of users
+     * @return The page of users, with the cursor for the next page if there is one
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<UserDto>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(defaultValue = "ID") UserSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPage<UserDto> page = userService.getUsers(PageQuery.<UserSortKey>builder()
+                .sort(sort)
+                .direction(direction)
+                .limit(limit)
+                .cursor(cursor)
+                .includeTotal(includeTotal)
+                .build());
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Search users by username, full name and email, best matches first. Every term of the query must match the start
+     * of a word in one of the fields, or when fuzzy matching is on be within one or two typos of a whole word.
+     *
+     * @param q The search terms, separated by whitespace
+     * @param fuzzy Whether to tolerate typos
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The maximum number of users to return
+     * @return The page of matching users, with the cursor for the next page if there is one
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<UserDto>> searchUsers(
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @RequestParam(defaultValue = "true") boolean fuzzy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(userSearchService.search(q, fuzzy, cursor, limit));
+    }
+
+    /**
+     * Export users as newline delimited JSON in id order, streamed from a consistent snapshot of the table. An
+     * interrupted export can be resumed by passing the id of the last user received.
+     *
+     * @param afterId Only export users with an id greater than this
+     * @param acceptEncoding The accepted encodings, the export is gzip compressed if gzip is accepted with a non-zero
+     *     q-value
+     * @return The streamed export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = responseStream -> {
+            try (OutputStream out = gzip
+                    ? new GZIPOutputStream(responseStream, EXPORT_BUFFER_SIZE)
+                    : new BufferedOutputStream(responseStream, EXPORT_BUFFER_SIZE)) {
+                userExportService.exportUsers(afterId, user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(user));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Apply a stream of create, update and delete operations in batches, reporting the outcome of each line as it is
+     * applied
+     *
+     * @param operations The operations as newline delimited JSON, one {@link
+     *     org.smauel.users.dto.request.BulkUserOperation} per line
+     * @return The {@link BulkOperationResult} of every line as newline delimited JSON
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkUsers(InputStream operations) {
+        StreamingResponseBody body = responseStream -> {
+            try (OutputStream out = new BufferedOutputStream(responseStream)) {
+                userBulkService.applyOperations(operations, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Delete a user
      *
@@ -108,4 +273,37 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Whether an {@code Accept-Encoding} header accepts gzip, named or through {@code *}, with a q-value above zero
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality;
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
 }
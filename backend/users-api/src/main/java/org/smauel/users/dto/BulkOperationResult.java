@@ -0,0 +1,44 @@
+package org.smauel.users.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.smauel.users.dto.request.BulkUserOperation;
+
+/**
+ * The outcome of a single line of a bulk user operations request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationResult {
+    /**
+     * The 1-based line number of the operation in the request
+     */
+    private long line;
+
+    private BulkUserOperation.Type op;
+
+    private Status status;
+
+    /**
+     * Id of the created, updated or deleted user
+     */
+    private Long id;
+
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID,
+        FAILED
+    }
+}
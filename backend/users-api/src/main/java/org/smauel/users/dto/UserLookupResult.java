@@ -0,0 +1,36 @@
+package org.smauel.users.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The users found for a {@link org.smauel.users.dto.request.UserLookupRequest}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupResult {
+    /**
+     * The user for each requested id, in request order, with null where no user has the id
+     */
+    private List<UserDto> byId;
+
+    /**
+     * The user for each requested username, in request order, with null where no user has the username
+     */
+    private List<UserDto> byUsername;
+
+    /**
+     * The distinct requested ids no user has, in request order
+     */
+    private List<Long> missingIds;
+
+    /**
+     * The distinct requested usernames no user has, in request order
+     */
+    private List<String> missingUsernames;
+}
@@ -0,0 +1,18 @@
+package org.smauel.users.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether a username can be used for a new user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameAvailabilityDto {
+    private String username;
+    private boolean available;
+}
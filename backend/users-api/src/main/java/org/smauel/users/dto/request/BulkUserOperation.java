@@ -0,0 +1,34 @@
+package org.smauel.users.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single line of a bulk user operations request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserOperation {
+    private Type op;
+
+    /**
+     * Id of the user to update or delete
+     */
+    private Long id;
+
+    private String username;
+
+    private String fullName;
+
+    private String email;
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+}
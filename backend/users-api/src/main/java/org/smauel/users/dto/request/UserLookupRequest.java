@@ -0,0 +1,30 @@
+package org.smauel.users.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for looking up many users by id and username at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupRequest {
+    @Size(max = 1000, message = "At most 1000 ids can be looked up at once") private List<@NotNull Long> ids;
+
+    @Size(max = 1000, message = "At most 1000 usernames can be looked up at once") private List<@NotBlank String> usernames;
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one of ids or usernames is required") public boolean isLookupRequested() {
+        return (ids != null && !ids.isEmpty()) || (usernames != null && !usernames.isEmpty());
+    }
+}
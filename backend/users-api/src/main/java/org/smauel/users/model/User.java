@@ -2,8 +2,6 @@ package org.smauel.users.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
@@ -12,6 +10,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.smauel.persistence.id.GeneratedId;
 
 /**
  * Model representing the User
@@ -24,7 +23,7 @@ import lombok.NoArgsConstructor;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedId(sequence = "users_seq")
     private Long id;
 
     @NotBlank(message = "Username is required") @Column(nullable = false, unique = true)
@@ -0,0 +1,17 @@
+package org.smauel.users.pagination;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.SortKey;
+
+/**
+ * Orderings supported when listing users, each backed by a unique index
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserSortKey implements SortKey {
+    ID("id"),
+    USERNAME("username");
+
+    private final String property;
+}
@@ -0,0 +1,148 @@
+package org.smauel.users.repository;
+
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.postgresql.PGConnection;
+import org.smauel.users.model.User;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set based writes for the bulk user operations endpoint, bypassing the persistence context entirely. Must be called
+ * within a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBulkRepository {
+    private static final String COPY_USERS = "COPY users (id, username, full_name, email) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_USER = "INSERT INTO users (id, username, full_name, email) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_USER =
+            "UPDATE users SET full_name = COALESCE(?, full_name), email = COALESCE(?, email) WHERE id = ?";
+    private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Find which of the given usernames are already taken
+     *
+     * @param usernames The usernames to look up
+     * @return The usernames that exist
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username IN (:usernames)",
+                Map.of("usernames", usernames),
+                String.class));
+    }
+
+    /**
+     * Insert users, streaming them with COPY on PostgreSQL and a JDBC batch elsewhere
+     *
+     * @param users The users to insert, each is assigned an id from the entity's id generator
+     */
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(User.class)
+                .getGenerator();
+        users.forEach(user -> user.setId((Long) generator.generate(session, user, null, EventType.INSERT)));
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), users);
+            } else {
+                jdbcTemplate.batchUpdate(
+                        INSERT_USER,
+                        users.stream()
+                                .map(user -> new Object[] {
+                                    user.getId(), user.getUsername(), user.getFullName(), user.getEmail()
+                                })
+                                .toList());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Update the full name and email of users, leaving null values unchanged
+     *
+     * @param users The users to update, identified by id
+     * @return The ids of the users that were updated
+     */
+    public Set<Long> updateAll(List<User> users) {
+        int[] counts = jdbcTemplate.batchUpdate(
+                UPDATE_USER,
+                users.stream()
+                        .map(user -> new Object[] {user.getFullName(), user.getEmail(), user.getId()})
+                        .toList());
+        return affected(users.stream().map(User::getId).toList(), counts);
+    }
+
+    /**
+     * Delete users by id
+     *
+     * @param ids The ids of the users to delete
+     * @return The ids of the users that were deleted
+     */
+    public Set<Long> deleteAll(List<Long> ids) {
+        int[] counts = jdbcTemplate.batchUpdate(
+                DELETE_USER, ids.stream().map(id -> new Object[] {id}).toList());
+        return affected(ids, counts);
+    }
+
+    private static Set<Long> affected(List<Long> ids, int[] counts) {
+        Set<Long> affected = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            // Some drivers only report that a batched statement succeeded, not how many rows it changed
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                affected.add(ids.get(i));
+            }
+        }
+        return affected;
+    }
+
+    private static void copy(PGConnection connection, List<User> users) throws SQLException {
+        StringBuilder csv = new StringBuilder(users.size() * 64);
+        for (User user : users) {
+            csv.append(user.getId()).append(',');
+            appendCsv(csv, user.getUsername()).append(',');
+            appendCsv(csv, user.getFullName()).append(',');
+            appendCsv(csv, user.getEmail()).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_USERS, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Failed to copy users", e);
+        }
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, String value) {
+        // An unquoted empty field is NULL in COPY's csv format, so every non-null value is quoted
+        if (value != null) {
+            csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+        return csv;
+    }
+}
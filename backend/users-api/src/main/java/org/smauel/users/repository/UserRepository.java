@@ -1,8 +1,19 @@
 package org.smauel.users.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.smauel.users.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Repository methods for interacting with the db
@@ -15,4 +26,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return A user, if found, else an empty optional
      */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Check whether a user with the given username exists
+     *
+     * @param username The username to look for
+     * @return true if a user has the username
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * Retrieve the users with any of the given usernames
+     *
+     * @param usernames The usernames to look for
+     * @return The users found, in no particular order
+     */
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    /**
+     * Retrieve a window of users after the given keyset position
+     *
+     * @param position The keyset position to continue from
+     * @param sort The ordering of the users
+     * @param limit The maximum number of users to return
+     * @return The users in the window and the position to continue from
+     */
+    Window<User> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Stream users in id order, fetching rows from the db in batches rather than loading them all up front. Must be
+     * consumed and closed within a transaction.
+     *
+     * @param afterId Only users with an id greater than this are returned
+     * @return A stream of users ordered by id
+     */
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamByIdGreaterThan(Long afterId);
+
+    /**
+     * Stream the username of every user, fetching rows from the db in batches. Must be consumed and closed within a
+     * transaction.
+     *
+     * @return A stream of all usernames, in no particular order
+     */
+    @Query("SELECT u.username FROM User u")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000")})
+    Stream<String> streamAllUsernames();
 }
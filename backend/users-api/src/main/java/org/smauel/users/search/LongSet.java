@@ -0,0 +1,122 @@
+package org.smauel.users.search;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Open addressing hash set of positive longs, used for posting lists so millions of ids are not boxed.
+ *
+ * <p>Not thread safe, guarded by the lock of the owning {@link UserSearchIndex}.
+ */
+final class LongSet {
+    private static final long EMPTY = 0;
+
+    private long[] table = new long[4];
+    private int size;
+
+    /**
+     * Add a value
+     *
+     * @param value The value to add, must be positive
+     * @return true if the value was not already present
+     */
+    boolean add(long value) {
+        if (value <= EMPTY) {
+            throw new IllegalArgumentException("Value must be positive: " + value);
+        }
+        if ((size + 1) * 4 > table.length * 3) {
+            resize(table.length * 2);
+        }
+        int mask = table.length - 1;
+        for (int i = slot(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return false;
+            }
+            if (table[i] == EMPTY) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove a value
+     *
+     * @param value The value to remove
+     * @return true if the value was present
+     */
+    boolean remove(long value) {
+        int mask = table.length - 1;
+        int i = slot(value, mask);
+        while (table[i] != value) {
+            if (table[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // Backward shift deletion, so lookups never need tombstones
+        for (int j = (i + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(table[j], mask);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = EMPTY;
+        size--;
+        return true;
+    }
+
+    boolean contains(long value) {
+        int mask = table.length - 1;
+        for (int i = slot(value, mask); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visit values, in no particular order, until the visitor returns false
+     *
+     * @param visitor Called with each value, returns whether to continue
+     * @return false if the visitor stopped early
+     */
+    boolean forEachWhile(LongPredicate visitor) {
+        for (long value : table) {
+            if (value != EMPTY && !visitor.test(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long value : old) {
+            if (value != EMPTY) {
+                int i = slot(value, mask);
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    private static int slot(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
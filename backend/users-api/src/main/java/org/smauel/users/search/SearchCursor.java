@@ -0,0 +1,70 @@
+package org.smauel.users.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import org.smauel.persistence.pagination.InvalidCursorException;
+
+/**
+ * Encodes the position in a ranked search as an opaque, URL-safe continuation token.
+ *
+ * <p>A token records the score and id of the last hit returned, which is where the next page continues from in the
+ * ranking, and a fingerprint of the query it was issued for so it cannot be replayed against another query.
+ *
+ * @param score The score of the last hit returned
+ * @param id The id of the last user returned
+ */
+public record SearchCursor(double score, long id) {
+    private static final byte VERSION = 1;
+
+    /**
+     * Create the token continuing after the given hit
+     *
+     * @param hit The last hit of the page
+     * @param fingerprint The fingerprint of the query the page was read for
+     * @return The continuation token
+     */
+    public static String encode(UserSearchIndex.Hit hit, int fingerprint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(fingerprint);
+            out.writeDouble(hit.score());
+            out.writeLong(hit.user().getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Read a continuation token
+     *
+     * @param cursor The token
+     * @param fingerprint The fingerprint of the query being read
+     * @return The position the token continues from
+     * @throws InvalidCursorException if the token is malformed or was issued for a different query
+     */
+    public static SearchCursor decode(String cursor, int fingerprint) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("Unsupported cursor version");
+            }
+            if (in.readInt() != fingerprint) {
+                throw new InvalidCursorException("Cursor was issued for a different query");
+            }
+            SearchCursor position = new SearchCursor(in.readDouble(), in.readLong());
+            if (in.read() != -1) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return position;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
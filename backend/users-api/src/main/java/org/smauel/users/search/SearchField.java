@@ -0,0 +1,20 @@
+package org.smauel.users.search;
+
+/**
+ * The user fields that are searched, with the weight a match in each contributes to the score
+ */
+enum SearchField {
+    USERNAME(3),
+    FULL_NAME(2),
+    EMAIL(1);
+
+    private final double weight;
+
+    SearchField(double weight) {
+        this.weight = weight;
+    }
+
+    double weight() {
+        return weight;
+    }
+}
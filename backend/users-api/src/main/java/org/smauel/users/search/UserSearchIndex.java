@@ -0,0 +1,426 @@
+package org.smauel.users.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.smauel.users.dto.UserDto;
+
+/**
+ * In-memory inverted index of users for ranked prefix and typo tolerant search.
+ *
+ * <p>Usernames, full names and emails are split into lower case terms held in a sorted term dictionary, each term
+ * mapping to the ids of the users it appears in, per field. A query term matches dictionary terms it equals, is a prefix
+ * of, or is within a small edit distance of. Prefix matches are a range scan of the dictionary; typo tolerant matches
+ * walk the dictionary in order computing the Damerau-Levenshtein distance incrementally, reusing the rows for the
+ * prefix shared with the previous term and skipping every term under a prefix that is already too distant, which makes
+ * the sorted dictionary behave as a trie.
+ *
+ * <p>Email domains are not indexed as terms of their own, so the posting lists of common domains do not grow to the size
+ * of the whole table; the full address is indexed, so emails can still be searched by prefix.
+ *
+ * <p>Query terms are matched most selective first, the one whose prefix matches appear in the fewest postings, and each
+ * later term only scores the users the earlier terms matched, so a common term costs no more than the rarest term of
+ * the query. Only the best ranked {@code maxCandidates} users of the intersection are served, across every page.
+ *
+ * <p>Thread safe: searches share a read lock, changes to single users take the write lock.
+ */
+public final class UserSearchIndex {
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final SearchField[] FIELDS = SearchField.values();
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble((Hit hit) -> -hit.score())
+            .thenComparingLong(hit -> hit.user().getId());
+
+    private final int maxCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserDto> users = new HashMap<>();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+
+    /**
+     * Create an empty index
+     *
+     * @param maxCandidates The maximum number of best ranked users a query serves across its pages, bounding the cost
+     *     of ranking very short or very common queries
+     */
+    public UserSearchIndex(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * A user matching a query, and how well it matches
+     *
+     * @param user The matching user
+     * @param score The relevance of the match, higher is better
+     */
+    public record Hit(UserDto user, double score) {}
+
+    /**
+     * Add a user, or replace the indexed version of an existing user
+     *
+     * @param user The user to index
+     */
+    public void put(UserDto user) {
+        lock.writeLock().lock();
+        try {
+            UserDto previous = users.put(user.getId(), user);
+            if (previous != null) {
+                forEachTerm(previous, (term, field) -> unlink(term, field, previous.getId()));
+            }
+            forEachTerm(user, (term, field) -> terms.computeIfAbsent(term, key -> new Postings())
+                    .add(field, user.getId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a user
+     *
+     * @param id The id of the user to remove
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            UserDto previous = users.remove(id);
+            if (previous != null) {
+                forEachTerm(previous, (term, field) -> unlink(term, field, id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed users
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalise a query into the terms that are matched, every one of which must match for a user to be returned
+     *
+     * @param query The query as entered
+     * @return The distinct lower case query terms
+     */
+    public static List<String> queryTerms(String query) {
+        Set<String> queryTerms = new LinkedHashSet<>();
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (!term.isEmpty() && queryTerms.size() < MAX_QUERY_TERMS) {
+                queryTerms.add(term);
+            }
+        }
+        return List.copyOf(queryTerms);
+    }
+
+    /**
+     * Search for users matching every term of a query, ranked by score then id
+     *
+     * @param queryTerms The terms to match, see {@link #queryTerms(String)}
+     * @param fuzzy Whether to also match terms within a small edit distance
+     * @param after The position after the last hit of the previous page, or null for the first page
+     * @param limit The maximum number of hits to return
+     * @return The hits ranked after {@code after} among the best {@code maxCandidates}, at most {@code limit}
+     */
+    public List<Hit> search(List<String> queryTerms, boolean fuzzy, SearchCursor after, int limit) {
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, double[]> scores = null;
+            for (String queryTerm : bySelectivity(queryTerms)) {
+                Map<Long, double[]> previous = scores;
+                Map<Long, double[]> termScores = match(queryTerm, fuzzy, previous);
+                if (previous != null) {
+                    termScores.forEach((id, score) -> score[0] += previous.get(id)[0]);
+                }
+                scores = termScores;
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Hit> hits = new ArrayList<>();
+            for (Hit hit : best(scores)) {
+                if (after == null
+                        || hit.score() < after.score()
+                        || (hit.score() == after.score() && hit.user().getId() > after.id())) {
+                    hits.add(hit);
+                }
+            }
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Order query terms by the number of postings their prefix matches have, fewest first. Counting stops once a term
+     * has more postings than the most selective term so far, so common terms are not counted in full.
+     */
+    private List<String> bySelectivity(List<String> queryTerms) {
+        Map<String, Long> postings = new HashMap<>();
+        long fewest = Long.MAX_VALUE;
+        for (String queryTerm : queryTerms) {
+            long count = 0;
+            for (Postings termPostings : prefixMatches(queryTerm).values()) {
+                count += termPostings.size();
+                if (count > fewest) {
+                    break;
+                }
+            }
+            postings.put(queryTerm, count);
+            fewest = Math.min(fewest, count);
+        }
+        return queryTerms.stream().sorted(Comparator.comparingLong(postings::get)).toList();
+    }
+
+    /**
+     * Rank scored users, keeping the best {@code maxCandidates} in a bounded heap so a common query is not fully sorted
+     */
+    private List<Hit> best(Map<Long, double[]> scores) {
+        PriorityQueue<Hit> worstFirst = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            worstFirst.add(new Hit(users.get(entry.getKey()), entry.getValue()[0]));
+            if (worstFirst.size() > maxCandidates) {
+                worstFirst.poll();
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(worstFirst);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    /**
+     * Score the users matching one query term, restricted to the users matched by the previous terms if there are any
+     */
+    private Map<Long, double[]> match(String queryTerm, boolean fuzzy, Map<Long, double[]> restrictTo) {
+        Map<Long, double[]> scores = new HashMap<>();
+        Collector collector = (postings, matchScore) -> postings.forEach((field, id) -> {
+            if (restrictTo != null && !restrictTo.containsKey(id)) {
+                return;
+            }
+            double score = field.weight() * matchScore;
+            double[] current = scores.get(id);
+            if (current == null) {
+                scores.put(id, new double[] {score});
+            } else if (score > current[0]) {
+                current[0] = score;
+            }
+        });
+        for (Map.Entry<String, Postings> entry : prefixMatches(queryTerm).entrySet()) {
+            String term = entry.getKey();
+            double matchScore =
+                    term.length() == queryTerm.length() ? 1.0 : 0.5 + 0.4 * queryTerm.length() / term.length();
+            collector.collect(entry.getValue(), matchScore);
+        }
+        int maxEdits = maxEdits(queryTerm);
+        if (fuzzy && maxEdits > 0) {
+            fuzzyMatch(queryTerm, maxEdits, collector);
+        }
+        return scores;
+    }
+
+    private NavigableMap<String, Postings> prefixMatches(String queryTerm) {
+        return terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+    }
+
+    private static int maxEdits(String queryTerm) {
+        if (queryTerm.length() < 3) {
+            return 0;
+        }
+        return queryTerm.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Collect every term within {@code maxEdits} of the query term, using optimal string alignment distance so a
+     * transposition of adjacent characters counts as one edit. A term can only be within the limit if its length is,
+     * so no more than {@code queryTerm.length() + maxEdits + 1} rows are ever computed before a prefix is pruned.
+     */
+    private void fuzzyMatch(String queryTerm, int maxEdits, Collector collector) {
+        int[][] rows = new int[queryTerm.length() + maxEdits + 2][queryTerm.length() + 1];
+        for (int j = 0; j <= queryTerm.length(); j++) {
+            rows[0][j] = j;
+        }
+        String previous = "";
+        String term = terms.isEmpty() ? null : terms.firstKey();
+        while (term != null) {
+            int pruneAt = fill(queryTerm, maxEdits, rows, term, commonPrefixLength(previous, term));
+            if (pruneAt > 0) {
+                // No term under this prefix can be close enough, skip them all
+                previous = term.substring(0, pruneAt);
+                term = terms.higherKey(previous + Character.MAX_VALUE);
+                continue;
+            }
+            int distance = rows[term.length()][queryTerm.length()];
+            if (distance > 0 && distance <= maxEdits) {
+                collector.collect(terms.get(term), 0.4 / distance);
+            }
+            previous = term;
+            term = terms.higherKey(term);
+        }
+    }
+
+    /**
+     * Compute the distance rows for the characters of {@code term} after the first {@code depth}, whose rows are
+     * already known
+     *
+     * @return The depth at which every distance exceeded the limit, or 0 if none did
+     */
+    private static int fill(String queryTerm, int maxEdits, int[][] rows, String term, int depth) {
+        for (int i = depth + 1; i <= term.length(); i++) {
+            int[] row = rows[i];
+            int[] above = rows[i - 1];
+            char c = term.charAt(i - 1);
+            row[0] = i;
+            int min = i;
+            for (int j = 1; j < row.length; j++) {
+                int cost = queryTerm.charAt(j - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(above[j] + 1, row[j - 1] + 1), above[j - 1] + cost);
+                if (i > 1 && j > 1 && c == queryTerm.charAt(j - 2) && term.charAt(i - 2) == queryTerm.charAt(j - 1)) {
+                    value = Math.min(value, rows[i - 2][j - 2] + 1);
+                }
+                row[j] = value;
+                min = Math.min(min, value);
+            }
+            if (min > maxEdits) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private void unlink(String term, SearchField field, long id) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(field, id)) {
+            terms.remove(term);
+        }
+    }
+
+    /**
+     * Visit the distinct terms of each field of a user
+     */
+    private static void forEachTerm(UserDto user, TermVisitor visitor) {
+        String username = lower(user.getUsername());
+        Set<String> usernameTerms = new LinkedHashSet<>();
+        usernameTerms.add(username);
+        usernameTerms.addAll(words(username));
+        usernameTerms.forEach(term -> visitor.visit(term, SearchField.USERNAME));
+
+        new LinkedHashSet<>(words(lower(user.getFullName())))
+                .forEach(term -> visitor.visit(term, SearchField.FULL_NAME));
+
+        String email = lower(user.getEmail());
+        Set<String> emailTerms = new LinkedHashSet<>();
+        emailTerms.add(email);
+        int at = email.indexOf('@');
+        emailTerms.addAll(words(at < 0 ? email : email.substring(0, at)));
+        emailTerms.forEach(term -> visitor.visit(term, SearchField.EMAIL));
+    }
+
+    private static List<String> words(String value) {
+        return Arrays.stream(value.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    private interface TermVisitor {
+        void visit(String term, SearchField field);
+    }
+
+    @FunctionalInterface
+    private interface Collector {
+        void collect(Postings postings, double matchScore);
+    }
+
+    @FunctionalInterface
+    private interface PostingVisitor {
+        void visit(SearchField field, long id);
+    }
+
+    /**
+     * The ids of the users a term appears in, per field
+     */
+    private static final class Postings {
+        private final LongSet[] byField = new LongSet[FIELDS.length];
+
+        void add(SearchField field, long id) {
+            LongSet ids = byField[field.ordinal()];
+            if (ids == null) {
+                ids = new LongSet();
+                byField[field.ordinal()] = ids;
+            }
+            ids.add(id);
+        }
+
+        /**
+         * @return true if no ids are left for any field
+         */
+        boolean remove(SearchField field, long id) {
+            LongSet ids = byField[field.ordinal()];
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                byField[field.ordinal()] = null;
+            }
+            for (LongSet remaining : byField) {
+                if (remaining != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return The number of ids over every field, counting an id once per field it appears in
+         */
+        int size() {
+            int size = 0;
+            for (LongSet ids : byField) {
+                if (ids != null) {
+                    size += ids.size();
+                }
+            }
+            return size;
+        }
+
+        void forEach(PostingVisitor visitor) {
+            for (SearchField field : FIELDS) {
+                LongSet ids = byField[field.ordinal()];
+                if (ids != null) {
+                    ids.forEachWhile(id -> {
+                        visitor.visit(field, id);
+                        return true;
+                    });
+                }
+            }
+        }
+    }
+}
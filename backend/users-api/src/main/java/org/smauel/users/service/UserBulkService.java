@@ -0,0 +1,360 @@
+package org.smauel.users.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.smauel.users.bloom.UsernameFilter;
+import org.smauel.users.cache.UserCache;
+import org.smauel.users.config.BulkOperationProperties;
+import org.smauel.users.dto.BulkOperationResult;
+import org.smauel.users.dto.BulkOperationResult.Status;
+import org.smauel.users.dto.request.BulkUserOperation;
+import org.smauel.users.dto.request.CreateUserRequest;
+import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserBulkRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Service methods for applying large numbers of user operations at once
+ */
+@Service
+@Timed("service.invocations")
+@RequiredArgsConstructor
+public class UserBulkService {
+    private final UserBulkRepository userBulkRepository;
+    private final BulkOperationProperties properties;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserCache userCache;
+    private final UsernameFilter usernameFilter;
+    private final UserSearchService userSearchService;
+    private final UserMapper userMapper;
+
+    /**
+     * Apply a stream of NDJSON encoded {@link BulkUserOperation}s, reporting the outcome of every line.
+     *
+     * <p>Operations are read and applied in batches of {@code users.bulk.batch-size}, each in its own transaction
+     * using JDBC batching, so memory use is bounded by the batch size regardless of the length of the input. Within a
+     * batch creates are applied before updates, and updates before deletes. If a batch fails as a whole, including
+     * when its transaction fails to commit, every operation in it that would have been written is reported as failed
+     * and the next batch is still attempted. Operations the batch already found to conflict or to be missing keep
+     * that result.
+     *
+     * @param ndjson The operations, one JSON object per line
+     * @param results Receives the result of each line, in line order
+     * @throws IOException if the operations cannot be read
+     */
+    public void applyOperations(InputStream ndjson, Consumer<BulkOperationResult> results) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LineReader reader = new LineReader(ndjson, properties.getMaxLineLength());
+        List<PendingOperation> batch = new ArrayList<>(properties.getBatchSize());
+        long lineNumber = 0;
+        for (byte[] line = reader.next(); line != null; line = reader.next()) {
+            lineNumber++;
+            PendingOperation pending = parse(lineNumber, line, reader.wasTruncated());
+            if (pending != null) {
+                batch.add(pending);
+            }
+            if (batch.size() >= properties.getBatchSize()) {
+                applyBatch(batch, transactionTemplate, results);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            applyBatch(batch, transactionTemplate, results);
+        }
+    }
+
+    private PendingOperation parse(long lineNumber, byte[] line, boolean truncated) {
+        if (truncated) {
+            return PendingOperation.rejected(lineNumber, null, Status.INVALID, "Line exceeds the maximum length");
+        }
+        if (isBlank(line)) {
+            return null;
+        }
+        BulkUserOperation operation;
+        try {
+            operation = objectMapper.readValue(line, BulkUserOperation.class);
+        } catch (JacksonException e) {
+            return PendingOperation.rejected(
+                    lineNumber, null, Status.INVALID, "Malformed operation: " + e.getOriginalMessage());
+        }
+        String error = validate(operation);
+        return error == null
+                ? new PendingOperation(lineNumber, operation)
+                : PendingOperation.rejected(lineNumber, operation.getOp(), Status.INVALID, error);
+    }
+
+    private String validate(BulkUserOperation operation) {
+        if (operation.getOp() == null) {
+            return "op is required";
+        }
+        if (operation.getOp() != BulkUserOperation.Type.CREATE && operation.getId() == null) {
+            return "id is required";
+        }
+        Set<? extends ConstraintViolation<?>> violations =
+                switch (operation.getOp()) {
+                    case CREATE ->
+                        validator.validate(new CreateUserRequest(
+                                operation.getUsername(), operation.getFullName(), operation.getEmail()));
+                    case UPDATE ->
+                        validator.validate(new UpdateUserRequest(operation.getFullName(), operation.getEmail()));
+                    case DELETE -> Set.of();
+                };
+        return violations.isEmpty()
+                ? null
+                : violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+    }
+
+    private void applyBatch(
+            List<PendingOperation> batch,
+            TransactionTemplate transactionTemplate,
+            Consumer<BulkOperationResult> results) {
+        List<PendingOperation> accepted =
+                batch.stream().filter(pending -> pending.status == null).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                applyCreates(accepted);
+                applyUpdates(accepted);
+                applyDeletes(accepted);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            String error = "Batch failed: " + e.getMostSpecificCause().getMessage();
+            accepted.stream()
+                    .filter(PendingOperation::isWrite)
+                    .forEach(pending -> pending.reject(Status.FAILED, error));
+        }
+        batch.stream()
+                .sorted(Comparator.comparingLong(pending -> pending.line))
+                .map(PendingOperation::toResult)
+                .forEach(results);
+    }
+
+    private void applyCreates(List<PendingOperation> accepted) {
+        List<PendingOperation> creates = ofType(accepted, BulkUserOperation.Type.CREATE);
+        if (creates.isEmpty()) {
+            return;
+        }
+        Set<String> existing = userBulkRepository.findExistingUsernames(
+                creates.stream().map(pending -> pending.operation.getUsername()).collect(Collectors.toSet()));
+        Set<String> seen = new HashSet<>();
+        List<PendingOperation> inserts = new ArrayList<>(creates.size());
+        for (PendingOperation pending : creates) {
+            String username = pending.operation.getUsername();
+            if (existing.contains(username) || !seen.add(username)) {
+                pending.reject(Status.CONFLICT, "Username already exists: " + username);
+            } else {
+                inserts.add(pending);
+            }
+        }
+        List<User> users = inserts.stream()
+                .map(pending -> User.builder()
+                        .username(pending.operation.getUsername())
+                        .fullName(pending.operation.getFullName())
+                        .email(pending.operation.getEmail())
+                        .build())
+                .toList();
+        users.forEach(user -> usernameFilter.add(user.getUsername()));
+        userBulkRepository.insertAll(users);
+        userSearchService.indexAll(users.stream().map(userMapper::toDto).toList());
+        for (int i = 0; i < inserts.size(); i++) {
+            inserts.get(i).complete(Status.CREATED, users.get(i).getId());
+        }
+    }
+
+    private void applyUpdates(List<PendingOperation> accepted) {
+        List<PendingOperation> updates = ofType(accepted, BulkUserOperation.Type.UPDATE);
+        if (updates.isEmpty()) {
+            return;
+        }
+        // Blank values leave the existing value unchanged, matching a single user update
+        Set<Long> updated = userBulkRepository.updateAll(updates.stream()
+                .map(pending -> User.builder()
+                        .id(pending.operation.getId())
+                        .fullName(blankToNull(pending.operation.getFullName()))
+                        .email(blankToNull(pending.operation.getEmail()))
+                        .build())
+                .toList());
+        userCache.invalidateAll(updated);
+        userSearchService.refreshAll(updated);
+        updates.forEach(pending -> completeIfAffected(pending, updated, Status.UPDATED));
+    }
+
+    private void applyDeletes(List<PendingOperation> accepted) {
+        List<PendingOperation> deletes = ofType(accepted, BulkUserOperation.Type.DELETE);
+        if (deletes.isEmpty()) {
+            return;
+        }
+        Set<Long> deleted = userBulkRepository.deleteAll(
+                deletes.stream().map(pending -> pending.operation.getId()).toList());
+        userCache.invalidateAll(deleted);
+        userSearchService.removeAll(deleted);
+        deletes.forEach(pending -> completeIfAffected(pending, deleted, Status.DELETED));
+    }
+
+    private static void completeIfAffected(PendingOperation pending, Set<Long> affected, Status status) {
+        if (affected.contains(pending.operation.getId())) {
+            pending.complete(status, pending.operation.getId());
+        } else {
+            pending.reject(Status.NOT_FOUND, "User not found with id: " + pending.operation.getId());
+        }
+    }
+
+    private static List<PendingOperation> ofType(List<PendingOperation> operations, BulkUserOperation.Type type) {
+        return operations.stream()
+                .filter(pending -> pending.operation.getOp() == type)
+                .toList();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static boolean isBlank(byte[] line) {
+        for (byte b : line) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An operation waiting to be applied as part of a batch, and its outcome once known
+     */
+    private static final class PendingOperation {
+        private final long line;
+        private final BulkUserOperation operation;
+        private Status status;
+        private Long id;
+        private String error;
+
+        private PendingOperation(long line, BulkUserOperation operation) {
+            this.line = line;
+            this.operation = operation;
+        }
+
+        static PendingOperation rejected(long line, BulkUserOperation.Type op, Status status, String error) {
+            PendingOperation pending = new PendingOperation(
+                    line, BulkUserOperation.builder().op(op).build());
+            pending.reject(status, error);
+            return pending;
+        }
+
+        /**
+         * Whether the operation is still to be written, or was written, rather than resolved without a write
+         */
+        boolean isWrite() {
+            return status == null || id != null;
+        }
+
+        void complete(Status status, Long id) {
+            this.status = status;
+            this.id = id;
+            this.error = null;
+        }
+
+        void reject(Status status, String error) {
+            this.status = status;
+            this.id = null;
+            this.error = error;
+        }
+
+        BulkOperationResult toResult() {
+            return BulkOperationResult.builder()
+                    .line(line)
+                    .op(operation.getOp())
+                    .status(status)
+                    .id(id)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * Reads newline delimited lines without ever buffering more than the maximum line length
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final int maxLength;
+        private final ByteArrayOutputStream line;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        private boolean truncated;
+
+        LineReader(InputStream in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+            this.line = new ByteArrayOutputStream(Math.min(maxLength, 1024));
+        }
+
+        /**
+         * Read the next line, without its terminator
+         *
+         * @return The line, or null at the end of the input
+         */
+        byte[] next() throws IOException {
+            line.reset();
+            truncated = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return read ? line.toByteArray() : null;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    return line.toByteArray();
+                }
+            }
+        }
+
+        boolean wasTruncated() {
+            return truncated;
+        }
+
+        private void append(int from, int to) {
+            int length = Math.min(to - from, maxLength - line.size());
+            if (length < to - from) {
+                truncated = true;
+            }
+            if (length > 0) {
+                line.write(buffer, from, length);
+            }
+        }
+    }
+}
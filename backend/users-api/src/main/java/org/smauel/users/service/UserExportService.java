@@ -0,0 +1,46 @@
+package org.smauel.users.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.smauel.users.dto.UserDto;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service methods for exporting the users table in bulk
+ */
+@Service
+@Timed("service.invocations")
+@RequiredArgsConstructor
+public class UserExportService {
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Export users in id order, handing each one to the consumer as it is read.
+     *
+     * <p>Users are read from a single repeatable read transaction, so the export reflects one consistent snapshot of
+     * the table no matter how long it takes to consume. Each user is detached once it has been mapped so memory use
+     * stays constant regardless of the size of the table.
+     *
+     * @param afterId Resume the export after this id, or null to export from the start
+     * @param consumer Receives each exported user
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportUsers(Long afterId, Consumer<UserDto> consumer) {
+        try (Stream<User> users = userRepository.streamByIdGreaterThan(afterId == null ? Long.MIN_VALUE : afterId)) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toDto(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.smauel.users.service;
+
+import io.micrometer.core.annotation.Timed;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.InvalidCursorException;
+import org.smauel.users.config.UserSearchProperties;
+import org.smauel.users.dto.UserDto;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.repository.UserRepository;
+import org.smauel.users.search.SearchCursor;
+import org.smauel.users.search.UserSearchIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service methods for searching users, answered from an in-memory {@link UserSearchIndex}.
+ *
+ * <p>The index is built once the application is ready by exporting every user, and kept current by the user services,
+ * which pass on every change once its transaction commits. A change that arrives while the index is being built wins
+ * over the exported version of the same user, so the build never overwrites newer data. Searches made before the
+ * build completes only see the users indexed so far.
+ */
+@Slf4j
+@Service
+@Timed("service.invocations")
+public class UserSearchService {
+    private final UserExportService userExportService;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final TransactionTemplate refreshTemplate;
+    private final UserSearchIndex index;
+    private final Object buildLock = new Object();
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    public UserSearchService(
+            UserExportService userExportService,
+            UserRepository userRepository,
+            UserMapper userMapper,
+            PlatformTransactionManager transactionManager,
+            UserSearchProperties properties) {
+        this.userExportService = userExportService;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.refreshTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTemplate.setReadOnly(true);
+        this.refreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.index = new UserSearchIndex(properties.getMaxCandidates());
+    }
+
+    /**
+     * Search users by prefix, and optionally typo tolerant, matches of every query term against username, full name
+     * and email, best matches first
+     *
+     * @param query The search terms, separated by whitespace
+     * @param fuzzy Whether to match terms within a small edit distance as well as by prefix
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit The maximum number of users to return
+     * @return The page of matching users, with the cursor for the next page if there may be one
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another query
+     */
+    public CursorPage<UserDto> search(String query, boolean fuzzy, String cursor, int limit) {
+        List<String> terms = UserSearchIndex.queryTerms(query);
+        int fingerprint = 31 * terms.hashCode() + Boolean.hashCode(fuzzy);
+        SearchCursor after = cursor == null || cursor.isEmpty() ? null : SearchCursor.decode(cursor, fingerprint);
+        List<UserSearchIndex.Hit> hits = index.search(terms, fuzzy, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        List<UserSearchIndex.Hit> page = hasNext ? hits.subList(0, limit) : hits;
+        return CursorPage.<UserDto>builder()
+                .items(page.stream().map(UserSearchIndex.Hit::user).toList())
+                .nextCursor(hasNext ? SearchCursor.encode(page.getLast(), fingerprint) : null)
+                .build();
+    }
+
+    /**
+     * Index a created or updated user once the current transaction commits, or immediately outside a transaction
+     *
+     * @param user The user as written
+     */
+    public void index(UserDto user) {
+        afterCommit(() -> apply(user.getId(), user));
+    }
+
+    /**
+     * Index created or updated users once the current transaction commits, or immediately outside a transaction
+     *
+     * @param users The users as written
+     */
+    public void indexAll(Collection<UserDto> users) {
+        afterCommit(() -> users.forEach(user -> apply(user.getId(), user)));
+    }
+
+    /**
+     * Re-read users from the db and index their current state once the current transaction commits, for changes
+     * where the full user is not at hand
+     *
+     * @param ids The ids of the changed users
+     */
+    public void refreshAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Set<Long> missing = new HashSet<>(ids);
+            refreshTemplate.executeWithoutResult(
+                    status -> userRepository.findAllById(ids).forEach(user -> {
+                        missing.remove(user.getId());
+                        apply(user.getId(), userMapper.toDto(user));
+                    }));
+            missing.forEach(id -> apply(id, null));
+        });
+    }
+
+    /**
+     * Remove users from the index once the current transaction commits, or immediately outside a transaction
+     *
+     * @param ids The ids of the deleted users
+     */
+    public void removeAll(Collection<Long> ids) {
+        afterCommit(() -> ids.forEach(id -> apply(id, null)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onApplicationReady() {
+        building = true;
+        try {
+            userExportService.exportUsers(null, user -> {
+                synchronized (buildLock) {
+                    if (!changedDuringBuild.contains(user.getId())) {
+                        index.put(user);
+                    }
+                }
+            });
+        } finally {
+            synchronized (buildLock) {
+                building = false;
+                changedDuringBuild.clear();
+            }
+        }
+        log.info("Built user search index of {} users", index.size());
+    }
+
+    private void apply(Long id, UserDto user) {
+        synchronized (buildLock) {
+            if (building) {
+                changedDuringBuild.add(id);
+            }
+            if (user == null) {
+                index.remove(id);
+            } else {
+                index.put(user);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
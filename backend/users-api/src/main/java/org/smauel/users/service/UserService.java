@@ -1,27 +1,77 @@
 package org.smauel.users.service;
 
+import io.micrometer.core.annotation.Timed;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.InvalidCursorException;
+import org.smauel.persistence.pagination.KeysetCursor;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.smauel.users.bloom.UsernameFilter;
+import org.smauel.users.cache.UserCache;
+import org.smauel.users.config.BulkOperationProperties;
 import org.smauel.users.dto.UserDto;
+import org.smauel.users.dto.UserLookupResult;
+import org.smauel.users.dto.UsernameAvailabilityDto;
 import org.smauel.users.dto.request.CreateUserRequest;
 import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.dto.request.UserLookupRequest;
 import org.smauel.users.exception.UserNotFoundException;
 import org.smauel.users.mapper.UserMapper;
 import org.smauel.users.model.User;
+import org.smauel.users.pagination.UserSortKey;
 import org.smauel.users.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Service methods for interacting with users
+ * Service methods for interacting with users. Reads served from the user cache run without a transaction, only the
+ * misses are read from the db in a read-only one.
  */
 @Service
+@Timed("service.invocations")
 @Transactional
-@RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final TableStatisticsRepository tableStatisticsRepository;
+    private final UserCache userCache;
+    private final UsernameFilter usernameFilter;
+    private final UserSearchService userSearchService;
+    private final BulkOperationProperties bulkOperationProperties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserService(
+            UserRepository userRepository,
+            UserMapper userMapper,
+            TableStatisticsRepository tableStatisticsRepository,
+            UserCache userCache,
+            UsernameFilter usernameFilter,
+            UserSearchService userSearchService,
+            BulkOperationProperties bulkOperationProperties,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.userCache = userCache;
+        this.usernameFilter = usernameFilter;
+        this.userSearchService = userSearchService;
+        this.bulkOperationProperties = bulkOperationProperties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
      * Create a user
@@ -31,8 +81,11 @@ public class UserService {
      */
     public UserDto createUser(CreateUserRequest request) {
         User user = userMapper.toEntity(request);
+        usernameFilter.add(user.getUsername());
         User savedUser = userRepository.save(user);
-        return userMapper.toDto(savedUser);
+        UserDto created = userMapper.toDto(savedUser);
+        userSearchService.index(created);
+        return created;
     }
 
     /**
@@ -54,35 +107,150 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
-        return userMapper.toDto(savedUser);
+        userCache.invalidate(id);
+        UserDto updated = userMapper.toDto(savedUser);
+        userSearchService.index(updated);
+        return updated;
     }
 
     /**
-     * Retrieve a user by id
+     * Retrieve a user by id, from the user cache if present
      *
      * @param id The id of the user to retrieve
      * @return The user response if found
      * @throws UserNotFoundException if user not found
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto getUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
-        return userMapper.toDto(user);
+        UserDto cached = userCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        long version = userCache.version();
+        UserDto loaded = readOnlyTransaction.execute(status ->
+                userRepository.findById(id).map(userMapper::toDto).orElseThrow(() -> new UserNotFoundException(id)));
+        userCache.put(loaded, version);
+        return loaded;
     }
 
     /**
-     * Retrieve a user by username
+     * Retrieve a user by username, from the user cache if present
      *
      * @param username The username to search for
      * @return The user response if found
      * @throws UserNotFoundException if user not found
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto getUserByUsername(String username) {
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new UserNotFoundException(username));
-        return userMapper.toDto(user);
+        return findUserByUsername(username).orElseThrow(() -> new UserNotFoundException(username));
     }
 
     /**
-     * Get all users from the db
+     * Find a user by username, from the user cache if present
+     *
+     * @param username The username to search for
+     * @return The user response, or an empty optional if not found
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<UserDto> findUserByUsername(String username) {
+        UserDto cached = userCache.getByUsername(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = userCache.version();
+        Optional<UserDto> loaded = readOnlyTransaction.execute(
+                status -> userRepository.findByUsername(username).map(userMapper::toDto));
+        loaded.ifPresent(user -> userCache.put(user, version));
+        return loaded;
+    }
+
+    /**
+     * Look up many users by id and username at once. Each distinct key is served from the user cache if present, and
+     * the rest are read with {@code IN} queries of at most {@code users.bulk.lookup-chunk-size} keys.
+     *
+     * @param request The ids and usernames to look up
+     * @return The users in request order, with the keys no user has
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserLookupResult lookupUsers(UserLookupRequest request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> usernames = request.getUsernames() == null ? List.of() : request.getUsernames();
+        long version = userCache.version();
+
+        Map<Long, UserDto> byId = new LinkedHashMap<>();
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            UserDto cached = userCache.getById(id);
+            byId.put(id, cached);
+            if (cached == null) {
+                uncachedIds.add(id);
+            }
+        }
+        Map<String, UserDto> byUsername = new LinkedHashMap<>();
+        List<String> uncachedUsernames = new ArrayList<>();
+        for (String username : new LinkedHashSet<>(usernames)) {
+            UserDto cached = userCache.getByUsername(username);
+            byUsername.put(username, cached);
+            if (cached == null) {
+                uncachedUsernames.add(username);
+            }
+        }
+
+        if (!uncachedIds.isEmpty() || !uncachedUsernames.isEmpty()) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                loadInChunks(uncachedIds, userRepository::findAllById, version)
+                        .forEach(user -> byId.put(user.getId(), user));
+                loadInChunks(uncachedUsernames, userRepository::findByUsernameIn, version)
+                        .forEach(user -> byUsername.put(user.getUsername(), user));
+            });
+        }
+
+        return UserLookupResult.builder()
+                .byId(ids.stream().map(byId::get).toList())
+                .byUsername(usernames.stream().map(byUsername::get).toList())
+                .missingIds(missing(byId))
+                .missingUsernames(missing(byUsername))
+                .build();
+    }
+
+    /**
+     * Check whether a username is free to use. Usernames the username filter has never seen are reported as available
+     * without reading the db.
+     *
+     * @param username The username to check
+     * @return Whether the username is available
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UsernameAvailabilityDto checkUsernameAvailability(String username) {
+        boolean taken = usernameFilter.mightContain(username)
+                && (userCache.getByUsername(username) != null
+                        || readOnlyTransaction.execute(status -> userRepository.existsByUsername(username)));
+        return UsernameAvailabilityDto.builder()
+                .username(username)
+                .available(!taken)
+                .build();
+    }
+
+    /**
+     * Get a page of users, continuing from the position encoded in the query cursor
+     *
+     * @param query The page to read
+     * @return The users in the page and the cursor for the next page
+     * @throws InvalidCursorException if the cursor is malformed or does not match the requested ordering
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getUsers(PageQuery<UserSortKey> query) {
+        Window<User> window = userRepository.findBy(
+                KeysetCursor.position(query), KeysetCursor.sort(query), Limit.of(query.getLimit()));
+        return CursorPage.<UserDto>builder()
+                .items(window.map(userMapper::toDto).getContent())
+                .nextCursor(KeysetCursor.next(window, query))
+                .estimatedTotal(query.isIncludeTotal() ? tableStatisticsRepository.estimateRowCount("users") : null)
+                .build();
+    }
+
+    /**
+     * Get all users from the db, this is unbounded and should only be used when the caller explicitly opts in
      *
      * @return A list of all user responses
      */
@@ -101,5 +269,27 @@ public class UserService {
             throw new UserNotFoundException(id);
         }
         userRepository.deleteById(id);
+        userCache.invalidate(id);
+        userSearchService.removeAll(List.of(id));
+    }
+
+    private <K> List<UserDto> loadInChunks(List<K> keys, Function<List<K>, List<User>> query, long version) {
+        List<UserDto> loaded = new ArrayList<>(keys.size());
+        int chunkSize = bulkOperationProperties.getLookupChunkSize();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            for (User user : query.apply(keys.subList(from, Math.min(from + chunkSize, keys.size())))) {
+                UserDto dto = userMapper.toDto(user);
+                userCache.put(dto, version);
+                loaded.add(dto);
+            }
+        }
+        return loaded;
+    }
+
+    private static <K> List<K> missing(Map<K, UserDto> found) {
+        return found.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
     }
 }
@@ -0,0 +1,92 @@
+package org.smauel.users.accounting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.observability.accounting.ResourceAccountingAssertions;
+import org.smauel.observability.accounting.ResourceAccountingFilter;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The resource accounting auto-configured by observability-common, wired into the service, of requests handled on
+ * platform threads, where the JVM measures CPU time and allocations. The user cache is off so that reads reach the db.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"users.cache.enabled=false", "observability.accounting.server-timing=true"})
+@DisplayName("Resource accounting")
+class ResourceAccountingAT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @LocalServerPort
+    private int port;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .username("accounteduser")
+                .fullName("Accounted User")
+                .email("accounted@example.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should send the resources used by a request in a Server-Timing header and record them")
+    @Description("GET /api/v1/users/{id}")
+    void shouldAccountRequest() throws Exception {
+        String serverTiming = mockMvc.perform(get("/api/v1/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(ResourceAccountingFilter.SERVER_TIMING);
+
+        ResourceAccountingAssertions.assertRequestAccounted(meterRegistry, serverTiming, "GET", "/api/v1/users/{id}");
+    }
+
+    @Test
+    @DisplayName("Should account the statements of a streamed response to its request")
+    @Description("GET /api/v1/users/export")
+    void shouldAccountStreamedResponse() throws Exception {
+        ResponseEntity<String> export = RestClient.create("http://localhost:" + port)
+                .get()
+                .uri("/api/v1/users/export")
+                .retrieve()
+                .toEntity(String.class);
+
+        assertThat(export.getBody()).contains("accounteduser");
+        assertThat(export.getHeaders().getFirst(ResourceAccountingFilter.SERVER_TIMING))
+                .startsWith("app;dur=");
+        ResourceAccountingAssertions.awaitStatementsAccounted(meterRegistry, "/api/v1/users/export");
+    }
+}
@@ -0,0 +1,58 @@
+package org.smauel.users.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Scalable Bloom Filter")
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added element as absent")
+    void shouldHaveNoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        IntStream.range(0, 50_000).forEach(i -> filter.add("user" + i));
+
+        assertThat(IntStream.range(0, 50_000).allMatch(i -> filter.mightContain("user" + i)))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Should grow new slices and stay within the false positive rate")
+    void shouldStayWithinFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        IntStream.range(0, 50_000).forEach(i -> filter.add("user" + i));
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i))
+                .count();
+
+        assertThat(filter.sliceCount()).isGreaterThan(1);
+        assertThat(filter.approximateSize()).isBetween(49_000L, 50_000L);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.01);
+    }
+
+    @Test
+    @DisplayName("Should not count an element added twice")
+    void shouldIgnoreDuplicates() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, 0.01);
+
+        filter.add("alice");
+        filter.add("alice");
+
+        assertThat(filter.approximateSize()).isEqualTo(1);
+        assertThat(filter.mightContain("alice")).isTrue();
+        assertThat(filter.mightContain("bob")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid parameters")
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package org.smauel.users.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.users.config.UsernameFilterProperties;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("Username Filter")
+class UsernameFilterTest {
+    private final Set<String> committed = ConcurrentHashMap.newKeySet();
+    private UsernameFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        committed.add("existing");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamAllUsernames()).thenAnswer(invocation -> List.copyOf(committed).stream());
+        UsernameFilterProperties properties = new UsernameFilterProperties();
+        properties.setInitialCapacity(1_000);
+        filter = new UsernameFilter(userRepository, properties, mock(PlatformTransactionManager.class));
+        filter.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should report a committed username as possibly taken while the filter is being rebuilt")
+    void shouldKeepUsernamesAddedDuringRebuild() throws Exception {
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<String> lost = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            CompletableFuture<Void> rebuilding = CompletableFuture.runAsync(
+                    () -> {
+                        while (adding.get()) {
+                            filter.rebuild();
+                        }
+                    },
+                    executor);
+            for (int i = 0; i < 20_000; i++) {
+                String username = "user" + i;
+                create(username);
+                if (!filter.mightContain(username)) {
+                    lost.add(username);
+                }
+            }
+            adding.set(false);
+            rebuilding.get();
+        }
+
+        assertThat(lost).isEmpty();
+        assertThat(filter.mightContain("existing")).isTrue();
+    }
+
+    private void create(String username) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.add(username);
+            committed.add(username);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization ->
+                            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.smauel.users.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.users.config.UserCacheProperties;
+import org.smauel.users.dto.UserDto;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("User Cache")
+class UserCacheTest {
+    private UserCacheProperties properties;
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve a cached user by both id and username")
+    void shouldServeByIdAndUsername() {
+        UserDto user = user(1L, "jdoe");
+
+        userCache.put(user, userCache.version());
+
+        assertThat(userCache.getById(1L)).isSameAs(user);
+        assertThat(userCache.getByUsername("jdoe")).isSameAs(user);
+        assertThat(userCache.getById(2L)).isNull();
+        assertThat(userCache.getByUsername("other")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should invalidate both keys when a user is invalidated by id")
+    void shouldInvalidateBothKeys() {
+        userCache.put(user(1L, "jdoe"), userCache.version());
+
+        userCache.invalidate(1L);
+
+        assertThat(userCache.getById(1L)).isNull();
+        assertThat(userCache.getByUsername("jdoe")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not serve a username that now belongs to a different cached user")
+    void shouldNotServeStaleUsername() {
+        userCache.put(user(1L, "jdoe"), userCache.version());
+        userCache.invalidate(1L);
+        userCache.put(user(1L, "renamed"), userCache.version());
+
+        assertThat(userCache.getByUsername("jdoe")).isNull();
+        assertThat(userCache.getByUsername("renamed")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should discard a user loaded while an invalidation happened")
+    void shouldDiscardUserLoadedDuringInvalidation() {
+        long version = userCache.version();
+        userCache.invalidate(1L);
+
+        userCache.put(user(1L, "jdoe"), version);
+
+        assertThat(userCache.getById(1L)).isNull();
+        assertThat(userCache.getByUsername("jdoe")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should only invalidate once the surrounding transaction commits")
+    void shouldInvalidateAfterCommit() {
+        userCache.put(user(1L, "jdoe"), userCache.version());
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCache.invalidateAll(List.of(1L));
+
+        assertThat(userCache.getById(1L)).isNotNull();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(userCache.getById(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache when disabled")
+    void shouldBypassWhenDisabled() {
+        properties.setEnabled(false);
+
+        userCache.put(user(1L, "jdoe"), userCache.version());
+
+        assertThat(userCache.getById(1L)).isNull();
+        assertThat(userCache.getByUsername("jdoe")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss metrics")
+    void shouldPublishMetrics() {
+        userCache.put(user(1L, "jdoe"), userCache.version());
+
+        userCache.getById(1L);
+        userCache.getById(2L);
+
+        assertThat(meterRegistry
+                        .get("cache.gets")
+                        .tag("cache", "users")
+                        .tag("result", "hit")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("cache.gets")
+                        .tag("cache", "users")
+                        .tag("result", "miss")
+                        .functionCounter()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    private static UserDto user(Long id, String username) {
+        return UserDto.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package org.smauel.users.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.smauel.observability.concurrency.VirtualThreadBenchmark;
+import org.smauel.users.Main;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Compares platform and virtual threads on reads of a user by id. The user cache is off, so every read queries the db.
+ */
+@Tag("benchmark")
+@DisplayName("Virtual Thread Benchmark")
+class VirtualThreadBenchmarkAT {
+
+    @Test
+    @DisplayName("Should serve user reads on platform threads and on virtual threads")
+    void shouldServeUserReads() throws Exception {
+        new VirtualThreadBenchmark(Main.class, VirtualThreadBenchmarkAT::save, "users.cache.enabled=false").run();
+    }
+
+    private static String save(ApplicationContext context) {
+        User user = context.getBean(UserRepository.class)
+                .save(User.builder()
+                        .username("benchmarked")
+                        .fullName("Benchmarked User")
+                        .email("benchmarked@example.com")
+                        .build());
+        return "/api/v1/users/" + user.getId();
+    }
+}
@@ -1,27 +1,46 @@
 package org.smauel.users.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.qameta.allure.Description;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.concurrency.RequestIdFilter;
+import org.smauel.observability.diagnostics.UserIdHash;
+import org.smauel.observability.logging.LogCapture;
 import org.smauel.users.dto.request.CreateUserRequest;
 import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.dto.request.UserLookupRequest;
+import org.smauel.users.mapper.UserMapper;
 import org.smauel.users.model.User;
 import org.smauel.users.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -39,6 +58,9 @@ class UserControllerAT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserMapper userMapper;
+
     @BeforeEach
     void setUp() {
         userRepository.deleteAll(); // Clean slate for each test
@@ -99,6 +121,43 @@ class UserControllerAT {
         mockMvc.perform(get("/api/v1/users/" + nonExistentId)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should echo the request id sent by the caller")
+    @Description("GET /api/v1/users/{id}")
+    void shouldEchoRequestId() throws Exception {
+        mockMvc.perform(get("/api/v1/users/9999").header(RequestIdFilter.HEADER, "caller-id-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(RequestIdFilter.HEADER, "caller-id-1"));
+    }
+
+    @Test
+    @DisplayName("Should generate a request id when the caller sends none or an invalid one")
+    @Description("GET /api/v1/users/{id}")
+    void shouldGenerateRequestId() throws Exception {
+        mockMvc.perform(get("/api/v1/users/9999").header(RequestIdFilter.HEADER, "bad id\n"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(RequestIdFilter.HEADER, Matchers.matchesPattern("[0-9a-f-]{36}")));
+    }
+
+    @Test
+    @DisplayName("Should log the request id and the hash of the user a request is about")
+    @Description("GET /api/v1/users/{id}")
+    void shouldLogRequestFields() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("loggeduser")
+                .fullName("Logged User")
+                .email("logged@example.com")
+                .build());
+
+        try (LogCapture logs = LogCapture.debug("org.springframework.web.servlet.mvc.method.annotation")) {
+            mockMvc.perform(get("/api/v1/users/{id}", user.getId()).header(RequestIdFilter.HEADER, "logged-id-1"))
+                    .andExpect(status().isOk());
+
+            assertThat(logs.awaitLine(line -> line.contains("\"requestId\":\"logged-id-1\"")))
+                    .contains("\"userIdHash\":\"" + HexFormat.of().toHexDigits(UserIdHash.of(user.getId())) + "\"");
+        }
+    }
+
     @Test
     @DisplayName("Should return user by username when found")
     @Description("GET /api/v1/users/username/{name}")
@@ -140,7 +199,247 @@ class UserControllerAT {
 
         mockMvc.perform(get("/api/v1/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.estimatedTotal").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should page through users using the returned cursor")
+    @Description("GET /api/v1/users")
+    void shouldPageThroughUsers() throws Exception {
+        userRepository.saveAll(List.of(user("charlie"), user("alice"), user("bob")));
+
+        String first = mockMvc.perform(get("/api/v1/users").param("limit", "2").param("sort", "USERNAME"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].username").value("alice"))
+                .andExpect(jsonPath("$.items[1].username").value("bob"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asString();
+
+        mockMvc.perform(get("/api/v1/users")
+                        .param("limit", "2")
+                        .param("sort", "USERNAME")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].username").value("charlie"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should order users descending when requested")
+    @Description("GET /api/v1/users")
+    void shouldReturnUsersInDescendingOrder() throws Exception {
+        userRepository.saveAll(List.of(user("alice"), user("bob"), user("charlie")));
+
+        mockMvc.perform(get("/api/v1/users").param("sort", "USERNAME").param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("charlie"))
+                .andExpect(jsonPath("$.items[2].username").value("alice"));
+    }
+
+    @Test
+    @DisplayName("Should include the estimated total when requested")
+    @Description("GET /api/v1/users")
+    void shouldIncludeEstimatedTotal() throws Exception {
+        userRepository.saveAll(List.of(user("alice"), user("bob"), user("charlie")));
+
+        mockMvc.perform(get("/api/v1/users").param("limit", "1").param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.estimatedTotal").value(3));
+    }
+
+    @Test
+    @DisplayName("Should return every user as a plain array when unpaged is requested")
+    @Description("GET /api/v1/users")
+    void shouldReturnAllUsersWhenUnpaged() throws Exception {
+        userRepository.saveAll(List.of(user("alice"), user("bob"), user("charlie")));
+
+        mockMvc.perform(get("/api/v1/users").param("limit", "1").param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the cursor was issued for a different sort order")
+    @Description("GET /api/v1/users")
+    void shouldRejectCursorForDifferentSort() throws Exception {
+        userRepository.saveAll(List.of(user("alice"), user("bob")));
+
+        String first = mockMvc.perform(get("/api/v1/users").param("limit", "1"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asString();
+
+        mockMvc.perform(get("/api/v1/users").param("sort", "USERNAME").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the cursor is malformed")
+    @Description("GET /api/v1/users")
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/users").param("cursor", "not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the limit is out of range")
+    @Description("GET /api/v1/users")
+    void shouldRejectLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/v1/users").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users").param("limit", "501")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the sort key is unknown")
+    @Description("GET /api/v1/users")
+    void shouldRejectUnknownSortKey() throws Exception {
+        mockMvc.perform(get("/api/v1/users").param("sort", "PASSWORD")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should export users as NDJSON in id order")
+    @Description("GET /api/v1/users/export")
+    void shouldExportUsers() throws Exception {
+        List<User> users = userRepository.saveAll(List.of(user("bob"), user("alice")));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content()
+                        .string(objectMapper.writeValueAsString(userMapper.toDto(users.get(0))) + "\n"
+                                + objectMapper.writeValueAsString(userMapper.toDto(users.get(1))) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Should resume the export after the last seen id")
+    @Description("GET /api/v1/users/export")
+    void shouldResumeExportAfterId() throws Exception {
+        List<User> users = userRepository.saveAll(List.of(user("alice"), user("bob"), user("charlie")));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/export")
+                        .param("afterId", String.valueOf(users.get(0).getId())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content()
+                        .string(objectMapper.writeValueAsString(userMapper.toDto(users.get(1))) + "\n"
+                                + objectMapper.writeValueAsString(userMapper.toDto(users.get(2))) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Should gzip the export when the client accepts gzip")
+    @Description("GET /api/v1/users/export")
+    void shouldGzipExport() throws Exception {
+        User saved = userRepository.save(user("alice"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo(objectMapper.writeValueAsString(userMapper.toDto(saved)) + "\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Should gzip the export when gzip is accepted with any case and a q-value")
+    @Description("GET /api/v1/users/export")
+    void shouldGzipExportAcceptedWithQuality() throws Exception {
+        userRepository.save(user("alice"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/users/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, GZIP ; Q=0.5, identity;q=0.1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    @DisplayName("Should not gzip the export when the client refuses gzip")
+    @Description("GET /api/v1/users/export")
+    void shouldNotGzipRefusedExport() throws Exception {
+        User saved = userRepository.save(user("alice"));
+
+        for (String acceptEncoding : List.of("gzip;q=0", "*, gzip;q=0.000", "identity, *;q=0", "gzipped")) {
+            MvcResult result = mockMvc.perform(
+                            get("/api/v1/users/export").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(content().string(objectMapper.writeValueAsString(userMapper.toDto(saved)) + "\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply bulk operations and report the result of each line")
+    @Description("POST /api/v1/users/bulk")
+    void shouldApplyBulkOperations() throws Exception {
+        User existing = userRepository.save(user("existing"));
+        mockMvc.perform(get("/api/v1/users/" + existing.getId())).andExpect(status().isOk());
+        String operations = "{\"op\":\"CREATE\",\"username\":\"bulk1\",\"fullName\":\"Bulk, \\\"One\\\"\"}\n"
+                + "{\"op\":\"CREATE\",\"username\":\"existing\"}\n"
+                + "{\"op\":\"UPDATE\",\"id\":" + existing.getId() + ",\"email\":\"updated@example.com\"}\n"
+                + "{\"op\":\"DELETE\",\"id\":9999}\n"
+                + "not json\n";
+
+        MvcResult result = mockMvc.perform(post("/api/v1/users/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(operations))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertThat(lines).hasSize(5);
+        User created = userRepository.findByUsername("bulk1").orElseThrow();
+        assertThat(created.getFullName()).isEqualTo("Bulk, \"One\"");
+        assertThat(lines[0])
+                .isEqualTo("{\"line\":1,\"op\":\"CREATE\",\"status\":\"CREATED\",\"id\":" + created.getId() + "}");
+        assertThat(lines[1]).contains("\"status\":\"CONFLICT\"");
+        assertThat(lines[2]).contains("\"status\":\"UPDATED\"");
+        assertThat(lines[3]).contains("\"status\":\"NOT_FOUND\"");
+        assertThat(lines[4]).contains("\"line\":5", "\"status\":\"INVALID\"");
+        assertThat(userRepository.findById(existing.getId()).orElseThrow().getEmail())
+                .isEqualTo("updated@example.com");
+        assertThat(userRepository.findById(existing.getId()).orElseThrow().getFullName())
+                .isEqualTo("existing user");
+        mockMvc.perform(get("/api/v1/users/" + existing.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("updated@example.com"));
     }
 
     @Test
@@ -153,6 +452,8 @@ class UserControllerAT {
                 .email("test@example.com")
                 .build();
         existingUser = userRepository.save(existingUser);
+        // Load the user into the cache so the update has to invalidate it
+        mockMvc.perform(get("/api/v1/users/username/testuser")).andExpect(status().isOk());
 
         UpdateUserRequest updateUserRequest = new UpdateUserRequest();
         updateUserRequest.setFullName("Updated Test User");
@@ -166,6 +467,10 @@ class UserControllerAT {
                 .andExpect(jsonPath("$.username").value("testuser")) // Username should not change
                 .andExpect(jsonPath("$.fullName").value("Updated Test User"))
                 .andExpect(jsonPath("$.email").value("updated.test@example.com"));
+
+        mockMvc.perform(get("/api/v1/users/username/testuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Updated Test User"));
     }
 
     @Test
@@ -214,11 +519,13 @@ class UserControllerAT {
                 .email("delete@example.com")
                 .build();
         userToDelete = userRepository.save(userToDelete);
+        mockMvc.perform(get("/api/v1/users/" + userToDelete.getId())).andExpect(status().isOk());
 
         mockMvc.perform(delete("/api/v1/users/" + userToDelete.getId())).andExpect(status().isNoContent());
 
         // Verify the user is actually deleted
         mockMvc.perform(get("/api/v1/users/" + userToDelete.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/users/username/deleteuser")).andExpect(status().isNotFound());
     }
 
     @Test
@@ -228,4 +535,175 @@ class UserControllerAT {
         long nonExistentId = 9997L;
         mockMvc.perform(delete("/api/v1/users/" + nonExistentId)).andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Should report a username as available until a user is created with it")
+    @Description("GET /api/v1/users/username/{username}/availability")
+    void shouldCheckUsernameAvailability() throws Exception {
+        mockMvc.perform(get("/api/v1/users/username/newname/availability"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("newname"))
+                .andExpect(jsonPath("$.available").value(true));
+
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateUserRequest("newname", "New Name", "new@example.com"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/users/username/newname/availability"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+        mockMvc.perform(get("/api/v1/users/username/newname")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should report the username of a deleted user as available before and after a rebuild")
+    @Description("GET /api/v1/users/username/{username}/availability")
+    void shouldReportDeletedUsernameAsAvailable() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateUserRequest("leaver", "Leaver", "leaver@example.com"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper
+                .readTree(created.getResponse().getContentAsString())
+                .get("id")
+                .asLong();
+
+        mockMvc.perform(delete("/api/v1/users/" + id)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/users/username/leaver/availability"))
+                .andExpect(jsonPath("$.available").value(true));
+        mockMvc.perform(get("/api/v1/users/username/leaver")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should search users by prefix and with typos, a page at a time")
+    @Description("GET /api/v1/users/search")
+    void shouldSearchUsers() throws Exception {
+        long xavier = createUser("xquill", "Xavier Quillfeather", "xavier@example.com");
+        long xena = createUser("xena", "Xena Quillfeather", "xena@example.com");
+
+        MvcResult first = mockMvc.perform(
+                        get("/api/v1/users/search").param("q", "quillf").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(xavier))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        String cursor = objectMapper
+                .readTree(first.getResponse().getContentAsString())
+                .get("nextCursor")
+                .asString();
+        mockMvc.perform(get("/api/v1/users/search")
+                        .param("q", "quillf")
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(xena))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/users/search").param("q", "xena quilfeather"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].username").value("xena"));
+        mockMvc.perform(get("/api/v1/users/search").param("q", "quilfeather").param("fuzzy", "false"))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and deletes in search results")
+    @Description("GET /api/v1/users/search")
+    void shouldSearchChangedUsers() throws Exception {
+        long id = createUser("ychanger", "Yolanda Before", "yolanda@example.com");
+        mockMvc.perform(put("/api/v1/users/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateUserRequest("Yolanda Afterwards", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/users/search").param("q", "yolanda"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].fullName").value("Yolanda Afterwards"));
+        mockMvc.perform(get("/api/v1/users/search").param("q", "before").param("fuzzy", "false"))
+                .andExpect(jsonPath("$.items.length()").value(0));
+
+        mockMvc.perform(delete("/api/v1/users/" + id)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/users/search").param("q", "yolanda"))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a blank query or a cursor from another query")
+    @Description("GET /api/v1/users/search")
+    void shouldRejectInvalidSearch() throws Exception {
+        mockMvc.perform(get("/api/v1/users/search").param("q", " ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users/search").param("q", "a").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users/search").param("q", "a").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should look up users by id and username in request order with misses")
+    @Description("POST /api/v1/users/lookup")
+    void shouldLookupUsers() throws Exception {
+        List<User> users = userRepository.saveAll(List.of(user("alice"), user("bob")));
+        long alice = users.get(0).getId();
+        long bob = users.get(1).getId();
+        // Load one user into the cache so the lookup mixes cached and queried users
+        mockMvc.perform(get("/api/v1/users/" + bob)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserLookupRequest.builder()
+                                .ids(List.of(bob, 999_999L, alice))
+                                .usernames(List.of("alice", "nobody"))
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byId[0].username").value("bob"))
+                .andExpect(jsonPath("$.byId[1]").value(Matchers.nullValue()))
+                .andExpect(jsonPath("$.byId[2].username").value("alice"))
+                .andExpect(jsonPath("$.byUsername[0].id").value(alice))
+                .andExpect(jsonPath("$.byUsername[1]").value(Matchers.nullValue()))
+                .andExpect(jsonPath("$.missingIds[0]").value(999_999L))
+                .andExpect(jsonPath("$.missingUsernames[0]").value("nobody"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when looking up no users or too many")
+    @Description("POST /api/v1/users/lookup")
+    void shouldRejectInvalidLookup() throws Exception {
+        mockMvc.perform(post("/api/v1/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserLookupRequest.builder()
+                                .ids(LongStream.rangeClosed(1, 1001).boxed().toList())
+                                .build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createUser(String username, String fullName, String email) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateUserRequest(username, fullName, email))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper
+                .readTree(created.getResponse().getContentAsString())
+                .get("id")
+                .asLong();
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .username(username)
+                .fullName(username + " user")
+                .email(username + "@example.com")
+                .build();
+    }
 }
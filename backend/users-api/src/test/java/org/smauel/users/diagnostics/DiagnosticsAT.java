@@ -0,0 +1,116 @@
+package org.smauel.users.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.qameta.allure.Description;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smauel.observability.diagnostics.DiagnosticsClient;
+import org.smauel.observability.diagnostics.SlowQueryLog;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The diagnostics auto-configured by observability-common, wired into the service and exposed on the management port
+ * by the {@code ops} profile. Every statement counts as slow, and the user cache is off so that reads reach the db.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("ops")
+@TestPropertySource(
+        properties = {
+            "management.server.port=0",
+            "users.cache.enabled=false",
+            "observability.slow-query.threshold=PT0S"
+        })
+@DisplayName("Diagnostics")
+class DiagnosticsAT {
+    private static final String USERNAME = "diagnoseduser";
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    private DiagnosticsClient diagnostics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        diagnostics = new DiagnosticsClient(port, managementPort);
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .username(USERNAME)
+                .fullName("Diagnosed User")
+                .email("diagnosed@example.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        diagnostics.deleteRecordings();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should serve the diagnostics endpoints on the management port and not on the application port")
+    @Description("GET /actuator/{endpoint}")
+    void shouldServeDiagnosticsOnManagementPortOnly() {
+        diagnostics.assertServedOnManagementPortOnly(List.of("jfr", "hibernate"));
+    }
+
+    @Test
+    @DisplayName("Should record requests with their service and repository calls")
+    @Description("POST /actuator/jfr, GET /actuator/jfr/{id}")
+    void shouldRecordRequestsWithTheirCalls(@TempDir Path directory) throws Exception {
+        long recording = diagnostics.startRecording("default");
+        String requestId = diagnostics.requestId("/api/v1/users/{id}", user.getId());
+        List<RecordedEvent> events = diagnostics.stopRecording(recording, directory);
+
+        assertThat(DiagnosticsClient.events(events, "org.smauel.HttpRequest", requestId))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getString("uri")).isEqualTo("/api/v1/users/{id}"));
+        assertThat(DiagnosticsClient.events(events, "org.smauel.ServiceCall", requestId))
+                .anySatisfy(event -> assertThat(event.getString("method")).isEqualTo("getUserById"));
+        assertThat(DiagnosticsClient.events(events, "org.smauel.RepositoryCall", requestId))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("repository")).isEqualTo("UserRepository");
+                    assertThat(event.getInt("rows")).isEqualTo(1);
+                });
+    }
+
+    @Test
+    @DisplayName("Should log slow queries with their repository method but not their values")
+    @Description("GET /api/v1/users/username/{username}, GET /actuator/hibernate")
+    void shouldLogSlowQueries() {
+        String requestId = diagnostics.requestId("/api/v1/users/username/{username}", USERNAME);
+
+        assertThat(slowQueryLog.recent())
+                .filteredOn(query -> requestId.equals(query.requestId()))
+                .isNotEmpty()
+                .anySatisfy(query -> {
+                    assertThat(query.repositoryMethod()).isEqualTo("UserRepository.findByUsername");
+                    assertThat(query.parameters()).isEqualTo("(String)");
+                })
+                .allSatisfy(query -> assertThat(query.parameters()).doesNotContain(USERNAME));
+        diagnostics.assertHibernateStatistics();
+    }
+}
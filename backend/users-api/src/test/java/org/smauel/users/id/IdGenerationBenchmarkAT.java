@@ -0,0 +1,125 @@
+package org.smauel.users.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.smauel.persistence.id.ConfigurableIdGenerator;
+import org.smauel.users.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Compares bulk inserts of users with ids from an identity column, as before ids were generated by
+ * {@link ConfigurableIdGenerator}, with the pooled-lo sequence users now use.
+ */
+@DataJpaTest(showSql = false)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Tag("benchmark")
+@DisplayName("Id Generation Benchmark")
+@Slf4j
+class IdGenerationBenchmarkAT {
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        // Warm up both paths so the comparison is not dominated by class loading and statement preparation
+        insert(100, IdentityUser::new);
+        insert(100, i -> User.builder().username("warmup" + i).build());
+    }
+
+    @Test
+    @DisplayName("Should batch inserts of sequence ids and not of identity ids")
+    void shouldBatchSequenceInserts() {
+        Result identity = insert(ROWS, IdentityUser::new);
+        Result sequence = insert(ROWS, i -> User.builder()
+                .username("user" + i)
+                .email(i + "@example.com")
+                .build());
+
+        log.info(
+                "Inserted {} rows: identity {} statements in {} ms ({} rows/s), sequence {} statements in {} ms ({} rows/s)",
+                ROWS,
+                identity.statements(),
+                identity.millis(),
+                identity.throughput(),
+                sequence.statements(),
+                sequence.millis(),
+                sequence.throughput());
+        // Identity needs one round trip per row, the sequence one per block of 50 ids and one per JDBC batch
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(ROWS);
+        assertThat(sequence.statements()).isLessThanOrEqualTo(ROWS / 50 * 2 + 2);
+    }
+
+    private Result insert(int rows, IntFunction<Object> factory) {
+        List<Object> entities = IntStream.range(0, rows).mapToObj(factory).toList();
+        statistics.clear();
+        long start = System.nanoTime();
+        entities.forEach(entityManager::persist);
+        entityManager.flush();
+        long nanos = System.nanoTime() - start;
+        entityManager.clear();
+        return new Result(rows, statistics.getPrepareStatementCount(), nanos);
+    }
+
+    private record Result(int rows, long statements, long nanos) {
+        long millis() {
+            return nanos / 1_000_000;
+        }
+
+        long throughput() {
+            return rows * 1_000_000_000L / Math.max(nanos, 1);
+        }
+    }
+
+    /**
+     * A users table keyed by an identity column, the baseline the benchmark compares against
+     */
+    @Entity
+    @Table(name = "identity_users")
+    @Getter
+    @NoArgsConstructor
+    static class IdentityUser {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(nullable = false)
+        private String username;
+
+        @Column
+        private String email;
+
+        IdentityUser(int i) {
+            this.username = "identity" + i;
+            this.email = i + "@example.com";
+        }
+    }
+}
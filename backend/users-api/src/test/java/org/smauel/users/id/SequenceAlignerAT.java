@@ -0,0 +1,53 @@
+package org.smauel.users.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.persistence.id.SequenceAligner;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest(showSql = false)
+@Import(SequenceAligner.class)
+@DisplayName("Sequence Aligner")
+class SequenceAlignerAT {
+
+    @Autowired
+    private SequenceAligner sequenceAligner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should move the sequence past ids inserted by an identity column")
+    void shouldRestartSequencePastExistingIds() {
+        jdbcTemplate.update("INSERT INTO users (id, username) VALUES (100000, 'legacy')");
+
+        sequenceAligner.realign();
+        User user = userRepository.saveAndFlush(User.builder().username("new").build());
+
+        assertThat(user.getId()).isGreaterThan(100000L);
+    }
+
+    @Test
+    @DisplayName("Should align a sequence once, on the first start, and never restart it on later starts")
+    void shouldAlignOnce() {
+        assertThat(jdbcTemplate.queryForList(
+                        "SELECT sequence_name FROM " + SequenceAligner.ALIGNMENTS_TABLE, String.class))
+                .contains("users_seq");
+        jdbcTemplate.update("INSERT INTO users (id, username) VALUES (200000, 'restarted')");
+
+        sequenceAligner.afterSingletonsInstantiated();
+        User user = userRepository.saveAndFlush(User.builder().username("later").build());
+
+        assertThat(user.getId()).isLessThan(200000L);
+    }
+}
@@ -0,0 +1,114 @@
+package org.smauel.users.metrics;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Description;
+import java.util.List;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.smauel.observability.metrics.MetricsAssertions;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.smauel.users.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Metrics")
+class MetricsAT {
+    private static final String USERNAME = "meteredusername";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .username(USERNAME)
+                .fullName("Metered User")
+                .email("metered@example.com")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should time requests per endpoint with SLO buckets")
+    @Description("GET /api/v1/users/{id}")
+    void shouldTimeRequestsPerEndpoint() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId())).andExpect(status().isOk());
+
+        MetricsAssertions.assertRequestTimed(meterRegistry, "GET", "/api/v1/users/{id}", 200);
+    }
+
+    @Test
+    @DisplayName("Should time every service method and repository call")
+    @Description("service.invocations, spring.data.repository.invocations")
+    void shouldTimeServicesAndRepositories() throws Exception {
+        mockMvc.perform(get("/api/v1/users/username/{username}", USERNAME)).andExpect(status().isOk());
+
+        MetricsAssertions.assertServiceTimed(applicationContext, UserService.class, "findUserByUsername");
+        MetricsAssertions.assertRepositoryTimed(meterRegistry, "UserRepository", "findByUsername");
+    }
+
+    @Test
+    @DisplayName("Should publish connection pool, Hibernate and JVM metrics")
+    @Description("hikaricp.*, hibernate.*, jvm.*")
+    void shouldPublishPoolHibernateAndJvmMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId())).andExpect(status().isOk());
+
+        MetricsAssertions.assertPoolHibernateAndJvmMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should not tag meters with user data")
+    @Description("GET /actuator/metrics")
+    void shouldNotTagMetersWithUserData() throws Exception {
+        mockMvc.perform(get("/api/v1/users/username/{username}", USERNAME)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users/username/{username}", USERNAME + "-missing"))
+                .andExpect(status().isNotFound());
+        // an unmatched path must not become a uri tag of its own, whatever its status
+        mockMvc.perform(get("/api/v1/unmapped/{username}", USERNAME));
+
+        MetricsAssertions.assertNoTagContains(meterRegistry, USERNAME, user.getEmail());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'uri')].values[*]")
+                        .value(Matchers.hasItem("/api/v1/users/username/{username}")))
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'application')].values[*]")
+                        .value(Matchers.contains("users-api")));
+    }
+
+    @Test
+    @DisplayName("Should expose only the metrics and health endpoints without the ops profile")
+    @Description("GET /actuator")
+    void shouldNotExposeDiagnosticsByDefault() throws Exception {
+        ResultActions links = mockMvc.perform(get("/actuator")).andExpect(status().isOk());
+        links.andExpect(jsonPath("$._links.prometheus").exists());
+        for (String endpoint : List.of("jfr", "hibernate")) {
+            links.andExpect(jsonPath("$._links." + endpoint).doesNotExist());
+        }
+    }
+}
@@ -220,4 +220,23 @@ class UserRepositoryAT {
         Optional<User> correctCaseFoundUserOpt = userRepository.findByUsername("johndoe");
         assertThat(correctCaseFoundUserOpt).isPresent();
     }
+
+    @Test
+    @DisplayName("findByUsernameIn should return only the users with the given usernames")
+    void whenFindByUsernameIn_thenReturnMatchingUsers() {
+        userRepository.saveAll(List.of(user1, user2));
+
+        List<User> found = userRepository.findByUsernameIn(List.of("janedoe", "nonexistentuser"));
+
+        assertThat(found).extracting(User::getUsername).containsExactly("janedoe");
+    }
+
+    @Test
+    @DisplayName("existsByUsername should report whether a user has the username")
+    void whenExistsByUsername_thenReportsPresence() {
+        userRepository.save(user1);
+
+        assertThat(userRepository.existsByUsername("johndoe")).isTrue();
+        assertThat(userRepository.existsByUsername("janedoe")).isFalse();
+    }
 }
@@ -0,0 +1,58 @@
+package org.smauel.users.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Long Set")
+class LongSetTest {
+
+    @Test
+    @DisplayName("Should behave like a set through random adds and removes")
+    void shouldMatchHashSet() {
+        LongSet set = new LongSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = 1 + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            } else {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        Set<Long> actual = new HashSet<>();
+        set.forEachWhile(actual::add);
+        assertThat(actual).isEqualTo(expected);
+        expected.forEach(value -> assertThat(set.contains(value)).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should stop visiting when the visitor returns false")
+    void shouldStopVisiting() {
+        LongSet set = new LongSet();
+        set.add(1);
+        set.add(2);
+        set.add(3);
+
+        int[] visited = {0};
+        boolean completed = set.forEachWhile(value -> ++visited[0] < 2);
+
+        assertThat(completed).isFalse();
+        assertThat(visited[0]).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject values that are not positive")
+    void shouldRejectNonPositiveValues() {
+        assertThatThrownBy(() -> new LongSet().add(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
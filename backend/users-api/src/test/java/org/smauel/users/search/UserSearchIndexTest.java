@@ -0,0 +1,161 @@
+package org.smauel.users.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.users.dto.UserDto;
+
+@DisplayName("User Search Index")
+class UserSearchIndexTest {
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(10_000);
+        index.put(user(1, "jdoe", "Jane Doe", "jane.doe@example.com"));
+        index.put(user(2, "jsmith", "John Smith", "john@example.com"));
+        index.put(user(3, "doelover", "Mary Jones", "mary@doe.org"));
+        index.put(user(4, "alice", "Alice Johnson", "alice@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should match the start of words in any field")
+    void shouldMatchPrefixes() {
+        assertThat(ids("joh", false)).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(ids("jane.d", false)).containsExactly(1L);
+        assertThat(ids("smith", false)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should not index email domains as words of their own")
+    void shouldNotMatchEmailDomains() {
+        assertThat(ids("example", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank by the weight of the field and how closely the term matches")
+    void shouldRank() {
+        // Exact username match, then exact full name match, then username prefix
+        index.put(user(5, "doe", "Someone Else", "x@example.com"));
+
+        assertThat(ids("doe", false)).containsExactly(5L, 1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should require every query term to match")
+    void shouldMatchAllTerms() {
+        assertThat(ids("john smith", false)).containsExactly(2L);
+        assertThat(ids("john jones", false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos when fuzzy")
+    void shouldMatchTypos() {
+        assertThat(ids("jhon", false)).isEmpty();
+        // Transposed, substituted and missing characters
+        assertThat(ids("jhon", true)).containsExactly(2L);
+        assertThat(ids("smyth", true)).containsExactly(2L);
+        assertThat(ids("johnsn", true)).containsExactly(4L, 2L);
+        // Short terms are only matched exactly or by prefix
+        assertThat(ids("jx", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rank prefix matches above typo matches")
+    void shouldRankPrefixAboveTypos() {
+        index.put(user(6, "marry", "Marry Me", "m@example.com"));
+
+        assertThat(ids("mary", true)).containsExactly(3L, 6L);
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals")
+    void shouldUpdate() {
+        index.put(user(2, "jsmith", "Jonathan Smythe", "jon@example.com"));
+        index.remove(4);
+
+        assertThat(ids("john", false)).isEmpty();
+        assertThat(ids("jonathan", false)).containsExactly(2L);
+        assertThat(ids("alice", false)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should page through ranked hits")
+    void shouldPage() {
+        for (long id = 10; id < 25; id++) {
+            index.put(user(id, "page" + id, "Paged User", "page" + id + "@example.com"));
+        }
+        List<String> terms = UserSearchIndex.queryTerms("paged");
+
+        List<UserSearchIndex.Hit> first = index.search(terms, false, null, 10);
+        UserSearchIndex.Hit last = first.getLast();
+        List<UserSearchIndex.Hit> second = index.search(
+                terms, false, new SearchCursor(last.score(), last.user().getId()), 10);
+
+        assertThat(first).hasSize(10);
+        assertThat(second).hasSize(5);
+        assertThat(first.stream().map(hit -> hit.user().getId()))
+                .containsExactly(10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L);
+        assertThat(second.stream().map(hit -> hit.user().getId())).containsExactly(20L, 21L, 22L, 23L, 24L);
+    }
+
+    @Test
+    @DisplayName("Should serve only the best ranked hits up to the configured maximum")
+    void shouldCapHits() {
+        UserSearchIndex capped = new UserSearchIndex(5);
+        for (long id = 1; id <= 20; id++) {
+            capped.put(user(id, "user" + id, null, null));
+        }
+        List<String> terms = UserSearchIndex.queryTerms("user");
+
+        List<UserSearchIndex.Hit> first = capped.search(terms, false, null, 3);
+        UserSearchIndex.Hit last = first.getLast();
+        List<UserSearchIndex.Hit> second =
+                capped.search(terms, false, new SearchCursor(last.score(), last.user().getId()), 3);
+
+        assertThat(first.stream().map(hit -> hit.user().getId())).containsExactly(1L, 2L, 3L);
+        assertThat(second.stream().map(hit -> hit.user().getId())).containsExactly(4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should find users matching every term when a term matches more users than the maximum")
+    void shouldIntersectBeforeCapping() {
+        UserSearchIndex capped = new UserSearchIndex(5);
+        for (long id = 1; id <= 20; id++) {
+            capped.put(user(id, "common" + id, "Common User", null));
+        }
+        capped.put(user(21, "common21", "Rare User", null));
+
+        assertThat(capped.search(UserSearchIndex.queryTerms("common rare"), false, null, 100).stream()
+                        .map(hit -> hit.user().getId()))
+                .containsExactly(21L);
+        assertThat(capped.search(UserSearchIndex.queryTerms("common rare"), true, null, 100))
+                .hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should normalise query terms")
+    void shouldNormaliseQuery() {
+        assertThat(UserSearchIndex.queryTerms("  John   SMITH john ")).containsExactly("john", "smith");
+        assertThat(UserSearchIndex.queryTerms("   ")).isEmpty();
+    }
+
+    private List<Long> ids(String query, boolean fuzzy) {
+        return index.search(UserSearchIndex.queryTerms(query), fuzzy, null, 100).stream()
+                .map(hit -> hit.user().getId())
+                .toList();
+    }
+
+    private static UserDto user(long id, String username, String fullName, String email) {
+        return UserDto.builder()
+                .id(id)
+                .username(username)
+                .fullName(fullName)
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,211 @@
+package org.smauel.users.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.smauel.users.bloom.UsernameFilter;
+import org.smauel.users.cache.UserCache;
+import org.smauel.users.config.BulkOperationProperties;
+import org.smauel.users.dto.BulkOperationResult;
+import org.smauel.users.dto.BulkOperationResult.Status;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserBulkRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("User Bulk Service")
+class UserBulkServiceTest {
+
+    @Mock
+    private UserBulkRepository userBulkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    @Mock
+    private UserSearchService userSearchService;
+
+    private BulkOperationProperties properties;
+    private Validator validator;
+    private UserBulkService userBulkService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkOperationProperties();
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        userBulkService = new UserBulkService(
+                userBulkRepository,
+                properties,
+                transactionManager,
+                validator,
+                JsonMapper.builder().build(),
+                userCache,
+                usernameFilter,
+                userSearchService,
+                Mappers.getMapper(UserMapper.class));
+        when(userBulkRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+                    List<User> users = invocation.getArgument(0);
+                    users.forEach(user -> user.setId(ids.incrementAndGet()));
+                    return null;
+                })
+                .when(userBulkRepository)
+                .insertAll(anyList());
+        when(userBulkRepository.updateAll(anyList())).thenReturn(Set.of());
+        when(userBulkRepository.deleteAll(anyList())).thenReturn(Set.of());
+    }
+
+    @Test
+    @DisplayName("Should apply operations in batches of the configured size")
+    void shouldApplyInBatches() throws IOException {
+        properties.setBatchSize(2);
+        String input = create("a") + create("b") + create("c");
+
+        List<BulkOperationResult> results = apply(input);
+
+        assertThat(results).extracting(BulkOperationResult::getLine).containsExactly(1L, 2L, 3L);
+        verify(userBulkRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should report invalid lines without applying them")
+    void shouldReportInvalidLines() throws IOException {
+        String input = "not json\n" + "{\"op\":\"CREATE\",\"email\":\"bad\"}\n" + "{\"op\":\"DELETE\"}\n" + "\n"
+                + "{\"username\":\"x\"}\n";
+
+        List<BulkOperationResult> results = apply(input);
+
+        assertThat(results).extracting(BulkOperationResult::getLine).containsExactly(1L, 2L, 3L, 5L);
+        assertThat(results).extracting(BulkOperationResult::getStatus).containsOnly(Status.INVALID);
+        assertThat(results.get(1).getError()).contains("Username is required", "Email should be valid");
+        assertThat(results.get(2).getError()).isEqualTo("id is required");
+        assertThat(results.get(3).getError()).isEqualTo("op is required");
+    }
+
+    @Test
+    @DisplayName("Should reject lines longer than the maximum length")
+    void shouldRejectLongLines() throws IOException {
+        properties.setMaxLineLength(32);
+        String input = "{\"op\":\"CREATE\",\"username\":\"" + "x".repeat(100) + "\"}\n" + create("ok");
+
+        List<BulkOperationResult> results = apply(input);
+
+        assertThat(results).extracting(BulkOperationResult::getStatus).containsExactly(Status.INVALID, Status.CREATED);
+        assertThat(results.get(1).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should report conflicts for existing and repeated usernames")
+    void shouldReportConflicts() throws IOException {
+        when(userBulkRepository.findExistingUsernames(Set.of("taken", "new"))).thenReturn(Set.of("taken"));
+
+        List<BulkOperationResult> results = apply(create("taken") + create("new") + create("new"));
+
+        assertThat(results)
+                .extracting(BulkOperationResult::getStatus)
+                .containsExactly(Status.CONFLICT, Status.CREATED, Status.CONFLICT);
+        assertThat(results.get(1).getId()).isEqualTo(1L);
+        verify(usernameFilter).add("new");
+        verify(usernameFilter, never()).add("taken");
+    }
+
+    @Test
+    @DisplayName("Should report updates and deletes of missing users as not found")
+    void shouldReportMissingUsers() throws IOException {
+        when(userBulkRepository.updateAll(anyList())).thenReturn(Set.of(1L));
+        when(userBulkRepository.deleteAll(List.of(3L))).thenReturn(Set.of());
+
+        List<BulkOperationResult> results = apply("{\"op\":\"UPDATE\",\"id\":1,\"fullName\":\"One\"}\n"
+                + "{\"op\":\"UPDATE\",\"id\":2,\"fullName\":\"Two\"}\n" + "{\"op\":\"DELETE\",\"id\":3}");
+
+        assertThat(results)
+                .extracting(BulkOperationResult::getStatus)
+                .containsExactly(Status.UPDATED, Status.NOT_FOUND, Status.NOT_FOUND);
+        verify(userCache).invalidateAll(Set.of(1L));
+        verify(userCache).invalidateAll(Set.of());
+        verify(userSearchService).refreshAll(Set.of(1L));
+        verify(userSearchService).removeAll(Set.of());
+    }
+
+    @Test
+    @DisplayName("Should fail every written operation in a batch that fails as a whole")
+    void shouldFailWholeBatch() throws IOException {
+        when(userBulkRepository.deleteAll(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+
+        List<BulkOperationResult> results =
+                apply(create("a") + "{\"op\":\"DELETE\",\"id\":3}\n" + "{\"op\":\"DELETE\"}\n");
+
+        assertThat(results)
+                .extracting(BulkOperationResult::getStatus)
+                .containsExactly(Status.FAILED, Status.FAILED, Status.INVALID);
+        assertThat(results.get(0).getError()).isEqualTo("Batch failed: boom");
+    }
+
+    @Test
+    @DisplayName("Should fail the written operations of a batch that fails to commit and keep the resolved ones")
+    void shouldFailBatchThatFailsToCommit() throws IOException {
+        when(userBulkRepository.findExistingUsernames(Set.of("a", "taken"))).thenReturn(Set.of("taken"));
+        when(userBulkRepository.updateAll(anyList())).thenReturn(Set.of(1L));
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        List<BulkOperationResult> results = apply(create("a") + create("taken")
+                + "{\"op\":\"UPDATE\",\"id\":1,\"fullName\":\"One\"}\n"
+                + "{\"op\":\"UPDATE\",\"id\":2,\"fullName\":\"Two\"}\n");
+
+        assertThat(results)
+                .extracting(BulkOperationResult::getStatus)
+                .containsExactly(Status.FAILED, Status.CONFLICT, Status.FAILED, Status.NOT_FOUND);
+        assertThat(results.get(0).getError()).isEqualTo("Batch failed: commit failed");
+        assertThat(results.get(0).getId()).isNull();
+        assertThat(results.get(1).getError()).isEqualTo("Username already exists: taken");
+        assertThat(results.get(3).getError()).isEqualTo("User not found with id: 2");
+    }
+
+    private List<BulkOperationResult> apply(String input) throws IOException {
+        List<BulkOperationResult> results = new ArrayList<>();
+        userBulkService.applyOperations(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), results::add);
+        return results;
+    }
+
+    private static String create(String username) {
+        return "{\"op\":\"CREATE\",\"username\":\"" + username + "\"}\n";
+    }
+}
@@ -0,0 +1,70 @@
+package org.smauel.users.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.smauel.users.dto.UserDto;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Export Service")
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userRepository, Mappers.getMapper(UserMapper.class), entityManager);
+    }
+
+    @Test
+    @DisplayName("Should export every user in order, detaching each one and closing the stream")
+    void shouldExportUsersInOrder() {
+        User first = User.builder().id(1L).username("first").build();
+        User second = User.builder().id(2L).username("second").build();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamByIdGreaterThan(Long.MIN_VALUE))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        List<UserDto> exported = new ArrayList<>();
+
+        userExportService.exportUsers(null, exported::add);
+
+        assertThat(exported).extracting(UserDto::getUsername).containsExactly("first", "second");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should resume the export after the given id")
+    void shouldResumeAfterId() {
+        User user = User.builder().id(6L).username("resumed").build();
+        when(userRepository.streamByIdGreaterThan(5L)).thenReturn(Stream.of(user));
+        List<UserDto> exported = new ArrayList<>();
+
+        userExportService.exportUsers(5L, exported::add);
+
+        assertThat(exported).extracting(UserDto::getId).containsExactly(6L);
+    }
+}
@@ -2,19 +2,27 @@ package org.smauel.users.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,13 +31,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.persistence.pagination.TableStatisticsRepository;
+import org.smauel.users.bloom.UsernameFilter;
+import org.smauel.users.cache.UserCache;
+import org.smauel.users.config.BulkOperationProperties;
 import org.smauel.users.dto.UserDto;
+import org.smauel.users.dto.UserLookupResult;
+import org.smauel.users.dto.UsernameAvailabilityDto;
 import org.smauel.users.dto.request.CreateUserRequest;
 import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.dto.request.UserLookupRequest;
 import org.smauel.users.exception.UserNotFoundException;
 import org.smauel.users.mapper.UserMapper;
 import org.smauel.users.model.User;
+import org.smauel.users.pagination.UserSortKey;
 import org.smauel.users.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -37,8 +60,25 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TableStatisticsRepository tableStatisticsRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    @Mock
+    private UserSearchService userSearchService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private UserMapper userMapper; // Real instance, not mocked
 
+    private BulkOperationProperties bulkOperationProperties;
+
     private UserService userService; // Manually instantiated
 
     private User user; // A general user instance for tests
@@ -49,7 +89,17 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         userMapper = Mappers.getMapper(UserMapper.class); // Initialize real UserMapper
-        userService = new UserService(userRepository, userMapper); // Manually inject dependencies
+        bulkOperationProperties = new BulkOperationProperties();
+        userService = new UserService(
+                userRepository,
+                userMapper,
+                tableStatisticsRepository,
+                userCache,
+                usernameFilter,
+                userSearchService,
+                bulkOperationProperties,
+                transactionManager); // Manually inject dependencies
+        lenient().when(usernameFilter.mightContain(any())).thenReturn(true);
 
         user = User.builder()
                 .id(1L)
@@ -97,6 +147,8 @@ class UserServiceTest {
         assertEquals(expectedDto.getEmail(), result.getEmail());
 
         verify(userRepository, times(1)).save(any(User.class));
+        verify(usernameFilter, times(1)).add("newuser");
+        verify(userSearchService, times(1)).index(result);
     }
 
     @Test
@@ -134,6 +186,8 @@ class UserServiceTest {
                 .save(argThat(saved -> saved.getId().equals(1L)
                         && saved.getFullName().equals(updateUserRequest.getFullName())
                         && saved.getEmail().equals(updateUserRequest.getEmail())));
+        verify(userCache, times(1)).invalidate(1L);
+        verify(userSearchService, times(1)).index(result);
     }
 
     @Test
@@ -260,6 +314,38 @@ class UserServiceTest {
         verify(userRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void getUserById_whenCached_shouldNotQueryRepository() {
+        when(userCache.getById(1L)).thenReturn(userDto);
+
+        UserDto result = userService.getUserById(1L);
+
+        assertSame(userDto, result);
+        verify(userRepository, never()).findById(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void getUserById_whenNotCached_shouldCacheLoadedUser() {
+        when(userCache.version()).thenReturn(7L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDto result = userService.getUserById(1L);
+
+        verify(userCache, times(1)).put(result, 7L);
+    }
+
+    @Test
+    void getUserByUsername_whenCached_shouldNotQueryRepository() {
+        when(userCache.getByUsername("testuser")).thenReturn(userDto);
+
+        UserDto result = userService.getUserByUsername("testuser");
+
+        assertSame(userDto, result);
+        verify(userRepository, never()).findByUsername(any());
+        verifyNoInteractions(transactionManager);
+    }
+
     @Test
     void getUserById_whenUserNotFound_shouldThrowUserNotFoundException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -295,6 +381,106 @@ class UserServiceTest {
         verify(userRepository, times(1)).findByUsername("nonexistent");
     }
 
+    @Test
+    void findUserByUsername_whenNotInUsernameFilter_shouldQueryRepository() {
+        when(usernameFilter.mightContain("elsewhere")).thenReturn(false);
+        when(userRepository.findByUsername("elsewhere")).thenReturn(Optional.of(user));
+
+        Optional<UserDto> result = userService.findUserByUsername("elsewhere");
+
+        assertTrue(result.isPresent());
+        verify(userRepository, times(1)).findByUsername("elsewhere");
+    }
+
+    @Test
+    void findUserByUsername_whenUserNotFound_shouldReturnEmpty() {
+        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+
+        Optional<UserDto> result = userService.findUserByUsername("nonexistent");
+
+        assertTrue(result.isEmpty());
+        verify(userCache, never()).put(any(), eq(0L));
+    }
+
+    @Test
+    void checkUsernameAvailability_whenNotInUsernameFilter_shouldNotQueryRepository() {
+        when(usernameFilter.mightContain("free")).thenReturn(false);
+
+        UsernameAvailabilityDto result = userService.checkUsernameAvailability("free");
+
+        assertEquals("free", result.getUsername());
+        assertTrue(result.isAvailable());
+        verify(userRepository, never()).existsByUsername(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void checkUsernameAvailability_whenUsernameFilterMatches_shouldQueryRepository() {
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(userRepository.existsByUsername("deleted")).thenReturn(false);
+
+        assertFalse(userService.checkUsernameAvailability("testuser").isAvailable());
+        assertTrue(userService.checkUsernameAvailability("deleted").isAvailable());
+    }
+
+    @Test
+    void checkUsernameAvailability_whenCached_shouldNotQueryRepository() {
+        when(userCache.getByUsername("testuser")).thenReturn(userDto);
+
+        assertFalse(userService.checkUsernameAvailability("testuser").isAvailable());
+        verify(userRepository, never()).existsByUsername(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void lookupUsers_shouldReturnUsersInRequestOrderWithMisses() {
+        User other = User.builder().id(2L).username("other").build();
+        when(userCache.getById(any())).thenReturn(null);
+        when(userCache.getById(1L)).thenReturn(userDto);
+        when(userRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(other));
+        when(userRepository.findByUsernameIn(List.of("other", "nobody"))).thenReturn(List.of(other));
+
+        UserLookupResult result = userService.lookupUsers(UserLookupRequest.builder()
+                .ids(List.of(3L, 1L, 2L, 1L))
+                .usernames(List.of("other", "nobody"))
+                .build());
+
+        assertEquals(
+                Arrays.asList(null, 1L, 2L, 1L),
+                result.getById().stream()
+                        .map(found -> found == null ? null : found.getId())
+                        .toList());
+        assertEquals(List.of(3L), result.getMissingIds());
+        assertEquals(
+                Arrays.asList("other", null),
+                result.getByUsername().stream()
+                        .map(found -> found == null ? null : found.getUsername())
+                        .toList());
+        assertEquals(List.of("nobody"), result.getMissingUsernames());
+        verify(userCache, times(2)).put(argThat(found -> found.getId().equals(2L)), eq(0L));
+    }
+
+    @Test
+    void lookupUsers_shouldQueryInChunksIncludingUsernamesTheFilterHasNotSeen() {
+        bulkOperationProperties.setLookupChunkSize(2);
+        User elsewhere = User.builder().id(6L).username("elsewhere").build();
+        when(usernameFilter.mightContain("elsewhere")).thenReturn(false);
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+        when(userRepository.findByUsernameIn(List.of("elsewhere", "unknown"))).thenReturn(List.of(elsewhere));
+
+        UserLookupResult result = userService.lookupUsers(UserLookupRequest.builder()
+                .ids(List.of(1L, 2L, 3L, 4L, 5L))
+                .usernames(List.of("elsewhere", "unknown"))
+                .build());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.getMissingIds());
+        assertEquals(List.of("unknown"), result.getMissingUsernames());
+        verify(userRepository, times(1)).findAllById(List.of(1L, 2L));
+        verify(userRepository, times(1)).findAllById(List.of(3L, 4L));
+        verify(userRepository, times(1)).findAllById(List.of(5L));
+        verify(userRepository, times(1)).findByUsernameIn(List.of("elsewhere", "unknown"));
+    }
+
     @Test
     void getAllUsers_shouldReturnListOfUserDtos() {
         User anotherUser = User.builder()
@@ -332,6 +518,43 @@ class UserServiceTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void getUsers_whenMoreUsersExist_shouldReturnPageWithCursor() {
+        PageQuery<UserSortKey> query = PageQuery.<UserSortKey>builder()
+                .sort(UserSortKey.USERNAME)
+                .limit(1)
+                .includeTotal(true)
+                .build();
+        Window<User> window =
+                Window.from(List.of(user), i -> ScrollPosition.forward(Map.of("username", "testuser", "id", 1L)), true);
+        when(userRepository.findBy(
+                        eq(ScrollPosition.keyset()), eq(Sort.by("username").and(Sort.by("id"))), eq(Limit.of(1))))
+                .thenReturn(window);
+        when(tableStatisticsRepository.estimateRowCount("users")).thenReturn(5L);
+
+        CursorPage<UserDto> page = userService.getUsers(query);
+
+        assertEquals(List.of(userDto), page.getItems());
+        assertNotNull(page.getNextCursor());
+        assertEquals(5L, page.getEstimatedTotal());
+    }
+
+    @Test
+    void getUsers_whenLastPage_shouldReturnPageWithoutCursor() {
+        PageQuery<UserSortKey> query =
+                PageQuery.<UserSortKey>builder().sort(UserSortKey.ID).limit(10).build();
+        Window<User> window = Window.from(List.of(user), i -> ScrollPosition.forward(Map.of("id", 1L)), false);
+        when(userRepository.findBy(eq(ScrollPosition.keyset()), eq(Sort.by("id")), eq(Limit.of(10))))
+                .thenReturn(window);
+
+        CursorPage<UserDto> page = userService.getUsers(query);
+
+        assertEquals(List.of(userDto), page.getItems());
+        assertNull(page.getNextCursor());
+        assertNull(page.getEstimatedTotal());
+        verify(tableStatisticsRepository, never()).estimateRowCount(any());
+    }
+
     @Test
     void deleteUser_whenUserExists_shouldDeleteUser() {
         when(userRepository.existsById(1L)).thenReturn(true);
@@ -341,6 +564,8 @@ class UserServiceTest {
 
         verify(userRepository, times(1)).existsById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userCache, times(1)).invalidate(1L);
+        verify(userSearchService, times(1)).removeAll(List.of(1L));
     }
 
     @Test
@@ -0,0 +1,192 @@
+package org.smauel.users.sql;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.qameta.allure.Description;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.smauel.observability.jdbc.StatementBudget;
+import org.smauel.observability.jdbc.StatementBudgetConfig;
+import org.smauel.users.dto.request.CreateUserRequest;
+import org.smauel.users.dto.request.UpdateUserRequest;
+import org.smauel.users.dto.request.UserLookupRequest;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.smauel.users.service.UserSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Statement budgets of every endpoint, over enough users that a query per user shows up as a blown budget. The user
+ * cache is off so that reads are budgeted against the db rather than whatever an earlier test left cached.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(StatementBudgetConfig.class)
+@TestPropertySource(properties = "users.cache.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Statement Budgets")
+class StatementBudgetAT {
+    private static final int USERS = 10;
+    private static final String USERS_PATH = "/api/v1/users";
+
+    @Autowired
+    private StatementBudget statements;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(User.builder()
+                    .username("budget" + i)
+                    .fullName("Budget User " + i)
+                    .email("budget" + i + "@example.com")
+                    .build()));
+        }
+        userSearchService.indexAll(users.stream().map(userMapper::toDto).toList());
+    }
+
+    @AfterAll
+    void tearDown() {
+        userSearchService.removeAll(users.stream().map(User::getId).toList());
+        userRepository.deleteAll();
+        users.clear();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Should keep the user read endpoints within their statement budgets")
+    @Description("/api/v1/users")
+    void shouldKeepReadEndpointsWithinBudget() throws Exception {
+        User user = users.getFirst();
+
+        statements.perform(1, get(USERS_PATH + "/{id}", user.getId())).andExpect(status().isOk());
+        statements
+                .perform(1, get(USERS_PATH + "/username/{username}", user.getUsername()))
+                .andExpect(status().isOk());
+        statements
+                .perform(0, get(USERS_PATH + "/username/{username}/availability", "budget-new"))
+                .andExpect(status().isOk());
+        statements
+                .perform(2, get(USERS_PATH).param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(USERS)));
+        statements
+                .perform(1, get(USERS_PATH).param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(USERS)));
+        statements
+                .perform(0, get(USERS_PATH + "/search").param("q", "budget"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(USERS)));
+
+        UserLookupRequest lookup = UserLookupRequest.builder()
+                .ids(users.stream().map(User::getId).toList())
+                .usernames(users.stream().map(User::getUsername).toList())
+                .build();
+        statements
+                .perform(
+                        2,
+                        post(USERS_PATH + "/lookup")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(lookup)))
+                .andExpect(status().isOk());
+        statements.perform(1, get(USERS_PATH + "/export")).andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should keep the user write endpoints within their statement budgets")
+    @Description("/api/v1/users")
+    void shouldKeepWriteEndpointsWithinBudget() throws Exception {
+        CreateUserRequest create = new CreateUserRequest();
+        create.setUsername("budget-new");
+        create.setFullName("Budget New");
+        create.setEmail("budget-new@example.com");
+        String created = statements
+                .perform(
+                        1,
+                        post(USERS_PATH)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(create)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        UpdateUserRequest update = new UpdateUserRequest();
+        update.setFullName("Budget Updated");
+        statements
+                .perform(
+                        2,
+                        put(USERS_PATH + "/{id}", id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        statements.perform(3, delete(USERS_PATH + "/{id}", id)).andExpect(status().isNoContent());
+
+        StringBuilder operations = new StringBuilder();
+        for (int i = 0; i < USERS; i++) {
+            operations
+                    .append("{\"op\":\"CREATE\",\"username\":\"bulk")
+                    .append(i)
+                    .append("\"}\n");
+        }
+        for (User user : users) {
+            operations
+                    .append("{\"op\":\"UPDATE\",\"id\":")
+                    .append(user.getId())
+                    .append(",\"email\":\"updated@example.com\"}\n");
+        }
+        statements
+                .perform(
+                        4,
+                        post(USERS_PATH + "/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(operations.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    @DisplayName("Should have a statement budget for every endpoint")
+    void shouldBudgetEveryEndpoint() {
+        statements.assertEveryEndpointBudgeted();
+    }
+}
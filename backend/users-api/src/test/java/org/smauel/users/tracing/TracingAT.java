@@ -0,0 +1,139 @@
+package org.smauel.users.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.qameta.allure.Description;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smauel.observability.concurrency.RequestIdFilter;
+import org.smauel.observability.tracing.RouteOnlyClientRequestObservationConvention;
+import org.smauel.observability.tracing.SpanCapture;
+import org.smauel.observability.tracing.SpanCaptureConfig;
+import org.smauel.users.model.User;
+import org.smauel.users.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The tracing auto-configured by observability-common, wired into the service: traces of requests, kept whatever their
+ * duration and exported to memory. The user cache is off so that reads reach the db.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(SpanCaptureConfig.class)
+@TestPropertySource(
+        properties = {
+            "users.cache.enabled=false",
+            "observability.tracing.slow-threshold=PT0S",
+            "observability.tracing.sample-rate=0"
+        })
+@DisplayName("Tracing")
+class TracingAT {
+    private static final String USERNAME = "traceduser";
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+    private static final String TRACEPARENT = "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpanCapture spanCapture;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private RouteOnlyClientRequestObservationConvention clientRequestObservationConvention;
+
+    @LocalServerPort
+    private int port;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .username(USERNAME)
+                .fullName("Traced User")
+                .email("traced@example.com")
+                .build());
+        spanCapture.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should trace a request through its controller, service and SQL statements")
+    @Description("GET /api/v1/users/{id}")
+    void shouldTraceRequest() throws Exception {
+        String requestId = mockMvc.perform(
+                        get("/api/v1/users/{id}", user.getId()).header("traceparent", TRACEPARENT))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(RequestIdFilter.HEADER);
+
+        List<SpanData> spans = spanCapture.awaitTrace(TRACE_ID, "http get /api/v1/users/{id}");
+        spanCapture.assertRequestTraced(
+                spans,
+                CALLER_SPAN_ID,
+                "/api/v1/users/{id}",
+                requestId,
+                "UserController.getUserById",
+                "UserService.getUserById",
+                "users");
+    }
+
+    @Test
+    @DisplayName("Should propagate the trace to calls out and to the statements of streamed responses")
+    @Description("GET /api/v1/users/export")
+    void shouldPropagateTrace() throws Exception {
+        RestClient restClient = RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .observationRegistry(observationRegistry)
+                .observationConvention(clientRequestObservationConvention)
+                .build();
+        String export = Observation.createNotStarted("export", observationRegistry)
+                .observe(() ->
+                        restClient.get().uri("/api/v1/users/export").retrieve().body(String.class));
+        assertThat(export).contains(USERNAME);
+
+        String traceId = SpanCapture.span(spanCapture.finished(), "export").getTraceId();
+        List<SpanData> spans = spanCapture.awaitTrace(traceId, "http get /api/v1/users/export");
+        SpanData client = spans.stream()
+                .filter(span ->
+                        span.getKind() == SpanKind.CLIENT && span.getName().equals("http get"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(client.getParentSpanId()).isEqualTo(SpanCapture.span(spans, "export").getSpanId());
+        SpanData server = SpanCapture.span(spans, "http get /api/v1/users/export");
+        assertThat(server.getParentSpanId()).isEqualTo(client.getSpanId());
+        SpanData service = SpanCapture.span(spans, "UserExportService.exportUsers");
+        assertThat(spans)
+                .filteredOn(span -> span.getName().equals("SELECT"))
+                .anySatisfy(span -> assertThat(span.getParentSpanId()).isEqualTo(service.getSpanId()));
+    }
+}
@@ -0,0 +1,15 @@
+package org.smauel.users.reactive;
+
+import org.smauel.users.mapper.UserMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Entry point of the non-blocking read path for users, serving the same users as users-api on WebFlux and R2DBC
+ */
+@SpringBootApplication(scanBasePackageClasses = {ReactiveUsersApplication.class, UserMapper.class})
+public class ReactiveUsersApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUsersApplication.class, args);
+    }
+}
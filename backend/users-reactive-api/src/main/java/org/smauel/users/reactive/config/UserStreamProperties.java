@@ -0,0 +1,21 @@
+package org.smauel.users.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for streaming every user to a client
+ */
+@Data
+@ConfigurationProperties(prefix = "users.stream")
+public class UserStreamProperties {
+    /**
+     * The number of rows fetched from the db per round trip while streaming
+     */
+    private int fetchSize = 500;
+
+    /**
+     * The number of users requested from the db ahead of what the client has consumed, replenished as it reads
+     */
+    private int prefetch = 256;
+}
@@ -0,0 +1,97 @@
+package org.smauel.users.reactive.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.users.dto.UserDto;
+import org.smauel.users.pagination.UserSortKey;
+import org.smauel.users.reactive.service.UserReadService;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the read endpoints of users-api
+ */
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Validated
+public class ReactiveUserController {
+    private final UserReadService userReadService;
+
+    /**
+     * Retrieve a user by id
+     *
+     * @param id The id of the user to retrieve
+     * @return The user, if found, else 404
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable Long id) {
+        return userReadService
+                .getUserById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieve a user by username
+     *
+     * @param username The username to search for
+     * @return The user, if found, else 404
+     */
+    @GetMapping("/username/{username}")
+    public Mono<ResponseEntity<UserDto>> getUserByUsername(@PathVariable String username) {
+        return userReadService
+                .getUserByUsername(username)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Return a page of users, ordered by the given sort key with ties broken by id. Cursors are interchangeable with
+     * those of users-api.
+     *
+     * @param cursor The cursor returned with the previous page, omitted for the first page
+     * @param limit The maximum number of users to return
+     * @param sort The key to order users by
+     * @param direction The direction to order users in
+     * @return The page of users, with the cursor for the next page if there is one
+     */
+    @GetMapping
+    public Mono<CursorPage<UserDto>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @RequestParam(defaultValue = "ID") UserSortKey sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+        return userReadService.getUsers(PageQuery.<UserSortKey>builder()
+                .sort(sort)
+                .direction(direction)
+                .limit(limit)
+                .cursor(cursor)
+                .build());
+    }
+
+    /**
+     * Stream every user as newline delimited JSON in id order. The stream is backpressured: users are read from the db
+     * only as fast as the client consumes them. An interrupted stream can be resumed by passing the id of the last
+     * user received.
+     *
+     * @param afterId Only stream users with an id greater than this
+     * @return The streamed users
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDto> streamUsers(@RequestParam(required = false) Long afterId) {
+        return userReadService.streamUsers(afterId);
+    }
+}
@@ -0,0 +1,45 @@
+package org.smauel.users.reactive.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
+import org.smauel.persistence.pagination.InvalidCursorException;
+import org.smauel.users.exception.GlobalExceptionHandler.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Maps errors of the read endpoints to the same {@link ErrorResponse} bodies users-api returns
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        return badRequest(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException ex) {
+        return badRequest(ex.getMessage());
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidationException(HandlerMethodValidationException ex) {
+        return badRequest(ex.getReason());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
+        return badRequest(ex.getReason());
+    }
+
+    private static ResponseEntity<ErrorResponse> badRequest(String message) {
+        return new ResponseEntity<>(
+                new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message, LocalDateTime.now()),
+                HttpStatus.BAD_REQUEST);
+    }
+}
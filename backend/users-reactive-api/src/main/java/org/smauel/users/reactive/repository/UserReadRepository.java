@@ -0,0 +1,108 @@
+package org.smauel.users.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.smauel.users.model.User;
+import org.smauel.users.pagination.UserSortKey;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the users table written by users-api
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserReadRepository {
+    private static final String SELECT = "SELECT id, username, full_name, email FROM users";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<User> findById(long id) {
+        return databaseClient
+                .sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(UserReadRepository::toUser)
+                .one();
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return databaseClient
+                .sql(SELECT + " WHERE username = :username")
+                .bind("username", username)
+                .map(UserReadRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Read a page of users ordered by a sort key with ties broken by id, starting after the given key values
+     *
+     * @param sort The key to order by
+     * @param direction The direction to order in
+     * @param after The sort key and id of the last user of the previous page, empty for the first page
+     * @param limit The maximum number of users to read
+     * @return The users of the page
+     */
+    public Flux<User> findPage(UserSortKey sort, Sort.Direction direction, Map<String, Object> after, int limit) {
+        String column = column(sort);
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        String comparison = direction.isAscending() ? ">" : "<";
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (!after.isEmpty()) {
+            sql.append(
+                    sort == UserSortKey.ID
+                            ? " WHERE id " + comparison + " :id"
+                            : " WHERE (" + column + " " + comparison + " :key OR (" + column + " = :key AND id "
+                                    + comparison + " :id))");
+        }
+        sql.append(" ORDER BY ").append(column).append(' ').append(order);
+        if (sort != UserSortKey.ID) {
+            sql.append(", id ").append(order);
+        }
+        sql.append(" LIMIT :limit");
+        DatabaseClient.GenericExecuteSpec spec =
+                databaseClient.sql(sql.toString()).bind("limit", limit);
+        if (!after.isEmpty()) {
+            spec = spec.bind("id", after.get("id"));
+            if (sort != UserSortKey.ID) {
+                spec = spec.bind("key", after.get(sort.getProperty()));
+            }
+        }
+        return spec.map(UserReadRepository::toUser).all();
+    }
+
+    /**
+     * Stream every user in id order, reading from the db only as fast as the subscriber requests
+     *
+     * @param afterId Only stream users with an id greater than this, or null for all users
+     * @param fetchSize The number of rows fetched per round trip
+     * @return The users in id order
+     */
+    public Flux<User> streamAll(Long afterId, int fetchSize) {
+        return databaseClient
+                .sql(SELECT + " WHERE id > :afterId ORDER BY id")
+                .bind("afterId", afterId == null ? Long.MIN_VALUE : afterId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(UserReadRepository::toUser)
+                .all();
+    }
+
+    private static String column(UserSortKey sort) {
+        return switch (sort) {
+            case ID -> "id";
+            case USERNAME -> "username";
+        };
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .username(row.get("username", String.class))
+                .fullName(row.get("full_name", String.class))
+                .email(row.get("email", String.class))
+                .build();
+    }
+}
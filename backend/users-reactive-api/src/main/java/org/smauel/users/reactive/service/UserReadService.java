@@ -0,0 +1,100 @@
+package org.smauel.users.reactive.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.persistence.pagination.InvalidCursorException;
+import org.smauel.persistence.pagination.KeysetCursor;
+import org.smauel.persistence.pagination.PageQuery;
+import org.smauel.users.dto.UserDto;
+import org.smauel.users.mapper.UserMapper;
+import org.smauel.users.model.User;
+import org.smauel.users.pagination.UserSortKey;
+import org.smauel.users.reactive.config.UserStreamProperties;
+import org.smauel.users.reactive.repository.UserReadRepository;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking service methods for reading users, returning the same DTOs and cursors as users-api so clients can
+ * switch between the two
+ */
+@Service
+@RequiredArgsConstructor
+public class UserReadService {
+    private final UserReadRepository userReadRepository;
+    private final UserMapper userMapper;
+    private final UserStreamProperties streamProperties;
+
+    /**
+     * Get a user by id
+     *
+     * @param id The id of the user
+     * @return The user, or empty if there is none
+     */
+    public Mono<UserDto> getUserById(Long id) {
+        return userReadRepository.findById(id).map(userMapper::toDto);
+    }
+
+    /**
+     * Get a user by username
+     *
+     * @param username The username of the user
+     * @return The user, or empty if there is none
+     */
+    public Mono<UserDto> getUserByUsername(String username) {
+        return userReadRepository.findByUsername(username).map(userMapper::toDto);
+    }
+
+    /**
+     * Get a page of users, ordered by the query's sort key with ties broken by id
+     *
+     * @param query The page to read
+     * @return The page of users, with the cursor for the next page if there is one
+     * @throws InvalidCursorException through the Mono if the cursor is malformed or was issued for a different ordering
+     */
+    public Mono<CursorPage<UserDto>> getUsers(PageQuery<UserSortKey> query) {
+        return Mono.fromCallable(() -> KeysetCursor.position(query).getKeys())
+                .flatMap(after -> userReadRepository
+                        .findPage(query.getSort(), query.getDirection(), after, query.getLimit() + 1)
+                        .collectList())
+                .map(users -> {
+                    boolean hasNext = users.size() > query.getLimit();
+                    List<User> page = hasNext ? users.subList(0, query.getLimit()) : users;
+                    Window<User> window =
+                            Window.from(page, i -> ScrollPosition.forward(keys(page.get(i), query.getSort())), hasNext);
+                    return CursorPage.<UserDto>builder()
+                            .items(page.stream().map(userMapper::toDto).toList())
+                            .nextCursor(KeysetCursor.next(window, query))
+                            .build();
+                });
+    }
+
+    /**
+     * Stream every user in id order. The db is read in batches as the client consumes the stream, so a slow client
+     * holds a cursor open rather than buffering the table in memory.
+     *
+     * @param afterId Only stream users with an id greater than this, or null for all users
+     * @return The users in id order
+     */
+    public Flux<UserDto> streamUsers(Long afterId) {
+        return userReadRepository
+                .streamAll(afterId, streamProperties.getFetchSize())
+                .limitRate(streamProperties.getPrefetch())
+                .map(userMapper::toDto);
+    }
+
+    private static Map<String, Object> keys(User user, UserSortKey sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (sort == UserSortKey.USERNAME) {
+            keys.put(sort.getProperty(), user.getUsername());
+        }
+        keys.put("id", user.getId());
+        return keys;
+    }
+}
@@ -0,0 +1,7 @@
+-- Local H2 schema only, the users table is owned and migrated by users-api
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    full_name VARCHAR(255),
+    email VARCHAR(255)
+);
@@ -0,0 +1,302 @@
+package org.smauel.users.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * Compares the servlet users-api with users-reactive-api serving the same read traffic from the same db.
+ *
+ * <p>Both services run as separate processes from their boot jars with the same heap limit, so their threads and heap
+ * can be measured on their own, and share an in-memory H2 db over TCP. users-api creates and seeds the schema. Skipped
+ * unless both boot jars have been packaged, as they are when the backend is built with {@code verify}.
+ */
+@Tag("benchmark")
+@DisplayName("Servlet vs Reactive Load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ServletVsReactiveLoadAT {
+    private static final int USERS = 10_000;
+    private static final int REQUESTS = 5_000;
+    private static final int CONCURRENCY = 200;
+    private static final String HEAP = "-Xmx256m";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private Server db;
+    private Process servlet;
+    private Process reactive;
+    private URI servletUri;
+    private URI reactiveUri;
+
+    @BeforeAll
+    void startServices() throws Exception {
+        Optional<Path> servletJar = bootJar(Path.of("..", "users-api", "target"));
+        Optional<Path> reactiveJar = bootJar(Path.of("target"));
+        Assumptions.assumeTrue(
+                servletJar.isPresent() && reactiveJar.isPresent(), "users-api and users-reactive-api boot jars");
+
+        db = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String dbPath = "//localhost:" + db.getPort() + "/mem:loadtest;DB_CLOSE_DELAY=-1";
+
+        int servletPort = freePort();
+        servlet = start(
+                "users-api",
+                servletJar.get(),
+                "--server.port=" + servletPort,
+                "--spring.datasource.url=jdbc:h2:tcp:" + dbPath);
+        servletUri = URI.create("http://localhost:" + servletPort);
+        awaitHealthy(servletUri);
+        seed();
+
+        int reactivePort = freePort();
+        reactive = start(
+                "users-reactive-api",
+                reactiveJar.get(),
+                "--server.port=" + reactivePort,
+                "--spring.r2dbc.url=r2dbc:h2:tcp:" + dbPath,
+                "--spring.sql.init.mode=never");
+        reactiveUri = URI.create("http://localhost:" + reactivePort);
+        awaitHealthy(reactiveUri);
+    }
+
+    @AfterAll
+    void stopServices() throws InterruptedException {
+        for (Process process : Arrays.asList(servlet, reactive)) {
+            if (process != null) {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        if (db != null) {
+            db.stop();
+        }
+        client.close();
+    }
+
+    @Test
+    @DisplayName("Should serve the same reads from both stacks and report throughput and memory per connection")
+    void shouldCompareServletAndReactive() throws Exception {
+        Result servletResult = run(servletUri);
+        Result reactiveResult = run(reactiveUri);
+
+        log.info(
+                "Served {} reads {} at a time with {}: servlet {} req/s (p99 {} ms, {} threads and {} KiB heap per "
+                        + "connection), reactive {} req/s (p99 {} ms, {} threads and {} KiB heap per connection)",
+                REQUESTS,
+                CONCURRENCY,
+                HEAP,
+                servletResult.throughput(),
+                servletResult.percentile(0.99),
+                servletResult.threadsPerConnection(),
+                servletResult.heapKibPerConnection(),
+                reactiveResult.throughput(),
+                reactiveResult.percentile(0.99),
+                reactiveResult.threadsPerConnection(),
+                reactiveResult.heapKibPerConnection());
+        // Tomcat grows a thread per concurrent connection, the event loop serves them all on a thread per core
+        assertThat(reactiveResult.peakThreads()).isLessThan(servletResult.peakThreads());
+    }
+
+    private Result run(URI base) throws Exception {
+        // Warm up so the comparison is not dominated by class loading and JIT compilation
+        load(base, REQUESTS, new AtomicLong(), new AtomicLong());
+        System.gc();
+        long baselineThreads = metric(base, "jvm.threads.live", "");
+        long baselineHeap = metric(base, "jvm.memory.used", "?tag=area:heap");
+
+        AtomicLong peakThreads = new AtomicLong(baselineThreads);
+        AtomicLong peakHeap = new AtomicLong(baselineHeap);
+        long[] latencies = new long[REQUESTS];
+        long nanos = load(base, REQUESTS, peakThreads, peakHeap, latencies);
+        Arrays.sort(latencies);
+        return new Result(
+                nanos,
+                latencies,
+                peakThreads.get(),
+                peakThreads.get() - baselineThreads,
+                peakHeap.get() - baselineHeap);
+    }
+
+    private long load(URI base, int requests, AtomicLong peakThreads, AtomicLong peakHeap) throws Exception {
+        return load(base, requests, peakThreads, peakHeap, new long[requests]);
+    }
+
+    /**
+     * Send an even mix of lookups by username and pages of users, sampling the service's threads and heap in the
+     * background
+     */
+    private long load(URI base, int requests, AtomicLong peakThreads, AtomicLong peakHeap, long[] latencies)
+            throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread sampler = Thread.ofVirtual().start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        peakThreads.accumulateAndGet(metric(base, "jvm.threads.live", ""), Math::max);
+                        peakHeap.accumulateAndGet(metric(base, "jvm.memory.used", "?tag=area:heap"), Math::max);
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (IOException e) {
+                        // Sampling is best effort, a missed sample only loses precision
+                    }
+                }
+            });
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int index = i;
+                URI uri = index % 2 == 0
+                        ? base.resolve("/api/v1/users/username/load" + (index % USERS))
+                        : base.resolve("/api/v1/users?limit=50&sort=USERNAME");
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(CONCURRENCY);
+            sampler.interrupt();
+        }
+        long nanos = System.nanoTime() - start;
+        assertThat(failures).hasValue(0);
+        return nanos;
+    }
+
+    private void seed() throws Exception {
+        String operations = IntStream.range(0, USERS)
+                .mapToObj(i -> "{\"op\":\"CREATE\",\"username\":\"load" + i + "\",\"fullName\":\"Load " + i
+                        + "\",\"email\":\"load" + i + "@example.com\"}")
+                .collect(Collectors.joining("\n", "", "\n"));
+        HttpResponse<Stream<String>> response = client.send(
+                HttpRequest.newBuilder(servletUri.resolve("/api/v1/users/bulk"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(operations))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().filter(line -> !line.contains("\"CREATED\"")))
+                .isEmpty();
+    }
+
+    private long metric(URI base, String name, String query) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(base.resolve("/actuator/metrics/" + name + query))
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher value = VALUE.matcher(response.body());
+        if (response.statusCode() != 200 || !value.find()) {
+            throw new IOException("No value for metric " + name + ": " + response.body());
+        }
+        return (long) Double.parseDouble(value.group(1));
+    }
+
+    private Process start(String name, Path jar, String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), HEAP, "-jar", jar.toString()));
+        command.addAll(List.of(args));
+        command.add("--management.endpoints.web.exposure.include=health,metrics");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", name + "-load.log").toFile())
+                .start();
+    }
+
+    private void awaitHealthy(URI base) throws InterruptedException {
+        HttpRequest request =
+                HttpRequest.newBuilder(base.resolve("/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(base + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static Optional<Path> bootJar(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-boot.jar"))
+                    .findFirst();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Result(long nanos, long[] latencies, long peakThreads, long extraThreads, long extraHeapBytes) {
+        long throughput() {
+            return REQUESTS * 1_000_000_000L / Math.max(nanos, 1);
+        }
+
+        long percentile(double percentile) {
+            return latencies[(int) Math.ceil(percentile * latencies.length) - 1] / 1_000_000;
+        }
+
+        double threadsPerConnection() {
+            return Math.round(100.0 * extraThreads / CONCURRENCY) / 100.0;
+        }
+
+        long heapKibPerConnection() {
+            return Math.max(extraHeapBytes, 0) / CONCURRENCY / 1024;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.smauel.users.reactive.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.qameta.allure.Description;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.smauel.persistence.pagination.CursorPage;
+import org.smauel.users.dto.UserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Reactive User Controller")
+class ReactiveUserControllerAT {
+    private static final ParameterizedTypeReference<CursorPage<UserDto>> PAGE = new ParameterizedTypeReference<>() {};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    void setUpClient() {
+        webTestClient =
+                WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM users").then().block();
+        Flux.fromStream(LongStream.rangeClosed(1, 5).boxed())
+                .concatMap(id -> databaseClient
+                        .sql(
+                                "INSERT INTO users (id, username, full_name, email) VALUES (:id, :username, :fullName, :email)")
+                        .bind("id", id)
+                        // Usernames sort in the reverse order of ids
+                        .bind("username", "user" + (10 - id))
+                        .bind("fullName", "User " + id)
+                        .bind("email", "user" + id + "@example.com")
+                        .then())
+                .blockLast();
+    }
+
+    @Test
+    @DisplayName("Should return user by id when found")
+    @Description("GET /api/v1/users/{id}")
+    void shouldReturnUserById() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users/1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.username")
+                .isEqualTo("user9")
+                .jsonPath("$.fullName")
+                .isEqualTo("User 1")
+                .jsonPath("$.email")
+                .isEqualTo("user1@example.com");
+    }
+
+    @Test
+    @DisplayName("Should return 404 when getting user by non-existent id")
+    @Description("GET /api/v1/users/{id}")
+    void shouldReturnNotFoundForNonExistentId() {
+        webTestClient.get().uri("/api/v1/users/9999").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should return user by username when found and 404 when not")
+    @Description("GET /api/v1/users/username/{name}")
+    void shouldReturnUserByUsername() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users/username/user8")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.id")
+                .isEqualTo(2);
+        webTestClient
+                .get()
+                .uri("/api/v1/users/username/nobody")
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should page through every user by id with cursors")
+    @Description("GET /api/v1/users")
+    void shouldPageById() {
+        CursorPage<UserDto> first = page("/api/v1/users?limit=3");
+        assertThat(first.getItems()).extracting(UserDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorPage<UserDto> second = page("/api/v1/users?limit=3&cursor=" + first.getNextCursor());
+        assertThat(second.getItems()).extracting(UserDto::getId).containsExactly(4L, 5L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should page through every user by username in descending order")
+    @Description("GET /api/v1/users")
+    void shouldPageByUsernameDescending() {
+        CursorPage<UserDto> first = page("/api/v1/users?limit=2&sort=USERNAME&direction=DESC");
+        CursorPage<UserDto> second =
+                page("/api/v1/users?limit=2&sort=USERNAME&direction=DESC&cursor=" + first.getNextCursor());
+        CursorPage<UserDto> third =
+                page("/api/v1/users?limit=2&sort=USERNAME&direction=DESC&cursor=" + second.getNextCursor());
+
+        assertThat(List.of(first, second, third))
+                .flatExtracting(CursorPage::getItems)
+                .extracting(UserDto::getUsername)
+                .containsExactly("user9", "user8", "user7", "user6", "user5");
+        assertThat(third.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a cursor issued for another ordering")
+    @Description("GET /api/v1/users")
+    void shouldRejectCursorForAnotherOrdering() {
+        CursorPage<UserDto> byId = page("/api/v1/users?limit=1");
+
+        webTestClient
+                .get()
+                .uri("/api/v1/users?sort=USERNAME&cursor=" + byId.getNextCursor())
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.status")
+                .isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a limit out of range")
+    @Description("GET /api/v1/users")
+    void shouldRejectLimitOutOfRange() {
+        webTestClient
+                .get()
+                .uri("/api/v1/users?limit=501")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    @DisplayName("Should stream every user as newline delimited JSON in id order")
+    @Description("GET /api/v1/users/stream")
+    void shouldStreamUsers() {
+        List<UserDto> users = webTestClient
+                .get()
+                .uri("/api/v1/users/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(users).extracting(UserDto::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should resume a stream after the last user received")
+    @Description("GET /api/v1/users/stream")
+    void shouldResumeStream() {
+        List<UserDto> users = webTestClient
+                .get()
+                .uri("/api/v1/users/stream?afterId=3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(UserDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(users).extracting(UserDto::getId).containsExactly(4L, 5L);
+    }
+
+    private CursorPage<UserDto> page(String uri) {
+        return webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(PAGE)
+                .returnResult()
+                .getResponseBody();
+    }
+}